@@ -1,9 +1,12 @@
 package com.ibm.aimonitoring.ingestion;
 
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(IngestionProperties.class)
 public class LogIngestionServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,104 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.core.Ordered;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses message bodies of at least {@code minSize} bytes before publish.
+ * <p>
+ * The codec is advertised in {@code content_encoding}, followed by the
+ * original encoding after a colon ({@code gzip:UTF-8}), the convention Spring
+ * AMQP's {@code DelegatingDecompressingPostProcessor} understands; it handles
+ * gzip and deflate by itself, zstd once {@link ZstdDecompressingPostProcessor}
+ * is registered with it. Smaller bodies are published unchanged.
+ */
+public class CompressingPostProcessor implements MessagePostProcessor, Ordered {
+
+    private final CompressionCodec codec;
+    private final int level;
+    private final long minSize;
+    private final DistributionSummary ratio;
+    private final Timer compressTime;
+    private final Counter skipped;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    public CompressingPostProcessor(CompressionCodec codec, int level, long minSize, MeterRegistry meterRegistry) {
+        this.codec = codec;
+        this.level = level;
+        this.minSize = minSize;
+        this.ratio = DistributionSummary.builder("ingestion.publish.compression.ratio")
+                .description("Original size divided by compressed size")
+                .tag("codec", codec.getEncoding())
+                .register(meterRegistry);
+        this.compressTime = Timer.builder("ingestion.publish.compression.time")
+                .description("Time spent compressing one message")
+                .tag("codec", codec.getEncoding())
+                .register(meterRegistry);
+        this.skipped = Counter.builder("ingestion.publish.compression.skipped")
+                .description("Messages below the size threshold, published uncompressed")
+                .register(meterRegistry);
+        this.bytesIn = Counter.builder("ingestion.publish.compression.bytes.in")
+                .baseUnit("bytes")
+                .tag("codec", codec.getEncoding())
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("ingestion.publish.compression.bytes.out")
+                .baseUnit("bytes")
+                .tag("codec", codec.getEncoding())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        byte[] body = message.getBody();
+        if (body.length < minSize) {
+            skipped.increment();
+            return message;
+        }
+
+        long start = System.nanoTime();
+        byte[] compressed = compress(body);
+        compressTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        ratio.record((double) body.length / Math.max(1, compressed.length));
+        bytesIn.increment(body.length);
+        bytesOut.increment(compressed.length);
+
+        MessageProperties properties = message.getMessageProperties();
+        String originalEncoding = properties.getContentEncoding();
+        properties.setContentEncoding(originalEncoding == null
+                ? codec.getEncoding()
+                : codec.getEncoding() + ":" + originalEncoding);
+        properties.setContentLength(compressed.length);
+        return new Message(compressed, properties);
+    }
+
+    private byte[] compress(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 2));
+        try (OutputStream out = codec.compress(buffer, level)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new AmqpIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Run after any other post processor so the final body is compressed
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression codecs, named by their {@code Content-Encoding} token
+ */
+public enum CompressionCodec {
+
+    GZIP("gzip", Deflater.DEFAULT_COMPRESSION) {
+        @Override
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+
+    /**
+     * zlib-wrapped deflate, as HTTP and Spring AMQP's {@code DeflaterPostProcessor} use it
+     */
+    DEFLATE("deflate", Deflater.DEFAULT_COMPRESSION) {
+        @Override
+        public OutputStream compress(OutputStream out, int level) {
+            return new DeflaterOutputStream(out, new Deflater(level)) {
+                // A caller-supplied Deflater is not ended by close(); free its native memory here
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    },
+
+    ZSTD("zstd", 3) {
+        @Override
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return new ZstdOutputStream(out, level);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+    };
+
+    private final String encoding;
+    private final int defaultLevel;
+
+    CompressionCodec(String encoding, int defaultLevel) {
+        this.encoding = encoding;
+        this.defaultLevel = defaultLevel;
+    }
+
+    /**
+     * Wrap a stream so that bytes written to it are compressed into {@code out}
+     */
+    public abstract OutputStream compress(OutputStream out, int level) throws IOException;
+
+    /**
+     * Wrap a compressed stream so that reading it yields the original bytes
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    /**
+     * Codec for a {@code Content-Encoding} token, or null if unsupported
+     */
+    public static CompressionCodec forEncoding(String encoding) {
+        for (CompressionCodec codec : values()) {
+            if (codec.encoding.equalsIgnoreCase(encoding)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Message converter for Jackson's binary data formats.
+ * <p>
+ * Unlike {@code Jackson2JsonMessageConverter} it never round-trips the body
+ * through a {@code String}, and it writes timestamps as epoch milliseconds
+ * instead of ISO strings. Type information travels in the same
+ * {@code __TypeId__} header the JSON converter uses, so consumers resolve
+ * the payload class the same way for every format.
+ */
+public class JacksonBinaryMessageConverter extends AbstractMessageConverter {
+
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+    /**
+     * Package a {@code __TypeId__} header may name, on top of {@code java.util} and {@code java.lang}
+     */
+    static final String TRUSTED_PACKAGE = "com.ibm.aimonitoring.ingestion.dto";
+
+    private final ObjectMapper objectMapper;
+    private final String contentType;
+    private final DefaultJackson2JavaTypeMapper typeMapper;
+
+    public JacksonBinaryMessageConverter(ObjectMapper objectMapper, String contentType) {
+        this.objectMapper = objectMapper;
+        this.contentType = contentType;
+        this.typeMapper = new DefaultJackson2JavaTypeMapper();
+        this.typeMapper.setTrustedPackages(TRUSTED_PACKAGE);
+    }
+
+    /**
+     * Converter writing Smile, Jackson's binary JSON with back-referenced field names
+     */
+    public static JacksonBinaryMessageConverter smile() {
+        return new JacksonBinaryMessageConverter(configure(SmileMapper.builder().build()), SMILE_CONTENT_TYPE);
+    }
+
+    /**
+     * Converter writing CBOR (RFC 8949)
+     */
+    public static JacksonBinaryMessageConverter cbor() {
+        return new JacksonBinaryMessageConverter(configure(CBORMapper.builder().build()), CBOR_CONTENT_TYPE);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(object);
+            messageProperties.setContentType(contentType);
+            messageProperties.setContentLength(body.length);
+            typeMapper.fromJavaType(objectMapper.constructType(object.getClass()), messageProperties);
+            return new Message(body, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode " + object.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        JavaType targetType = properties.getHeaders().containsKey(typeMapper.getClassIdFieldName())
+                ? typeMapper.toJavaType(properties)
+                : objectMapper.constructType(Object.class);
+        try {
+            return objectMapper.readValue(message.getBody(), targetType);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode " + contentType + " message", e);
+        }
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.findAndRegisterModules();
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        mapper.disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        mapper.addMixIn(LogEntryDTO.class, EpochTimestampMixin.class);
+        return mapper;
+    }
+
+    /**
+     * Overrides the ISO string shape {@link LogEntryDTO} declares for JSON
+     */
+    private abstract static class EpochTimestampMixin {
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant timestamp;
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant firstTimestamp;
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant lastTimestamp;
+    }
+}
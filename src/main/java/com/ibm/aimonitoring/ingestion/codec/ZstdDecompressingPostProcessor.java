@@ -0,0 +1,32 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import org.springframework.amqp.support.postprocessor.AbstractDecompressingPostProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decompresses zstd message bodies for consumers. Spring AMQP's
+ * {@code DelegatingDecompressingPostProcessor} only knows gzip, deflate and
+ * zip; register this one with it for {@code zstd} to read messages published
+ * with the ZSTD compression codec.
+ */
+public class ZstdDecompressingPostProcessor extends AbstractDecompressingPostProcessor {
+
+    /**
+     * Always decompresses, like the delegates {@code DelegatingDecompressingPostProcessor} creates itself
+     */
+    public ZstdDecompressingPostProcessor() {
+        super(true);
+    }
+
+    @Override
+    protected InputStream getDecompressorStream(InputStream stream) throws IOException {
+        return CompressionCodec.ZSTD.decompress(stream);
+    }
+
+    @Override
+    protected String getEncoding() {
+        return CompressionCodec.ZSTD.getEncoding();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.time.CoarseClock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Clock used to stamp ingested log entries
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public CoarseClock coarseClock(IngestionProperties ingestionProperties) {
+        return new CoarseClock(ingestionProperties.getEnrichment().getClockResolution());
+    }
+}
@@ -0,0 +1,23 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.forward.ForwardServer;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Embedded Fluent Forward listener, enabled with {@code ingestion.forward.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.forward", name = "enabled", havingValue = "true")
+public class ForwardConfig {
+
+    @Bean
+    public ForwardServer forwardServer(IngestionProperties ingestionProperties,
+                                       BatchIngestionService batchIngestionService,
+                                       MeterRegistry meterRegistry) {
+        return new ForwardServer(ingestionProperties.getForward(), batchIngestionService, meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.grpc.GrpcServer;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Embedded gRPC server, enabled with {@code ingestion.grpc.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.grpc", name = "enabled", havingValue = "true")
+public class GrpcConfig {
+
+    @Bean
+    public GrpcServer grpcServer(IngestionProperties ingestionProperties,
+                                 BatchIngestionService batchIngestionService,
+                                 MeterRegistry meterRegistry) {
+        return new GrpcServer(ingestionProperties.getGrpc(), batchIngestionService, meterRegistry);
+    }
+}
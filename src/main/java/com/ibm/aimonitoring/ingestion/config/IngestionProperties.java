@@ -0,0 +1,892 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.codec.CompressionCodec;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tunables for the ingestion pipeline, bound from the {@code ingestion.*} namespace
+ */
+@Data
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+
+    private Batch batch = new Batch();
+
+    private Stream stream = new Stream();
+
+    private Publisher publisher = new Publisher();
+
+    private Spill spill = new Spill();
+
+    private Decompression decompression = new Decompression();
+
+    private LogId logId = new LogId();
+
+    private Enrichment enrichment = new Enrichment();
+
+    private Validation validation = new Validation();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Templates templates = new Templates();
+
+    private Routing routing = new Routing();
+
+    private Partitions partitions = new Partitions();
+
+    private Otlp otlp = new Otlp();
+
+    private Loki loki = new Loki();
+
+    private Elasticsearch elasticsearch = new Elasticsearch();
+
+    private Syslog syslog = new Syslog();
+
+    private Forward forward = new Forward();
+
+    private Grpc grpc = new Grpc();
+
+    /**
+     * Embedded syslog listener (RFC 5424 and RFC 3164 over UDP and TCP)
+     */
+    @Data
+    public static class Syslog {
+
+        private boolean enabled = false;
+
+        private String bindAddress = "0.0.0.0";
+
+        /**
+         * Port for both transports; 0 picks a free port per transport
+         */
+        private int port = 1514;
+
+        private boolean udpEnabled = true;
+
+        private boolean tcpEnabled = true;
+
+        /**
+         * Socket receive buffer (SO_RCVBUF) requested for the UDP socket
+         */
+        private DataSize socketReceiveBuffer = DataSize.ofMegabytes(4);
+
+        /**
+         * Longest frame accepted; longer datagrams and TCP frames are dropped
+         */
+        private DataSize maxFrameLength = DataSize.ofKilobytes(64);
+
+        /**
+         * Parsed entries waiting to be published, rounded up to a power of two;
+         * entries arriving while it is full are dropped
+         */
+        private int bufferCapacity = 65_536;
+
+        /**
+         * Entries published per batch
+         */
+        private int batchSize = 500;
+
+        /**
+         * Service for messages without APP-NAME or TAG
+         */
+        private String defaultService = "syslog";
+
+        /**
+         * Environment stamped on every entry; "unknown" when unset
+         */
+        private String environment;
+    }
+
+    /**
+     * Fluent Forward protocol listener for Fluent Bit and Fluentd
+     */
+    @Data
+    public static class Forward {
+
+        private boolean enabled = false;
+
+        private String bindAddress = "0.0.0.0";
+
+        /**
+         * TCP port; 0 picks a free port
+         */
+        private int port = 24224;
+
+        /**
+         * Connections served at once; further connections are closed
+         */
+        private int maxConnections = 256;
+
+        /**
+         * Largest event, and largest decompressed PackedForward payload, accepted;
+         * a connection sending a larger one is closed
+         */
+        private DataSize maxChunkSize = DataSize.ofMegabytes(16);
+    }
+
+    /**
+     * gRPC {@code LogIngestion} service
+     */
+    @Data
+    public static class Grpc {
+
+        private boolean enabled = false;
+
+        private String bindAddress = "0.0.0.0";
+
+        /**
+         * TCP port; 0 picks a free port
+         */
+        private int port = 9090;
+
+        /**
+         * Largest request message accepted
+         */
+        private DataSize maxInboundMessageSize = DataSize.ofMegabytes(4);
+
+        /**
+         * Entries of an {@code Ingest} stream published together; the server
+         * asks the client for this many entries at a time
+         */
+        private int streamBatchSize = 500;
+
+        /**
+         * Longest a partial batch of an open stream waits before it is published
+         */
+        private Duration streamFlushInterval = Duration.ofMillis(100);
+
+        /**
+         * How often a stream paused for lack of publisher capacity checks again
+         */
+        private Duration capacityPollInterval = Duration.ofMillis(10);
+    }
+
+    /**
+     * OTLP/HTTP logs receiver at {@code /v1/logs}
+     */
+    @Data
+    public static class Otlp {
+
+        private boolean enabled = false;
+
+        /**
+         * Most log records accepted in one export request
+         */
+        private int maxLogRecords = 10_000;
+    }
+
+    /**
+     * Loki push API at {@code /loki/api/v1/push}, for Promtail, Grafana Agent and Alloy.
+     * For each field the first label present from its list is used; other labels become metadata
+     */
+    @Data
+    public static class Loki {
+
+        private boolean enabled = false;
+
+        /**
+         * Most entries accepted in one push request, over all its streams
+         */
+        private int maxEntries = 10_000;
+
+        private List<String> serviceLabels = new ArrayList<>(List.of("service_name", "service", "app", "job"));
+
+        private List<String> hostLabels = new ArrayList<>(List.of("host", "hostname", "instance"));
+
+        private List<String> environmentLabels = new ArrayList<>(List.of("environment", "env"));
+
+        /**
+         * Labels read as the level, with aliases such as {@code warning}; INFO when none is present
+         */
+        private List<String> levelLabels = new ArrayList<>(List.of("level", "detected_level", "severity"));
+
+        /**
+         * Service for streams without any of the service labels
+         */
+        private String defaultService = "loki";
+
+        /**
+         * Most distinct label sets whose field mapping is cached; further ones are mapped per stream
+         */
+        private int maxCachedLabelSets = 10_000;
+    }
+
+    /**
+     * Elasticsearch {@code _bulk} API at {@code /es/_bulk}, for Beats and Logstash.
+     * Document fields are given as dotted paths, matching nested objects and dotted keys alike;
+     * for each entry field the first path present is used, and the rest of the document becomes metadata
+     */
+    @Data
+    public static class Elasticsearch {
+
+        private boolean enabled = false;
+
+        /**
+         * Number of valid documents published together as one group
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Longest action or document line, in characters; a longer document is rejected on its own
+         */
+        private int maxLineLength = 1_048_576;
+
+        /**
+         * Elasticsearch version reported by {@code GET /es}, which clients check before they write
+         */
+        private String compatibilityVersion = "8.11.0";
+
+        private List<String> timestampFields = new ArrayList<>(List.of("@timestamp", "timestamp"));
+
+        /**
+         * Paths read as the level, with aliases such as {@code warning}; INFO when none is present
+         */
+        private List<String> levelFields = new ArrayList<>(List.of("log.level", "level", "severity"));
+
+        private List<String> messageFields = new ArrayList<>(List.of("message", "msg"));
+
+        private List<String> serviceFields = new ArrayList<>(List.of("service.name", "service", "app"));
+
+        private List<String> hostFields = new ArrayList<>(List.of("host.name", "host.hostname", "hostname", "host"));
+
+        private List<String> environmentFields = new ArrayList<>(
+                List.of("service.environment", "environment", "env"));
+
+        private List<String> traceIdFields = new ArrayList<>(List.of("trace.id", "traceId", "trace_id"));
+
+        private List<String> spanIdFields = new ArrayList<>(List.of("span.id", "spanId", "span_id"));
+
+        /**
+         * Service for documents without any of the service fields
+         */
+        private String defaultService = "elasticsearch";
+    }
+
+    /**
+     * Raw entries spread over {@code count} queues {@code logs.raw.0 .. logs.raw.<count-1>}
+     * by a consistent hash of one entry field, so entries with equal keys share a queue
+     */
+    @Data
+    public static class Partitions {
+
+        private boolean enabled = false;
+
+        private int count = 4;
+
+        /**
+         * Entry field hashed to pick the partition; TRACE_ID falls back to the service when absent
+         */
+        private PartitionKey keyBy = PartitionKey.SERVICE;
+    }
+
+    /**
+     * Routing keys derived from level and service ({@code logs.raw.<level>.<service>})
+     * and the queues bound to them
+     */
+    @Data
+    public static class Routing {
+
+        private boolean enabled = false;
+
+        /**
+         * Levels with a dedicated queue {@code logs.raw.<level>}; all other levels stay on {@code logs.raw}
+         */
+        private Set<LogLevel> levelQueues = EnumSet.of(LogLevel.ERROR);
+
+        /**
+         * Services that also get a queue {@code logs.raw.service.<service>} receiving a copy of all their entries
+         */
+        private List<String> serviceQueues = new ArrayList<>();
+
+        /**
+         * Most routing keys cached per level; further services build their key per entry
+         */
+        private int maxCachedKeys = 10_000;
+    }
+
+    /**
+     * Online template mining (Drain): each message is matched to a template
+     * whose ID and variable parameters are attached to the published entry
+     */
+    @Data
+    public static class Templates {
+
+        private boolean enabled = false;
+
+        /**
+         * Parse tree depth; the first {@code depth - 2} tokens route a message to its leaf
+         */
+        private int depth = 4;
+
+        /**
+         * Fraction of a template's tokens a message must share to join it
+         */
+        private double similarityThreshold = 0.4;
+
+        /**
+         * Children per tree node before further tokens share a wildcard child
+         */
+        private int maxChildren = 100;
+
+        /**
+         * Most templates kept; the least recently matched are evicted beyond this
+         */
+        private int maxTemplates = 10_000;
+    }
+
+    /**
+     * Per-key token buckets in front of the ingest endpoints
+     */
+    @Data
+    public static class RateLimit {
+
+        private boolean enabled = false;
+
+        private RateLimitKey keyBy = RateLimitKey.SERVICE;
+
+        /**
+         * Limit for keys without an entry in {@code limits}
+         */
+        private Limit defaultLimit = new Limit(1000, 2000);
+
+        /**
+         * Per-key limits, keyed by service or {@code service/environment}
+         * (write keys as {@code "[service/environment]"} in YAML)
+         */
+        private Map<String, Limit> limits = new HashMap<>();
+
+        /**
+         * Most keys tracked at once; further keys share one bucket with the default limit
+         */
+        private int maxKeys = 10_000;
+
+        /**
+         * Buckets unused and full for this long are evicted
+         */
+        private Duration idleTimeout = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Sustained rate and burst size of one token bucket
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Entries per second; zero or less means unlimited
+         */
+        private double rate;
+
+        /**
+         * Entries accepted at once from a full bucket
+         */
+        private int burst;
+    }
+
+    /**
+     * How log entries are validated on every ingest endpoint
+     */
+    @Data
+    public static class Validation {
+
+        private ValidationMode mode = ValidationMode.COMPILED;
+    }
+
+    /**
+     * How ingested log entries are stamped
+     */
+    @Data
+    public static class Enrichment {
+
+        /**
+         * Refresh interval of the cached clock used for ingestion times
+         */
+        private Duration clockResolution = Duration.ofMillis(1);
+
+        /**
+         * Also copy logId and ingestedAt (ISO-8601) into metadata, for consumers
+         * that have not moved to the top-level fields. Disable once every consumer
+         * reads the top-level fields.
+         */
+        private boolean legacyMetadata = true;
+    }
+
+    /**
+     * How IDs are assigned to ingested log entries
+     */
+    @Data
+    public static class LogId {
+
+        private LogIdStrategy strategy = LogIdStrategy.UUID_V7;
+    }
+
+    /**
+     * Limits for compressed request bodies ({@code Content-Encoding} gzip, deflate or zstd)
+     */
+    @Data
+    public static class Decompression {
+
+        private boolean enabled = true;
+
+        /**
+         * Largest decompressed body accepted
+         */
+        private DataSize maxExpandedSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Largest ratio of decompressed to compressed bytes accepted
+         */
+        private int maxRatio = 100;
+    }
+
+    /**
+     * Settings for the batch ingestion endpoint
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * Maximum number of entries accepted in a single batch request
+         */
+        private int maxSize = 1000;
+    }
+
+    /**
+     * Settings for the streaming NDJSON endpoint
+     */
+    @Data
+    public static class Stream {
+
+        /**
+         * Number of valid lines published together as one group
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Longest line, in characters, accepted before the line is rejected
+         */
+        private int maxLineLength = 1_048_576;
+
+        /**
+         * Number of rejected lines reported in detail in the summary
+         */
+        private int maxReportedErrors = 100;
+    }
+
+    /**
+     * Settings for publishing to RabbitMQ
+     */
+    @Data
+    public static class Publisher {
+
+        /**
+         * Encoding of messages published to RabbitMQ
+         */
+        private WireFormat wireFormat = WireFormat.JSON;
+
+        private Confirms confirms = new Confirms();
+
+        private Buffer buffer = new Buffer();
+
+        private Envelope envelope = new Envelope();
+
+        private Compression compression = new Compression();
+
+        private Sampling sampling = new Sampling();
+
+        private Dedup dedup = new Dedup();
+    }
+
+    /**
+     * Collapsing of repeated entries (same service, host, level and message
+     * up to digits) into one summary entry per window
+     */
+    @Data
+    public static class Dedup {
+
+        private boolean enabled = false;
+
+        /**
+         * How long repeats of a published entry are held back and counted
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * Fingerprint slots, rounded up to a power of two; a colliding
+         * fingerprint evicts the resident one
+         */
+        private int tableSize = 16_384;
+    }
+
+    /**
+     * Load-based sampling of INFO, DEBUG and TRACE entries in front of the
+     * publish pipeline; ERROR and WARN are always kept
+     */
+    @Data
+    public static class Sampling {
+
+        private boolean enabled = false;
+
+        /**
+         * How often load is re-evaluated
+         */
+        private Duration updateInterval = Duration.ofMillis(250);
+
+        /**
+         * Publish buffer fill ratio at which sampling starts (buffer enabled only)
+         */
+        private double backlogLowWatermark = 0.5;
+
+        /**
+         * Publish buffer fill ratio at which sampling reaches the minimum rates
+         */
+        private double backlogHighWatermark = 0.9;
+
+        /**
+         * Entries per second above which sampling starts, reaching the minimum
+         * rates at twice this rate; zero ignores the ingest rate
+         */
+        private long targetRate = 0;
+
+        /**
+         * Lowest sample rate per level, reached under full load
+         */
+        private Map<LogLevel, Double> minRates = new EnumMap<>(Map.of(
+                LogLevel.INFO, 0.1,
+                LogLevel.DEBUG, 0.01,
+                LogLevel.TRACE, 0.0));
+
+        /**
+         * Per-service overrides of {@code minRates}
+         */
+        private Map<String, Map<LogLevel, Double>> serviceMinRates = new HashMap<>();
+    }
+
+    /**
+     * Compression of published message bodies
+     */
+    @Data
+    public static class Compression {
+
+        private boolean enabled = false;
+
+        private CompressionCodec codec = CompressionCodec.GZIP;
+
+        /**
+         * Codec-specific compression level; the codec's default when unset
+         */
+        private Integer level;
+
+        /**
+         * Bodies smaller than this are published uncompressed
+         */
+        private DataSize minSize = DataSize.ofKilobytes(1);
+    }
+
+    /**
+     * Envelope mode: many entries packed into one AMQP message per routing key.
+     * Entries are answered before their envelope is published: an envelope that
+     * fails to publish goes to the spill log when it is enabled and is dropped
+     * otherwise. Cannot be combined with the AWAIT confirm policy.
+     */
+    @Data
+    public static class Envelope {
+
+        private boolean enabled = false;
+
+        /**
+         * Entries per message; a full envelope is published immediately
+         */
+        private int maxEntries = 500;
+
+        /**
+         * Longest an entry waits for its envelope to fill before it is published
+         */
+        private Duration linger = Duration.ofMillis(5);
+    }
+
+    /**
+     * Publisher confirm settings. Requires
+     * {@code spring.rabbitmq.publisher-confirm-type=correlated}.
+     */
+    @Data
+    public static class Confirms {
+
+        /**
+         * Whether to publish with correlated publisher confirms
+         */
+        private boolean enabled = false;
+
+        /**
+         * When the caller is released relative to the broker confirm
+         */
+        private ConfirmPolicy policy = ConfirmPolicy.AWAIT;
+
+        /**
+         * Maximum number of unconfirmed publishes per instance
+         */
+        private int maxInFlight = 1024;
+
+        /**
+         * How long to wait for an in-flight slot and for a confirm
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Policy for completing a publish when confirms are enabled
+     */
+    public enum ConfirmPolicy {
+        /**
+         * Return only once the broker has acknowledged the message
+         */
+        AWAIT,
+        /**
+         * Return once the message is written; confirms are only tracked for metrics
+         * and to bound the number of in-flight messages
+         */
+        FIRE_AND_FORGET
+    }
+
+    /**
+     * Settings for the in-process ring buffer between request threads and the
+     * dedicated publisher threads. Entries are answered once they are queued: a
+     * drained batch that fails to publish goes to the spill log when it is
+     * enabled, and is dropped and counted otherwise.
+     */
+    @Data
+    public static class Buffer {
+
+        /**
+         * Whether request threads hand entries to publisher threads instead of
+         * publishing themselves
+         */
+        private boolean enabled = false;
+
+        /**
+         * Ring buffer capacity, rounded up to a power of two
+         */
+        private int capacity = 65_536;
+
+        /**
+         * Number of publisher threads draining the buffer. A single thread
+         * preserves arrival order.
+         */
+        private int publisherThreads = 2;
+
+        /**
+         * Maximum number of entries a publisher thread drains per publish
+         */
+        private int drainBatchSize = 256;
+
+        /**
+         * How idle publisher threads wait for new entries
+         */
+        private WaitStrategy waitStrategy = WaitStrategy.SLEEPING;
+
+        /**
+         * Park time per idle round for the SLEEPING wait strategy
+         */
+        private Duration idleSleep = Duration.ofMillis(1);
+
+        /**
+         * What request threads do when the buffer is full
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+        /**
+         * How long the BLOCK policy waits for room before rejecting
+         */
+        private Duration offerTimeout = Duration.ofSeconds(1);
+    }
+
+    /**
+     * How threads wait on the ring buffer
+     */
+    public enum WaitStrategy {
+        /**
+         * Spin on the CPU; lowest latency, burns a core per waiting thread
+         */
+        BUSY_SPIN,
+        /**
+         * Spin briefly, then yield the CPU
+         */
+        YIELDING,
+        /**
+         * Spin, yield, then park for the configured idle sleep
+         */
+        SLEEPING
+    }
+
+    /**
+     * Behaviour when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for room up to the offer timeout, then reject
+         */
+        BLOCK,
+        /**
+         * Reject immediately with 429 Too Many Requests
+         */
+        REJECT,
+        /**
+         * Append to the local spill log; requires {@code ingestion.spill.enabled}
+         */
+        SPILL
+    }
+
+    /**
+     * Settings for the local write-ahead spill log used while the broker is
+     * unreachable
+     */
+    @Data
+    public static class Spill {
+
+        /**
+         * Whether failed publishes are spilled to disk instead of failing the request
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the spill segments; should be on a persistent volume
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/log-ingestion-spill";
+
+        /**
+         * Size of each memory-mapped segment file
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Upper bound on disk used by all segments; appends beyond it are refused.
+         * Must hold at least two segments.
+         */
+        private DataSize maxDiskUsage = DataSize.ofGigabytes(1);
+
+        /**
+         * When appended records are forced to disk
+         */
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+        /**
+         * Force interval for the INTERVAL fsync policy
+         */
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of spilled entries replayed per second once the broker is back
+         */
+        private int replayRate = 1000;
+
+        /**
+         * Number of spilled entries replayed per publish
+         */
+        private int replayBatchSize = 100;
+
+        /**
+         * Wait between replay attempts while the broker is still unreachable
+         */
+        private Duration replayBackoff = Duration.ofSeconds(5);
+    }
+
+    /**
+     * When spill log writes are forced to the storage device
+     */
+    public enum FsyncPolicy {
+        /**
+         * After every append; safest and slowest
+         */
+        ALWAYS,
+        /**
+         * Periodically, at the configured fsync interval
+         */
+        INTERVAL,
+        /**
+         * Never explicitly; left to the operating system
+         */
+        NEVER
+    }
+
+    /**
+     * Encoding of published messages, stamped in the AMQP content_type
+     */
+    public enum WireFormat {
+        /**
+         * application/json
+         */
+        JSON,
+        /**
+         * application/x-jackson-smile
+         */
+        SMILE,
+        /**
+         * application/cbor
+         */
+        CBOR
+    }
+
+    /**
+     * Log ID generation strategy
+     */
+    public enum LogIdStrategy {
+        /**
+         * Time-ordered version 7 UUIDs, generated without locks or SecureRandom
+         */
+        UUID_V7,
+        /**
+         * Random version 4 UUIDs from UUID.randomUUID()
+         */
+        RANDOM
+    }
+
+    /**
+     * Log entry validation implementation
+     */
+    public enum ValidationMode {
+        /**
+         * Direct field checks built once from the LogEntryDTO constraint annotations
+         */
+        COMPILED,
+        /**
+         * Jakarta Bean Validation (Hibernate Validator)
+         */
+        BEAN_VALIDATION
+    }
+
+    /**
+     * Entry field that picks a raw queue partition
+     */
+    public enum PartitionKey {
+        SERVICE,
+        HOST,
+        TRACE_ID
+    }
+
+    /**
+     * What log entries are rate limited by
+     */
+    public enum RateLimitKey {
+        SERVICE,
+        /**
+         * {@code service/environment}, falling back to the service's limit
+         */
+        SERVICE_ENVIRONMENT
+    }
+}
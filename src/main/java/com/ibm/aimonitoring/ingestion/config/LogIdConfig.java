@@ -0,0 +1,22 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.id.LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.id.RandomUuidLogIdGenerator;
+import com.ibm.aimonitoring.ingestion.id.UuidV7LogIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Log ID generation
+ */
+@Configuration
+public class LogIdConfig {
+
+    @Bean
+    public LogIdGenerator logIdGenerator(IngestionProperties ingestionProperties) {
+        return switch (ingestionProperties.getLogId().getStrategy()) {
+            case UUID_V7 -> new UuidV7LogIdGenerator();
+            case RANDOM -> new RandomUuidLogIdGenerator();
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.publish.BufferedLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.DedupLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.EnvelopeLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.RabbitLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.SamplingLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.SpillingLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.TemplateMiningLogPublisher;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the publish pipeline used by the ingestion service
+ */
+@Configuration
+public class PublisherConfig {
+
+    /**
+     * The publisher handed to the ingestion service: the RabbitMQ publisher,
+     * falling back to the spill log, packed into envelopes, tagged with mined
+     * templates, fronted by the ring buffer, sampled under load and deduplicated when those are enabled
+     */
+    @Bean
+    @Primary
+    public LogPublisher logPublisher(RabbitLogPublisher rabbitLogPublisher,
+                                     IngestionProperties ingestionProperties,
+                                     ObjectProvider<SpillLog> spillLogProvider,
+                                     ObjectProvider<EnvelopeLogPublisher> envelopeLogPublisherProvider,
+                                     ObjectProvider<DrainTemplateMiner> templateMinerProvider,
+                                     MeterRegistry meterRegistry) {
+        SpillLog spillLog = spillLogProvider.getIfAvailable();
+        LogPublisher publisher = envelopeLogPublisherProvider.getIfAvailable();
+        if (publisher == null) {
+            publisher = brokerPublisher(rabbitLogPublisher, spillLog);
+        }
+
+        DrainTemplateMiner templateMiner = templateMinerProvider.getIfAvailable();
+        if (templateMiner != null) {
+            publisher = new TemplateMiningLogPublisher(publisher, templateMiner);
+        }
+
+        IngestionProperties.Buffer buffer = ingestionProperties.getPublisher().getBuffer();
+        BufferedLogPublisher bufferedPublisher = null;
+        if (buffer.isEnabled()) {
+            IngestionProperties.Confirms confirms = ingestionProperties.getPublisher().getConfirms();
+            if (confirms.isEnabled() && confirms.getPolicy() == IngestionProperties.ConfirmPolicy.AWAIT) {
+                // Requests return once their entries are queued, before any confirm arrives
+                throw new IllegalStateException("The publish buffer answers before the broker confirms; set "
+                        + "ingestion.publisher.confirms.policy=FIRE_AND_FORGET or disable the buffer");
+            }
+            bufferedPublisher = new BufferedLogPublisher(publisher, buffer, spillLog, meterRegistry);
+            publisher = bufferedPublisher;
+        }
+
+        IngestionProperties.Sampling sampling = ingestionProperties.getPublisher().getSampling();
+        if (sampling.isEnabled()) {
+            publisher = new SamplingLogPublisher(publisher, bufferedPublisher, sampling, meterRegistry);
+        }
+
+        IngestionProperties.Dedup dedup = ingestionProperties.getPublisher().getDedup();
+        if (dedup.isEnabled()) {
+            publisher = new DedupLogPublisher(publisher, dedup, meterRegistry);
+        }
+        return publisher;
+    }
+
+    /**
+     * Envelope accumulator, a bean of its own so its lifecycle is managed and
+     * it stops after the buffer in front of it has drained. Callers return
+     * before their envelope is published, so it cannot honour the AWAIT
+     * confirm policy and refuses to be combined with it.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ingestion.publisher.envelope", name = "enabled", havingValue = "true")
+    public EnvelopeLogPublisher envelopeLogPublisher(RabbitLogPublisher rabbitLogPublisher,
+                                                     IngestionProperties ingestionProperties,
+                                                     ObjectProvider<SpillLog> spillLogProvider,
+                                                     MeterRegistry meterRegistry) {
+        IngestionProperties.Confirms confirms = ingestionProperties.getPublisher().getConfirms();
+        if (confirms.isEnabled() && confirms.getPolicy() == IngestionProperties.ConfirmPolicy.AWAIT) {
+            throw new IllegalStateException("Envelope mode answers before the broker confirms; set "
+                    + "ingestion.publisher.confirms.policy=FIRE_AND_FORGET or disable the envelope");
+        }
+        return new EnvelopeLogPublisher(
+                brokerPublisher(rabbitLogPublisher, spillLogProvider.getIfAvailable()),
+                rabbitLogPublisher::routingKey,
+                ingestionProperties.getPublisher().getEnvelope(),
+                meterRegistry);
+    }
+
+    private static LogPublisher brokerPublisher(RabbitLogPublisher rabbitLogPublisher, SpillLog spillLog) {
+        return spillLog == null ? rabbitLogPublisher : new SpillingLogPublisher(rabbitLogPublisher, spillLog);
+    }
+}
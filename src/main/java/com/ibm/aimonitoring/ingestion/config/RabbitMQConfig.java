@@ -1,14 +1,25 @@
 package com.ibm.aimonitoring.ingestion.config;
 
+import com.ibm.aimonitoring.ingestion.codec.CompressingPostProcessor;
+import com.ibm.aimonitoring.ingestion.codec.JacksonBinaryMessageConverter;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import com.ibm.aimonitoring.ingestion.publish.LogRouter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * RabbitMQ configuration for log ingestion
  */
@@ -19,6 +30,7 @@ public class RabbitMQConfig {
     public static final String LOGS_RAW_QUEUE = "logs.raw";
     public static final String LOGS_RAW_ROUTING_KEY = "logs.raw";
     public static final String LOGS_DLQ = "logs.dlq";
+    public static final String LOGS_SERVICE_QUEUE_PREFIX = LOGS_RAW_QUEUE + ".service.";
 
     /**
      * Topic exchange for log routing
@@ -33,10 +45,7 @@ public class RabbitMQConfig {
      */
     @Bean
     public Queue logsRawQueue() {
-        return QueueBuilder.durable(LOGS_RAW_QUEUE)
-                .withArgument("x-dead-letter-exchange", "")
-                .withArgument("x-dead-letter-routing-key", LOGS_DLQ)
-                .build();
+        return rawQueue(LOGS_RAW_QUEUE);
     }
 
     /**
@@ -58,6 +67,74 @@ public class RabbitMQConfig {
                 .with(LOGS_RAW_ROUTING_KEY);
     }
 
+    /**
+     * Queues and bindings for level and service routing. Each level in
+     * {@code levelQueues} gets its own queue, bound with {@code logs.raw.<level>.#};
+     * {@code logs.raw} is bound to every other level, so each entry lands in
+     * exactly one of them. Each service in {@code serviceQueues} also gets a
+     * queue bound with {@code logs.raw.*.<service>}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ingestion.routing", name = "enabled", havingValue = "true")
+    public Declarables logsRoutingDeclarables(Queue logsRawQueue, TopicExchange logsExchange,
+                                              IngestionProperties ingestionProperties) {
+        IngestionProperties.Routing routing = ingestionProperties.getRouting();
+        List<Declarable> declarables = new ArrayList<>();
+        for (LogLevel level : LogLevel.values()) {
+            String levelSegment = LogRouter.levelSegment(level);
+            Queue queue = logsRawQueue;
+            if (routing.getLevelQueues().contains(level)) {
+                queue = rawQueue(levelQueueName(level));
+                declarables.add(queue);
+            }
+            declarables.add(BindingBuilder.bind(queue).to(logsExchange)
+                    .with(LogRouter.routingKey(levelSegment, "#")));
+        }
+        declarables.add(BindingBuilder.bind(logsRawQueue).to(logsExchange)
+                .with(LogRouter.routingKey(LogRouter.UNKNOWN, "#")));
+
+        for (String service : routing.getServiceQueues()) {
+            String serviceSegment = LogRouter.segment(service);
+            Queue queue = rawQueue(LOGS_SERVICE_QUEUE_PREFIX + serviceSegment);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(logsExchange)
+                    .with(LogRouter.routingKey("*", serviceSegment)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Partition queues {@code logs.raw.0 .. logs.raw.<count-1>}, each bound
+     * with its own name as routing key
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ingestion.partitions", name = "enabled", havingValue = "true")
+    public Declarables logsPartitionDeclarables(TopicExchange logsExchange, IngestionProperties ingestionProperties) {
+        int count = LogRouter.partitionCount(ingestionProperties.getPartitions());
+        List<Declarable> declarables = new ArrayList<>(count * 2);
+        for (int partition = 0; partition < count; partition++) {
+            String name = LogRouter.partitionName(partition);
+            Queue queue = rawQueue(name);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(logsExchange).with(name));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Name of the dedicated queue for a level, e.g. {@code logs.raw.error}
+     */
+    public static String levelQueueName(LogLevel level) {
+        return LOGS_RAW_QUEUE + "." + LogRouter.levelSegment(level);
+    }
+
+    private static Queue rawQueue(String name) {
+        return QueueBuilder.durable(name)
+                .withArgument("x-dead-letter-exchange", "")
+                .withArgument("x-dead-letter-routing-key", LOGS_DLQ)
+                .build();
+    }
+
     /**
      * JSON message converter for RabbitMQ
      */
@@ -67,12 +144,51 @@ public class RabbitMQConfig {
     }
 
     /**
-     * RabbitTemplate with JSON converter
+     * Converter for log messages: encodes in the configured wire format and
+     * decodes any supported format by its content_type
+     */
+    @Bean
+    public MessageConverter logMessageConverter(IngestionProperties ingestionProperties) {
+        MessageConverter json = jsonMessageConverter();
+        JacksonBinaryMessageConverter smile = JacksonBinaryMessageConverter.smile();
+        JacksonBinaryMessageConverter cbor = JacksonBinaryMessageConverter.cbor();
+
+        MessageConverter outbound = switch (ingestionProperties.getPublisher().getWireFormat()) {
+            case JSON -> json;
+            case SMILE -> smile;
+            case CBOR -> cbor;
+        };
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(outbound);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(smile.getContentType(), smile);
+        converter.addDelegate(cbor.getContentType(), cbor);
+        return converter;
+    }
+
+    /**
+     * Compression of published message bodies above the configured size
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ingestion.publisher.compression", name = "enabled", havingValue = "true")
+    public CompressingPostProcessor compressingPostProcessor(IngestionProperties ingestionProperties,
+                                                             MeterRegistry meterRegistry) {
+        IngestionProperties.Compression compression = ingestionProperties.getPublisher().getCompression();
+        int level = compression.getLevel() != null ? compression.getLevel() : compression.getCodec().getDefaultLevel();
+        return new CompressingPostProcessor(compression.getCodec(), level,
+                compression.getMinSize().toBytes(), meterRegistry);
+    }
+
+    /**
+     * RabbitTemplate publishing with the log message converter, compressing
+     * bodies when enabled
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
+                                         MessageConverter logMessageConverter,
+                                         ObjectProvider<CompressingPostProcessor> compressingPostProcessor) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(logMessageConverter);
+        compressingPostProcessor.ifAvailable(template::addBeforePublishPostProcessors);
         return template;
     }
 
@@ -1,7 +1,10 @@
 package com.ibm.aimonitoring.ingestion.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -15,8 +18,11 @@ public class RabbitMQInitializer {
 
     private final RabbitAdmin rabbitAdmin;
 
-    public RabbitMQInitializer(RabbitAdmin rabbitAdmin) {
+    private final ObjectProvider<Declarables> extraDeclarables;
+
+    public RabbitMQInitializer(RabbitAdmin rabbitAdmin, ObjectProvider<Declarables> extraDeclarables) {
         this.rabbitAdmin = rabbitAdmin;
+        this.extraDeclarables = extraDeclarables;
     }
 
     /**
@@ -33,11 +39,14 @@ public class RabbitMQInitializer {
         log.info("Initializing RabbitMQ infrastructure...");
         
         try {
-            // This will trigger the declaration of all @Bean Queue, Exchange, and Binding
+            // This will trigger the declaration of all @Bean Queue, Exchange, Binding and Declarables
             rabbitAdmin.initialize();
             log.info("✓ RabbitMQ queues and exchanges declared successfully");
             log.info("  - Exchange: {}", RabbitMQConfig.LOGS_EXCHANGE);
             log.info("  - Queue: {}", RabbitMQConfig.LOGS_RAW_QUEUE);
+            extraDeclarables.orderedStream()
+                    .flatMap(declarables -> declarables.getDeclarablesByType(Queue.class).stream())
+                    .forEach(queue -> log.info("  - Queue: {}", queue.getName()));
             log.info("  - DLQ: {}", RabbitMQConfig.LOGS_DLQ);
         } catch (Exception e) {
             log.error("✗ Failed to initialize RabbitMQ infrastructure", e);
@@ -0,0 +1,42 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.ratelimit.RateLimitEndpoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics and runtime limit management for the rate limiter, enabled with
+ * {@code ingestion.rate-limit.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitEndpoint rateLimitEndpoint(LogRateLimiter logRateLimiter) {
+        return new RateLimitEndpoint(logRateLimiter);
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(LogRateLimiter logRateLimiter) {
+        return registry -> {
+            FunctionCounter.builder("ingestion.ratelimit.allowed", logRateLimiter, LogRateLimiter::getAllowed)
+                    .description("Entries that passed the rate limiter")
+                    .register(registry);
+            FunctionCounter.builder("ingestion.ratelimit.rejected", logRateLimiter, LogRateLimiter::getRejected)
+                    .description("Entries rejected by the rate limiter")
+                    .register(registry);
+            FunctionCounter.builder("ingestion.ratelimit.evicted", logRateLimiter, LogRateLimiter::getEvicted)
+                    .description("Idle rate limit buckets evicted")
+                    .register(registry);
+            Gauge.builder("ingestion.ratelimit.keys", logRateLimiter, LogRateLimiter::getTrackedKeys)
+                    .description("Rate limit buckets currently tracked")
+                    .register(registry);
+        };
+    }
+}
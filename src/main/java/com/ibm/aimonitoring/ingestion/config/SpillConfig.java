@@ -0,0 +1,45 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.publish.RabbitLogPublisher;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import com.ibm.aimonitoring.ingestion.spill.SpillLogEndpoint;
+import com.ibm.aimonitoring.ingestion.spill.SpillReplayer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Local spill log for riding out broker outages, enabled with
+ * {@code ingestion.spill.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.spill", name = "enabled", havingValue = "true")
+public class SpillConfig {
+
+    @Bean
+    public SpillLog spillLog(IngestionProperties ingestionProperties,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) throws IOException {
+        return new SpillLog(ingestionProperties.getSpill(), objectMapper, meterRegistry);
+    }
+
+    /**
+     * Replays straight to RabbitMQ, bypassing the spill fallback so a failed
+     * replay leaves entries where they are
+     */
+    @Bean
+    public SpillReplayer spillReplayer(SpillLog spillLog,
+                                       RabbitLogPublisher rabbitLogPublisher,
+                                       IngestionProperties ingestionProperties) {
+        return new SpillReplayer(spillLog, rabbitLogPublisher, ingestionProperties.getSpill());
+    }
+
+    @Bean
+    public SpillLogEndpoint spillLogEndpoint(SpillLog spillLog, SpillReplayer spillReplayer) {
+        return new SpillLogEndpoint(spillLog, spillReplayer);
+    }
+}
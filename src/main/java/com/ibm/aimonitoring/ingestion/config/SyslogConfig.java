@@ -0,0 +1,28 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.syslog.SyslogParser;
+import com.ibm.aimonitoring.ingestion.syslog.SyslogServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Embedded syslog listener, enabled with {@code ingestion.syslog.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.syslog", name = "enabled", havingValue = "true")
+public class SyslogConfig {
+
+    @Bean
+    public SyslogServer syslogServer(IngestionProperties ingestionProperties,
+                                     BatchIngestionService batchIngestionService,
+                                     MeterRegistry meterRegistry) {
+        IngestionProperties.Syslog settings = ingestionProperties.getSyslog();
+        SyslogParser parser = new SyslogParser(settings.getDefaultService(), settings.getEnvironment(), Clock.systemUTC());
+        return new SyslogServer(settings, parser, batchIngestionService, meterRegistry);
+    }
+}
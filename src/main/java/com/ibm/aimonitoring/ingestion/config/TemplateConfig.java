@@ -0,0 +1,41 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import com.ibm.aimonitoring.ingestion.template.TemplateEndpoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Template miner, its endpoint and metrics, enabled with
+ * {@code ingestion.templates.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ingestion.templates", name = "enabled", havingValue = "true")
+public class TemplateConfig {
+
+    @Bean
+    public DrainTemplateMiner drainTemplateMiner(IngestionProperties ingestionProperties) {
+        return new DrainTemplateMiner(ingestionProperties.getTemplates());
+    }
+
+    @Bean
+    public TemplateEndpoint templateEndpoint(DrainTemplateMiner drainTemplateMiner) {
+        return new TemplateEndpoint(drainTemplateMiner);
+    }
+
+    @Bean
+    public MeterBinder templateMetrics(DrainTemplateMiner drainTemplateMiner) {
+        return registry -> {
+            Gauge.builder("ingestion.templates.count", drainTemplateMiner, DrainTemplateMiner::getTemplateCount)
+                    .description("Message templates currently held")
+                    .register(registry);
+            FunctionCounter.builder("ingestion.templates.evicted", drainTemplateMiner, DrainTemplateMiner::getEvicted)
+                    .description("Templates evicted to stay within the template limit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.web.RequestDecompressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Servlet filters in front of the ingest endpoints
+ */
+@Configuration
+public class WebConfig {
+
+    /**
+     * Decompression of gzip, deflate and zstd request bodies on the ingest endpoints
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ingestion.decompression", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            IngestionProperties ingestionProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration = new FilterRegistrationBean<>(
+                new RequestDecompressionFilter(ingestionProperties.getDecompression(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/v1/logs", "/api/v1/logs/*", "/v1/logs", "/loki/api/v1/push", "/es/*");
+        return registration;
+    }
+}
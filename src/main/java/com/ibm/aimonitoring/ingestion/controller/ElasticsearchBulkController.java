@@ -0,0 +1,105 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.BulkResponseDTO;
+import com.ibm.aimonitoring.ingestion.service.ElasticsearchBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Elasticsearch {@code _bulk} API under {@code /es}, so Beats and Logstash
+ * can write here by pointing their Elasticsearch output at {@code <host>/es}.
+ * {@code GET /es} answers the version handshake those clients make first.
+ * Responses carry the {@code X-Elastic-Product} header that 8.x clients check.
+ */
+@RestController
+@RequestMapping("/es")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ingestion.elasticsearch", name = "enabled", havingValue = "true")
+@Tag(name = "Elasticsearch", description = "Elasticsearch bulk API")
+public class ElasticsearchBulkController {
+
+    static final String PRODUCT_HEADER = "X-Elastic-Product";
+    static final String PRODUCT = "Elasticsearch";
+
+    private final ElasticsearchBulkService elasticsearchBulkService;
+    private final IngestionProperties ingestionProperties;
+
+    /**
+     * Cluster information, as {@code GET /} of an Elasticsearch node
+     *
+     * @return name and version
+     */
+    @GetMapping
+    @Operation(summary = "Cluster information",
+            description = "Reports the Elasticsearch version clients check before writing")
+    public ResponseEntity<Map<String, Object>> info() {
+        return ResponseEntity.ok()
+                .header(PRODUCT_HEADER, PRODUCT)
+                .body(Map.of(
+                        "name", "log-ingestion",
+                        "cluster_name", "log-ingestion",
+                        "version", Map.of(
+                                "number", ingestionProperties.getElasticsearch().getCompatibilityVersion(),
+                                "build_flavor", "default"),
+                        "tagline", "You Know, for Search"));
+    }
+
+    /**
+     * Ingest an NDJSON bulk body of action and source document lines
+     *
+     * @param body the request body
+     * @return one item per action, with its status
+     * @throws IOException if the request body cannot be read
+     */
+    @RequestMapping(value = "/_bulk", method = {RequestMethod.POST, RequestMethod.PUT})
+    @Operation(summary = "Bulk ingest (Elasticsearch)",
+            description = "Streams action/document pairs, queuing the documents of index and create actions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk processed, see per-item status"),
+            @ApiResponse(responseCode = "400", description = "Malformed action line or empty body")
+    })
+    public ResponseEntity<BulkResponseDTO> bulk(InputStream body) throws IOException {
+        return bulk(body, null);
+    }
+
+    /**
+     * Ingest an NDJSON bulk body whose actions default to the index in the path
+     *
+     * @param index index for actions without {@code _index}
+     * @param body  the request body
+     * @return one item per action, with its status
+     * @throws IOException if the request body cannot be read
+     */
+    @RequestMapping(value = "/{index}/_bulk", method = {RequestMethod.POST, RequestMethod.PUT})
+    @Operation(summary = "Bulk ingest into an index (Elasticsearch)",
+            description = "Streams action/document pairs, queuing the documents of index and create actions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk processed, see per-item status"),
+            @ApiResponse(responseCode = "400", description = "Malformed action line or empty body")
+    })
+    public ResponseEntity<BulkResponseDTO> bulkIntoIndex(@PathVariable String index, InputStream body)
+            throws IOException {
+        return bulk(body, index);
+    }
+
+    private ResponseEntity<BulkResponseDTO> bulk(InputStream body, String index) throws IOException {
+        return ResponseEntity.ok()
+                .header(PRODUCT_HEADER, PRODUCT)
+                .body(elasticsearchBulkService.ingest(body, index));
+    }
+}
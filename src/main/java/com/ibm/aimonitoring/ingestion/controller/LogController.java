@@ -1,19 +1,31 @@
 package com.ibm.aimonitoring.ingestion.controller;
 
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.BatchItemResultDTO;
+import com.ibm.aimonitoring.ingestion.dto.BatchResponseDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.dto.StreamResponseDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
 import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.service.NdjsonIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,7 +38,16 @@ import java.util.Map;
 @Tag(name = "Log Ingestion", description = "APIs for ingesting log entries")
 public class LogController {
 
+    private static final String STATUS_ACCEPTED = "accepted";
+    private static final String STATUS_REJECTED = "rejected";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final LogIngestionService logIngestionService;
+    private final LogEntryValidator logEntryValidator;
+    private final LogRateLimiter logRateLimiter;
+    private final BatchIngestionService batchIngestionService;
+    private final NdjsonIngestionService ndjsonIngestionService;
+    private final IngestionProperties ingestionProperties;
 
     /**
      * Ingest a log entry
@@ -39,9 +60,12 @@ public class LogController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Log entry accepted for processing"),
             @ApiResponse(responseCode = "400", description = "Invalid log entry"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded for the entry's service"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<LogResponseDTO> ingestLog(@Valid @RequestBody LogEntryDTO logEntry) {
+    public ResponseEntity<LogResponseDTO> ingestLog(@RequestBody LogEntryDTO logEntry) {
+        logEntryValidator.requireValid(logEntry);
+        logRateLimiter.acquire(logEntry);
         log.debug("Received log entry for service: {}", logEntry.getService());
         
         LogResponseDTO response = logIngestionService.ingestLog(logEntry);
@@ -49,6 +73,75 @@ public class LogController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    /**
+     * Ingest a batch of log entries. Each entry is validated independently, so a
+     * bad entry is reported in its result slot without failing the rest.
+     *
+     * @param logEntries the log entries to ingest
+     * @return per-index accepted/rejected results
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Ingest a batch of log entries",
+            description = "Accepts an array of log entries, validates each one independently and queues the valid ones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Batch processed, see per-entry results"),
+            @ApiResponse(responseCode = "413", description = "Batch exceeds the maximum size"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BatchResponseDTO> ingestBatch(@RequestBody List<LogEntryDTO> logEntries) {
+        int maxSize = ingestionProperties.getBatch().getMaxSize();
+        if (logEntries.size() > maxSize) {
+            throw new BatchSizeExceededException(logEntries.size(), maxSize);
+        }
+        log.debug("Received batch of {} log entries", logEntries.size());
+
+        List<BatchIngestionService.EntryResult> entryResults = batchIngestionService.ingestEach(logEntries);
+        List<BatchItemResultDTO> results = new ArrayList<>(entryResults.size());
+        int accepted = 0;
+        for (int i = 0; i < entryResults.size(); i++) {
+            BatchIngestionService.EntryResult entryResult = entryResults.get(i);
+            BatchItemResultDTO.BatchItemResultDTOBuilder result = BatchItemResultDTO.builder().index(i);
+            if (entryResult.isAccepted()) {
+                accepted++;
+                result.status(STATUS_ACCEPTED).id(entryResult.logId());
+            } else {
+                result.status(STATUS_REJECTED).errors(entryResult.errors());
+            }
+            results.add(result.build());
+        }
+
+        BatchResponseDTO response = BatchResponseDTO.builder()
+                .accepted(accepted)
+                .rejected(logEntries.size() - accepted)
+                .timestamp(Instant.now())
+                .results(results)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Ingest a newline-delimited JSON stream of log entries. The body is read
+     * and published line by line, so it is never held in memory as a whole.
+     *
+     * @param body the NDJSON request body, one log entry per line
+     * @return summary with accepted/rejected counts and the first errors
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/stream", consumes = APPLICATION_NDJSON)
+    @Operation(summary = "Ingest an NDJSON stream of log entries",
+            description = "Accepts one log entry per line, validating and queuing each line as it arrives")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Stream processed, see summary"),
+            @ApiResponse(responseCode = "429", description = "Publisher overloaded; summary up to failedAtLine"),
+            @ApiResponse(responseCode = "500", description = "Publishing failed; summary up to failedAtLine")
+    })
+    public ResponseEntity<StreamResponseDTO> ingestStream(InputStream body) throws IOException {
+        StreamResponseDTO response = ndjsonIngestionService.ingest(body);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     /**
      * Health check endpoint
      *
@@ -62,4 +155,13 @@ public class LogController {
                 "service", "log-ingestion"
         ));
     }
+
+    /**
+     * Thrown when a batch request carries more entries than allowed
+     */
+    public static class BatchSizeExceededException extends RuntimeException {
+        public BatchSizeExceededException(int size, int maxSize) {
+            super("Batch size " + size + " exceeds the maximum of " + maxSize + " entries");
+        }
+    }
 }
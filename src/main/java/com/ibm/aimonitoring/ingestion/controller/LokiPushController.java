@@ -0,0 +1,154 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.loki.LokiPushCodec;
+import com.ibm.aimonitoring.ingestion.loki.SnappyDecoder;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.web.RequestDecompressionFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Loki push API, so Promtail, Grafana Agent and Alloy can ship to this service
+ * unchanged. Each stream's entries are ingested as one batch. As in Loki, a
+ * push is answered with 204; with 429 and {@code Retry-After} when the rate
+ * limiter refused some entries, which the clients back off on and resend; or
+ * with 400 and a plain-text reason when some entries failed validation, which
+ * they do not retry. The accepted entries are queued either way. Bodies are read up to
+ * {@code ingestion.decompression.max-expanded-size}, before and after snappy.
+ */
+@RestController
+@RequestMapping("/loki/api/v1/push")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ingestion.loki", name = "enabled", havingValue = "true")
+@Tag(name = "Loki", description = "Loki push API")
+public class LokiPushController {
+
+    private final LokiPushCodec lokiPushCodec;
+    private final BatchIngestionService batchIngestionService;
+    private final IngestionProperties ingestionProperties;
+
+    /**
+     * Ingest a snappy-compressed protobuf PushRequest
+     *
+     * @param body the request body
+     * @return 204, 429 if some entries were rate limited, or 400 with the reason some entries were rejected
+     * @throws IOException if the request body cannot be read, or exceeds the size limit
+     */
+    @PostMapping(consumes = LokiPushCodec.PROTOBUF_CONTENT_TYPE)
+    @Operation(summary = "Push logs (Loki protobuf)",
+            description = "Accepts a snappy-compressed Loki PushRequest and queues the entries of each stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "All entries queued"),
+            @ApiResponse(responseCode = "400", description = "Malformed request, or some entries rejected"),
+            @ApiResponse(responseCode = "413", description = "Request too large, or carries more entries than allowed"),
+            @ApiResponse(responseCode = "429", description = "Some entries rate limited, or publish pipeline overloaded")
+    })
+    public ResponseEntity<String> pushProtobuf(InputStream body) throws IOException {
+        byte[] compressed = readBody(body);
+        if (compressed.length == 0) {
+            return push(List.of());
+        }
+        long maxExpandedSize = maxBodySize();
+        if (SnappyDecoder.uncompressedLength(compressed) > maxExpandedSize) {
+            throw new RequestDecompressionFilter.DecompressionLimitExceededException(
+                    "Decompressed body exceeds the limit of " + maxExpandedSize + " bytes");
+        }
+        return push(lokiPushCodec.decodeProtobuf(SnappyDecoder.decompress(compressed)));
+    }
+
+    /**
+     * Ingest a JSON push request
+     *
+     * @param body the request body
+     * @return 204, or 400 with the reason some entries were rejected
+     * @throws IOException if the request body cannot be read, or exceeds the size limit
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Push logs (Loki JSON)",
+            description = "Accepts a Loki JSON push request and queues the entries of each stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "All entries queued"),
+            @ApiResponse(responseCode = "400", description = "Malformed request, or some entries rejected"),
+            @ApiResponse(responseCode = "413", description = "Request too large, or carries more entries than allowed"),
+            @ApiResponse(responseCode = "429", description = "Some entries rate limited, or publish pipeline overloaded")
+    })
+    public ResponseEntity<String> pushJson(InputStream body) throws IOException {
+        byte[] json = readBody(body);
+        return push(json.length == 0 ? List.of() : lokiPushCodec.decodeJson(json));
+    }
+
+    /**
+     * Read the whole body, failing once it passes the size limit rather than
+     * buffering an unbounded body
+     */
+    private byte[] readBody(InputStream body) throws IOException {
+        long maxBodySize = maxBodySize();
+        byte[] bytes = body.readNBytes((int) Math.min(maxBodySize + 1, Integer.MAX_VALUE - 8));
+        if (bytes.length > maxBodySize) {
+            throw new RequestDecompressionFilter.DecompressionLimitExceededException(
+                    "Request body exceeds the limit of " + maxBodySize + " bytes");
+        }
+        return bytes;
+    }
+
+    private long maxBodySize() {
+        return ingestionProperties.getDecompression().getMaxExpandedSize().toBytes();
+    }
+
+    private ResponseEntity<String> push(List<List<LogEntryDTO>> streams) {
+        int total = 0;
+        for (List<LogEntryDTO> stream : streams) {
+            total += stream.size();
+        }
+        int maxEntries = ingestionProperties.getLoki().getMaxEntries();
+        if (total > maxEntries) {
+            throw new LogController.BatchSizeExceededException(total, maxEntries);
+        }
+
+        long firstIndex = 0;
+        int rejected = 0;
+        int rateLimited = 0;
+        String firstError = null;
+        for (List<LogEntryDTO> stream : streams) {
+            if (stream.isEmpty()) {
+                continue;
+            }
+            BatchIngestionService.IngestResult result = batchIngestionService.ingest(stream, firstIndex);
+            firstIndex += stream.size();
+            rejected += result.rejected();
+            rateLimited += result.rateLimited();
+            if (firstError == null) {
+                firstError = result.errorMessage();
+            }
+        }
+        if (rejected == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        if (rateLimited > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(rateLimited + " of " + total + " entries rate limited");
+        }
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(rejected + " of " + total + " entries rejected; " + firstError);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpJsonCodec;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpProtobufCodec;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * OTLP/HTTP logs receiver. Export requests are decoded straight into log
+ * entries and ingested as one batch; rejected records are reported as a
+ * partial success, as the OTLP specification asks.
+ */
+@RestController
+@RequestMapping("/v1/logs")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ingestion.otlp", name = "enabled", havingValue = "true")
+@Tag(name = "OTLP", description = "OpenTelemetry log export")
+public class OtlpLogsController {
+
+    private final OtlpProtobufCodec protobufCodec;
+    private final OtlpJsonCodec jsonCodec;
+    private final BatchIngestionService batchIngestionService;
+    private final IngestionProperties ingestionProperties;
+
+    /**
+     * Ingest a protobuf-encoded ExportLogsServiceRequest
+     *
+     * @param body the request body
+     * @return protobuf ExportLogsServiceResponse
+     */
+    @PostMapping(consumes = OtlpProtobufCodec.CONTENT_TYPE, produces = OtlpProtobufCodec.CONTENT_TYPE)
+    @Operation(summary = "Export logs (OTLP/HTTP protobuf)",
+            description = "Accepts an OTLP ExportLogsServiceRequest and queues its log records")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export processed; rejected records reported as partial success"),
+            @ApiResponse(responseCode = "400", description = "Malformed export request"),
+            @ApiResponse(responseCode = "413", description = "Request carries more records than allowed"),
+            @ApiResponse(responseCode = "429", description = "Publish pipeline overloaded")
+    })
+    public ResponseEntity<byte[]> exportProtobuf(@RequestBody(required = false) byte[] body) {
+        BatchIngestionService.IngestResult result = export(body, protobufCodec::decode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(OtlpProtobufCodec.CONTENT_TYPE))
+                .body(protobufCodec.encodeResponse(result.rejected(), result.errorMessage()));
+    }
+
+    /**
+     * Ingest an OTLP/JSON-encoded ExportLogsServiceRequest
+     *
+     * @param body the request body
+     * @return OTLP/JSON ExportLogsServiceResponse
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Export logs (OTLP/HTTP JSON)",
+            description = "Accepts an OTLP/JSON ExportLogsServiceRequest and queues its log records")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export processed; rejected records reported as partial success"),
+            @ApiResponse(responseCode = "400", description = "Malformed export request"),
+            @ApiResponse(responseCode = "413", description = "Request carries more records than allowed"),
+            @ApiResponse(responseCode = "429", description = "Publish pipeline overloaded")
+    })
+    public ResponseEntity<byte[]> exportJson(@RequestBody(required = false) byte[] body) {
+        BatchIngestionService.IngestResult result = export(body, jsonCodec::decode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonCodec.encodeResponse(result.rejected(), result.errorMessage()));
+    }
+
+    private BatchIngestionService.IngestResult export(byte[] body, Function<byte[], List<LogEntryDTO>> decoder) {
+        List<LogEntryDTO> logEntries = body == null ? List.of() : decoder.apply(body);
+        int maxLogRecords = ingestionProperties.getOtlp().getMaxLogRecords();
+        if (logEntries.size() > maxLogRecords) {
+            throw new LogController.BatchSizeExceededException(logEntries.size(), maxLogRecords);
+        }
+        return batchIngestionService.ingest(logEntries);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ibm.aimonitoring.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of a single entry within a batch ingestion request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+
+    private long index;
+
+    private String status;
+
+    private String id;
+
+    private Map<String, String> errors;
+}
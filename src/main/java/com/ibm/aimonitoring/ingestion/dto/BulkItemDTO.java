@@ -0,0 +1,43 @@
+package com.ibm.aimonitoring.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of one action of an Elasticsearch {@code _bulk} request. Clients
+ * retry items by {@code status}: 429 and 5xx are retried, other 4xx dropped.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemDTO {
+
+    @JsonProperty("_index")
+    private String index;
+
+    /**
+     * Log ID assigned to the published entry
+     */
+    @JsonProperty("_id")
+    private String id;
+
+    /**
+     * {@code created} for a published entry
+     */
+    private String result;
+
+    private int status;
+
+    /**
+     * Elasticsearch-style {@code type} and {@code reason} of a failed item
+     */
+    private Map<String, String> error;
+}
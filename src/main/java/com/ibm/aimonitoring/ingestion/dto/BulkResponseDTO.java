@@ -0,0 +1,29 @@
+package com.ibm.aimonitoring.ingestion.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elasticsearch {@code _bulk} response: one item per action, in request
+ * order, each keyed by its action name ({@code index}, {@code create}, ...)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResponseDTO {
+
+    private long took;
+
+    /**
+     * True if any item failed
+     */
+    private boolean errors;
+
+    private List<Map<String, BulkItemDTO>> items;
+}
@@ -1,6 +1,7 @@
 package com.ibm.aimonitoring.ingestion.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -11,6 +12,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -50,6 +52,55 @@ public class LogEntryDTO {
 
     @Size(max = 100, message = "Span ID must not exceed 100 characters")
     private String spanId;
+
+    /**
+     * Assigned at ingestion; any client-supplied value is overwritten
+     */
+    private String logId;
+
+    /**
+     * Ingestion time in epoch milliseconds; any client-supplied value is overwritten
+     */
+    private long ingestedAt;
+
+    /**
+     * Fraction of entries like this one that were kept by load-based sampling;
+     * absent when the entry was not sampled
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double sampleRate;
+
+    /**
+     * On a dedup summary entry, the number of repeats it stands for; absent otherwise
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer repeatCount;
+
+    /**
+     * On a dedup summary entry, the timestamp of the first repeat
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Instant firstTimestamp;
+
+    /**
+     * On a dedup summary entry, the timestamp of the last repeat
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Instant lastTimestamp;
+
+    /**
+     * ID of the message template mined from this entry; absent when template mining is off
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String templateId;
+
+    /**
+     * Message tokens at the template's wildcard positions, in order
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> templateParameters;
 }
 
 // Made with Bob
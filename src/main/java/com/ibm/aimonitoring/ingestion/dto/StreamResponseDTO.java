@@ -0,0 +1,47 @@
+package com.ibm.aimonitoring.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO summarizing a streaming ingestion request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamResponseDTO {
+
+    private long accepted;
+
+    private long rejected;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Instant timestamp;
+
+    /**
+     * The first rejected lines, indexed by zero-based line number
+     */
+    private List<BatchItemResultDTO> errors;
+
+    /**
+     * Zero-based line number of the first entry that was not published because
+     * publishing failed; the rest of the body was not read. Null when the whole
+     * body was processed.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long failedAtLine;
+
+    /**
+     * Why publishing failed, when it did
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String failure;
+}
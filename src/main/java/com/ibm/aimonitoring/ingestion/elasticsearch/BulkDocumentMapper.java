@@ -0,0 +1,157 @@
+package com.ibm.aimonitoring.ingestion.elasticsearch;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps {@code _bulk} source documents onto log entries through the configured
+ * field paths. A path such as {@code log.level} matches a nested
+ * {@code {"log": {"level": ...}}} as well as a literal {@code "log.level"} key.
+ * For each entry field the first path holding a scalar value is used and
+ * removed from the document; whatever remains of the document becomes the
+ * entry's metadata, with the target index as {@code elasticsearch.index}.
+ */
+@Component
+public class BulkDocumentMapper {
+
+    public static final String INDEX_METADATA_KEY = "elasticsearch.index";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final List<String> timestampFields;
+    private final List<String> levelFields;
+    private final List<String> messageFields;
+    private final List<String> serviceFields;
+    private final List<String> hostFields;
+    private final List<String> environmentFields;
+    private final List<String> traceIdFields;
+    private final List<String> spanIdFields;
+    private final String defaultService;
+
+    public BulkDocumentMapper(IngestionProperties ingestionProperties, ObjectMapper objectMapper) {
+        IngestionProperties.Elasticsearch settings = ingestionProperties.getElasticsearch();
+        this.objectMapper = objectMapper;
+        this.timestampFields = List.copyOf(settings.getTimestampFields());
+        this.levelFields = List.copyOf(settings.getLevelFields());
+        this.messageFields = List.copyOf(settings.getMessageFields());
+        this.serviceFields = List.copyOf(settings.getServiceFields());
+        this.hostFields = List.copyOf(settings.getHostFields());
+        this.environmentFields = List.copyOf(settings.getEnvironmentFields());
+        this.traceIdFields = List.copyOf(settings.getTraceIdFields());
+        this.spanIdFields = List.copyOf(settings.getSpanIdFields());
+        this.defaultService = settings.getDefaultService();
+    }
+
+    /**
+     * Map one source document; the document is consumed in the process
+     *
+     * @param index target index of the action, or null
+     * @throws InvalidDocumentException if a mapped field cannot be read
+     */
+    public LogEntryDTO toLogEntry(ObjectNode document, String index) {
+        JsonNode timestamp = take(document, timestampFields);
+        LogLevel level = LogLevel.fromText(text(take(document, levelFields)));
+        String service = text(take(document, serviceFields));
+        LogEntryDTO logEntry = LogEntryDTO.builder()
+                .timestamp(timestamp == null ? null : timestamp(timestamp))
+                .level(level != null ? level.name() : LogLevel.INFO.name())
+                .message(text(take(document, messageFields)))
+                .service(service != null ? service : defaultService)
+                .host(text(take(document, hostFields)))
+                .environment(text(take(document, environmentFields)))
+                .traceId(text(take(document, traceIdFields)))
+                .spanId(text(take(document, spanIdFields)))
+                .build();
+        if (index != null) {
+            document.put(INDEX_METADATA_KEY, index);
+        }
+        if (!document.isEmpty()) {
+            logEntry.setMetadata(objectMapper.convertValue(document, MAP_TYPE));
+        }
+        return logEntry;
+    }
+
+    /**
+     * Remove and return the scalar value at the first of {@code paths} present
+     */
+    private static JsonNode take(ObjectNode document, List<String> paths) {
+        for (String path : paths) {
+            JsonNode value = take(document, path);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode take(ObjectNode node, String path) {
+        JsonNode value = node.get(path);
+        if (value != null && value.isValueNode() && !value.isNull()) {
+            node.remove(path);
+            return value;
+        }
+        for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+            String parent = path.substring(0, dot);
+            if (node.get(parent) instanceof ObjectNode child) {
+                value = take(child, path.substring(dot + 1));
+                if (value != null) {
+                    if (child.isEmpty()) {
+                        node.remove(parent);
+                    }
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode value) {
+        return value == null ? null : value.asText();
+    }
+
+    /**
+     * ISO-8601 date-time with a zone offset, or epoch milliseconds as a
+     * number or string, like Elasticsearch's default date format
+     */
+    private static Instant timestamp(JsonNode value) {
+        if (value.isNumber()) {
+            return Instant.ofEpochMilli(value.asLong());
+        }
+        String text = value.asText();
+        if (!text.isEmpty() && text.chars().allMatch(c -> c >= '0' && c <= '9') && text.length() <= 18) {
+            return Instant.ofEpochMilli(Long.parseLong(text));
+        }
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(text).toInstant();
+            } catch (DateTimeParseException offsetFailure) {
+                throw new InvalidDocumentException("failed to parse date field [" + text + "]");
+            }
+        }
+    }
+
+    /**
+     * Thrown when a source document cannot be mapped onto a log entry
+     */
+    public static class InvalidDocumentException extends RuntimeException {
+        public InvalidDocumentException(String message) {
+            super(message);
+        }
+    }
+}
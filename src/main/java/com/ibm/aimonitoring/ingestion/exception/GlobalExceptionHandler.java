@@ -1,9 +1,21 @@
 package com.ibm.aimonitoring.ingestion.exception;
 
+import com.ibm.aimonitoring.ingestion.controller.LogController;
+import com.ibm.aimonitoring.ingestion.dto.StreamResponseDTO;
+import com.ibm.aimonitoring.ingestion.loki.LokiDecodeException;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpDecodeException;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.ElasticsearchBulkService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
 import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.service.NdjsonIngestionService;
+import com.ibm.aimonitoring.ingestion.web.RequestDecompressionFilter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +50,19 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
 
+        return validationFailed(errors);
+    }
+
+    /**
+     * Handle log entries rejected by {@link LogEntryValidator}
+     */
+    @ExceptionHandler(LogEntryValidator.InvalidLogEntryException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidLogEntryException(
+            LogEntryValidator.InvalidLogEntryException ex) {
+        return validationFailed(ex.getErrors());
+    }
+
+    private ResponseEntity<Map<String, Object>> validationFailed(Map<String, String> errors) {
         Map<String, Object> response = new HashMap<>();
         response.put(TIMESTAMP_KEY, Instant.now().toString());
         response.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
@@ -67,6 +92,179 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    /**
+     * Handle back-pressure from the publish pipeline
+     */
+    @ExceptionHandler(LogPublisher.PublisherOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handlePublisherOverloadedException(
+            LogPublisher.PublisherOverloadedException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.TOO_MANY_REQUESTS.value());
+        response.put(ERROR_KEY, "Too Many Requests");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    /**
+     * Handle NDJSON streams cut short by a publish failure: the summary of the
+     * lines before the failure is returned with the status the failure maps to
+     */
+    @ExceptionHandler(NdjsonIngestionService.StreamInterruptedException.class)
+    public ResponseEntity<StreamResponseDTO> handleStreamInterruptedException(
+            NdjsonIngestionService.StreamInterruptedException ex) {
+        if (ex.getCause() instanceof LogPublisher.PublisherOverloadedException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ex.getResponse());
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getResponse());
+    }
+
+    /**
+     * Handle entries from a service that has used up its rate limit
+     */
+    @ExceptionHandler(LogRateLimiter.RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(
+            LogRateLimiter.RateLimitExceededException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.TOO_MANY_REQUESTS.value());
+        response.put(ERROR_KEY, "Too Many Requests");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Handle oversized batch requests
+     */
+    @ExceptionHandler(LogController.BatchSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleBatchSizeExceededException(
+            LogController.BatchSizeExceededException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.put(ERROR_KEY, "Batch Too Large");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected batch: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
+    /**
+     * Handle OTLP export requests that cannot be decoded
+     */
+    @ExceptionHandler(OtlpDecodeException.class)
+    public ResponseEntity<Map<String, Object>> handleOtlpDecodeException(OtlpDecodeException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
+        response.put(ERROR_KEY, "Malformed OTLP Request");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected OTLP request: {}", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Handle Loki push requests that cannot be decoded
+     */
+    @ExceptionHandler(LokiDecodeException.class)
+    public ResponseEntity<Map<String, Object>> handleLokiDecodeException(LokiDecodeException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
+        response.put(ERROR_KEY, "Malformed Loki Request");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected Loki push request: {}", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Handle Elasticsearch bulk bodies whose actions cannot be read
+     */
+    @ExceptionHandler(ElasticsearchBulkService.MalformedBulkRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleMalformedBulkRequestException(
+            ElasticsearchBulkService.MalformedBulkRequestException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
+        response.put(ERROR_KEY, "Malformed Bulk Request");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected bulk request: {}", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Handle compressed request bodies that expand past the decompression limits
+     */
+    @ExceptionHandler(RequestDecompressionFilter.DecompressionLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleDecompressionLimitExceededException(
+            RequestDecompressionFilter.DecompressionLimitExceededException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.put(ERROR_KEY, "Payload Too Large");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected compressed request: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
+    /**
+     * Handle compressed request bodies that are not valid in their declared encoding
+     */
+    @ExceptionHandler(RequestDecompressionFilter.DecompressionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleDecompressionFailedException(
+            RequestDecompressionFilter.DecompressionFailedException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(TIMESTAMP_KEY, Instant.now().toString());
+        response.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
+        response.put(ERROR_KEY, "Bad Request");
+        response.put("message", ex.getMessage());
+
+        log.warn("Rejected compressed request: {}", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Handle unreadable request bodies; a decompression limit hit or decoding
+     * failure while the body was being parsed is reported as such
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex) {
+        if (ex.getCause() instanceof RequestDecompressionFilter.DecompressionLimitExceededException limitExceeded) {
+            return handleDecompressionLimitExceededException(limitExceeded);
+        }
+        if (ex.getCause() instanceof RequestDecompressionFilter.DecompressionFailedException decodingFailed) {
+            return handleDecompressionFailedException(decodingFailed);
+        }
+        return handleGenericException(ex);
+    }
+
     /**
      * Handle all other exceptions
      */
@@ -0,0 +1,281 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decodes Fluent Forward protocol (v1) events straight from MessagePack into
+ * log entries. An event is one of
+ * <ul>
+ *   <li>Message: {@code [tag, time, record(, option)]}</li>
+ *   <li>Forward: {@code [tag, [[time, record], ...](, option)]}</li>
+ *   <li>PackedForward: {@code [tag, bin, option]}, where the bin holds the
+ *   concatenated {@code [time, record]} entries, gzip-compressed when the
+ *   option says {@code compressed: "gzip"}</li>
+ * </ul>
+ * Time is integer seconds or an EventTime ext (type 0: seconds and nanoseconds).
+ * Well-known record keys map onto entry fields; every other key, and the tag
+ * as {@code fluent.tag}, goes into metadata. The tag is the service when the
+ * record names none.
+ */
+public class ForwardDecoder {
+
+    static final String TAG = "fluent.tag";
+
+    private static final int EVENT_TIME_TYPE = 0;
+    private static final String GZIP = "gzip";
+
+    private final int maxChunkSize;
+
+    /**
+     * @param maxChunkSize largest decompressed PackedForward payload accepted
+     */
+    public ForwardDecoder(int maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Decode one complete event
+     *
+     * @throws ForwardProtocolException if the event is malformed
+     */
+    public Chunk decode(byte[] buf, int offset, int end) {
+        MessagePackReader reader = new MessagePackReader(buf, offset, end);
+        int length = reader.readArrayHeader();
+        if (length < 2 || length > 4) {
+            throw new ForwardProtocolException("Forward event must be an array of 2 to 4 elements, got " + length);
+        }
+        String tag = reader.readString();
+        MessagePackReader.Type second = reader.nextType();
+
+        if (second == MessagePackReader.Type.ARRAY) {
+            int size = reader.readArrayHeader();
+            List<LogEntryDTO> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(readEntry(reader, tag));
+            }
+            Options options = length > 2 ? readOptions(reader) : Options.NONE;
+            return new Chunk(Mode.FORWARD, entries, options.chunk);
+        }
+
+        if (second == MessagePackReader.Type.BINARY || second == MessagePackReader.Type.STRING) {
+            int size = reader.readRawLength();
+            int packedStart = reader.position();
+            reader.skipBytes(size);
+            Options options = length > 2 ? readOptions(reader) : Options.NONE;
+            MessagePackReader packed;
+            Mode mode;
+            if (options.compressed == null) {
+                packed = new MessagePackReader(buf, packedStart, packedStart + size);
+                mode = Mode.PACKED_FORWARD;
+            } else if (GZIP.equals(options.compressed)) {
+                byte[] data = gunzip(buf, packedStart, size);
+                packed = new MessagePackReader(data, 0, data.length);
+                mode = Mode.COMPRESSED_PACKED_FORWARD;
+            } else {
+                throw new ForwardProtocolException("Unsupported compression: " + options.compressed);
+            }
+            List<LogEntryDTO> entries = new ArrayList<>();
+            while (packed.hasRemaining()) {
+                entries.add(readEntry(packed, tag));
+            }
+            return new Chunk(mode, entries, options.chunk);
+        }
+
+        if (length < 3) {
+            throw new ForwardProtocolException("Message event without a record");
+        }
+        Instant time = readTime(reader);
+        LogEntryDTO logEntry = readRecord(reader, tag, time);
+        Options options = length > 3 ? readOptions(reader) : Options.NONE;
+        return new Chunk(Mode.MESSAGE, List.of(logEntry), options.chunk);
+    }
+
+    /**
+     * {@code [time, record]}
+     */
+    private LogEntryDTO readEntry(MessagePackReader reader, String tag) {
+        int length = reader.readArrayHeader();
+        if (length < 2) {
+            throw new ForwardProtocolException("Forward entry must be [time, record]");
+        }
+        Instant time = readTime(reader);
+        LogEntryDTO logEntry = readRecord(reader, tag, time);
+        for (int i = 2; i < length; i++) {
+            reader.skipValue();
+        }
+        return logEntry;
+    }
+
+    private static Instant readTime(MessagePackReader reader) {
+        switch (reader.nextType()) {
+            case INTEGER -> {
+                return Instant.ofEpochSecond(reader.readLong());
+            }
+            case FLOAT -> {
+                double seconds = reader.readDouble();
+                long whole = (long) Math.floor(seconds);
+                return Instant.ofEpochSecond(whole, Math.round((seconds - whole) * 1_000_000_000L));
+            }
+            case EXTENSION -> {
+                int length = reader.readExtensionHeader();
+                if (reader.extensionType() == EVENT_TIME_TYPE && length == 8) {
+                    return Instant.ofEpochSecond(reader.readUnsigned32(), reader.readUnsigned32());
+                }
+                reader.skipBytes(length);
+                return null;
+            }
+            default -> {
+                reader.skipValue();
+                return null;
+            }
+        }
+    }
+
+    private static LogEntryDTO readRecord(MessagePackReader reader, String tag, Instant time) {
+        int size = reader.readMapHeader();
+        LogEntryDTO logEntry = new LogEntryDTO();
+        Map<String, Object> metadata = new HashMap<>(size + 1);
+        String level = null;
+        for (int i = 0; i < size; i++) {
+            MessagePackReader.Type keyType = reader.nextType();
+            if (keyType != MessagePackReader.Type.STRING && keyType != MessagePackReader.Type.BINARY) {
+                reader.skipValue();
+                reader.skipValue();
+                continue;
+            }
+            String key = reader.readString();
+            switch (key) {
+                case "log", "message", "msg" -> {
+                    if (logEntry.getMessage() == null) {
+                        logEntry.setMessage(stripNewline(text(reader)));
+                    } else {
+                        putIfNotNull(metadata, key, reader.readValue());
+                    }
+                }
+                case "level", "severity", "log.level" -> level = text(reader);
+                case "service", "service.name" -> logEntry.setService(text(reader));
+                case "host", "hostname" -> logEntry.setHost(text(reader));
+                case "environment", "env" -> logEntry.setEnvironment(text(reader));
+                case "trace_id", "traceId" -> logEntry.setTraceId(text(reader));
+                case "span_id", "spanId" -> logEntry.setSpanId(text(reader));
+                default -> putIfNotNull(metadata, key, reader.readValue());
+            }
+        }
+        LogLevel logLevel = LogLevel.fromText(level);
+        logEntry.setLevel(logLevel != null ? logLevel.name() : LogLevel.INFO.name());
+        if (logEntry.getService() == null) {
+            logEntry.setService(tag);
+        }
+        logEntry.setTimestamp(time);
+        metadata.put(TAG, tag);
+        logEntry.setMetadata(metadata);
+        return logEntry;
+    }
+
+    private static Options readOptions(MessagePackReader reader) {
+        if (reader.nextType() != MessagePackReader.Type.MAP) {
+            reader.skipValue();
+            return Options.NONE;
+        }
+        int size = reader.readMapHeader();
+        String chunk = null;
+        String compressed = null;
+        for (int i = 0; i < size; i++) {
+            String key = reader.readString();
+            switch (key) {
+                case "chunk" -> chunk = text(reader);
+                case "compressed" -> compressed = text(reader);
+                default -> reader.skipValue();
+            }
+        }
+        return new Options(chunk, compressed);
+    }
+
+    /**
+     * A string value as is, nil as null, anything else in its string form
+     */
+    private static String text(MessagePackReader reader) {
+        MessagePackReader.Type type = reader.nextType();
+        if (type == MessagePackReader.Type.STRING || type == MessagePackReader.Type.BINARY) {
+            return reader.readString();
+        }
+        Object value = reader.readValue();
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private static String stripNewline(String message) {
+        if (message != null && message.endsWith("\n")) {
+            int end = message.length() - 1;
+            if (end > 0 && message.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return message.substring(0, end);
+        }
+        return message;
+    }
+
+    private static void putIfNotNull(Map<String, Object> metadata, String key, Object value) {
+        if (value != null) {
+            metadata.put(key, value);
+        }
+    }
+
+    /**
+     * Inflate a gzip payload, which may hold several concatenated members
+     */
+    private byte[] gunzip(byte[] buf, int offset, int length) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(buf, offset, length))) {
+            byte[] data = new byte[Math.min(maxChunkSize, Math.max(1024, length * 4))];
+            int size = 0;
+            int read;
+            while ((read = in.read(data, size, data.length - size)) >= 0) {
+                size += read;
+                if (size == data.length) {
+                    if (size >= maxChunkSize) {
+                        if (in.read() < 0) {
+                            break;
+                        }
+                        throw new ForwardProtocolException("Decompressed chunk exceeds " + maxChunkSize + " bytes");
+                    }
+                    data = Arrays.copyOf(data, (int) Math.min(maxChunkSize, 2L * data.length));
+                }
+            }
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        } catch (IOException e) {
+            throw new ForwardProtocolException("Invalid gzip payload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Event mode, as the protocol specification names them
+     */
+    public enum Mode {
+        MESSAGE,
+        FORWARD,
+        PACKED_FORWARD,
+        COMPRESSED_PACKED_FORWARD
+    }
+
+    /**
+     * The entries of one event, and the chunk ID to acknowledge, if any
+     */
+    public record Chunk(Mode mode, List<LogEntryDTO> entries, String chunkId) {
+    }
+
+    private record Options(String chunk, String compressed) {
+
+        static final Options NONE = new Options(null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+/**
+ * Thrown when a Forward protocol event is not valid MessagePack or does not
+ * have the shape of a Message, Forward or PackedForward event
+ */
+public class ForwardProtocolException extends RuntimeException {
+
+    public ForwardProtocolException(String message) {
+        super(message);
+    }
+
+    public ForwardProtocolException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,317 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fluent Forward protocol listener for Fluent Bit and Fluentd agents.
+ * <p>
+ * Each connection is served by its own thread with blocking reads, so a
+ * slow publish path stops reading and TCP flow control pushes back on the
+ * agent. All events already complete in the read buffer are decoded and
+ * ingested together as one batch through {@link BatchIngestionService};
+ * their chunk IDs are acknowledged only once the batch has been handed to
+ * the publisher, which gives agents that request acks at-least-once
+ * delivery. When publishing fails, or the rate limiter refuses some of the
+ * entries, nothing is acknowledged and the connection is closed, so the
+ * agent retries.
+ */
+@Slf4j
+public class ForwardServer implements SmartLifecycle {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IngestionProperties.Forward settings;
+    private final ForwardDecoder decoder;
+    private final BatchIngestionService batchIngestionService;
+    private final int maxChunkSize;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final Map<ForwardDecoder.Mode, Counter> received = new EnumMap<>(ForwardDecoder.Mode.class);
+    private final Counter rejected;
+    private final Counter publishFailures;
+    private final Counter protocolErrors;
+
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private ThreadPoolExecutor connectionExecutor;
+    private Thread acceptorThread;
+
+    public ForwardServer(IngestionProperties.Forward settings,
+                         BatchIngestionService batchIngestionService,
+                         MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.maxChunkSize = (int) settings.getMaxChunkSize().toBytes();
+        this.decoder = new ForwardDecoder(maxChunkSize);
+        this.batchIngestionService = batchIngestionService;
+        for (ForwardDecoder.Mode mode : ForwardDecoder.Mode.values()) {
+            received.put(mode, Counter.builder("ingestion.forward.received")
+                    .description("Entries received over the Forward protocol")
+                    .tag("mode", mode.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.rejected = Counter.builder("ingestion.forward.rejected")
+                .description("Forward entries rejected by validation or the rate limit")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("ingestion.forward.publish.failures")
+                .description("Forward entries left unacknowledged because publishing failed")
+                .register(meterRegistry);
+        this.protocolErrors = Counter.builder("ingestion.forward.protocol.errors")
+                .description("Forward connections closed on malformed or oversize events")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.forward.connections", sockets, Set::size)
+                .description("Open Forward connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bound port, or -1 if the server is not running
+     */
+    public int getPort() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Forward accept failed: {}", e.getMessage());
+                }
+                continue;
+            }
+            try {
+                sockets.add(socket);
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                log.warn("Refusing Forward connection from {}: {} connections open",
+                        socket.getRemoteSocketAddress(), settings.getMaxConnections());
+                close(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            byte[] buf = new byte[Math.min(INITIAL_BUFFER_SIZE, maxChunkSize)];
+            int limit = 0;
+            while (running) {
+                if (limit == buf.length) {
+                    if (buf.length >= maxChunkSize) {
+                        throw new ForwardProtocolException("Event exceeds " + maxChunkSize + " bytes");
+                    }
+                    buf = Arrays.copyOf(buf, (int) Math.min(maxChunkSize, 2L * buf.length));
+                }
+                int read = in.read(buf, limit, buf.length - limit);
+                if (read < 0) {
+                    return;
+                }
+                limit += read;
+                int consumed = process(buf, limit, out);
+                if (consumed > 0) {
+                    System.arraycopy(buf, consumed, buf, 0, limit - consumed);
+                    limit -= consumed;
+                }
+            }
+        } catch (ForwardProtocolException e) {
+            protocolErrors.increment();
+            log.warn("Closing Forward connection from {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (PublishFailedException e) {
+            log.warn("Closing Forward connection from {} without ack: {}",
+                    socket.getRemoteSocketAddress(), e.getCause().getMessage());
+        } catch (RateLimitedException e) {
+            log.debug("Closing Forward connection from {} without ack: {}",
+                    socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (SocketException e) {
+            log.debug("Forward connection from {} closed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (IOException e) {
+            log.warn("Forward connection from {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Decode and ingest every complete event in {@code buf[0, limit)}, then
+     * acknowledge the chunks that asked for it unless the rate limiter refused
+     * some of their entries
+     *
+     * @return number of bytes consumed
+     */
+    private int process(byte[] buf, int limit, OutputStream out) throws IOException {
+        List<LogEntryDTO> batch = new ArrayList<>();
+        List<String> chunkIds = new ArrayList<>();
+        int pos = 0;
+        int end;
+        while (pos < limit && (end = MessagePackReader.skip(buf, pos, limit)) > 0) {
+            ForwardDecoder.Chunk chunk = decoder.decode(buf, pos, end);
+            received.get(chunk.mode()).increment(chunk.entries().size());
+            batch.addAll(chunk.entries());
+            if (chunk.chunkId() != null) {
+                chunkIds.add(chunk.chunkId());
+            }
+            pos = end;
+        }
+        if (pos == 0) {
+            return 0;
+        }
+
+        BatchIngestionService.IngestResult result;
+        try {
+            result = batchIngestionService.ingest(batch);
+            rejected.increment(result.rejected());
+        } catch (RuntimeException e) {
+            publishFailures.increment(batch.size());
+            throw new PublishFailedException(e);
+        }
+        if (!chunkIds.isEmpty()) {
+            if (result.rateLimited() > 0) {
+                // Throttled entries are accepted when resent, so leave the chunks unacknowledged
+                throw new RateLimitedException(result.rateLimited() + " of " + batch.size() + " entries rate limited");
+            }
+            for (String chunkId : chunkIds) {
+                out.write(ack(chunkId));
+            }
+            out.flush();
+        }
+        return pos;
+    }
+
+    /**
+     * {@code {"ack": chunkId}} as MessagePack
+     */
+    static byte[] ack(String chunkId) {
+        byte[] id = chunkId.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream ack = new ByteArrayOutputStream(id.length + 8);
+        ack.write(0x81);
+        ack.write(0xa3);
+        ack.writeBytes("ack".getBytes(StandardCharsets.US_ASCII));
+        if (id.length < 32) {
+            ack.write(0xa0 | id.length);
+        } else if (id.length < 256) {
+            ack.write(0xd9);
+            ack.write(id.length);
+        } else {
+            ack.write(0xda);
+            ack.write(id.length >>> 8);
+            ack.write(id.length);
+        }
+        ack.writeBytes(id);
+        return ack.toByteArray();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(settings.getBindAddress(), settings.getPort()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start Forward listener on "
+                    + settings.getBindAddress() + ":" + settings.getPort(), e);
+        }
+        connectionExecutor = new ThreadPoolExecutor(0, settings.getMaxConnections(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "forward-connection-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        running = true;
+        acceptorThread = new Thread(this::acceptLoop, "forward-acceptor");
+        acceptorThread.setDaemon(true);
+        acceptorThread.start();
+        log.info("Forward listener started on port {}", getPort());
+    }
+
+    /**
+     * Stop accepting, close open connections and wait for in-flight batches
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        close(serverSocket);
+        for (Socket socket : sockets) {
+            close(socket);
+        }
+        connectionExecutor.shutdown();
+        try {
+            acceptorThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            connectionExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        serverSocket = null;
+        acceptorThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static void close(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Closing Forward socket failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishing a batch failed; its chunks must not be acknowledged
+     */
+    private static final class PublishFailedException extends RuntimeException {
+
+        private PublishFailedException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+
+    private static final class RateLimitedException extends RuntimeException {
+
+        private RateLimitedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal MessagePack reader over a byte array region, covering what Forward
+ * protocol events carry. Values are read in place; only strings and the
+ * containers returned by {@link #readValue()} are allocated.
+ */
+final class MessagePackReader {
+
+    /**
+     * Deepest nesting of arrays and maps {@link #readValue()} accepts; each
+     * level costs one byte on the wire but a stack frame to decode
+     */
+    static final int MAX_NESTING_DEPTH = 64;
+
+    private static final int NIL = 0xc0;
+    private static final int FALSE = 0xc2;
+    private static final int TRUE = 0xc3;
+
+    /**
+     * Kind of the next value
+     */
+    enum Type {
+        NIL, BOOLEAN, INTEGER, FLOAT, STRING, BINARY, ARRAY, MAP, EXTENSION
+    }
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+    private int extensionType;
+
+    MessagePackReader(byte[] buf, int offset, int limit) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = limit;
+    }
+
+    boolean hasRemaining() {
+        return pos < limit;
+    }
+
+    int position() {
+        return pos;
+    }
+
+    /**
+     * End of the value starting at {@code pos}, without decoding it
+     *
+     * @return index just past the value, or -1 if it extends past {@code limit}
+     * @throws ForwardProtocolException if a byte is not a valid format
+     */
+    static int skip(byte[] buf, int pos, int limit) {
+        long pending = 1;
+        long p = pos;
+        while (pending > 0) {
+            if (p >= limit) {
+                return -1;
+            }
+            int b = buf[(int) p] & 0xff;
+            pending--;
+            p++;
+            if (b <= 0x7f || b >= 0xe0 || b == NIL || b == FALSE || b == TRUE) {
+                continue;
+            } else if (b <= 0x8f) {
+                pending += 2L * (b & 0x0f);
+                continue;
+            } else if (b <= 0x9f) {
+                pending += b & 0x0f;
+                continue;
+            } else if (b <= 0xbf) {
+                p += b & 0x1f;
+                continue;
+            }
+            int headerLength = switch (b) {
+                case 0xc4, 0xc7, 0xcc, 0xd0, 0xd9 -> 1;
+                case 0xc5, 0xc8, 0xcd, 0xd1, 0xda, 0xdc, 0xde -> 2;
+                case 0xc6, 0xc9, 0xca, 0xce, 0xd2, 0xdb, 0xdd, 0xdf -> 4;
+                case 0xcb, 0xcf, 0xd3 -> 8;
+                case 0xd4, 0xd5, 0xd6, 0xd7, 0xd8 -> 1;
+                default -> throw new ForwardProtocolException(
+                        "Invalid MessagePack format byte 0x" + Integer.toHexString(b));
+            };
+            if (p + headerLength > limit) {
+                return -1;
+            }
+            int at = (int) p;
+            p += headerLength;
+            switch (b) {
+                case 0xc4, 0xd9 -> p += buf[at] & 0xff;
+                case 0xc5, 0xda -> p += readUnsigned16(buf, at);
+                case 0xc6, 0xdb -> p += readUnsigned32(buf, at);
+                case 0xc7 -> p += 1 + (buf[at] & 0xff);
+                case 0xc8 -> p += 1 + readUnsigned16(buf, at);
+                case 0xc9 -> p += 1 + readUnsigned32(buf, at);
+                case 0xd4 -> p += 1;
+                case 0xd5 -> p += 2;
+                case 0xd6 -> p += 4;
+                case 0xd7 -> p += 8;
+                case 0xd8 -> p += 16;
+                case 0xdc -> pending += readUnsigned16(buf, at);
+                case 0xdd -> pending += readUnsigned32(buf, at);
+                case 0xde -> pending += 2L * readUnsigned16(buf, at);
+                case 0xdf -> pending += 2L * readUnsigned32(buf, at);
+                default -> {
+                    // Fixed-size scalar: the header was the value
+                }
+            }
+        }
+        return p > limit ? -1 : (int) p;
+    }
+
+    Type nextType() {
+        require(1);
+        int b = buf[pos] & 0xff;
+        if (b <= 0x7f || b >= 0xe0) {
+            return Type.INTEGER;
+        } else if (b <= 0x8f) {
+            return Type.MAP;
+        } else if (b <= 0x9f) {
+            return Type.ARRAY;
+        } else if (b <= 0xbf) {
+            return Type.STRING;
+        }
+        return switch (b) {
+            case NIL -> Type.NIL;
+            case FALSE, TRUE -> Type.BOOLEAN;
+            case 0xc4, 0xc5, 0xc6 -> Type.BINARY;
+            case 0xc7, 0xc8, 0xc9, 0xd4, 0xd5, 0xd6, 0xd7, 0xd8 -> Type.EXTENSION;
+            case 0xca, 0xcb -> Type.FLOAT;
+            case 0xcc, 0xcd, 0xce, 0xcf, 0xd0, 0xd1, 0xd2, 0xd3 -> Type.INTEGER;
+            case 0xd9, 0xda, 0xdb -> Type.STRING;
+            case 0xdc, 0xdd -> Type.ARRAY;
+            case 0xde, 0xdf -> Type.MAP;
+            default -> throw new ForwardProtocolException("Invalid MessagePack format byte 0x" + Integer.toHexString(b));
+        };
+    }
+
+    int readArrayHeader() {
+        int b = readByte();
+        if ((b & 0xf0) == 0x90) {
+            return b & 0x0f;
+        }
+        return switch (b) {
+            case 0xdc -> readUnsigned16();
+            case 0xdd -> length(readUnsigned32());
+            default -> throw unexpected("array", b);
+        };
+    }
+
+    int readMapHeader() {
+        int b = readByte();
+        if ((b & 0xf0) == 0x80) {
+            return b & 0x0f;
+        }
+        return switch (b) {
+            case 0xde -> readUnsigned16();
+            case 0xdf -> length(readUnsigned32());
+            default -> throw unexpected("map", b);
+        };
+    }
+
+    /**
+     * Length of a str or bin value, leaving the position at its first byte
+     */
+    int readRawLength() {
+        int b = readByte();
+        if ((b & 0xe0) == 0xa0) {
+            return b & 0x1f;
+        }
+        return switch (b) {
+            case 0xc4, 0xd9 -> readByte();
+            case 0xc5, 0xda -> readUnsigned16();
+            case 0xc6, 0xdb -> length(readUnsigned32());
+            default -> throw unexpected("string or binary", b);
+        };
+    }
+
+    /**
+     * A str value, or a bin value taken as UTF-8
+     */
+    String readString() {
+        int length = readRawLength();
+        require(length);
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    long readLong() {
+        int b = readByte();
+        if (b <= 0x7f) {
+            return b;
+        } else if (b >= 0xe0) {
+            return (byte) b;
+        }
+        return switch (b) {
+            case 0xcc -> readByte();
+            case 0xcd -> readUnsigned16();
+            case 0xce -> readUnsigned32();
+            case 0xcf, 0xd3 -> readInt64();
+            case 0xd0 -> (byte) readByte();
+            case 0xd1 -> (short) readUnsigned16();
+            case 0xd2 -> (int) readUnsigned32();
+            default -> throw unexpected("integer", b);
+        };
+    }
+
+    double readDouble() {
+        int b = readByte();
+        return switch (b) {
+            case 0xca -> Float.intBitsToFloat((int) readUnsigned32());
+            case 0xcb -> Double.longBitsToDouble(readInt64());
+            default -> throw unexpected("float", b);
+        };
+    }
+
+    boolean readBoolean() {
+        int b = readByte();
+        if (b != FALSE && b != TRUE) {
+            throw unexpected("boolean", b);
+        }
+        return b == TRUE;
+    }
+
+    void readNil() {
+        int b = readByte();
+        if (b != NIL) {
+            throw unexpected("nil", b);
+        }
+    }
+
+    /**
+     * Read an ext header; its type is then available from {@link #extensionType()}
+     *
+     * @return length of the ext payload that follows
+     */
+    int readExtensionHeader() {
+        int b = readByte();
+        int length = switch (b) {
+            case 0xd4 -> 1;
+            case 0xd5 -> 2;
+            case 0xd6 -> 4;
+            case 0xd7 -> 8;
+            case 0xd8 -> 16;
+            case 0xc7 -> readByte();
+            case 0xc8 -> readUnsigned16();
+            case 0xc9 -> length(readUnsigned32());
+            default -> throw unexpected("extension", b);
+        };
+        extensionType = (byte) readByte();
+        return length;
+    }
+
+    int extensionType() {
+        return extensionType;
+    }
+
+    long readUnsigned32() {
+        require(4);
+        long value = readUnsigned32(buf, pos);
+        pos += 4;
+        return value;
+    }
+
+    void skipBytes(int length) {
+        require(length);
+        pos += length;
+    }
+
+    void skipValue() {
+        int end = skip(buf, pos, limit);
+        if (end < 0) {
+            throw new ForwardProtocolException("Truncated MessagePack value");
+        }
+        pos = end;
+    }
+
+    /**
+     * The next value as a String, Boolean, Long, Double, List or Map (with
+     * String keys); bin values become base64 strings and ext values null
+     *
+     * @throws ForwardProtocolException if arrays and maps are nested deeper than {@link #MAX_NESTING_DEPTH}
+     */
+    Object readValue() {
+        return readValue(0);
+    }
+
+    private Object readValue(int depth) {
+        if (depth > MAX_NESTING_DEPTH) {
+            throw new ForwardProtocolException("MessagePack value nested deeper than " + MAX_NESTING_DEPTH + " levels");
+        }
+        switch (nextType()) {
+            case NIL -> {
+                readNil();
+                return null;
+            }
+            case BOOLEAN -> {
+                return readBoolean();
+            }
+            case INTEGER -> {
+                return readLong();
+            }
+            case FLOAT -> {
+                return readDouble();
+            }
+            case STRING -> {
+                return readString();
+            }
+            case BINARY -> {
+                int length = readRawLength();
+                require(length);
+                String value = Base64.getEncoder().encodeToString(Arrays.copyOfRange(buf, pos, pos + length));
+                pos += length;
+                return value;
+            }
+            case ARRAY -> {
+                int size = readArrayHeader();
+                List<Object> values = new ArrayList<>(Math.min(size, 64));
+                for (int i = 0; i < size; i++) {
+                    values.add(readValue(depth + 1));
+                }
+                return values;
+            }
+            case MAP -> {
+                int size = readMapHeader();
+                Map<String, Object> values = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(depth + 1);
+                    values.put(String.valueOf(key), readValue(depth + 1));
+                }
+                return values;
+            }
+            default -> {
+                skipValue();
+                return null;
+            }
+        }
+    }
+
+    private int readByte() {
+        require(1);
+        return buf[pos++] & 0xff;
+    }
+
+    private int readUnsigned16() {
+        require(2);
+        int value = readUnsigned16(buf, pos);
+        pos += 2;
+        return value;
+    }
+
+    private long readInt64() {
+        require(8);
+        long value = (readUnsigned32(buf, pos) << 32) | readUnsigned32(buf, pos + 4);
+        pos += 8;
+        return value;
+    }
+
+    private void require(int length) {
+        if (length < 0 || limit - pos < length) {
+            throw new ForwardProtocolException("Truncated MessagePack value");
+        }
+    }
+
+    private static int length(long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new ForwardProtocolException("MessagePack length out of range: " + length);
+        }
+        return (int) length;
+    }
+
+    private static int readUnsigned16(byte[] buf, int at) {
+        return ((buf[at] & 0xff) << 8) | (buf[at + 1] & 0xff);
+    }
+
+    private static long readUnsigned32(byte[] buf, int at) {
+        return ((long) (buf[at] & 0xff) << 24) | ((buf[at + 1] & 0xff) << 16)
+                | ((buf[at + 2] & 0xff) << 8) | (buf[at + 3] & 0xff);
+    }
+
+    private static ForwardProtocolException unexpected(String expected, int formatByte) {
+        return new ForwardProtocolException("Expected MessagePack " + expected + " but found format byte 0x"
+                + Integer.toHexString(formatByte));
+    }
+}
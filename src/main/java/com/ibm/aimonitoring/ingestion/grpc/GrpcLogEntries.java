@@ -0,0 +1,92 @@
+package com.ibm.aimonitoring.ingestion.grpc;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogEntry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps {@code LogEntry} messages onto log entries. Empty strings, proto3's
+ * default, are taken as unset; whole numbers in metadata come out as Long,
+ * as they would from JSON.
+ */
+final class GrpcLogEntries {
+
+    private static final double MAX_EXACT_LONG = 0x1p53;
+
+    private GrpcLogEntries() {
+    }
+
+    static LogEntryDTO toLogEntry(LogEntry entry) {
+        LogEntryDTO logEntry = new LogEntryDTO();
+        if (entry.hasTimestamp()) {
+            Timestamp timestamp = entry.getTimestamp();
+            logEntry.setTimestamp(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()));
+        }
+        logEntry.setLevel(emptyToNull(entry.getLevel()));
+        logEntry.setMessage(emptyToNull(entry.getMessage()));
+        logEntry.setService(emptyToNull(entry.getService()));
+        logEntry.setHost(emptyToNull(entry.getHost()));
+        logEntry.setEnvironment(emptyToNull(entry.getEnvironment()));
+        logEntry.setTraceId(emptyToNull(entry.getTraceId()));
+        logEntry.setSpanId(emptyToNull(entry.getSpanId()));
+        if (entry.hasMetadata()) {
+            logEntry.setMetadata(toMap(entry.getMetadata()));
+        }
+        return logEntry;
+    }
+
+    static List<LogEntryDTO> toLogEntries(List<LogEntry> entries) {
+        List<LogEntryDTO> logEntries = new ArrayList<>(entries.size());
+        for (LogEntry entry : entries) {
+            logEntries.add(toLogEntry(entry));
+        }
+        return logEntries;
+    }
+
+    private static Map<String, Object> toMap(Struct struct) {
+        Map<String, Object> map = new HashMap<>(Math.max(4, struct.getFieldsCount() * 2));
+        for (Map.Entry<String, Value> field : struct.getFieldsMap().entrySet()) {
+            map.put(field.getKey(), toObject(field.getValue()));
+        }
+        return map;
+    }
+
+    private static Object toObject(Value value) {
+        return switch (value.getKindCase()) {
+            case STRING_VALUE -> value.getStringValue();
+            case NUMBER_VALUE -> toNumber(value.getNumberValue());
+            case BOOL_VALUE -> value.getBoolValue();
+            case STRUCT_VALUE -> toMap(value.getStructValue());
+            case LIST_VALUE -> toList(value.getListValue());
+            case NULL_VALUE, KIND_NOT_SET -> null;
+        };
+    }
+
+    private static List<Object> toList(ListValue listValue) {
+        List<Object> list = new ArrayList<>(listValue.getValuesCount());
+        for (Value value : listValue.getValuesList()) {
+            list.add(toObject(value));
+        }
+        return list;
+    }
+
+    private static Number toNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_LONG) {
+            return (long) value;
+        }
+        return value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ibm.aimonitoring.ingestion.grpc;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the {@link LogIngestionGrpcService} on its own port over Netty
+ */
+@Slf4j
+public class GrpcServer implements SmartLifecycle {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IngestionProperties.Grpc settings;
+    private final BatchIngestionService batchIngestionService;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Server server;
+    private ScheduledExecutorService scheduler;
+
+    public GrpcServer(IngestionProperties.Grpc settings,
+                      BatchIngestionService batchIngestionService,
+                      MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.batchIngestionService = batchIngestionService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Bound port, or -1 if the server is not running
+     */
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grpc-stream-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LogIngestionGrpcService service =
+                new LogIngestionGrpcService(settings, batchIngestionService, scheduler, meterRegistry);
+        try {
+            server = NettyServerBuilder
+                    .forAddress(new InetSocketAddress(settings.getBindAddress(), settings.getPort()))
+                    .maxInboundMessageSize((int) settings.getMaxInboundMessageSize().toBytes())
+                    .addService(service)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            scheduler.shutdownNow();
+            throw new IllegalStateException("Cannot start gRPC server on "
+                    + settings.getBindAddress() + ":" + settings.getPort(), e);
+        }
+        log.info("gRPC server started on port {}", getPort());
+    }
+
+    /**
+     * Stop taking calls and give open ones time to finish
+     */
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        scheduler.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
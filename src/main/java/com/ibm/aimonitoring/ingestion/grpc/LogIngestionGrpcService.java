@@ -0,0 +1,275 @@
+package com.ibm.aimonitoring.ingestion.grpc;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.grpc.v1.IngestBatchRequest;
+import com.ibm.aimonitoring.ingestion.grpc.v1.IngestResponse;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogEntry;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogIngestionGrpc;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code LogIngestion} gRPC service. Both RPCs go through
+ * {@link BatchIngestionService}, so entries are validated, rate limited and
+ * published exactly as the HTTP endpoints do it.
+ * <p>
+ * {@code Ingest} streams use manual flow control: the server asks for at most
+ * {@code stream-batch-size} entries at a time, and no more than half the room
+ * left in the publisher, so concurrent streams share that room instead of
+ * overrunning it. While the publisher is full the stream is not read; HTTP/2
+ * flow control then stops the client, and a slow broker slows the stream down
+ * rather than filling the heap.
+ * <p>
+ * When publishing fails mid-stream, the error status carries the
+ * {@link IngestResponse} of everything published until then in the
+ * {@link #PROGRESS_TRAILER} trailer, so the client knows where to resume.
+ */
+@Slf4j
+public class LogIngestionGrpcService extends LogIngestionGrpc.LogIngestionImplBase {
+
+    /**
+     * Error trailer of a failed {@code Ingest} stream counting the entries accepted and rejected before the failure
+     */
+    public static final Metadata.Key<IngestResponse> PROGRESS_TRAILER =
+            ProtoUtils.keyForProto(IngestResponse.getDefaultInstance());
+
+    private final BatchIngestionService batchIngestionService;
+    private final ScheduledExecutorService scheduler;
+    private final int streamBatchSize;
+    private final long flushIntervalNanos;
+    private final long pollIntervalNanos;
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Counter streamReceived;
+    private final Counter batchReceived;
+    private final Counter rejected;
+    private final Counter pauses;
+
+    /**
+     * @param scheduler runs partial-batch flushes and capacity polls of open streams
+     */
+    public LogIngestionGrpcService(IngestionProperties.Grpc settings,
+                                   BatchIngestionService batchIngestionService,
+                                   ScheduledExecutorService scheduler,
+                                   MeterRegistry meterRegistry) {
+        this.batchIngestionService = batchIngestionService;
+        this.scheduler = scheduler;
+        this.streamBatchSize = settings.getStreamBatchSize();
+        this.flushIntervalNanos = settings.getStreamFlushInterval().toNanos();
+        this.pollIntervalNanos = settings.getCapacityPollInterval().toNanos();
+        this.streamReceived = received(meterRegistry, "ingest");
+        this.batchReceived = received(meterRegistry, "ingest_batch");
+        this.rejected = Counter.builder("ingestion.grpc.rejected")
+                .description("gRPC entries rejected by validation or the rate limit")
+                .register(meterRegistry);
+        this.pauses = Counter.builder("ingestion.grpc.stream.pauses")
+                .description("Times an Ingest stream stopped reading because the publisher was full")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.grpc.streams", openStreams, AtomicInteger::get)
+                .description("Open Ingest streams")
+                .register(meterRegistry);
+    }
+
+    private static Counter received(MeterRegistry meterRegistry, String rpc) {
+        return Counter.builder("ingestion.grpc.received")
+                .description("Entries received over gRPC")
+                .tag("rpc", rpc)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void ingestBatch(IngestBatchRequest request, StreamObserver<IngestResponse> responseObserver) {
+        batchReceived.increment(request.getEntriesCount());
+        BatchIngestionService.IngestResult result;
+        try {
+            result = batchIngestionService.ingest(GrpcLogEntries.toLogEntries(request.getEntriesList()));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+            return;
+        }
+        rejected.increment(result.rejected());
+        responseObserver.onNext(response(result.accepted(), result.rejected(), result.errorMessage()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<LogEntry> ingest(StreamObserver<IngestResponse> responseObserver) {
+        ServerCallStreamObserver<IngestResponse> call = (ServerCallStreamObserver<IngestResponse>) responseObserver;
+        call.disableAutoRequest();
+        IngestStream stream = new IngestStream(call);
+        stream.requestMore();
+        return stream;
+    }
+
+    private static Status toStatus(RuntimeException e) {
+        if (e instanceof LogPublisher.PublisherOverloadedException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage());
+        }
+        log.warn("gRPC ingest failed: {}", e.getMessage());
+        return Status.UNAVAILABLE.withDescription("Failed to publish log entries").withCause(e);
+    }
+
+    private static IngestResponse response(long accepted, long rejected, String errorMessage) {
+        IngestResponse.Builder response = IngestResponse.newBuilder()
+                .setAccepted(accepted)
+                .setRejected(rejected);
+        if (errorMessage != null) {
+            response.setErrorMessage(errorMessage);
+        }
+        return response.build();
+    }
+
+    /**
+     * State of one {@code Ingest} call. gRPC delivers its callbacks one at a
+     * time, but flush and poll timers run on the scheduler, so every method
+     * holds the stream's lock.
+     */
+    private final class IngestStream implements StreamObserver<LogEntry> {
+
+        private final ServerCallStreamObserver<IngestResponse> call;
+        private List<LogEntryDTO> pending;
+        private int requested;
+        private long published;
+        private long accepted;
+        private long rejectedCount;
+        private String firstError;
+        private boolean paused;
+        private boolean closed;
+        private ScheduledFuture<?> flushTask;
+
+        private IngestStream(ServerCallStreamObserver<IngestResponse> call) {
+            this.call = call;
+            this.pending = new ArrayList<>(streamBatchSize);
+            openStreams.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void onNext(LogEntry entry) {
+            if (closed) {
+                return;
+            }
+            requested--;
+            streamReceived.increment();
+            pending.add(GrpcLogEntries.toLogEntry(entry));
+            if (pending.size() >= streamBatchSize) {
+                if (!flush()) {
+                    return;
+                }
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flushOnTimer, flushIntervalNanos, TimeUnit.NANOSECONDS);
+            }
+            if (requested == 0) {
+                requestMore();
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (closed) {
+                return;
+            }
+            close();
+            log.debug("Ingest stream ended by the client after {} entries: {}", published + pending.size(),
+                    Status.fromThrowable(t));
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            if (closed || !flush()) {
+                return;
+            }
+            close();
+            call.onNext(response(accepted, rejectedCount, firstError));
+            call.onCompleted();
+        }
+
+        /**
+         * Ask the client for as many entries as the publisher has room for,
+         * or check again later when it has none
+         */
+        synchronized void requestMore() {
+            if (closed) {
+                return;
+            }
+            int count = Math.min(streamBatchSize, batchIngestionService.publishCapacity() / 2);
+            if (count < 1) {
+                if (!paused) {
+                    paused = true;
+                    pauses.increment();
+                }
+                scheduler.schedule(this::requestMore, pollIntervalNanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+            paused = false;
+            requested = count;
+            call.request(count);
+        }
+
+        private synchronized void flushOnTimer() {
+            flushTask = null;
+            if (!closed) {
+                flush();
+            }
+        }
+
+        /**
+         * Publish the pending entries
+         *
+         * @return false if publishing failed and the stream was closed with an error
+         */
+        private boolean flush() {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (pending.isEmpty()) {
+                return true;
+            }
+            List<LogEntryDTO> batch = pending;
+            pending = new ArrayList<>(streamBatchSize);
+            BatchIngestionService.IngestResult result;
+            try {
+                result = batchIngestionService.ingest(batch, published);
+            } catch (RuntimeException e) {
+                close();
+                Metadata trailers = new Metadata();
+                trailers.put(PROGRESS_TRAILER, response(accepted, rejectedCount, firstError));
+                call.onError(toStatus(e).asRuntimeException(trailers));
+                return false;
+            }
+            published += batch.size();
+            accepted += result.accepted();
+            rejectedCount += result.rejected();
+            rejected.increment(result.rejected());
+            if (firstError == null) {
+                firstError = result.errorMessage();
+            }
+            return true;
+        }
+
+        private void close() {
+            closed = true;
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            openStreams.decrementAndGet();
+        }
+    }
+}
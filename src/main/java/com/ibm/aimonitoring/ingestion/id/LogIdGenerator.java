@@ -0,0 +1,12 @@
+package com.ibm.aimonitoring.ingestion.id;
+
+/**
+ * Source of the IDs assigned to ingested log entries
+ */
+public interface LogIdGenerator {
+
+    /**
+     * Generate a new, unique log ID
+     */
+    String nextId();
+}
@@ -0,0 +1,14 @@
+package com.ibm.aimonitoring.ingestion.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs from {@link UUID#randomUUID()}, backed by {@code SecureRandom}
+ */
+public class RandomUuidLogIdGenerator implements LogIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ibm.aimonitoring.ingestion.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond
+ * timestamp followed by 74 bits of counter and randomness.
+ * <p>
+ * Each thread keeps its own state, so generation takes no locks and never
+ * touches {@code SecureRandom}. Within a millisecond a thread's IDs are
+ * strictly increasing: the 12-bit {@code rand_a} field and the top 30 bits of
+ * {@code rand_b} form a counter that starts at a random value each
+ * millisecond, and the remaining 32 bits are random per ID so threads do not
+ * collide. If the counter runs out, or the clock steps back, the timestamp is
+ * advanced past the last one used.
+ */
+public class UuidV7LogIdGenerator implements LogIdGenerator {
+
+    private static final int COUNTER_BITS = 42;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    /**
+     * Counters start in the lower half of their range, leaving room to count up
+     */
+    private static final long COUNTER_SEED_MASK = COUNTER_MASK >>> 1;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public UuidV7LogIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7LogIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    /**
+     * Generate the next ID as a {@link UUID}
+     */
+    public UUID nextUuid() {
+        State current = state.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = clock.getAsLong();
+
+        if (now > current.millis) {
+            current.millis = now;
+            current.counter = random.nextLong() & COUNTER_SEED_MASK;
+        } else if (++current.counter > COUNTER_MASK) {
+            current.millis++;
+            current.counter = random.nextLong() & COUNTER_SEED_MASK;
+        }
+
+        long randA = current.counter >>> 30;
+        long counterLow = current.counter & ((1L << 30) - 1);
+        long mostSigBits = (current.millis << 16) | 0x7000L | randA;
+        long leastSigBits = 0x8000_0000_0000_0000L | (counterLow << 32) | (random.nextInt() & 0xFFFF_FFFFL);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static final class State {
+        private long millis = Long.MIN_VALUE;
+        private long counter;
+    }
+}
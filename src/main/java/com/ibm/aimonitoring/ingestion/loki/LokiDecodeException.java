@@ -0,0 +1,15 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+/**
+ * Thrown when a Loki push request body cannot be decoded
+ */
+public class LokiDecodeException extends RuntimeException {
+
+    public LokiDecodeException(String message) {
+        super(message);
+    }
+
+    public LokiDecodeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,247 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps Loki stream labels onto log entry fields. The first label present from
+ * each of the configured service, host, environment and level lists fills
+ * that field; every other label goes into metadata under its own name.
+ * <p>
+ * Agents send the same few label sets over and over, so the mapping is
+ * cached per distinct label string; beyond {@code max-cached-label-sets}
+ * label sets are mapped per stream.
+ */
+@Component
+public class LokiLabels {
+
+    private final List<String> serviceLabels;
+    private final List<String> hostLabels;
+    private final List<String> environmentLabels;
+    private final List<String> levelLabels;
+    private final String defaultService;
+    private final int maxCachedLabelSets;
+    private final Map<String, StreamFields> cache = new ConcurrentHashMap<>();
+
+    public LokiLabels(IngestionProperties ingestionProperties) {
+        IngestionProperties.Loki settings = ingestionProperties.getLoki();
+        this.serviceLabels = List.copyOf(settings.getServiceLabels());
+        this.hostLabels = List.copyOf(settings.getHostLabels());
+        this.environmentLabels = List.copyOf(settings.getEnvironmentLabels());
+        this.levelLabels = List.copyOf(settings.getLevelLabels());
+        this.defaultService = settings.getDefaultService();
+        this.maxCachedLabelSets = settings.getMaxCachedLabelSets();
+    }
+
+    /**
+     * Fields for a label set in Prometheus text form, e.g. {@code {app="checkout", env="prod"}}
+     *
+     * @throws LokiDecodeException if the labels are malformed
+     */
+    public StreamFields fields(String labels) {
+        StreamFields fields = cache.get(labels);
+        if (fields == null) {
+            fields = map(parse(labels));
+            cache(labels, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * Fields for a label set given as a map, as in the JSON push format
+     */
+    public StreamFields fields(Map<String, String> labels) {
+        String key = format(labels);
+        StreamFields fields = cache.get(key);
+        if (fields == null) {
+            fields = map(labels);
+            cache(key, fields);
+        }
+        return fields;
+    }
+
+    int cachedLabelSets() {
+        return cache.size();
+    }
+
+    private void cache(String key, StreamFields fields) {
+        if (cache.size() < maxCachedLabelSets) {
+            cache.put(key, fields);
+        }
+    }
+
+    private StreamFields map(Map<String, String> labels) {
+        Map<String, Object> metadata = new HashMap<>(labels);
+        String service = take(metadata, serviceLabels);
+        String host = take(metadata, hostLabels);
+        String environment = take(metadata, environmentLabels);
+        LogLevel level = LogLevel.fromText(take(metadata, levelLabels));
+        return new StreamFields(
+                service != null ? service : defaultService,
+                host,
+                environment,
+                level != null ? level.name() : LogLevel.INFO.name(),
+                Map.copyOf(metadata));
+    }
+
+    /**
+     * Remove and return the value of the first of {@code names} present
+     */
+    private static String take(Map<String, Object> labels, List<String> names) {
+        for (String name : names) {
+            Object value = labels.get(name);
+            if (value != null) {
+                labels.remove(name);
+                return (String) value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse {@code {name="value", ...}}, with {@code \\}, {@code \"} and
+     * {@code \n} escapes in values
+     */
+    static Map<String, String> parse(String labels) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        int position = skipSpaces(labels, 0);
+        position = expect(labels, position, '{');
+        position = skipSpaces(labels, position);
+        if (position < labels.length() && labels.charAt(position) == '}') {
+            return requireEnd(labels, position + 1, parsed);
+        }
+        while (true) {
+            int nameStart = position;
+            while (position < labels.length() && isNameChar(labels.charAt(position), position == nameStart)) {
+                position++;
+            }
+            if (position == nameStart) {
+                throw malformed(labels);
+            }
+            String name = labels.substring(nameStart, position);
+            position = skipSpaces(labels, position);
+            position = expect(labels, position, '=');
+            position = skipSpaces(labels, position);
+            position = expect(labels, position, '"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (position >= labels.length()) {
+                    throw malformed(labels);
+                }
+                char c = labels.charAt(position++);
+                if (c == '"') {
+                    break;
+                }
+                if (c == '\\') {
+                    if (position >= labels.length()) {
+                        throw malformed(labels);
+                    }
+                    char escaped = labels.charAt(position++);
+                    value.append(escaped == 'n' ? '\n' : escaped);
+                } else {
+                    value.append(c);
+                }
+            }
+            parsed.put(name, value.toString());
+            position = skipSpaces(labels, position);
+            if (position < labels.length() && labels.charAt(position) == ',') {
+                position = skipSpaces(labels, position + 1);
+            } else {
+                position = expect(labels, position, '}');
+                return requireEnd(labels, position, parsed);
+            }
+        }
+    }
+
+    /**
+     * Render a label set the way {@link #parse} reads it
+     */
+    static String format(Map<String, String> labels) {
+        StringBuilder formatted = new StringBuilder(16 * labels.size() + 2).append('{');
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (formatted.length() > 1) {
+                formatted.append(", ");
+            }
+            formatted.append(label.getKey()).append("=\"");
+            String value = label.getValue();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> formatted.append("\\\\");
+                    case '"' -> formatted.append("\\\"");
+                    case '\n' -> formatted.append("\\n");
+                    default -> formatted.append(c);
+                }
+            }
+            formatted.append('"');
+        }
+        return formatted.append('}').toString();
+    }
+
+    private static boolean isNameChar(char c, boolean first) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || (!first && c >= '0' && c <= '9');
+    }
+
+    private static int skipSpaces(String labels, int position) {
+        while (position < labels.length() && labels.charAt(position) == ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int expect(String labels, int position, char expected) {
+        if (position >= labels.length() || labels.charAt(position) != expected) {
+            throw malformed(labels);
+        }
+        return position + 1;
+    }
+
+    private static Map<String, String> requireEnd(String labels, int position, Map<String, String> parsed) {
+        if (skipSpaces(labels, position) != labels.length()) {
+            throw malformed(labels);
+        }
+        return parsed;
+    }
+
+    private static LokiDecodeException malformed(String labels) {
+        return new LokiDecodeException("Malformed stream labels: " + labels);
+    }
+
+    /**
+     * Entry fields shared by every entry of one label set
+     */
+    public record StreamFields(String service, String host, String environment, String level,
+                               Map<String, Object> metadata) {
+
+        /**
+         * A new entry of this stream, with its own copy of the label metadata
+         * and the entry's structured metadata added to it
+         */
+        public LogEntryDTO newEntry(Instant timestamp, String line, Map<String, String> structuredMetadata) {
+            Map<String, Object> entryMetadata = null;
+            if (!metadata.isEmpty() || !structuredMetadata.isEmpty()) {
+                entryMetadata = new HashMap<>(metadata);
+                entryMetadata.putAll(structuredMetadata);
+            }
+            return LogEntryDTO.builder()
+                    .timestamp(timestamp)
+                    .level(level)
+                    .message(line)
+                    .service(service)
+                    .host(host)
+                    .environment(environment)
+                    .metadata(entryMetadata)
+                    .build();
+        }
+    }
+}
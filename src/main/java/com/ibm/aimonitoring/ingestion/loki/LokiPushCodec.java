@@ -0,0 +1,147 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.loki.logproto.EntryAdapter;
+import com.ibm.aimonitoring.ingestion.loki.logproto.LabelPairAdapter;
+import com.ibm.aimonitoring.ingestion.loki.logproto.PushRequest;
+import com.ibm.aimonitoring.ingestion.loki.logproto.StreamAdapter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes Loki push requests, in the snappy-compressed protobuf and in the
+ * JSON form, into log entries grouped by stream. Stream labels are mapped by
+ * {@link LokiLabels}; an entry's structured metadata is added to its metadata.
+ */
+@Component
+public class LokiPushCodec {
+
+    public static final String PROTOBUF_CONTENT_TYPE = "application/x-protobuf";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LokiLabels lokiLabels;
+    private final ObjectMapper objectMapper;
+
+    public LokiPushCodec(LokiLabels lokiLabels, ObjectMapper objectMapper) {
+        this.lokiLabels = lokiLabels;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decode a protobuf {@code PushRequest}, already decompressed
+     *
+     * @return the entries of each stream, in order
+     * @throws LokiDecodeException if the body is not a valid push request
+     */
+    public List<List<LogEntryDTO>> decodeProtobuf(byte[] body) {
+        PushRequest request;
+        try {
+            request = PushRequest.parseFrom(body);
+        } catch (InvalidProtocolBufferException e) {
+            throw new LokiDecodeException("Malformed Loki push request: " + e.getMessage(), e);
+        }
+        List<List<LogEntryDTO>> streams = new ArrayList<>(request.getStreamsCount());
+        for (StreamAdapter stream : request.getStreamsList()) {
+            LokiLabels.StreamFields fields = lokiLabels.fields(stream.getLabels());
+            List<LogEntryDTO> entries = new ArrayList<>(stream.getEntriesCount());
+            for (EntryAdapter entry : stream.getEntriesList()) {
+                entries.add(fields.newEntry(timestamp(entry), entry.getLine(), structuredMetadata(entry)));
+            }
+            streams.add(entries);
+        }
+        return streams;
+    }
+
+    /**
+     * Decode a JSON push request:
+     * {@code {"streams": [{"stream": {...labels}, "values": [["<unix nanos>", "<line>", {...metadata}]]}]}}
+     *
+     * @return the entries of each stream, in order
+     * @throws LokiDecodeException if the body is not a valid push request
+     */
+    public List<List<LogEntryDTO>> decodeJson(byte[] body) {
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new LokiDecodeException("Malformed Loki push request: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new LokiDecodeException("Unreadable Loki push request", e);
+        }
+        if (request == null || !request.isObject()) {
+            throw new LokiDecodeException("Loki push request must be an object");
+        }
+
+        List<List<LogEntryDTO>> streams = new ArrayList<>();
+        for (JsonNode stream : request.path("streams")) {
+            LokiLabels.StreamFields fields = lokiLabels.fields(stringMap(stream.path("stream")));
+            JsonNode values = stream.path("values");
+            List<LogEntryDTO> entries = new ArrayList<>(values.size());
+            for (JsonNode value : values) {
+                if (!value.isArray() || value.size() < 2) {
+                    throw new LokiDecodeException("Loki entry must be [\"<unix nanos>\", \"<line>\"]");
+                }
+                entries.add(fields.newEntry(timestamp(value.get(0).asText()), value.get(1).asText(),
+                        stringMap(value.path(2))));
+            }
+            streams.add(entries);
+        }
+        return streams;
+    }
+
+    private static Instant timestamp(EntryAdapter entry) {
+        if (!entry.hasTimestamp()) {
+            return null;
+        }
+        Timestamp timestamp = entry.getTimestamp();
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
+
+    private static Instant timestamp(String unixNanos) {
+        long nanos;
+        try {
+            nanos = Long.parseLong(unixNanos);
+        } catch (NumberFormatException e) {
+            throw new LokiDecodeException("Loki entry timestamp must be Unix nanoseconds: " + unixNanos, e);
+        }
+        return nanos == 0 ? null : Instant.ofEpochSecond(
+                Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    private static Map<String, String> structuredMetadata(EntryAdapter entry) {
+        if (entry.getStructuredMetadataCount() == 0) {
+            return Map.of();
+        }
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (LabelPairAdapter pair : entry.getStructuredMetadataList()) {
+            metadata.put(pair.getName(), pair.getValue());
+        }
+        return metadata;
+    }
+
+    private static Map<String, String> stringMap(JsonNode object) {
+        if (!object.isObject() || object.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            map.put(field.getKey(), field.getValue().asText());
+        }
+        return map;
+    }
+}
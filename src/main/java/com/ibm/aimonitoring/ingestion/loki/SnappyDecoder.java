@@ -0,0 +1,136 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+/**
+ * Decoder for the snappy block format, as Loki clients compress push
+ * requests: a varint uncompressed length followed by literal and
+ * back-reference elements. The framing (stream) format is not supported.
+ */
+public final class SnappyDecoder {
+
+    private static final int LITERAL = 0;
+    private static final int COPY_1_BYTE_OFFSET = 1;
+    private static final int COPY_2_BYTE_OFFSET = 2;
+
+    private SnappyDecoder() {
+    }
+
+    /**
+     * Uncompressed length announced by a block's header
+     *
+     * @throws LokiDecodeException if the header is truncated or malformed
+     */
+    public static int uncompressedLength(byte[] block) {
+        long length = 0;
+        for (int i = 0, shift = 0; shift < 35; i++, shift += 7) {
+            if (i >= block.length) {
+                throw new LokiDecodeException("Truncated snappy header");
+            }
+            byte b = block[i];
+            length |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                if (length > Integer.MAX_VALUE) {
+                    throw new LokiDecodeException("Snappy block too large");
+                }
+                return (int) length;
+            }
+        }
+        throw new LokiDecodeException("Malformed snappy header");
+    }
+
+    /**
+     * Decompress one block
+     *
+     * @throws LokiDecodeException if the block is truncated or corrupt
+     */
+    public static byte[] decompress(byte[] block) {
+        int length = uncompressedLength(block);
+        int position = 0;
+        while (block[position] < 0) {
+            position++;
+        }
+        position++;
+
+        byte[] output = new byte[length];
+        int written = 0;
+        while (position < block.length) {
+            int tag = block[position++] & 0xff;
+            int elementLength;
+            int offset;
+            switch (tag & 3) {
+                case LITERAL -> {
+                    elementLength = tag >>> 2;
+                    if (elementLength >= 60) {
+                        int lengthBytes = elementLength - 59;
+                        require(block, position, lengthBytes);
+                        elementLength = (int) readLittleEndian(block, position, lengthBytes);
+                        position += lengthBytes;
+                    }
+                    elementLength++;
+                    if (elementLength <= 0 || elementLength > block.length - position
+                            || elementLength > length - written) {
+                        throw new LokiDecodeException("Corrupt snappy literal");
+                    }
+                    System.arraycopy(block, position, output, written, elementLength);
+                    position += elementLength;
+                    written += elementLength;
+                    continue;
+                }
+                case COPY_1_BYTE_OFFSET -> {
+                    require(block, position, 1);
+                    elementLength = ((tag >>> 2) & 7) + 4;
+                    offset = (tag >>> 5) << 8 | block[position++] & 0xff;
+                }
+                case COPY_2_BYTE_OFFSET -> {
+                    require(block, position, 2);
+                    elementLength = (tag >>> 2) + 1;
+                    offset = (int) readLittleEndian(block, position, 2);
+                    position += 2;
+                }
+                default -> {
+                    require(block, position, 4);
+                    elementLength = (tag >>> 2) + 1;
+                    long wideOffset = readLittleEndian(block, position, 4);
+                    offset = wideOffset > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) wideOffset;
+                    position += 4;
+                }
+            }
+            if (offset == 0 || offset > written || elementLength > length - written) {
+                throw new LokiDecodeException("Corrupt snappy copy");
+            }
+            copy(output, written - offset, written, elementLength, offset);
+            written += elementLength;
+        }
+        if (written != length) {
+            throw new LokiDecodeException("Truncated snappy block");
+        }
+        return output;
+    }
+
+    /**
+     * Copy an earlier run of the output; a copy may overlap its own
+     * destination, repeating the last {@code offset} bytes
+     */
+    private static void copy(byte[] output, int from, int to, int length, int offset) {
+        if (offset >= length) {
+            System.arraycopy(output, from, output, to, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            output[to + i] = output[from + i];
+        }
+    }
+
+    private static long readLittleEndian(byte[] block, int position, int count) {
+        long value = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            value = value << 8 | block[position + i] & 0xff;
+        }
+        return value;
+    }
+
+    private static void require(byte[] block, int position, int count) {
+        if (count > block.length - position) {
+            throw new LokiDecodeException("Truncated snappy block");
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.ibm.aimonitoring.ingestion.model;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Enum representing log severity levels
  */
@@ -8,7 +12,58 @@ public enum LogLevel {
     WARN,
     INFO,
     DEBUG,
-    TRACE
+    TRACE;
+
+    private static final Map<String, LogLevel> BY_NAME = new HashMap<>();
+
+    /**
+     * Level names used by other logging systems (syslog, log4j, Python, ...)
+     */
+    private static final Map<String, LogLevel> ALIASES = Map.of(
+            "WARNING", WARN,
+            "FATAL", ERROR,
+            "CRITICAL", ERROR,
+            "CRIT", ERROR,
+            "SEVERE", ERROR,
+            "ERR", ERROR,
+            "EMERG", ERROR,
+            "ALERT", ERROR,
+            "NOTICE", INFO,
+            "INFORMATION", INFO);
+
+    static {
+        for (LogLevel level : values()) {
+            BY_NAME.put(level.name(), level);
+        }
+    }
+
+    /**
+     * Look up a level by its exact name without throwing
+     *
+     * @return the level, or null if the name is not a level
+     */
+    public static LogLevel fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /**
+     * Look up a level by name ignoring case, also accepting common aliases
+     * such as WARNING, FATAL or NOTICE
+     *
+     * @return the level, or null if the text is not a known level
+     */
+    public static LogLevel fromText(String text) {
+        if (text == null) {
+            return null;
+        }
+        LogLevel level = BY_NAME.get(text);
+        if (level != null) {
+            return level;
+        }
+        String name = text.trim().toUpperCase(Locale.ROOT);
+        level = BY_NAME.get(name);
+        return level != null ? level : ALIASES.get(name);
+    }
 }
 
 // Made with Bob
@@ -0,0 +1,15 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+/**
+ * Thrown when an OTLP request body cannot be decoded
+ */
+public class OtlpDecodeException extends RuntimeException {
+
+    public OtlpDecodeException(String message) {
+        super(message);
+    }
+
+    public OtlpDecodeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapping of OTLP log data onto {@link LogEntryDTO} fields, shared by the
+ * protobuf and JSON decoders
+ */
+final class OtlpFields {
+
+    static final String SERVICE_NAME = "service.name";
+    static final String HOST_NAME = "host.name";
+    static final String DEPLOYMENT_ENVIRONMENT = "deployment.environment";
+    static final String DEPLOYMENT_ENVIRONMENT_NAME = "deployment.environment.name";
+    static final String SCOPE_NAME = "otel.scope.name";
+    static final String SCOPE_VERSION = "otel.scope.version";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private OtlpFields() {
+    }
+
+    /**
+     * Level for an OTLP severity number, falling back to the severity text
+     * when the number is unspecified, and to INFO when neither is usable
+     */
+    static String level(int severityNumber, String severityText) {
+        if (severityNumber >= 17) {
+            return LogLevel.ERROR.name();
+        } else if (severityNumber >= 13) {
+            return LogLevel.WARN.name();
+        } else if (severityNumber >= 9) {
+            return LogLevel.INFO.name();
+        } else if (severityNumber >= 5) {
+            return LogLevel.DEBUG.name();
+        } else if (severityNumber >= 1) {
+            return LogLevel.TRACE.name();
+        }
+        LogLevel level = LogLevel.fromText(severityText);
+        return level != null ? level.name() : LogLevel.INFO.name();
+    }
+
+    /**
+     * Event time, or the observed time when the event time is unset
+     */
+    static Instant timestamp(long timeUnixNano, long observedTimeUnixNano) {
+        long nanos = timeUnixNano != 0 ? timeUnixNano : observedTimeUnixNano;
+        return nanos == 0 ? null : Instant.ofEpochSecond(0, nanos);
+    }
+
+    static String hex(byte[] bytes, int offset, int length) {
+        char[] chars = new char[length * 2];
+        for (int i = 0; i < length; i++) {
+            int b = bytes[offset + i] & 0xff;
+            chars[i * 2] = HEX[b >>> 4];
+            chars[i * 2 + 1] = HEX[b & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Fields shared by every record of one resource, and then of one scope
+     * within it
+     */
+    static final class Context {
+
+        private String service;
+        private String host;
+        private String environment;
+        private final Map<String, Object> metadata;
+
+        Context() {
+            this.metadata = new HashMap<>();
+        }
+
+        Context(Context resource) {
+            this.service = resource.service;
+            this.host = resource.host;
+            this.environment = resource.environment;
+            this.metadata = new HashMap<>(resource.metadata);
+        }
+
+        /**
+         * Take a resource attribute: the service, host and environment
+         * conventions map onto their fields, anything else into metadata
+         */
+        void resourceAttribute(String key, Object value) {
+            switch (key) {
+                case SERVICE_NAME -> service = String.valueOf(value);
+                case HOST_NAME -> host = String.valueOf(value);
+                case DEPLOYMENT_ENVIRONMENT_NAME -> environment = String.valueOf(value);
+                case DEPLOYMENT_ENVIRONMENT -> {
+                    if (environment == null) {
+                        environment = String.valueOf(value);
+                    }
+                }
+                default -> metadata.put(key, value);
+            }
+        }
+
+        void metadata(String key, Object value) {
+            metadata.put(key, value);
+        }
+
+        /**
+         * A new entry carrying the resource and scope fields, with its own
+         * copy of their metadata
+         */
+        LogEntryDTO newEntry() {
+            return LogEntryDTO.builder()
+                    .service(service)
+                    .host(host)
+                    .environment(environment)
+                    .metadata(new HashMap<>(metadata))
+                    .build();
+        }
+    }
+
+    /**
+     * Drop an entry's metadata map if nothing was put into it
+     */
+    static void finish(LogEntryDTO logEntry) {
+        if (logEntry.getMetadata().isEmpty()) {
+            logEntry.setMetadata(null);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Decodes OTLP/JSON {@code ExportLogsServiceRequest} bodies into log entries,
+ * with the same mapping as {@link OtlpProtobufCodec}, and encodes the response.
+ * Field names are accepted in lowerCamelCase and in their original snake_case;
+ * trace and span IDs are hex strings, 64-bit integers strings or numbers, and
+ * severity numbers integers or enum names.
+ */
+@Component
+public class OtlpJsonCodec {
+
+    private static final String SEVERITY_NUMBER_PREFIX = "SEVERITY_NUMBER_";
+    private static final List<String> SEVERITY_NAMES = List.of(
+            "UNSPECIFIED", "TRACE", "TRACE2", "TRACE3", "TRACE4", "DEBUG", "DEBUG2", "DEBUG3", "DEBUG4",
+            "INFO", "INFO2", "INFO3", "INFO4", "WARN", "WARN2", "WARN3", "WARN4",
+            "ERROR", "ERROR2", "ERROR3", "ERROR4", "FATAL", "FATAL2", "FATAL3", "FATAL4");
+
+    private final ObjectMapper objectMapper;
+
+    public OtlpJsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decode every log record of an export request, in order
+     *
+     * @throws OtlpDecodeException if the body is not a valid export request
+     */
+    public List<LogEntryDTO> decode(byte[] body) {
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new OtlpDecodeException("Malformed OTLP/JSON request: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new OtlpDecodeException("Unreadable OTLP/JSON request", e);
+        }
+        if (request == null || !request.isObject()) {
+            throw new OtlpDecodeException("OTLP/JSON request must be an object");
+        }
+
+        List<LogEntryDTO> entries = new ArrayList<>();
+        for (JsonNode resourceLogs : field(request, "resourceLogs", "resource_logs")) {
+            OtlpFields.Context resource = new OtlpFields.Context();
+            readAttributes(field(field(resourceLogs, "resource", "resource"), "attributes", "attributes"),
+                    resource::resourceAttribute);
+            for (JsonNode scopeLogs : field(resourceLogs, "scopeLogs", "scope_logs")) {
+                OtlpFields.Context scope = new OtlpFields.Context(resource);
+                JsonNode scopeNode = field(scopeLogs, "scope", "scope");
+                putIfNotEmpty(scope, OtlpFields.SCOPE_NAME, scopeNode.path("name").asText());
+                putIfNotEmpty(scope, OtlpFields.SCOPE_VERSION, scopeNode.path("version").asText());
+                readAttributes(field(scopeNode, "attributes", "attributes"), scope::metadata);
+                for (JsonNode logRecord : field(scopeLogs, "logRecords", "log_records")) {
+                    entries.add(readLogRecord(logRecord, scope));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Encode the export response: {@code {}} on full success, otherwise a
+     * partial success with the rejected record count and an error message
+     */
+    public byte[] encodeResponse(long rejectedLogRecords, String errorMessage) {
+        ObjectNode response = objectMapper.createObjectNode();
+        if (rejectedLogRecords != 0 || errorMessage != null) {
+            ObjectNode partialSuccess = response.putObject("partialSuccess");
+            partialSuccess.put("rejectedLogRecords", rejectedLogRecords);
+            if (errorMessage != null) {
+                partialSuccess.put("errorMessage", errorMessage);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("OTLP/JSON response cannot be serialized", e);
+        }
+    }
+
+    private LogEntryDTO readLogRecord(JsonNode logRecord, OtlpFields.Context scope) {
+        LogEntryDTO logEntry = scope.newEntry();
+        JsonNode body = field(logRecord, "body", "body");
+        if (!body.isMissingNode()) {
+            logEntry.setMessage(message(anyValue(body)));
+        }
+        readAttributes(field(logRecord, "attributes", "attributes"), logEntry.getMetadata()::put);
+        logEntry.setTraceId(hexId(field(logRecord, "traceId", "trace_id")));
+        logEntry.setSpanId(hexId(field(logRecord, "spanId", "span_id")));
+        logEntry.setLevel(OtlpFields.level(
+                severityNumber(field(logRecord, "severityNumber", "severity_number")),
+                textOrNull(field(logRecord, "severityText", "severity_text"))));
+        logEntry.setTimestamp(OtlpFields.timestamp(
+                longValue(field(logRecord, "timeUnixNano", "time_unix_nano")),
+                longValue(field(logRecord, "observedTimeUnixNano", "observed_time_unix_nano"))));
+        OtlpFields.finish(logEntry);
+        return logEntry;
+    }
+
+    private void readAttributes(JsonNode attributes, BiConsumer<String, Object> sink) {
+        for (JsonNode attribute : attributes) {
+            String key = textOrNull(attribute.path("key"));
+            Object value = anyValue(attribute.path("value"));
+            if (key != null && value != null) {
+                sink.accept(key, value);
+            }
+        }
+    }
+
+    /**
+     * An AnyValue as a String, Boolean, Long, Double, List or Map (bytes stay
+     * base64 strings); null when unset
+     */
+    private Object anyValue(JsonNode value) {
+        JsonNode node;
+        if ((node = field(value, "stringValue", "string_value")).isValueNode()) {
+            return node.asText();
+        } else if ((node = field(value, "boolValue", "bool_value")).isValueNode()) {
+            return node.asBoolean();
+        } else if ((node = field(value, "intValue", "int_value")).isValueNode()) {
+            return longValue(node);
+        } else if ((node = field(value, "doubleValue", "double_value")).isValueNode()) {
+            return node.asDouble();
+        } else if ((node = field(value, "arrayValue", "array_value")).isObject()) {
+            List<Object> values = new ArrayList<>();
+            for (JsonNode element : node.path("values")) {
+                values.add(anyValue(element));
+            }
+            return values;
+        } else if ((node = field(value, "kvlistValue", "kvlist_value")).isObject()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            readAttributes(node.path("values"), values::put);
+            return values;
+        } else if ((node = field(value, "bytesValue", "bytes_value")).isValueNode()) {
+            return node.asText();
+        }
+        return null;
+    }
+
+    private String message(Object body) {
+        if (body == null || body instanceof String) {
+            return (String) body;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(body);
+        }
+    }
+
+    private static int severityNumber(JsonNode node) {
+        if (node.isNumber()) {
+            return node.asInt();
+        }
+        String text = node.asText("");
+        if (text.startsWith(SEVERITY_NUMBER_PREFIX)) {
+            return Math.max(0, SEVERITY_NAMES.indexOf(text.substring(SEVERITY_NUMBER_PREFIX.length())));
+        }
+        return (int) longValue(node);
+    }
+
+    private static long longValue(JsonNode node) {
+        if (node.isNumber()) {
+            return node.asLong();
+        }
+        String text = node.asText("");
+        if (text.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseUnsignedLong(text);
+        } catch (NumberFormatException e) {
+            throw new OtlpDecodeException("Invalid OTLP/JSON integer: " + text);
+        }
+    }
+
+    private static String hexId(JsonNode node) {
+        String hex = textOrNull(node);
+        if (hex == null || hex.isEmpty() || hex.chars().allMatch(c -> c == '0')) {
+            return null;
+        }
+        return hex.toLowerCase(Locale.ROOT);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+
+    private static JsonNode field(JsonNode node, String name, String protoName) {
+        JsonNode value = node.path(name);
+        return value.isMissingNode() ? node.path(protoName) : value;
+    }
+
+    private static void putIfNotEmpty(OtlpFields.Context scope, String key, String value) {
+        if (!value.isEmpty()) {
+            scope.metadata(key, value);
+        }
+    }
+}
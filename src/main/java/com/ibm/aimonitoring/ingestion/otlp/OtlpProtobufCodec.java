@@ -0,0 +1,353 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Decodes OTLP {@code ExportLogsServiceRequest} protobuf bodies straight into
+ * log entries, without generated message classes, and encodes the
+ * {@code ExportLogsServiceResponse}.
+ * <p>
+ * Resource attributes {@code service.name}, {@code host.name} and
+ * {@code deployment.environment[.name]} become the entry's service, host and
+ * environment; other resource, scope and record attributes go into metadata,
+ * later levels overriding earlier ones. Non-string bodies are rendered as JSON.
+ */
+@Component
+public class OtlpProtobufCodec {
+
+    public static final String CONTENT_TYPE = "application/x-protobuf";
+
+    /**
+     * Deepest nesting of array and key-value list values accepted; each level
+     * costs a few bytes on the wire but a stack frame to decode
+     */
+    static final int MAX_NESTING_DEPTH = 64;
+
+    // ExportLogsServiceRequest
+    private static final int RESOURCE_LOGS = tag(1, ProtoReader.LENGTH_DELIMITED);
+    // ResourceLogs
+    private static final int RESOURCE = tag(1, ProtoReader.LENGTH_DELIMITED);
+    private static final int SCOPE_LOGS = tag(2, ProtoReader.LENGTH_DELIMITED);
+    // Resource
+    private static final int RESOURCE_ATTRIBUTES = tag(1, ProtoReader.LENGTH_DELIMITED);
+    // ScopeLogs
+    private static final int SCOPE = tag(1, ProtoReader.LENGTH_DELIMITED);
+    private static final int LOG_RECORDS = tag(2, ProtoReader.LENGTH_DELIMITED);
+    // InstrumentationScope
+    private static final int SCOPE_NAME = tag(1, ProtoReader.LENGTH_DELIMITED);
+    private static final int SCOPE_VERSION = tag(2, ProtoReader.LENGTH_DELIMITED);
+    private static final int SCOPE_ATTRIBUTES = tag(3, ProtoReader.LENGTH_DELIMITED);
+    // LogRecord
+    private static final int TIME_UNIX_NANO = tag(1, ProtoReader.FIXED64);
+    private static final int SEVERITY_NUMBER = tag(2, ProtoReader.VARINT);
+    private static final int SEVERITY_TEXT = tag(3, ProtoReader.LENGTH_DELIMITED);
+    private static final int BODY = tag(5, ProtoReader.LENGTH_DELIMITED);
+    private static final int RECORD_ATTRIBUTES = tag(6, ProtoReader.LENGTH_DELIMITED);
+    private static final int TRACE_ID = tag(9, ProtoReader.LENGTH_DELIMITED);
+    private static final int SPAN_ID = tag(10, ProtoReader.LENGTH_DELIMITED);
+    private static final int OBSERVED_TIME_UNIX_NANO = tag(11, ProtoReader.FIXED64);
+    // KeyValue
+    private static final int KEY = tag(1, ProtoReader.LENGTH_DELIMITED);
+    private static final int VALUE = tag(2, ProtoReader.LENGTH_DELIMITED);
+    // AnyValue
+    private static final int STRING_VALUE = tag(1, ProtoReader.LENGTH_DELIMITED);
+    private static final int BOOL_VALUE = tag(2, ProtoReader.VARINT);
+    private static final int INT_VALUE = tag(3, ProtoReader.VARINT);
+    private static final int DOUBLE_VALUE = tag(4, ProtoReader.FIXED64);
+    private static final int ARRAY_VALUE = tag(5, ProtoReader.LENGTH_DELIMITED);
+    private static final int KVLIST_VALUE = tag(6, ProtoReader.LENGTH_DELIMITED);
+    private static final int BYTES_VALUE = tag(7, ProtoReader.LENGTH_DELIMITED);
+    // ArrayValue and KeyValueList
+    private static final int VALUES = tag(1, ProtoReader.LENGTH_DELIMITED);
+
+    private final ObjectMapper objectMapper;
+
+    public OtlpProtobufCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decode every log record of an export request, in order
+     *
+     * @throws OtlpDecodeException if the body is not a valid export request
+     */
+    public List<LogEntryDTO> decode(byte[] body) {
+        ProtoReader reader = new ProtoReader(body);
+        List<LogEntryDTO> entries = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == RESOURCE_LOGS) {
+                int limit = reader.pushLimit();
+                readResourceLogs(reader, entries);
+                reader.popLimit(limit);
+            } else {
+                reader.skip(tag);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Encode the export response: empty on full success, otherwise a partial
+     * success with the rejected record count and an error message
+     */
+    public byte[] encodeResponse(long rejectedLogRecords, String errorMessage) {
+        if (rejectedLogRecords == 0 && errorMessage == null) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream partialSuccess = new ByteArrayOutputStream();
+        if (rejectedLogRecords != 0) {
+            writeVarint(partialSuccess, tag(1, ProtoReader.VARINT));
+            writeVarint(partialSuccess, rejectedLogRecords);
+        }
+        if (errorMessage != null) {
+            byte[] message = errorMessage.getBytes(StandardCharsets.UTF_8);
+            writeVarint(partialSuccess, tag(2, ProtoReader.LENGTH_DELIMITED));
+            writeVarint(partialSuccess, message.length);
+            partialSuccess.writeBytes(message);
+        }
+        ByteArrayOutputStream response = new ByteArrayOutputStream(partialSuccess.size() + 6);
+        writeVarint(response, tag(1, ProtoReader.LENGTH_DELIMITED));
+        writeVarint(response, partialSuccess.size());
+        response.writeBytes(partialSuccess.toByteArray());
+        return response.toByteArray();
+    }
+
+    private void readResourceLogs(ProtoReader reader, List<LogEntryDTO> entries) {
+        // The resource is normally written first, but fields may come in any order
+        int start = reader.position();
+        OtlpFields.Context resource = new OtlpFields.Context();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == RESOURCE) {
+                int limit = reader.pushLimit();
+                while (reader.hasRemaining()) {
+                    int field = reader.readTag();
+                    if (field == RESOURCE_ATTRIBUTES) {
+                        readKeyValue(reader, resource::resourceAttribute, 0);
+                    } else {
+                        reader.skip(field);
+                    }
+                }
+                reader.popLimit(limit);
+            } else {
+                reader.skip(tag);
+            }
+        }
+
+        reader.position(start);
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == SCOPE_LOGS) {
+                int limit = reader.pushLimit();
+                readScopeLogs(reader, resource, entries);
+                reader.popLimit(limit);
+            } else {
+                reader.skip(tag);
+            }
+        }
+    }
+
+    private void readScopeLogs(ProtoReader reader, OtlpFields.Context resource, List<LogEntryDTO> entries) {
+        int start = reader.position();
+        OtlpFields.Context scope = new OtlpFields.Context(resource);
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == SCOPE) {
+                int limit = reader.pushLimit();
+                readScope(reader, scope);
+                reader.popLimit(limit);
+            } else {
+                reader.skip(tag);
+            }
+        }
+
+        reader.position(start);
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == LOG_RECORDS) {
+                int limit = reader.pushLimit();
+                entries.add(readLogRecord(reader, scope));
+                reader.popLimit(limit);
+            } else {
+                reader.skip(tag);
+            }
+        }
+    }
+
+    private void readScope(ProtoReader reader, OtlpFields.Context scope) {
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == SCOPE_NAME) {
+                putIfNotEmpty(scope, OtlpFields.SCOPE_NAME, reader.readString());
+            } else if (tag == SCOPE_VERSION) {
+                putIfNotEmpty(scope, OtlpFields.SCOPE_VERSION, reader.readString());
+            } else if (tag == SCOPE_ATTRIBUTES) {
+                readKeyValue(reader, scope::metadata, 0);
+            } else {
+                reader.skip(tag);
+            }
+        }
+    }
+
+    private LogEntryDTO readLogRecord(ProtoReader reader, OtlpFields.Context scope) {
+        LogEntryDTO logEntry = scope.newEntry();
+        long time = 0;
+        long observedTime = 0;
+        int severityNumber = 0;
+        String severityText = null;
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == TIME_UNIX_NANO) {
+                time = reader.readFixed64();
+            } else if (tag == OBSERVED_TIME_UNIX_NANO) {
+                observedTime = reader.readFixed64();
+            } else if (tag == SEVERITY_NUMBER) {
+                severityNumber = (int) reader.readVarint();
+            } else if (tag == SEVERITY_TEXT) {
+                severityText = reader.readString();
+            } else if (tag == BODY) {
+                logEntry.setMessage(message(readAnyValue(reader, 0)));
+            } else if (tag == RECORD_ATTRIBUTES) {
+                readKeyValue(reader, logEntry.getMetadata()::put, 0);
+            } else if (tag == TRACE_ID) {
+                logEntry.setTraceId(reader.readHex());
+            } else if (tag == SPAN_ID) {
+                logEntry.setSpanId(reader.readHex());
+            } else {
+                reader.skip(tag);
+            }
+        }
+        logEntry.setLevel(OtlpFields.level(severityNumber, severityText));
+        logEntry.setTimestamp(OtlpFields.timestamp(time, observedTime));
+        OtlpFields.finish(logEntry);
+        return logEntry;
+    }
+
+    private void readKeyValue(ProtoReader reader, BiConsumer<String, Object> sink, int depth) {
+        int limit = reader.pushLimit();
+        String key = null;
+        Object value = null;
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == KEY) {
+                key = reader.readString();
+            } else if (tag == VALUE) {
+                value = readAnyValue(reader, depth);
+            } else {
+                reader.skip(tag);
+            }
+        }
+        reader.popLimit(limit);
+        if (key != null && value != null) {
+            sink.accept(key, value);
+        }
+    }
+
+    /**
+     * Read a length-delimited AnyValue as a String, Boolean, Long, Double,
+     * List, Map or, for bytes, a base64 String; null when unset
+     *
+     * @param depth number of arrays and key-value lists the value is nested in
+     */
+    private Object readAnyValue(ProtoReader reader, int depth) {
+        if (depth > MAX_NESTING_DEPTH) {
+            throw new OtlpDecodeException("AnyValue nested deeper than " + MAX_NESTING_DEPTH + " levels");
+        }
+        int limit = reader.pushLimit();
+        Object value = null;
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == STRING_VALUE) {
+                value = reader.readString();
+            } else if (tag == BOOL_VALUE) {
+                value = reader.readVarint() != 0;
+            } else if (tag == INT_VALUE) {
+                value = reader.readVarint();
+            } else if (tag == DOUBLE_VALUE) {
+                value = Double.longBitsToDouble(reader.readFixed64());
+            } else if (tag == ARRAY_VALUE) {
+                value = readArray(reader, depth + 1);
+            } else if (tag == KVLIST_VALUE) {
+                value = readKeyValueList(reader, depth + 1);
+            } else if (tag == BYTES_VALUE) {
+                value = Base64.getEncoder().encodeToString(reader.readBytes());
+            } else {
+                reader.skip(tag);
+            }
+        }
+        reader.popLimit(limit);
+        return value;
+    }
+
+    private List<Object> readArray(ProtoReader reader, int depth) {
+        int limit = reader.pushLimit();
+        List<Object> values = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == VALUES) {
+                values.add(readAnyValue(reader, depth));
+            } else {
+                reader.skip(tag);
+            }
+        }
+        reader.popLimit(limit);
+        return values;
+    }
+
+    private Map<String, Object> readKeyValueList(ProtoReader reader, int depth) {
+        int limit = reader.pushLimit();
+        Map<String, Object> values = new LinkedHashMap<>();
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (tag == VALUES) {
+                readKeyValue(reader, values::put, depth);
+            } else {
+                reader.skip(tag);
+            }
+        }
+        reader.popLimit(limit);
+        return values;
+    }
+
+    private String message(Object body) {
+        if (body == null || body instanceof String) {
+            return (String) body;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(body);
+        }
+    }
+
+    private static void putIfNotEmpty(OtlpFields.Context scope, String key, String value) {
+        if (!value.isEmpty()) {
+            scope.metadata(key, value);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int tag(int field, int wireType) {
+        return field << 3 | wireType;
+    }
+}
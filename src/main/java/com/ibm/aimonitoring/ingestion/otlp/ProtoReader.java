@@ -0,0 +1,160 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal protobuf wire format reader over a byte array. Nested messages are
+ * read in place by narrowing the limit, so decoding allocates nothing beyond
+ * the strings it extracts.
+ */
+final class ProtoReader {
+
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int FIXED32 = 5;
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    ProtoReader(byte[] buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.length;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int position() {
+        return position;
+    }
+
+    void position(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Read the next field tag
+     *
+     * @return the tag; the field number is {@code tag >>> 3}, the wire type {@code tag & 7}
+     */
+    int readTag() {
+        int tag = (int) readVarint();
+        if (tag >>> 3 == 0) {
+            throw new OtlpDecodeException("Invalid protobuf field number 0");
+        }
+        return tag;
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new OtlpDecodeException("Truncated protobuf varint");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new OtlpDecodeException("Malformed protobuf varint");
+    }
+
+    long readFixed64() {
+        require(8);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (buffer[position + i] & 0xffL);
+        }
+        position += 8;
+        return value;
+    }
+
+    int readFixed32() {
+        require(4);
+        int value = (buffer[position] & 0xff)
+                | (buffer[position + 1] & 0xff) << 8
+                | (buffer[position + 2] & 0xff) << 16
+                | (buffer[position + 3] & 0xff) << 24;
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Enter a length-delimited field
+     *
+     * @return the enclosing limit, to restore with {@link #popLimit} once the field is read
+     */
+    int pushLimit() {
+        int length = readLength();
+        int previous = limit;
+        limit = position + length;
+        return previous;
+    }
+
+    void popLimit(int previous) {
+        position = limit;
+        limit = previous;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    byte[] readBytes() {
+        int length = readLength();
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Lowercase hex of a bytes field, or null when it is empty or all zero
+     */
+    String readHex() {
+        int length = readLength();
+        int start = position;
+        position += length;
+        boolean zero = true;
+        for (int i = start; i < position && zero; i++) {
+            zero = buffer[i] == 0;
+        }
+        return zero ? null : OtlpFields.hex(buffer, start, length);
+    }
+
+    void skip(int tag) {
+        switch (tag & 7) {
+            case VARINT -> readVarint();
+            case FIXED64 -> skipBytes(8);
+            case LENGTH_DELIMITED -> skipBytes(readLength());
+            case FIXED32 -> skipBytes(4);
+            default -> throw new OtlpDecodeException("Unsupported protobuf wire type " + (tag & 7));
+        }
+    }
+
+    private void skipBytes(int count) {
+        require(count);
+        position += count;
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new OtlpDecodeException("Truncated protobuf field");
+        }
+        return (int) length;
+    }
+
+    private void require(int count) {
+        if (count > limit - position) {
+            throw new OtlpDecodeException("Truncated protobuf field");
+        }
+    }
+}
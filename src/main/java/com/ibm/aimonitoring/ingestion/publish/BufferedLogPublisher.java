@@ -0,0 +1,249 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples request threads from the broker: entries are offered to a
+ * lock-free ring buffer and a small pool of publisher threads drains it in
+ * batches, handing each batch to the delegate publisher in one call.
+ * <p>
+ * Until the lifecycle has started, and after it has stopped, entries are
+ * published synchronously through the delegate.
+ */
+@Slf4j
+public class BufferedLogPublisher implements LogPublisher, SmartLifecycle {
+
+    private static final int SPIN_ROUNDS = 100;
+    private static final int YIELD_ROUNDS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final LogPublisher delegate;
+    private final IngestionProperties.Buffer settings;
+    private final SpillLog spillLog;
+    private final LogRingBuffer<LogEntryDTO> ringBuffer;
+    private final List<Thread> publisherThreads = new ArrayList<>();
+    private final Counter rejected;
+    private final Counter publishFailures;
+    private final Timer drainPublish;
+
+    private volatile boolean running;
+
+    public BufferedLogPublisher(LogPublisher delegate,
+                                IngestionProperties.Buffer settings,
+                                MeterRegistry meterRegistry) {
+        this(delegate, settings, null, meterRegistry);
+    }
+
+    /**
+     * @param spillLog overflow target for the SPILL policy, may be null otherwise
+     */
+    public BufferedLogPublisher(LogPublisher delegate,
+                                IngestionProperties.Buffer settings,
+                                SpillLog spillLog,
+                                MeterRegistry meterRegistry) {
+        if (settings.getOverflowPolicy() == IngestionProperties.OverflowPolicy.SPILL && spillLog == null) {
+            throw new IllegalStateException("The SPILL overflow policy requires ingestion.spill.enabled=true");
+        }
+        this.delegate = delegate;
+        this.settings = settings;
+        this.spillLog = spillLog;
+        this.ringBuffer = new LogRingBuffer<>(settings.getCapacity());
+        this.rejected = Counter.builder("ingestion.publish.buffer.rejected")
+                .description("Entries refused because the publish buffer was full")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("ingestion.publish.buffer.failures")
+                .description("Buffered entries whose publish failed")
+                .register(meterRegistry);
+        this.drainPublish = Timer.builder("ingestion.publish.buffer.drain")
+                .description("Time to publish one drained batch")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.publish.buffer.size", ringBuffer, LogRingBuffer::size)
+                .description("Entries waiting in the publish buffer")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.publish.buffer.capacity", ringBuffer, LogRingBuffer::capacity)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        if (!running) {
+            delegate.publish(logEntry);
+            return;
+        }
+        enqueue(List.of(logEntry));
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        if (!running || logEntries.size() > ringBuffer.capacity()) {
+            // A batch larger than the whole buffer could never be taken in at once
+            delegate.publishAll(logEntries);
+            return;
+        }
+        enqueue(logEntries);
+    }
+
+    /**
+     * Number of entries currently waiting to be published
+     */
+    public int getBacklog() {
+        return ringBuffer.size();
+    }
+
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return ringBuffer.capacity() - ringBuffer.size();
+    }
+
+    /**
+     * Take in all entries or none, so a rejected batch can be retried without
+     * duplicating the entries that would otherwise have been queued
+     */
+    private void enqueue(List<LogEntryDTO> logEntries) {
+        if (ringBuffer.offerAll(logEntries)) {
+            return;
+        }
+        if (settings.getOverflowPolicy() == IngestionProperties.OverflowPolicy.BLOCK
+                && offerUntilTimeout(logEntries)) {
+            return;
+        }
+        if (settings.getOverflowPolicy() == IngestionProperties.OverflowPolicy.SPILL) {
+            spillLog.appendAll(logEntries);
+            return;
+        }
+        rejected.increment(logEntries.size());
+        throw new PublisherOverloadedException("Publish buffer is full");
+    }
+
+    private boolean offerUntilTimeout(List<LogEntryDTO> logEntries) {
+        long deadline = System.nanoTime() + settings.getOfferTimeout().toNanos();
+        int round = 0;
+        while (System.nanoTime() < deadline) {
+            round = idle(round);
+            if (ringBuffer.offerAll(logEntries)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        List<LogEntryDTO> batch = new ArrayList<>(settings.getDrainBatchSize());
+        int round = 0;
+        while (running || !ringBuffer.isEmpty()) {
+            if (ringBuffer.drainTo(batch, settings.getDrainBatchSize()) == 0) {
+                if (!running) {
+                    break;
+                }
+                round = idle(round);
+                continue;
+            }
+            round = 0;
+            publishBatch(batch);
+            batch = new ArrayList<>(settings.getDrainBatchSize());
+        }
+    }
+
+    private void publishBatch(List<LogEntryDTO> batch) {
+        long start = System.nanoTime();
+        try {
+            delegate.publishAll(batch);
+        } catch (Exception e) {
+            publishFailures.increment(batch.size());
+            log.error("Failed to publish {} buffered logs: {}", batch.size(), e.getMessage(), e);
+        } finally {
+            drainPublish.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Back off according to the configured wait strategy
+     *
+     * @return the next idle round
+     */
+    private int idle(int round) {
+        switch (settings.getWaitStrategy()) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (round < SPIN_ROUNDS) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (round < SPIN_ROUNDS) {
+                    Thread.onSpinWait();
+                } else if (round < SPIN_ROUNDS + YIELD_ROUNDS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(settings.getIdleSleep().toNanos());
+                    return round;
+                }
+            }
+        }
+        return round + 1;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < settings.getPublisherThreads(); i++) {
+            Thread thread = new Thread(this::drainLoop, "log-publisher-" + i);
+            thread.start();
+            publisherThreads.add(thread);
+        }
+        log.info("Started {} log publisher threads with buffer capacity {}",
+                publisherThreads.size(), ringBuffer.capacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread thread : publisherThreads) {
+            try {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        publisherThreads.clear();
+
+        // Publish anything offered while the threads were shutting down
+        List<LogEntryDTO> remaining = new ArrayList<>();
+        while (ringBuffer.drainTo(remaining, settings.getDrainBatchSize()) > 0) {
+            publishBatch(remaining);
+            remaining = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
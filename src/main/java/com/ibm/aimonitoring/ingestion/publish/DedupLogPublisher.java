@@ -0,0 +1,339 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses repeated entries. An entry is published at once and opens a
+ * window for its fingerprint (service, host, level and message with digit
+ * runs folded); repeats within the window are held back and counted, and
+ * when the window closes the last repeat is published once with
+ * {@code repeatCount} and the first and last repeat timestamps.
+ * <p>
+ * Fingerprints live in a fixed-size direct-mapped table guarded by striped
+ * locks, so memory is bounded: a new fingerprint landing on an occupied slot
+ * closes the resident window early. A background thread closes expired
+ * windows. If the delegate fails, the windows opened and repeats counted by
+ * the call are taken back, so the client's retry is published again rather
+ * than held back as a repeat of an entry that never went out. Until the
+ * lifecycle has started, and after it has stopped, entries pass straight
+ * through. Lifecycle calls are forwarded to the delegate.
+ */
+@Slf4j
+public class DedupLogPublisher implements LogPublisher, SmartLifecycle {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final LogPublisher delegate;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Slot[] table;
+    private final int mask;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Counter received;
+    private final Counter suppressed;
+    private final Counter summaries;
+
+    private ScheduledExecutorService closer;
+    private double lastReceived;
+    private double lastSuppressed;
+    private volatile double suppressionRatio;
+    private volatile boolean running;
+
+    public DedupLogPublisher(LogPublisher delegate, IngestionProperties.Dedup settings, MeterRegistry meterRegistry) {
+        this(delegate, settings, meterRegistry, System::nanoTime);
+    }
+
+    DedupLogPublisher(LogPublisher delegate,
+                      IngestionProperties.Dedup settings,
+                      MeterRegistry meterRegistry,
+                      LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.windowNanos = settings.getWindow().toNanos();
+        this.nanoClock = nanoClock;
+        int size = Integer.highestOneBit(Math.max(LOCK_STRIPES, settings.getTableSize() - 1) << 1);
+        this.table = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.received = Counter.builder("ingestion.dedup.received")
+                .description("Entries seen by the dedup stage")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("ingestion.dedup.suppressed")
+                .description("Repeated entries held back and folded into summaries")
+                .register(meterRegistry);
+        this.summaries = Counter.builder("ingestion.dedup.summaries")
+                .description("Summary entries published for closed windows")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.dedup.suppression.ratio", this, DedupLogPublisher::getSuppressionRatio)
+                .description("Share of entries suppressed since the previous window check")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        publishAll(List.of(logEntry));
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        if (!running) {
+            delegate.publishAll(logEntries);
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        List<LogEntryDTO> toPublish = new ArrayList<>(logEntries.size());
+        List<Change> changes = new ArrayList<>(logEntries.size());
+        int held = 0;
+        for (LogEntryDTO logEntry : logEntries) {
+            if (!offer(logEntry, now, toPublish, changes)) {
+                held++;
+            }
+        }
+        if (!toPublish.isEmpty()) {
+            try {
+                delegate.publishAll(toPublish);
+            } catch (RuntimeException e) {
+                rollback(changes);
+                throw e;
+            }
+        }
+        received.increment(logEntries.size());
+        suppressed.increment(held);
+        summaries.increment(toPublish.size() - (logEntries.size() - held));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return delegate.remainingCapacity();
+    }
+
+    /**
+     * Add the entry, and any summary it displaces, to {@code toPublish} unless it repeats an open window
+     *
+     * @return false if the entry was held back as a repeat
+     */
+    private boolean offer(LogEntryDTO logEntry, long now, List<LogEntryDTO> toPublish, List<Change> changes) {
+        long fingerprint = fingerprint(logEntry);
+        int index = (int) fingerprint & mask;
+        LogEntryDTO displaced;
+        synchronized (locks[index & (LOCK_STRIPES - 1)]) {
+            Slot slot = table[index];
+            if (slot != null && slot.fingerprint == fingerprint && now - slot.opened < windowNanos) {
+                changes.add(new Change(index, slot, null, logEntry, slot.last, slot.firstRepeat));
+                slot.repeat(logEntry);
+                return false;
+            }
+            Slot opened = new Slot(fingerprint, now);
+            changes.add(new Change(index, opened, slot, null, null, null));
+            displaced = slot == null ? null : slot.summary();
+            table[index] = opened;
+        }
+        if (displaced != null) {
+            toPublish.add(displaced);
+        }
+        toPublish.add(logEntry);
+        return true;
+    }
+
+    /**
+     * Undo the changes of a call whose publish failed, newest first. A window is
+     * only closed again, and the one it displaced restored, while no other call
+     * has repeated into it; a repeat is only taken back while it is still the
+     * window's last one.
+     */
+    private void rollback(List<Change> changes) {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            Change change = changes.get(i);
+            Slot slot = change.slot();
+            synchronized (locks[change.index() & (LOCK_STRIPES - 1)]) {
+                if (change.repeat() == null) {
+                    if (table[change.index()] == slot && slot.repeats == 0) {
+                        table[change.index()] = change.displaced();
+                    }
+                } else if (slot.last == change.repeat()) {
+                    slot.repeats--;
+                    slot.last = change.previousLast();
+                    slot.firstRepeat = change.previousFirstRepeat();
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish summaries for windows open at least {@code window}, or all windows when {@code all}
+     */
+    void closeWindows(boolean all) {
+        long now = nanoClock.getAsLong();
+        List<LogEntryDTO> closed = new ArrayList<>();
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int index = stripe; index < table.length; index += LOCK_STRIPES) {
+                    Slot slot = table[index];
+                    if (slot != null && (all || now - slot.opened >= windowNanos)) {
+                        table[index] = null;
+                        LogEntryDTO summary = slot.summary();
+                        if (summary != null) {
+                            closed.add(summary);
+                        }
+                    }
+                }
+            }
+        }
+        updateSuppressionRatio();
+        if (closed.isEmpty()) {
+            return;
+        }
+        summaries.increment(closed.size());
+        try {
+            delegate.publishAll(closed);
+        } catch (Exception e) {
+            log.error("Failed to publish {} dedup summaries: {}", closed.size(), e.getMessage());
+        }
+    }
+
+    private synchronized void updateSuppressionRatio() {
+        double receivedNow = received.count();
+        double suppressedNow = suppressed.count();
+        double receivedDelta = receivedNow - lastReceived;
+        suppressionRatio = receivedDelta == 0 ? 0 : (suppressedNow - lastSuppressed) / receivedDelta;
+        lastReceived = receivedNow;
+        lastSuppressed = suppressedNow;
+    }
+
+    /**
+     * Hash of service, host, level and message, with each run of digits folded
+     * to one marker so counters, IDs and durations do not defeat dedup
+     */
+    static long fingerprint(LogEntryDTO logEntry) {
+        long hash = Hashes.SEED;
+        hash = Hashes.add(hash, logEntry.getService());
+        hash = Hashes.add(hash, logEntry.getHost());
+        hash = Hashes.add(hash, logEntry.getLevel());
+        String message = logEntry.getMessage();
+        if (message != null) {
+            boolean inDigits = false;
+            for (int i = 0; i < message.length(); i++) {
+                char c = message.charAt(i);
+                boolean digit = c >= '0' && c <= '9';
+                if (!digit) {
+                    hash = Hashes.add(hash, c);
+                } else if (!inDigits) {
+                    hash = Hashes.add(hash, '#');
+                }
+                inDigits = digit;
+            }
+        }
+        return Hashes.mix(hash);
+    }
+
+    public double getSuppressionRatio() {
+        return suppressionRatio;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (delegate instanceof Lifecycle lifecycle) {
+            lifecycle.start();
+        }
+        long tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), windowNanos / 4);
+        closer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-dedup-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        closer.scheduleAtFixedRate(() -> closeWindows(false), tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closer.shutdown();
+        try {
+            closer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeWindows(true);
+        if (delegate instanceof Lifecycle lifecycle) {
+            lifecycle.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return delegate instanceof SmartLifecycle lifecycle ? lifecycle.getPhase() : SmartLifecycle.super.getPhase();
+    }
+
+    /**
+     * One change a call made to the table: a window it opened over
+     * {@code displaced}, or a {@code repeat} it folded into a window
+     */
+    private record Change(int index, Slot slot, Slot displaced, LogEntryDTO repeat,
+                          LogEntryDTO previousLast, Instant previousFirstRepeat) {
+    }
+
+    /**
+     * An open window for one fingerprint
+     */
+    private static final class Slot {
+        private final long fingerprint;
+        private final long opened;
+        private LogEntryDTO last;
+        private int repeats;
+        private Instant firstRepeat;
+
+        Slot(long fingerprint, long opened) {
+            this.fingerprint = fingerprint;
+            this.opened = opened;
+        }
+
+        void repeat(LogEntryDTO logEntry) {
+            if (repeats == 0) {
+                firstRepeat = logEntry.getTimestamp();
+            }
+            repeats++;
+            last = logEntry;
+        }
+
+        /**
+         * The last repeat stamped with the count and time range, or null if nothing repeated
+         */
+        LogEntryDTO summary() {
+            if (repeats == 0) {
+                return null;
+            }
+            last.setRepeatCount(repeats);
+            last.setFirstTimestamp(firstRepeat);
+            last.setLastTimestamp(last.getTimestamp());
+            return last;
+        }
+    }
+}
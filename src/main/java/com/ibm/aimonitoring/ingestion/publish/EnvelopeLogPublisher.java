@@ -0,0 +1,190 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Accumulates entries per routing key and hands each group to the delegate
+ * in one call once it holds {@code maxEntries} entries or its oldest entry
+ * has waited {@code linger}, so the delegate can pack it into one message.
+ * <p>
+ * Full groups are flushed on the calling thread; partial groups are flushed
+ * by a background thread. Until the lifecycle has started, and after it has
+ * stopped, entries are published synchronously through the delegate.
+ * <p>
+ * Callers return before a partial group is published, so a failed flush
+ * cannot be reported to them. Wire the delegate through the spill log to keep
+ * those entries; without it they are dropped, logged and counted in
+ * {@code ingestion.publish.envelope.failures}.
+ */
+@Slf4j
+public class EnvelopeLogPublisher implements LogPublisher, SmartLifecycle {
+
+    private final LogPublisher delegate;
+    private final Function<LogEntryDTO, String> routingKeys;
+    private final int maxEntries;
+    private final long lingerNanos;
+    private final Map<String, Pending> pending = new HashMap<>();
+    private final DistributionSummary envelopeSize;
+    private final Counter publishFailures;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public EnvelopeLogPublisher(LogPublisher delegate,
+                                Function<LogEntryDTO, String> routingKeys,
+                                IngestionProperties.Envelope settings,
+                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.routingKeys = routingKeys;
+        this.maxEntries = Math.max(1, settings.getMaxEntries());
+        this.lingerNanos = settings.getLinger().toNanos();
+        this.envelopeSize = DistributionSummary.builder("ingestion.publish.envelope.size")
+                .description("Entries per flushed envelope")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("ingestion.publish.envelope.failures")
+                .description("Enveloped entries whose publish failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        publishAll(List.of(logEntry));
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        List<List<LogEntryDTO>> full = new ArrayList<>();
+        boolean accumulated;
+        synchronized (pending) {
+            accumulated = running;
+            if (accumulated) {
+                accumulate(logEntries, full);
+            }
+        }
+        if (!accumulated) {
+            delegate.publishAll(logEntries);
+            return;
+        }
+        full.forEach(this::flush);
+    }
+
+    private void accumulate(List<LogEntryDTO> logEntries, List<List<LogEntryDTO>> full) {
+        long now = System.nanoTime();
+        for (LogEntryDTO logEntry : logEntries) {
+            Pending group = pending.computeIfAbsent(routingKeys.apply(logEntry), key -> new Pending());
+            if (group.entries.isEmpty()) {
+                group.firstEnqueued = now;
+            }
+            group.entries.add(logEntry);
+            if (group.entries.size() >= maxEntries) {
+                full.add(group.entries);
+                group.entries = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Flush every group whose oldest entry has waited at least the linger time
+     */
+    void flushExpired() {
+        List<List<LogEntryDTO>> expired = new ArrayList<>();
+        synchronized (pending) {
+            long now = System.nanoTime();
+            Iterator<Pending> groups = pending.values().iterator();
+            while (groups.hasNext()) {
+                Pending group = groups.next();
+                if (group.entries.isEmpty()) {
+                    groups.remove();
+                } else if (now - group.firstEnqueued >= lingerNanos) {
+                    expired.add(group.entries);
+                    group.entries = new ArrayList<>();
+                }
+            }
+        }
+        expired.forEach(this::flush);
+    }
+
+    private void flushAll() {
+        List<List<LogEntryDTO>> remaining = new ArrayList<>();
+        synchronized (pending) {
+            for (Pending group : pending.values()) {
+                if (!group.entries.isEmpty()) {
+                    remaining.add(group.entries);
+                }
+            }
+            pending.clear();
+        }
+        remaining.forEach(this::flush);
+    }
+
+    private void flush(List<LogEntryDTO> entries) {
+        envelopeSize.record(entries.size());
+        try {
+            delegate.publishAll(entries);
+        } catch (Exception e) {
+            publishFailures.increment(entries.size());
+            log.error("Failed to publish envelope of {} log entries: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        long tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), lingerNanos / 4);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-envelope-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flushExpired, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        synchronized (pending) {
+            running = false;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Entries waiting for one routing key
+     */
+    private static final class Pending {
+        private List<LogEntryDTO> entries = new ArrayList<>();
+        private long firstEnqueued;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+/**
+ * 64-bit FNV-1a over characters, finished with the MurmurHash3 mixer
+ */
+final class Hashes {
+
+    static final long SEED = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private Hashes() {
+    }
+
+    static long add(long hash, char c) {
+        return (hash ^ c) * PRIME;
+    }
+
+    static long add(long hash, String value) {
+        if (value == null) {
+            return add(hash, '\0');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = add(hash, value.charAt(i));
+        }
+        return add(hash, '\0');
+    }
+
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+
+import java.util.List;
+
+/**
+ * Hands enriched log entries over to the message broker
+ */
+public interface LogPublisher {
+
+    /**
+     * Publish a single log entry
+     *
+     * @param logEntry the enriched log entry
+     */
+    void publish(LogEntryDTO logEntry);
+
+    /**
+     * Publish a group of log entries
+     *
+     * @param logEntries the enriched log entries
+     */
+    void publishAll(List<LogEntryDTO> logEntries);
+
+    /**
+     * Entries that can be handed over right now without blocking or being
+     * refused; streaming receivers use it to pace their clients
+     *
+     * @return free room, {@link Integer#MAX_VALUE} for publishers that do not buffer
+     */
+    default int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Thrown when a log entry could not be handed over to the broker
+     */
+    class LogPublishException extends RuntimeException {
+        public LogPublishException(String message) {
+            super(message);
+        }
+
+        public LogPublishException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown when the publisher cannot take more entries right now; clients
+     * should back off and retry
+     */
+    class PublisherOverloadedException extends LogPublishException {
+        public PublisherOverloadedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer/multi-consumer ring buffer.
+ * <p>
+ * Every slot carries a sequence number that tells producers and consumers
+ * whose turn it is, so claiming a slot is a single CAS on the enqueue or
+ * dequeue cursor and no locks are taken on either side.
+ *
+ * @param <E> element type
+ */
+public final class LogRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueueCursor = new AtomicLong();
+    private final AtomicLong dequeueCursor = new AtomicLong();
+
+    /**
+     * @param requestedCapacity minimum capacity, rounded up to a power of two
+     */
+    public LogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Append an element if there is room
+     *
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position = enqueueCursor.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long distance = sequences.get(index) - position;
+            if (distance == 0) {
+                if (enqueueCursor.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueueCursor.get();
+            } else if (distance < 0) {
+                return false;
+            } else {
+                position = enqueueCursor.get();
+            }
+        }
+    }
+
+    /**
+     * Append all elements in order, or none of them if there is not room for all
+     *
+     * @return false if fewer free slots than elements remain
+     */
+    public boolean offerAll(List<? extends E> elements) {
+        int count = elements.size();
+        if (count == 0) {
+            return true;
+        }
+        long position;
+        do {
+            position = enqueueCursor.get();
+            // A stale dequeue cursor only understates the free slots
+            if (position + count - dequeueCursor.get() > capacity()) {
+                return false;
+            }
+        } while (!enqueueCursor.compareAndSet(position, position + count));
+
+        for (int i = 0; i < count; i++) {
+            long slot = position + i;
+            int index = (int) (slot & mask);
+            // The consumer of the previous lap has claimed this slot and is about to release it
+            while (sequences.get(index) != slot) {
+                Thread.onSpinWait();
+            }
+            slots.lazySet(index, elements.get(i));
+            sequences.set(index, slot + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Remove the oldest element
+     *
+     * @return the element, or null if the buffer is empty
+     */
+    public E poll() {
+        long position = dequeueCursor.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long distance = sequences.get(index) - (position + 1);
+            if (distance == 0) {
+                if (dequeueCursor.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = dequeueCursor.get();
+            } else if (distance < 0) {
+                return null;
+            } else {
+                position = dequeueCursor.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code maxElements} elements into {@code target}
+     *
+     * @return number of elements drained
+     */
+    public int drainTo(List<? super E> target, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        long size = enqueueCursor.get() - dequeueCursor.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
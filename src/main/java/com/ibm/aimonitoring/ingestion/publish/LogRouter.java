@@ -0,0 +1,148 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives the routing key of a log entry. With routing enabled the key is
+ * {@code logs.raw.<level>.<service>}, e.g. {@code logs.raw.error.payment-service},
+ * so queues can be bound per level and per service on the topic exchange.
+ * With partitions enabled the key is {@code logs.raw.<partition>}, picked by a
+ * jump consistent hash (Lamping and Veach) of the configured entry field, so
+ * entries with equal keys always share a partition and changing the count
+ * only moves about {@code 1/count} of the keys. Otherwise every entry is
+ * published with {@code logs.raw}.
+ * <p>
+ * Keys are cached per level and service, so the steady state allocates
+ * nothing; beyond {@code maxCachedKeys} services keys are built per entry.
+ */
+public class LogRouter {
+
+    /**
+     * Key segment for a missing or unrecognised level or service
+     */
+    public static final String UNKNOWN = "unknown";
+
+    private final boolean enabled;
+    private final IngestionProperties.PartitionKey partitionKey;
+    private final String[] partitionKeys;
+    private final int maxCachedKeys;
+    private final Map<LogLevel, Map<String, String>> keysByLevel = new EnumMap<>(LogLevel.class);
+    private final Map<String, String> unknownLevelKeys = new ConcurrentHashMap<>();
+
+    public LogRouter(IngestionProperties.Routing routing, IngestionProperties.Partitions partitions) {
+        if (routing.isEnabled() && partitions.isEnabled()) {
+            throw new IllegalStateException(
+                    "ingestion.routing and ingestion.partitions cannot both be enabled");
+        }
+        this.enabled = routing.isEnabled();
+        this.partitionKey = partitions.isEnabled() ? partitions.getKeyBy() : null;
+        this.partitionKeys = new String[partitions.isEnabled() ? partitionCount(partitions) : 0];
+        for (int partition = 0; partition < partitionKeys.length; partition++) {
+            partitionKeys[partition] = partitionName(partition);
+        }
+        this.maxCachedKeys = routing.getMaxCachedKeys();
+        for (LogLevel level : LogLevel.values()) {
+            keysByLevel.put(level, new ConcurrentHashMap<>());
+        }
+    }
+
+    public String routingKey(LogEntryDTO logEntry) {
+        if (partitionKey != null) {
+            return partitionKeys[partition(logEntry)];
+        }
+        if (!enabled) {
+            return RabbitMQConfig.LOGS_RAW_ROUTING_KEY;
+        }
+        LogLevel level = LogLevel.fromName(logEntry.getLevel());
+        Map<String, String> keys = level == null ? unknownLevelKeys : keysByLevel.get(level);
+        String service = logEntry.getService() == null ? UNKNOWN : logEntry.getService();
+        String key = keys.get(service);
+        if (key == null) {
+            key = routingKey(level == null ? UNKNOWN : levelSegment(level), segment(service));
+            if (keys.size() < maxCachedKeys) {
+                keys.put(service, key);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Partition of an entry, in {@code [0, count)}
+     */
+    int partition(LogEntryDTO logEntry) {
+        String key = switch (partitionKey) {
+            case SERVICE -> logEntry.getService();
+            case HOST -> logEntry.getHost();
+            case TRACE_ID -> logEntry.getTraceId() != null ? logEntry.getTraceId() : logEntry.getService();
+        };
+        return jumpHash(Hashes.mix(Hashes.add(Hashes.SEED, key)), partitionKeys.length);
+    }
+
+    /**
+     * Jump consistent hash: bucket in {@code [0, buckets)} for a 64-bit key
+     */
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    public static int partitionCount(IngestionProperties.Partitions partitions) {
+        return Math.max(1, partitions.getCount());
+    }
+
+    /**
+     * Queue name and routing key of a partition, e.g. {@code logs.raw.3}
+     */
+    public static String partitionName(int partition) {
+        return RabbitMQConfig.LOGS_RAW_QUEUE + '.' + partition;
+    }
+
+    /**
+     * Routing key for a level segment and a service segment
+     */
+    public static String routingKey(String level, String service) {
+        return RabbitMQConfig.LOGS_RAW_ROUTING_KEY + '.' + level + '.' + service;
+    }
+
+    public static String levelSegment(LogLevel level) {
+        return level.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A value made safe to use as one routing key word: lower case, with the
+     * topic separators and wildcards ({@code .}, {@code *}, {@code #}) and
+     * whitespace replaced by {@code _}
+     */
+    public static String segment(String value) {
+        if (value.isEmpty()) {
+            return UNKNOWN;
+        }
+        StringBuilder segment = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            char replacement = c == '.' || c == '*' || c == '#' || Character.isWhitespace(c)
+                    ? '_' : Character.toLowerCase(c);
+            if (replacement != c && segment == null) {
+                segment = new StringBuilder(value.length()).append(value, 0, i);
+            }
+            if (segment != null) {
+                segment.append(replacement);
+            }
+        }
+        return segment == null ? value : segment.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes log entries to the logs exchange through the RabbitTemplate.
+ * <p>
+ * With publisher confirms enabled, every publish carries correlation data and
+ * holds a slot of a bounded in-flight window until the broker confirms it, so
+ * many publishes can be outstanding at once without unbounded buffering.
+ * <p>
+ * In envelope mode {@link #publishAll} packs the entries for each routing key
+ * into messages of up to {@code maxEntries} entries, published as an array in
+ * the configured wire format with the entry count in {@value #ENVELOPE_COUNT_HEADER}.
+ */
+@Slf4j
+@Component
+public class RabbitLogPublisher implements LogPublisher {
+
+    /**
+     * Header carrying the number of entries in an envelope message
+     */
+    public static final String ENVELOPE_COUNT_HEADER = "x-log-count";
+
+    private static final String CONTENT_TYPE_ID_HEADER = "__ContentTypeId__";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final IngestionProperties.Confirms confirms;
+    private final IngestionProperties.Envelope envelope;
+    private final LogRouter router;
+    private final Semaphore inFlight;
+    private final AtomicLong correlationSequence = new AtomicLong();
+    private final Timer confirmLatency;
+    private final Counter nacks;
+    private final Counter confirmTimeouts;
+
+    public RabbitLogPublisher(RabbitTemplate rabbitTemplate,
+                              IngestionProperties ingestionProperties,
+                              MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirms = ingestionProperties.getPublisher().getConfirms();
+        this.envelope = ingestionProperties.getPublisher().getEnvelope();
+        this.router = new LogRouter(ingestionProperties.getRouting(), ingestionProperties.getPartitions());
+        this.inFlight = new Semaphore(confirms.getMaxInFlight());
+        this.confirmLatency = Timer.builder("ingestion.publish.confirm.latency")
+                .description("Time from publish to broker confirm")
+                .register(meterRegistry);
+        this.nacks = Counter.builder("ingestion.publish.confirm.nacks")
+                .description("Publishes negatively acknowledged by the broker")
+                .register(meterRegistry);
+        this.confirmTimeouts = Counter.builder("ingestion.publish.confirm.timeouts")
+                .description("Publishes not confirmed within the configured timeout")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.publish.confirm.in_flight", this,
+                        publisher -> publisher.confirms.getMaxInFlight() - publisher.inFlight.availablePermits())
+                .description("Publishes awaiting a broker confirm")
+                .register(meterRegistry);
+
+        requireConfirmsSupported();
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        String routingKey = routingKey(logEntry);
+        if (!confirms.isEnabled()) {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.LOGS_EXCHANGE,
+                    routingKey,
+                    logEntry
+            );
+            log.debug("Published log with routing key: {}", routingKey);
+            return;
+        }
+
+        CompletableFuture<CorrelationData.Confirm> confirm =
+                sendWithConfirm(new Outgoing(routingKey, logEntry, null));
+        if (confirms.getPolicy() == IngestionProperties.ConfirmPolicy.AWAIT) {
+            awaitConfirm(confirm, System.nanoTime() + confirms.getTimeout().toNanos());
+        }
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        List<Outgoing> messages = envelope.isEnabled() ? envelopes(logEntries) : singles(logEntries);
+        if (!confirms.isEnabled()) {
+            rabbitTemplate.invoke(operations -> {
+                for (Outgoing message : messages) {
+                    if (message.postProcessor() == null) {
+                        operations.convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, message.routingKey(), message.payload());
+                    } else {
+                        operations.convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, message.routingKey(),
+                                message.payload(), message.postProcessor());
+                    }
+                }
+                return null;
+            });
+            log.debug("Published {} logs in {} messages to exchange: {}",
+                    logEntries.size(), messages.size(), RabbitMQConfig.LOGS_EXCHANGE);
+            return;
+        }
+
+        // Put the whole group in flight first, then wait, so the batch costs
+        // one confirm round trip rather than one per message
+        List<CompletableFuture<CorrelationData.Confirm>> pending = new ArrayList<>(messages.size());
+        for (Outgoing message : messages) {
+            pending.add(sendWithConfirm(message));
+        }
+        if (confirms.getPolicy() == IngestionProperties.ConfirmPolicy.AWAIT) {
+            long deadline = System.nanoTime() + confirms.getTimeout().toNanos();
+            try {
+                for (CompletableFuture<CorrelationData.Confirm> confirm : pending) {
+                    awaitConfirm(confirm, deadline);
+                }
+            } catch (LogPublishException e) {
+                // The group has failed; give up on its outstanding confirms so their slots return
+                pending.forEach(confirm -> confirm.completeExceptionally(e));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Routing key a log entry is published with
+     */
+    public String routingKey(LogEntryDTO logEntry) {
+        return router.routingKey(logEntry);
+    }
+
+    private List<Outgoing> singles(List<LogEntryDTO> logEntries) {
+        List<Outgoing> messages = new ArrayList<>(logEntries.size());
+        for (LogEntryDTO logEntry : logEntries) {
+            messages.add(new Outgoing(routingKey(logEntry), logEntry, null));
+        }
+        return messages;
+    }
+
+    private List<Outgoing> envelopes(List<LogEntryDTO> logEntries) {
+        Map<String, List<LogEntryDTO>> byRoutingKey = new LinkedHashMap<>();
+        for (LogEntryDTO logEntry : logEntries) {
+            byRoutingKey.computeIfAbsent(routingKey(logEntry), key -> new ArrayList<>()).add(logEntry);
+        }
+
+        List<Outgoing> messages = new ArrayList<>();
+        int maxEntries = Math.max(1, envelope.getMaxEntries());
+        byRoutingKey.forEach((routingKey, entries) -> {
+            for (int from = 0; from < entries.size(); from += maxEntries) {
+                List<LogEntryDTO> chunk = new ArrayList<>(entries.subList(from, Math.min(entries.size(), from + maxEntries)));
+                messages.add(new Outgoing(routingKey, chunk, envelopeHeaders(chunk.size())));
+            }
+        });
+        return messages;
+    }
+
+    private static MessagePostProcessor envelopeHeaders(int count) {
+        return message -> {
+            message.getMessageProperties().setHeader(ENVELOPE_COUNT_HEADER, count);
+            // Element type, so typed consumers decode a List<LogEntryDTO>
+            message.getMessageProperties().setHeader(CONTENT_TYPE_ID_HEADER, LogEntryDTO.class.getName());
+            return message;
+        };
+    }
+
+    private CompletableFuture<CorrelationData.Confirm> sendWithConfirm(Outgoing message) {
+        acquireSlot();
+
+        CorrelationData correlationData = new CorrelationData(Long.toString(correlationSequence.incrementAndGet()));
+        long start = System.nanoTime();
+        CompletableFuture<CorrelationData.Confirm> confirm = correlationData.getFuture();
+        confirm.whenComplete((result, error) -> {
+            inFlight.release();
+            confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (result != null && !result.isAck()) {
+                nacks.increment();
+                log.warn("Broker nacked log publish {}: {}", correlationData.getId(), result.getReason());
+            }
+        });
+
+        try {
+            if (message.postProcessor() == null) {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, message.routingKey(),
+                        message.payload(), correlationData);
+            } else {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, message.routingKey(),
+                        message.payload(), message.postProcessor(), correlationData);
+            }
+        } catch (RuntimeException e) {
+            confirm.completeExceptionally(e);
+            throw e;
+        }
+        return confirm;
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!inFlight.tryAcquire(confirms.getTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new LogPublishException("Timed out waiting for a publisher confirm slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LogPublishException("Interrupted waiting for a publisher confirm slot", e);
+        }
+    }
+
+    private void awaitConfirm(CompletableFuture<CorrelationData.Confirm> confirm, long deadlineNanos) {
+        CorrelationData.Confirm result;
+        try {
+            result = confirm.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            confirmTimeouts.increment();
+            // Complete the future so its in-flight slot returns even if the confirm is lost
+            confirm.completeExceptionally(e);
+            throw new LogPublishException("Timed out waiting for broker confirm", e);
+        } catch (ExecutionException e) {
+            throw new LogPublishException("Publish failed before broker confirm", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LogPublishException("Interrupted waiting for broker confirm", e);
+        }
+        if (!result.isAck()) {
+            throw new LogPublishException("Broker rejected log entry: " + result.getReason());
+        }
+    }
+
+    /**
+     * Without correlated confirms on the connection factory no confirm ever
+     * arrives, and every publish would hold its in-flight slot until it times out
+     */
+    private void requireConfirmsSupported() {
+        if (!confirms.isEnabled()) {
+            return;
+        }
+        ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
+        if (connectionFactory != null && !connectionFactory.isPublisherConfirms()) {
+            throw new IllegalStateException("ingestion.publisher.confirms.enabled=true requires "
+                    + "spring.rabbitmq.publisher-confirm-type=correlated");
+        }
+    }
+
+    /**
+     * One AMQP message to publish: a single entry or an envelope
+     */
+    private record Outgoing(String routingKey, Object payload, MessagePostProcessor postProcessor) {
+    }
+}
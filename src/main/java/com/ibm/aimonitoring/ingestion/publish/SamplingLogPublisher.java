@@ -0,0 +1,245 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Drops a share of INFO, DEBUG and TRACE entries when the pipeline is under
+ * load, always keeping ERROR and WARN. Load is the publish buffer's fill
+ * ratio and/or the ingest rate against a target, re-evaluated on the calling
+ * thread every {@code updateInterval}; it rises immediately and decays
+ * gradually so the rate does not flap.
+ * <p>
+ * At load {@code p} a level is kept at {@code minRate + (1 - p) * (1 - minRate)}. Entries
+ * with a {@code traceId} are kept when the trace's hash falls below that rate,
+ * so a trace is kept or dropped as a whole; kept entries carry the rate in
+ * {@code sampleRate} so downstream counts can be re-weighted.
+ * <p>
+ * Lifecycle calls are forwarded to the delegate, so a buffer behind this
+ * publisher is still started and drained.
+ */
+public class SamplingLogPublisher implements LogPublisher, SmartLifecycle {
+
+    private static final double DECAY = 0.25;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final LogPublisher delegate;
+    private final BufferedLogPublisher buffer;
+    private final IngestionProperties.Sampling settings;
+    private final long updateIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final double[] minRates;
+    private final Map<String, double[]> serviceMinRates = new HashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final AtomicLong lastUpdate;
+    private final AtomicLong receivedAtLastUpdate = new AtomicLong();
+    private final Counter[] dropped = new Counter[LEVELS.length];
+
+    private volatile double pressure;
+    private volatile boolean running;
+
+    /**
+     * @param buffer the publish buffer whose backlog signals load, may be null
+     */
+    public SamplingLogPublisher(LogPublisher delegate,
+                                BufferedLogPublisher buffer,
+                                IngestionProperties.Sampling settings,
+                                MeterRegistry meterRegistry) {
+        this(delegate, buffer, settings, meterRegistry, System::nanoTime);
+    }
+
+    SamplingLogPublisher(LogPublisher delegate,
+                         BufferedLogPublisher buffer,
+                         IngestionProperties.Sampling settings,
+                         MeterRegistry meterRegistry,
+                         LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.buffer = buffer;
+        this.settings = settings;
+        this.updateIntervalNanos = settings.getUpdateInterval().toNanos();
+        this.nanoClock = nanoClock;
+        this.lastUpdate = new AtomicLong(nanoClock.getAsLong());
+        this.minRates = minRates(settings.getMinRates(), null);
+        settings.getServiceMinRates().forEach((service, rates) ->
+                serviceMinRates.put(service, minRates(rates, minRates)));
+        for (LogLevel level : LEVELS) {
+            dropped[level.ordinal()] = Counter.builder("ingestion.sampling.dropped")
+                    .description("Entries dropped by load-based sampling")
+                    .tag("level", level.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ingestion.sampling.pressure", this, SamplingLogPublisher::getPressure)
+                .description("Load driving the sample rate, from 0 (keep all) to 1 (minimum rates)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        if (sample(logEntry)) {
+            delegate.publish(logEntry);
+        }
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        List<LogEntryDTO> kept = null;
+        for (int i = 0; i < logEntries.size(); i++) {
+            LogEntryDTO logEntry = logEntries.get(i);
+            boolean keep = sample(logEntry);
+            if (!keep && kept == null) {
+                kept = new ArrayList<>(logEntries.subList(0, i));
+            } else if (keep && kept != null) {
+                kept.add(logEntry);
+            }
+        }
+        List<LogEntryDTO> toPublish = kept == null ? logEntries : kept;
+        if (!toPublish.isEmpty()) {
+            delegate.publishAll(toPublish);
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return delegate.remainingCapacity();
+    }
+
+    /**
+     * Decide whether to keep an entry, stamping the sample rate on kept entries
+     * when it is below 1
+     */
+    boolean sample(LogEntryDTO logEntry) {
+        received.increment();
+        updatePressure();
+
+        double load = pressure;
+        LogLevel level = LogLevel.fromName(logEntry.getLevel());
+        if (load == 0 || level == null || level == LogLevel.ERROR || level == LogLevel.WARN) {
+            return true;
+        }
+
+        double[] floors = serviceMinRates.getOrDefault(logEntry.getService(), minRates);
+        double floor = floors[level.ordinal()];
+        double rate = floor + (1 - load) * (1 - floor);
+        if (rate >= 1) {
+            return true;
+        }
+        double draw = logEntry.getTraceId() == null
+                ? ThreadLocalRandom.current().nextDouble()
+                : unitHash(logEntry.getTraceId());
+        if (draw < rate) {
+            logEntry.setSampleRate(rate);
+            return true;
+        }
+        dropped[level.ordinal()].increment();
+        return false;
+    }
+
+    private void updatePressure() {
+        long now = nanoClock.getAsLong();
+        long last = lastUpdate.get();
+        long elapsed = now - last;
+        if (elapsed < updateIntervalNanos || !lastUpdate.compareAndSet(last, now)) {
+            return;
+        }
+
+        long total = received.sum();
+        long count = total - receivedAtLastUpdate.getAndSet(total);
+        double ratePerSecond = count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+
+        double current = Math.max(backlogPressure(), ratePressure(ratePerSecond));
+        double previous = pressure;
+        pressure = current >= previous ? current : previous + (current - previous) * DECAY;
+        if (pressure < 0.001) {
+            pressure = 0;
+        }
+    }
+
+    private double backlogPressure() {
+        if (buffer == null) {
+            return 0;
+        }
+        double fill = (double) buffer.getBacklog() / buffer.getCapacity();
+        double low = settings.getBacklogLowWatermark();
+        double high = settings.getBacklogHighWatermark();
+        return clamp((fill - low) / Math.max(high - low, 1e-9));
+    }
+
+    private double ratePressure(double ratePerSecond) {
+        long target = settings.getTargetRate();
+        return target <= 0 ? 0 : clamp((ratePerSecond - target) / target);
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    /**
+     * Maps a trace ID to a uniformly distributed value in [0, 1)
+     */
+    static double unitHash(String traceId) {
+        long hash = Hashes.SEED;
+        for (int i = 0; i < traceId.length(); i++) {
+            hash = Hashes.add(hash, traceId.charAt(i));
+        }
+        return (Hashes.mix(hash) >>> 11) * 0x1.0p-53;
+    }
+
+    private static double[] minRates(Map<LogLevel, Double> rates, double[] defaults) {
+        double[] result = new double[LEVELS.length];
+        for (LogLevel level : LEVELS) {
+            Double rate = rates.get(level);
+            if (rate != null) {
+                result[level.ordinal()] = clamp(rate);
+            } else {
+                result[level.ordinal()] = defaults == null ? 1 : defaults[level.ordinal()];
+            }
+        }
+        return result;
+    }
+
+    public double getPressure() {
+        return pressure;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (delegate instanceof Lifecycle lifecycle) {
+            lifecycle.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (delegate instanceof Lifecycle lifecycle) {
+            lifecycle.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return delegate instanceof SmartLifecycle lifecycle ? lifecycle.getPhase() : SmartLifecycle.super.getPhase();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Falls back to the local spill log when the delegate cannot publish, so a
+ * broker outage delays logs instead of losing them
+ */
+@Slf4j
+public class SpillingLogPublisher implements LogPublisher {
+
+    private final LogPublisher delegate;
+    private final SpillLog spillLog;
+
+    public SpillingLogPublisher(LogPublisher delegate, SpillLog spillLog) {
+        this.delegate = delegate;
+        this.spillLog = spillLog;
+    }
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        try {
+            delegate.publish(logEntry);
+        } catch (PublisherOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            spill(List.of(logEntry), e);
+        }
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        try {
+            delegate.publishAll(logEntries);
+        } catch (PublisherOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            spill(logEntries, e);
+        }
+    }
+
+    private void spill(List<LogEntryDTO> logEntries, Exception cause) {
+        log.warn("Publish failed, spilling {} logs to disk: {}", logEntries.size(), cause.getMessage());
+        try {
+            spillLog.appendAll(logEntries);
+        } catch (Exception e) {
+            e.addSuppressed(cause);
+            throw new LogPublishException("Failed to publish or spill log entries", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Attaches the mined template ID and parameters to each entry before handing
+ * it on. Sits behind the publish buffer when one is configured, so mining runs
+ * on the publisher threads rather than the request threads.
+ */
+@RequiredArgsConstructor
+public class TemplateMiningLogPublisher implements LogPublisher {
+
+    private final LogPublisher delegate;
+    private final DrainTemplateMiner miner;
+
+    @Override
+    public void publish(LogEntryDTO logEntry) {
+        attachTemplate(logEntry);
+        delegate.publish(logEntry);
+    }
+
+    @Override
+    public void publishAll(List<LogEntryDTO> logEntries) {
+        for (LogEntryDTO logEntry : logEntries) {
+            attachTemplate(logEntry);
+        }
+        delegate.publishAll(logEntries);
+    }
+
+    private void attachTemplate(LogEntryDTO logEntry) {
+        DrainTemplateMiner.Match match = miner.match(logEntry.getMessage());
+        if (match != null) {
+            logEntry.setTemplateId(match.templateId());
+            logEntry.setTemplateParameters(match.parameters());
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.ibm.aimonitoring.ingestion.ratelimit;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by the entry's service, or service and
+ * environment. Each bucket is a single {@link AtomicLong} updated by CAS
+ * (the generic cell rate algorithm), so acquiring takes no lock.
+ * <p>
+ * At most {@code maxKeys} buckets are tracked; buckets that have been full
+ * for {@code idleTimeout} are evicted, and keys arriving while the table is
+ * still full share one overflow bucket with the default limit. Per-key limits
+ * can be changed at runtime and apply to existing buckets immediately.
+ */
+@Component
+public class LogRateLimiter {
+
+    /**
+     * Per-entry errors reported by the batch and stream endpoints for rate-limited entries
+     */
+    public static final Map<String, String> REJECTED_ERRORS =
+            Map.of("rateLimit", "Rate limit exceeded for the entry's service");
+
+    private static final String UNKNOWN_ENVIRONMENT = "unknown";
+
+    /**
+     * Least time between sweeps forced by a full table
+     */
+    private static final long FULL_TABLE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final IngestionProperties.RateLimitKey keyBy;
+    private final Rate defaultRate;
+    private final int maxKeys;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+    private final Bucket overflow;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private volatile Map<String, IngestionProperties.Limit> limits;
+
+    @Autowired
+    public LogRateLimiter(IngestionProperties ingestionProperties) {
+        this(ingestionProperties.getRateLimit(), System::nanoTime);
+    }
+
+    LogRateLimiter(IngestionProperties.RateLimit settings, LongSupplier nanoClock) {
+        this.enabled = settings.isEnabled();
+        this.keyBy = settings.getKeyBy();
+        this.defaultRate = Rate.of(settings.getDefaultLimit());
+        this.maxKeys = Math.max(1, settings.getMaxKeys());
+        this.idleTimeoutNanos = settings.getIdleTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        this.limits = Map.copyOf(settings.getLimits());
+        long now = nanoClock.getAsLong();
+        this.lastSweep = new AtomicLong(now);
+        this.overflow = new Bucket(defaultRate, now);
+    }
+
+    /**
+     * Take one token for the entry's key
+     *
+     * @throws RateLimitExceededException if the key's bucket is empty
+     */
+    public void acquire(LogEntryDTO logEntry) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(logEntry);
+        long waitNanos = tryAcquire(key);
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(key, waitNanos);
+        }
+    }
+
+    /**
+     * Take one token for the entry's key if one is available
+     *
+     * @return true if the entry may be ingested
+     */
+    public boolean tryAcquire(LogEntryDTO logEntry) {
+        return !enabled || tryAcquire(key(logEntry)) == 0;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        long waitNanos = bucket(key, now).tryAcquire(now);
+        if (waitNanos == 0) {
+            allowed.increment();
+        } else {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    String key(LogEntryDTO logEntry) {
+        if (keyBy == IngestionProperties.RateLimitKey.SERVICE) {
+            return logEntry.getService();
+        }
+        String environment = logEntry.getEnvironment() == null ? UNKNOWN_ENVIRONMENT : logEntry.getEnvironment();
+        return logEntry.getService() + "/" + environment;
+    }
+
+    private Bucket bucket(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        long last = lastSweep.get();
+        long sinceSweep = now - last;
+        if (sinceSweep >= idleTimeoutNanos / 2
+                || (buckets.size() >= maxKeys && sinceSweep >= FULL_TABLE_SWEEP_INTERVAL_NANOS)) {
+            evictIdle(last, now);
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(rateFor(k), now));
+    }
+
+    /**
+     * Drop buckets that have been full for at least the idle timeout. Only the
+     * caller that moves the last sweep time forward sweeps; the others carry on.
+     */
+    private void evictIdle(long last, long now) {
+        if (!lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().isIdle(now, idleTimeoutNanos);
+            if (idle) {
+                evicted.increment();
+            }
+            return idle;
+        });
+    }
+
+    private Rate rateFor(String key) {
+        Map<String, IngestionProperties.Limit> current = limits;
+        IngestionProperties.Limit limit = current.get(key);
+        if (limit == null && keyBy == IngestionProperties.RateLimitKey.SERVICE_ENVIRONMENT) {
+            int separator = key.lastIndexOf('/');
+            if (separator > 0) {
+                limit = current.get(key.substring(0, separator));
+            }
+        }
+        return limit == null ? defaultRate : Rate.of(limit);
+    }
+
+    /**
+     * Set the limit for a service or {@code service/environment} key
+     */
+    public synchronized void setLimit(String key, IngestionProperties.Limit limit) {
+        Map<String, IngestionProperties.Limit> updated = new HashMap<>(limits);
+        updated.put(key, limit);
+        limits = Map.copyOf(updated);
+        refreshBuckets();
+    }
+
+    /**
+     * Return a key to the default limit
+     */
+    public synchronized void removeLimit(String key) {
+        Map<String, IngestionProperties.Limit> updated = new HashMap<>(limits);
+        updated.remove(key);
+        limits = Map.copyOf(updated);
+        refreshBuckets();
+    }
+
+    private void refreshBuckets() {
+        buckets.forEach((key, bucket) -> bucket.rate = rateFor(key));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, IngestionProperties.Limit> getLimits() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    public IngestionProperties.Limit getDefaultLimit() {
+        return defaultRate.limit;
+    }
+
+    public int getTrackedKeys() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /**
+     * A limit converted to the spacing between entries and the burst allowance
+     */
+    private record Rate(IngestionProperties.Limit limit, long emissionNanos, long toleranceNanos) {
+
+        static Rate of(IngestionProperties.Limit limit) {
+            if (limit.getRate() <= 0) {
+                return new Rate(limit, 0, 0);
+            }
+            long emissionNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / limit.getRate()));
+            return new Rate(limit, emissionNanos, emissionNanos * Math.max(1, limit.getBurst()));
+        }
+
+        boolean isUnlimited() {
+            return emissionNanos == 0;
+        }
+    }
+
+    /**
+     * Holds the theoretical arrival time of the next entry: the bucket is full
+     * when it is in the past, and empty when it is {@code toleranceNanos} ahead
+     */
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival;
+        private volatile Rate rate;
+
+        Bucket(Rate rate, long now) {
+            this.rate = rate;
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now) {
+            Rate current = rate;
+            if (current.isUnlimited()) {
+                return 0;
+            }
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = Math.max(arrival, now) + current.emissionNanos;
+                long waitNanos = next - now - current.toleranceNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now, long idleTimeoutNanos) {
+            return now - theoreticalArrival.get() >= idleTimeoutNanos;
+        }
+    }
+
+    /**
+     * Thrown when an entry's key has used up its rate limit
+     */
+    @Getter
+    public static class RateLimitExceededException extends RuntimeException {
+        private final String key;
+        private final long retryAfterSeconds;
+
+        public RateLimitExceededException(String key, long waitNanos) {
+            super("Rate limit exceeded for " + key);
+            this.key = key;
+            this.retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibm.aimonitoring.ingestion.ratelimit;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint for reading and changing per-key rate limits at runtime,
+ * at {@code /actuator/ratelimits}. It is left out of the default web exposure:
+ * the write operations are unauthenticated, so expose it only over JMX or on a
+ * separate management port.
+ */
+@Endpoint(id = "ratelimits")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+
+    private final LogRateLimiter rateLimiter;
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("defaultLimit", rateLimiter.getDefaultLimit());
+        state.put("limits", new TreeMap<>(rateLimiter.getLimits()));
+        state.put("trackedKeys", rateLimiter.getTrackedKeys());
+        state.put("allowed", rateLimiter.getAllowed());
+        state.put("rejected", rateLimiter.getRejected());
+        state.put("evicted", rateLimiter.getEvicted());
+        return state;
+    }
+
+    /**
+     * {@code POST /actuator/ratelimits} with {@code {"key": ..., "rate": ..., "burst": ...}}
+     */
+    @WriteOperation
+    public Map<String, Object> setLimit(String key, double rate, int burst) {
+        rateLimiter.setLimit(key, new IngestionProperties.Limit(rate, burst));
+        return rateLimits();
+    }
+
+    /**
+     * {@code DELETE /actuator/ratelimits/{service}} or {@code /actuator/ratelimits/{service}/{environment}}
+     */
+    @DeleteOperation
+    public Map<String, Object> removeLimit(@Selector(match = Selector.Match.ALL_REMAINING) String[] key) {
+        rateLimiter.removeLimit(String.join("/", key));
+        return rateLimits();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingests groups of entries for the batch endpoint, the streaming endpoints and
+ * the protocol receivers (OTLP, syslog, ...): each entry is validated and rate
+ * limited on its own, and the valid ones are published together through
+ * {@link LogIngestionService}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchIngestionService {
+
+    private final LogIngestionService logIngestionService;
+    private final LogEntryValidator logEntryValidator;
+    private final LogRateLimiter logRateLimiter;
+
+    /**
+     * Validate and publish decoded log records
+     *
+     * @param logEntries the decoded records, in arrival order
+     * @return accepted and rejected counts, with the reason for the first rejection
+     */
+    public IngestResult ingest(List<LogEntryDTO> logEntries) {
+        return ingest(logEntries, 0);
+    }
+
+    /**
+     * Validate and publish one group of a longer sequence of records
+     *
+     * @param logEntries the decoded records, in arrival order
+     * @param firstIndex position of the first record in the whole sequence, used in the error message
+     * @return accepted and rejected counts, with the reason for the first rejection
+     */
+    public IngestResult ingest(List<LogEntryDTO> logEntries, long firstIndex) {
+        List<LogEntryDTO> validEntries = new ArrayList<>(logEntries.size());
+        int rateLimited = 0;
+        String firstError = null;
+        for (int i = 0; i < logEntries.size(); i++) {
+            LogEntryDTO logEntry = logEntries.get(i);
+            Map<String, String> errors = admit(logEntry);
+            if (errors.isEmpty()) {
+                validEntries.add(logEntry);
+                continue;
+            }
+            if (LogRateLimiter.REJECTED_ERRORS.equals(errors)) {
+                rateLimited++;
+            }
+            if (firstError == null) {
+                firstError = "Log record " + (firstIndex + i) + " rejected: " + errors;
+            }
+        }
+
+        publish(validEntries);
+
+        int rejected = logEntries.size() - validEntries.size();
+        log.debug("Batch of {} records: {} accepted, {} rejected",
+                logEntries.size(), validEntries.size(), rejected);
+        return new IngestResult(validEntries.size(), rejected, rateLimited, firstError);
+    }
+
+    /**
+     * Validate and publish a group of entries, reporting the outcome of each one
+     *
+     * @param logEntries the entries, in request order
+     * @return one result per entry, at the entry's index
+     */
+    public List<EntryResult> ingestEach(List<LogEntryDTO> logEntries) {
+        EntryResult[] results = new EntryResult[logEntries.size()];
+        List<LogEntryDTO> validEntries = new ArrayList<>(logEntries.size());
+        int[] validIndexes = new int[logEntries.size()];
+
+        for (int i = 0; i < logEntries.size(); i++) {
+            LogEntryDTO logEntry = logEntries.get(i);
+            Map<String, String> errors = admit(logEntry);
+            if (errors.isEmpty()) {
+                validIndexes[validEntries.size()] = i;
+                validEntries.add(logEntry);
+            } else {
+                results[i] = EntryResult.rejected(errors);
+            }
+        }
+
+        List<String> logIds = publish(validEntries);
+        for (int i = 0; i < logIds.size(); i++) {
+            results[validIndexes[i]] = EntryResult.accepted(logIds.get(i));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Validate and rate limit one entry. Streaming callers admit entries as they
+     * are read and {@link #publish} the admitted ones in chunks.
+     *
+     * @return why the entry is rejected, {@link LogRateLimiter#REJECTED_ERRORS} when its
+     *         service is over its rate limit; empty when it may be published
+     */
+    public Map<String, String> admit(LogEntryDTO logEntry) {
+        Map<String, String> errors = logEntryValidator.validate(logEntry);
+        if (errors.isEmpty() && !logRateLimiter.tryAcquire(logEntry)) {
+            return LogRateLimiter.REJECTED_ERRORS;
+        }
+        return errors;
+    }
+
+    /**
+     * Publish admitted entries as one batch
+     *
+     * @return the IDs assigned to the entries, in order
+     */
+    public List<String> publish(List<LogEntryDTO> logEntries) {
+        return logIngestionService.ingestBatch(logEntries);
+    }
+
+    /**
+     * Entries the publisher can take right now; see {@link LogIngestionService#publishCapacity()}
+     */
+    public int publishCapacity() {
+        return logIngestionService.publishCapacity();
+    }
+
+    /**
+     * Outcome of one batch. {@code rateLimited} counts the rejected entries that
+     * were refused by the rate limiter rather than by validation, and would be
+     * accepted if sent again later.
+     */
+    public record IngestResult(int accepted, int rejected, int rateLimited, String errorMessage) {
+
+        public IngestResult(int accepted, int rejected, String errorMessage) {
+            this(accepted, rejected, 0, errorMessage);
+        }
+    }
+
+    /**
+     * Outcome of one entry: its log ID when accepted, the reasons otherwise
+     */
+    public record EntryResult(String logId, Map<String, String> errors) {
+
+        static EntryResult accepted(String logId) {
+            return new EntryResult(logId, null);
+        }
+
+        static EntryResult rejected(Map<String, String> errors) {
+            return new EntryResult(null, errors);
+        }
+
+        public boolean isAccepted() {
+            return errors == null;
+        }
+    }
+}
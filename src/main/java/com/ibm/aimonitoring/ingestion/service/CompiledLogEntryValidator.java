@@ -0,0 +1,117 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Checks the {@link LogEntryDTO} constraints with plain getters and length
+ * comparisons. Messages and limits are read from the DTO's constraint
+ * annotations once, so the errors match Bean Validation's; the level is
+ * checked against {@link LogLevel} instead of its {@code @Pattern}.
+ */
+final class CompiledLogEntryValidator {
+
+    private final String levelRequired;
+    private final String levelInvalid;
+    private final List<TextCheck> textChecks;
+
+    CompiledLogEntryValidator() {
+        this.levelRequired = annotation("level", NotNull.class).message();
+        this.levelInvalid = annotation("level", Pattern.class).message();
+        this.textChecks = List.of(
+                textCheck("message", LogEntryDTO::getMessage),
+                textCheck("service", LogEntryDTO::getService),
+                textCheck("host", LogEntryDTO::getHost),
+                textCheck("environment", LogEntryDTO::getEnvironment),
+                textCheck("traceId", LogEntryDTO::getTraceId),
+                textCheck("spanId", LogEntryDTO::getSpanId));
+    }
+
+    Map<String, String> validate(LogEntryDTO logEntry) {
+        Map<String, String> errors = null;
+
+        String level = logEntry.getLevel();
+        if (level == null) {
+            errors = put(errors, "level", levelRequired);
+        } else if (LogLevel.fromName(level) == null) {
+            errors = put(errors, "level", levelInvalid);
+        }
+
+        for (TextCheck check : textChecks) {
+            String value = check.getter.apply(logEntry);
+            if (check.blankMessage != null && isBlank(value)) {
+                errors = put(errors, check.field, check.blankMessage);
+            } else if (value != null && value.length() > check.maxLength) {
+                errors = put(errors, check.field, check.tooLongMessage);
+            }
+        }
+
+        return errors == null ? Collections.emptyMap() : errors;
+    }
+
+    private static Map<String, String> put(Map<String, String> errors, String field, String message) {
+        Map<String, String> target = errors == null ? new HashMap<>() : errors;
+        target.put(field, message);
+        return target;
+    }
+
+    /**
+     * Same rule as {@code @NotBlank}: null, or empty after {@link String#trim()}
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TextCheck textCheck(String field, Function<LogEntryDTO, String> getter) {
+        NotBlank notBlank = annotationOrNull(field, NotBlank.class);
+        Size size = annotationOrNull(field, Size.class);
+        return new TextCheck(field, getter,
+                notBlank == null ? null : notBlank.message(),
+                size == null ? Integer.MAX_VALUE : size.max(),
+                size == null ? null : size.message());
+    }
+
+    private static <A extends Annotation> A annotation(String field, Class<A> type) {
+        A annotation = annotationOrNull(field, type);
+        if (annotation == null) {
+            throw new IllegalStateException("LogEntryDTO." + field + " has no @" + type.getSimpleName());
+        }
+        return annotation;
+    }
+
+    private static <A extends Annotation> A annotationOrNull(String field, Class<A> type) {
+        try {
+            Field declared = LogEntryDTO.class.getDeclaredField(field);
+            return declared.getAnnotation(type);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("LogEntryDTO has no field " + field, e);
+        }
+    }
+
+    private record TextCheck(String field,
+                             Function<LogEntryDTO, String> getter,
+                             String blankMessage,
+                             int maxLength,
+                             String tooLongMessage) {
+    }
+}
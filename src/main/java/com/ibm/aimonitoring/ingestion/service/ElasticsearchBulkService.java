@@ -0,0 +1,269 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.BulkItemDTO;
+import com.ibm.aimonitoring.ingestion.dto.BulkResponseDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.elasticsearch.BulkDocumentMapper;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingests Elasticsearch {@code _bulk} bodies: NDJSON action and source
+ * document line pairs, read line by line like {@link NdjsonIngestionService}
+ * so memory stays bounded by the group size whatever the body size. Valid
+ * documents are published in groups of {@code chunk-size}, and every action
+ * gets an item in the response with the status Elasticsearch would give it.
+ * <p>
+ * {@code index} and {@code create} actions are ingested; {@code update} and
+ * {@code delete} make no sense for a log stream and are answered with 400.
+ * A malformed action line fails the whole request, as in Elasticsearch;
+ * groups published before it stay published.
+ */
+@Slf4j
+@Service
+public class ElasticsearchBulkService {
+
+    private static final String INDEX = "index";
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    private static final String RESULT_CREATED = "created";
+    private static final String DOCUMENT_PARSING_EXCEPTION = "document_parsing_exception";
+
+    private final BatchIngestionService batchIngestionService;
+    private final BulkDocumentMapper bulkDocumentMapper;
+    private final IngestionProperties.Elasticsearch settings;
+    private final ObjectMapper objectMapper;
+
+    public ElasticsearchBulkService(BatchIngestionService batchIngestionService,
+                                    BulkDocumentMapper bulkDocumentMapper,
+                                    IngestionProperties ingestionProperties,
+                                    ObjectMapper objectMapper) {
+        this.batchIngestionService = batchIngestionService;
+        this.bulkDocumentMapper = bulkDocumentMapper;
+        this.settings = ingestionProperties.getElasticsearch();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read, map, validate and publish every action of a bulk body
+     *
+     * @param body         the request body
+     * @param defaultIndex index from the request path, used by actions without {@code _index}; may be null
+     * @return one item per action, in order
+     * @throws MalformedBulkRequestException if an action line is not a valid action
+     * @throws IOException                   if the body cannot be read
+     */
+    public BulkResponseDTO ingest(InputStream body, String defaultIndex) throws IOException {
+        long start = System.nanoTime();
+        BulkState state = new BulkState();
+        NdjsonIngestionService.LineReader lines = new NdjsonIngestionService.LineReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8), settings.getMaxLineLength());
+
+        long lineNumber = 0;
+        while (lines.next()) {
+            lineNumber++;
+            if (!lines.isTooLong() && lines.isBlank()) {
+                continue;
+            }
+            Action action = readAction(lines, lineNumber, defaultIndex);
+            if (DELETE.equals(action.name())) {
+                state.fail(action, 400, "illegal_argument_exception", "Bulk action [delete] is not supported");
+                continue;
+            }
+            if (!lines.next()) {
+                throw new MalformedBulkRequestException(
+                        "Action on line [" + lineNumber + "] is not followed by a source document");
+            }
+            lineNumber++;
+            if (UPDATE.equals(action.name())) {
+                state.fail(action, 400, "illegal_argument_exception", "Bulk action [update] is not supported");
+            } else if (lines.isTooLong()) {
+                state.fail(action, 400, DOCUMENT_PARSING_EXCEPTION,
+                        "Document exceeds " + settings.getMaxLineLength() + " characters");
+            } else {
+                processDocument(lines.current(), action, state);
+            }
+        }
+        if (state.items.isEmpty()) {
+            throw new MalformedBulkRequestException("Bulk request contains no actions");
+        }
+
+        state.flush();
+
+        long took = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Bulk request of {} actions: {} accepted, {} failed in {} ms",
+                state.items.size(), state.accepted, state.failed, took);
+
+        return BulkResponseDTO.builder()
+                .took(took)
+                .errors(state.failed > 0)
+                .items(state.items)
+                .build();
+    }
+
+    private Action readAction(NdjsonIngestionService.LineReader lines, long lineNumber, String defaultIndex) {
+        if (lines.isTooLong()) {
+            throw malformedAction(lineNumber, "line exceeds " + settings.getMaxLineLength() + " characters");
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(lines.current());
+        } catch (JsonProcessingException e) {
+            throw malformedAction(lineNumber, e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject() || node.size() != 1) {
+            throw malformedAction(lineNumber, "expected an object with a single action");
+        }
+        Map.Entry<String, JsonNode> field = node.fields().next();
+        String name = field.getKey();
+        if (!INDEX.equals(name) && !CREATE.equals(name) && !UPDATE.equals(name) && !DELETE.equals(name)) {
+            throw malformedAction(lineNumber, "unknown action [" + name + "]");
+        }
+        JsonNode metadata = field.getValue();
+        if (!metadata.isObject()) {
+            throw malformedAction(lineNumber, "action metadata must be an object");
+        }
+        JsonNode index = metadata.get("_index");
+        return new Action(name, index != null && index.isTextual() ? index.asText() : defaultIndex);
+    }
+
+    private void processDocument(String line, Action action, BulkState state) {
+        JsonNode document;
+        try {
+            document = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            state.fail(action, 400, DOCUMENT_PARSING_EXCEPTION, "failed to parse: " + e.getOriginalMessage());
+            return;
+        }
+        if (!(document instanceof ObjectNode source)) {
+            state.fail(action, 400, DOCUMENT_PARSING_EXCEPTION, "source document must be an object");
+            return;
+        }
+
+        LogEntryDTO logEntry;
+        try {
+            logEntry = bulkDocumentMapper.toLogEntry(source, action.index());
+        } catch (BulkDocumentMapper.InvalidDocumentException e) {
+            state.fail(action, 400, DOCUMENT_PARSING_EXCEPTION, e.getMessage());
+            return;
+        }
+
+        Map<String, String> errors = batchIngestionService.admit(logEntry);
+        if (errors.isEmpty()) {
+            state.add(action, logEntry);
+        } else if (LogRateLimiter.REJECTED_ERRORS.equals(errors)) {
+            state.fail(action, 429, "es_rejected_execution_exception",
+                    "Rate limit exceeded for service [" + logEntry.getService() + "]");
+        } else {
+            state.fail(action, 400, DOCUMENT_PARSING_EXCEPTION, "Invalid log entry: " + errors);
+        }
+    }
+
+    private static BulkItemDTO failedItem(String index, int status, String type, String reason) {
+        return BulkItemDTO.builder()
+                .index(index)
+                .status(status)
+                .error(error(type, reason))
+                .build();
+    }
+
+    private static Map<String, String> error(String type, String reason) {
+        return Map.of("type", type, "reason", String.valueOf(reason));
+    }
+
+    private static MalformedBulkRequestException malformedAction(long lineNumber, String reason) {
+        return new MalformedBulkRequestException(
+                "Malformed action/metadata line [" + lineNumber + "]: " + reason);
+    }
+
+    private record Action(String name, String index) {
+    }
+
+    /**
+     * Items of one bulk request plus the pending group of valid documents
+     */
+    private class BulkState {
+
+        private final List<Map<String, BulkItemDTO>> items = new ArrayList<>();
+        private List<LogEntryDTO> group = new ArrayList<>(settings.getChunkSize());
+        private List<BulkItemDTO> groupItems = new ArrayList<>(settings.getChunkSize());
+        private long accepted;
+        private long failed;
+
+        void add(Action action, LogEntryDTO logEntry) {
+            BulkItemDTO item = BulkItemDTO.builder().index(action.index()).build();
+            items.add(Map.of(action.name(), item));
+            group.add(logEntry);
+            groupItems.add(item);
+            if (group.size() >= settings.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void fail(Action action, int status, String type, String reason) {
+            items.add(Map.of(action.name(), failedItem(action.index(), status, type, reason)));
+            failed++;
+        }
+
+        /**
+         * Publish the pending group; if publishing fails every item of the
+         * group is failed with a status the client retries
+         */
+        void flush() {
+            if (group.isEmpty()) {
+                return;
+            }
+            try {
+                List<String> logIds = batchIngestionService.publish(group);
+                Iterator<String> logId = logIds.iterator();
+                for (BulkItemDTO item : groupItems) {
+                    item.setId(logId.next());
+                    item.setResult(RESULT_CREATED);
+                    item.setStatus(201);
+                }
+                accepted += groupItems.size();
+            } catch (LogPublisher.PublisherOverloadedException e) {
+                failGroup(429, "es_rejected_execution_exception", e.getMessage());
+            } catch (LogIngestionService.LogIngestionException e) {
+                failGroup(503, "unavailable_shards_exception", e.getMessage());
+            }
+            group = new ArrayList<>(settings.getChunkSize());
+            groupItems = new ArrayList<>(settings.getChunkSize());
+        }
+
+        private void failGroup(int status, String type, String reason) {
+            for (BulkItemDTO item : groupItems) {
+                item.setStatus(status);
+                item.setError(error(type, reason));
+            }
+            failed += groupItems.size();
+        }
+    }
+
+    /**
+     * Thrown when a bulk body is not a sequence of actions; the whole request fails
+     */
+    public static class MalformedBulkRequestException extends RuntimeException {
+        public MalformedBulkRequestException(String message) {
+            super(message);
+        }
+    }
+}
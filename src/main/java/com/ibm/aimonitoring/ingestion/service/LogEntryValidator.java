@@ -0,0 +1,85 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validates log entries for the single, batch and streaming endpoints, so
+ * multi-entry endpoints can accept or reject every entry independently.
+ * Uses the compiled checks or Bean Validation depending on
+ * {@code ingestion.validation.mode}; both produce the same errors.
+ */
+@Component
+public class LogEntryValidator {
+
+    private final Validator validator;
+
+    private final CompiledLogEntryValidator compiledValidator;
+
+    public LogEntryValidator(Validator validator, IngestionProperties ingestionProperties) {
+        this.validator = validator;
+        this.compiledValidator = ingestionProperties.getValidation().getMode() == IngestionProperties.ValidationMode.COMPILED
+                ? new CompiledLogEntryValidator()
+                : null;
+    }
+
+    /**
+     * Validate a single log entry
+     *
+     * @param logEntry the log entry to validate
+     * @return field name to error message, empty when the entry is valid
+     */
+    public Map<String, String> validate(LogEntryDTO logEntry) {
+        if (logEntry == null) {
+            return Map.of("entry", "Log entry must not be null");
+        }
+        if (compiledValidator != null) {
+            return compiledValidator.validate(logEntry);
+        }
+
+        var violations = validator.validate(logEntry);
+        if (violations.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<LogEntryDTO> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Validate a log entry, throwing if it is invalid
+     *
+     * @param logEntry the log entry to validate
+     * @throws InvalidLogEntryException with the field errors if the entry is invalid
+     */
+    public void requireValid(LogEntryDTO logEntry) {
+        Map<String, String> errors = validate(logEntry);
+        if (!errors.isEmpty()) {
+            throw new InvalidLogEntryException(errors);
+        }
+    }
+
+    /**
+     * Thrown when a log entry fails validation
+     */
+    @Getter
+    public static class InvalidLogEntryException extends RuntimeException {
+        private final transient Map<String, String> errors;
+
+        public InvalidLogEntryException(Map<String, String> errors) {
+            super("Invalid log entry: " + errors);
+            this.errors = errors;
+        }
+    }
+}
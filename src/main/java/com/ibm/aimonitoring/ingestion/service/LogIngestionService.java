@@ -1,27 +1,45 @@
 package com.ibm.aimonitoring.ingestion.service;
 
-import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
 import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
-import lombok.RequiredArgsConstructor;
+import com.ibm.aimonitoring.ingestion.id.LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.time.CoarseClock;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * Service for handling log ingestion business logic
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LogIngestionService {
 
     private static final String UNKNOWN_ENVIRONMENT = "unknown";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final LogPublisher logPublisher;
+
+    private final LogIdGenerator logIdGenerator;
+
+    private final CoarseClock clock;
+
+    private final boolean legacyMetadata;
+
+    public LogIngestionService(LogPublisher logPublisher,
+                               LogIdGenerator logIdGenerator,
+                               CoarseClock clock,
+                               IngestionProperties ingestionProperties) {
+        this.logPublisher = logPublisher;
+        this.logIdGenerator = logIdGenerator;
+        this.clock = clock;
+        this.legacyMetadata = ingestionProperties.getEnrichment().isLegacyMetadata();
+    }
 
     /**
      * Ingest a log entry and publish to RabbitMQ
@@ -32,7 +50,7 @@ public class LogIngestionService {
     public LogResponseDTO ingestLog(LogEntryDTO logEntry) {
         try {
             // Generate unique log ID
-            String logId = UUID.randomUUID().toString();
+            String logId = logIdGenerator.nextId();
             
             // Enrich log entry with metadata
             LogEntryDTO enrichedLog = enrichLogEntry(logEntry, logId);
@@ -45,10 +63,12 @@ public class LogIngestionService {
             return LogResponseDTO.builder()
                     .id(logId)
                     .status("accepted")
-                    .timestamp(Instant.now())
+                    .timestamp(clock.instant())
                     .message("Log entry accepted for processing")
                     .build();
                     
+        } catch (LogPublisher.PublisherOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error ingesting log: {}", e.getMessage(), e);
             throw new LogIngestionException("Failed to ingest log entry", e);
@@ -56,25 +76,73 @@ public class LogIngestionService {
     }
 
     /**
-     * Enrich log entry with additional metadata
+     * Ingest a group of already validated log entries and publish them together
+     *
+     * @param logEntries the log entries to ingest
+     * @return generated log IDs, in the same order as the entries
+     */
+    public List<String> ingestBatch(List<LogEntryDTO> logEntries) {
+        if (logEntries.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<String> logIds = new ArrayList<>(logEntries.size());
+            List<LogEntryDTO> enrichedLogs = new ArrayList<>(logEntries.size());
+            for (LogEntryDTO logEntry : logEntries) {
+                String logId = logIdGenerator.nextId();
+                logIds.add(logId);
+                enrichedLogs.add(enrichLogEntry(logEntry, logId));
+            }
+
+            publishBatchToQueue(enrichedLogs);
+
+            log.debug("Successfully ingested batch of {} logs", logIds.size());
+
+            return logIds;
+
+        } catch (LogPublisher.PublisherOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error ingesting log batch: {}", e.getMessage(), e);
+            throw new LogIngestionException("Failed to ingest log batch", e);
+        }
+    }
+
+    /**
+     * Entries the publisher can take right now without blocking or refusing them
+     */
+    public int publishCapacity() {
+        return logPublisher.remainingCapacity();
+    }
+
+    /**
+     * Enrich log entry with its ID and ingestion time. The client's metadata map
+     * is left untouched unless legacy metadata is enabled.
      */
     private LogEntryDTO enrichLogEntry(LogEntryDTO logEntry, String logId) {
+        Instant now = clock.instant();
+
         // Set timestamp if not provided
         if (logEntry.getTimestamp() == null) {
-            logEntry.setTimestamp(Instant.now());
+            logEntry.setTimestamp(now);
         }
         
         // Set default environment if not provided
         if (logEntry.getEnvironment() == null) {
             logEntry.setEnvironment(UNKNOWN_ENVIRONMENT);
         }
-        
-        // Add log ID to metadata
-        if (logEntry.getMetadata() == null) {
-            logEntry.setMetadata(new java.util.HashMap<>());
+
+        logEntry.setLogId(logId);
+        logEntry.setIngestedAt(now.toEpochMilli());
+
+        if (legacyMetadata) {
+            if (logEntry.getMetadata() == null) {
+                logEntry.setMetadata(new HashMap<>());
+            }
+            logEntry.getMetadata().put("logId", logId);
+            logEntry.getMetadata().put("ingestedAt", now.toString());
         }
-        logEntry.getMetadata().put("logId", logId);
-        logEntry.getMetadata().put("ingestedAt", Instant.now().toString());
         
         return logEntry;
     }
@@ -84,18 +152,31 @@ public class LogIngestionService {
      */
     private void publishToQueue(LogEntryDTO logEntry) {
         try {
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.LOGS_EXCHANGE,
-                    RabbitMQConfig.LOGS_RAW_ROUTING_KEY,
-                    logEntry
-            );
-            log.debug("Published log to queue: {}", RabbitMQConfig.LOGS_RAW_QUEUE);
+            logPublisher.publish(logEntry);
+        } catch (LogPublisher.PublisherOverloadedException e) {
+            log.warn("Log publisher overloaded: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to publish log to RabbitMQ: {}", e.getMessage(), e);
             throw new LogIngestionException("Failed to publish log to message queue", e);
         }
     }
 
+    /**
+     * Publish a group of log entries to RabbitMQ
+     */
+    private void publishBatchToQueue(List<LogEntryDTO> logEntries) {
+        try {
+            logPublisher.publishAll(logEntries);
+        } catch (LogPublisher.PublisherOverloadedException e) {
+            log.warn("Log publisher overloaded: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to publish log batch to RabbitMQ: {}", e.getMessage(), e);
+            throw new LogIngestionException("Failed to publish log batch to message queue", e);
+        }
+    }
+
     /**
      * Custom exception for log ingestion errors
      */
@@ -0,0 +1,274 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.BatchItemResultDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.dto.StreamResponseDTO;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingests newline-delimited JSON request bodies line by line, so memory stays
+ * bounded by the chunk size no matter how large the body is.
+ * <p>
+ * The body is split into lines first and each line is bound on its own,
+ * rather than read through one {@code MappingIterator} over the stream: a
+ * streaming parser cannot resynchronise after a malformed line, so one bad
+ * line would end the stream instead of being reported and skipped, and it
+ * cannot cap the size of a single entry the way {@code max-line-length} does.
+ */
+@Slf4j
+@Service
+public class NdjsonIngestionService {
+
+    private static final String STATUS_REJECTED = "rejected";
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final BatchIngestionService batchIngestionService;
+    private final IngestionProperties.Stream streamProperties;
+    private final ObjectReader logEntryReader;
+
+    public NdjsonIngestionService(BatchIngestionService batchIngestionService,
+                                  IngestionProperties ingestionProperties,
+                                  ObjectMapper objectMapper) {
+        this.batchIngestionService = batchIngestionService;
+        this.streamProperties = ingestionProperties.getStream();
+        this.logEntryReader = objectMapper.readerFor(LogEntryDTO.class);
+    }
+
+    /**
+     * Read, validate and publish every line of an NDJSON stream. If publishing
+     * a chunk fails, reading stops and the lines accepted so far are reported
+     * through {@link StreamInterruptedException}.
+     *
+     * @param body the request body
+     * @return summary of accepted and rejected lines
+     * @throws StreamInterruptedException if publishing failed part way through the body
+     * @throws IOException                if the body cannot be read
+     */
+    public StreamResponseDTO ingest(InputStream body) throws IOException {
+        StreamState state = new StreamState();
+        LineReader lines = new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8),
+                streamProperties.getMaxLineLength());
+
+        long lineNumber = 0;
+        try {
+            while (lines.next()) {
+                if (lines.isTooLong()) {
+                    state.reject(lineNumber, Map.of("line",
+                            "Line exceeds " + streamProperties.getMaxLineLength() + " characters"));
+                } else if (!lines.isBlank()) {
+                    processLine(lines.current(), lineNumber, state);
+                }
+                lineNumber++;
+            }
+
+            state.flush();
+        } catch (LogPublisher.PublisherOverloadedException | LogIngestionService.LogIngestionException e) {
+            log.warn("Stream stopped at line {} after {} accepted entries: {}",
+                    state.chunkStart, state.accepted, e.getMessage());
+            throw new StreamInterruptedException(state.response()
+                    .failedAtLine(state.chunkStart)
+                    .failure(e.getMessage())
+                    .build(), e);
+        }
+
+        log.debug("Streamed {} lines: {} accepted, {} rejected", lineNumber, state.accepted, state.rejected);
+
+        return state.response().build();
+    }
+
+    private void processLine(String line, long lineNumber, StreamState state) {
+        LogEntryDTO logEntry;
+        try {
+            logEntry = logEntryReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            state.reject(lineNumber, Map.of("line", "Malformed JSON: " + e.getOriginalMessage()));
+            return;
+        }
+
+        Map<String, String> errors = batchIngestionService.admit(logEntry);
+        if (errors.isEmpty()) {
+            state.add(logEntry, lineNumber);
+        } else {
+            state.reject(lineNumber, errors);
+        }
+    }
+
+    /**
+     * Running totals plus the pending chunk of one streaming request
+     */
+    private class StreamState {
+
+        private List<LogEntryDTO> chunk = new ArrayList<>(streamProperties.getChunkSize());
+        private final List<BatchItemResultDTO> errors = new ArrayList<>();
+        private long accepted;
+        private long rejected;
+        private long chunkStart;
+
+        void add(LogEntryDTO logEntry, long lineNumber) {
+            if (chunk.isEmpty()) {
+                chunkStart = lineNumber;
+            }
+            chunk.add(logEntry);
+            if (chunk.size() >= streamProperties.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, Map<String, String> lineErrors) {
+            rejected++;
+            if (errors.size() < streamProperties.getMaxReportedErrors()) {
+                errors.add(BatchItemResultDTO.builder()
+                        .index(lineNumber)
+                        .status(STATUS_REJECTED)
+                        .errors(lineErrors)
+                        .build());
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            batchIngestionService.publish(chunk);
+            accepted += chunk.size();
+            chunk = new ArrayList<>(streamProperties.getChunkSize());
+        }
+
+        StreamResponseDTO.StreamResponseDTOBuilder response() {
+            return StreamResponseDTO.builder()
+                    .accepted(accepted)
+                    .rejected(rejected)
+                    .timestamp(Instant.now())
+                    .errors(errors);
+        }
+    }
+
+    /**
+     * Splits a character stream into lines through a fixed read buffer. Lines
+     * longer than the limit are drained and flagged instead of being buffered.
+     */
+    static final class LineReader {
+
+        private final Reader reader;
+        private final int maxLineLength;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+        private boolean endOfStream;
+
+        LineReader(Reader reader, int maxLineLength) {
+            this.reader = reader;
+            this.maxLineLength = maxLineLength;
+        }
+
+        /**
+         * Advance to the next line
+         *
+         * @return false once the stream is exhausted
+         */
+        boolean next() throws IOException {
+            if (endOfStream) {
+                return false;
+            }
+            line.setLength(0);
+            tooLong = false;
+            while (true) {
+                if (position == limit && !fill()) {
+                    endOfStream = true;
+                    return !line.isEmpty() || tooLong;
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    trimCarriageReturn();
+                    return true;
+                }
+            }
+        }
+
+        String current() {
+            return line.toString();
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < line.length(); i++) {
+                if (!Character.isWhitespace(line.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private void append(int start, int end) {
+            if (tooLong) {
+                return;
+            }
+            if (line.length() + (end - start) > maxLineLength) {
+                tooLong = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private void trimCarriageReturn() {
+            int last = line.length() - 1;
+            if (last >= 0 && line.charAt(last) == '\r') {
+                line.setLength(last);
+            }
+        }
+    }
+
+    /**
+     * Thrown when publishing fails part way through a stream. Carries the
+     * summary of the lines handled before the failure, so the client can
+     * resend from {@link StreamResponseDTO#getFailedAtLine()} on.
+     */
+    @Getter
+    public static class StreamInterruptedException extends RuntimeException {
+
+        private final StreamResponseDTO response;
+
+        public StreamInterruptedException(StreamResponseDTO response, RuntimeException cause) {
+            super("Publishing failed at line " + response.getFailedAtLine() + ": " + cause.getMessage(), cause);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.ibm.aimonitoring.ingestion.spill;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented log of entries that could not be published.
+ * <p>
+ * Segments are fixed-size memory-mapped files. Each record is a 4-byte length,
+ * a 4-byte CRC32C and the JSON payload; the length is written last so a
+ * partially written record is never visible. Replayed records are tombstoned
+ * by negating their length, which makes consumption survive a restart, and a
+ * segment is deleted once every record in it has been replayed.
+ */
+@Slf4j
+public class SpillLog implements Closeable {
+
+    static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSegments;
+    private final IngestionProperties.FsyncPolicy fsyncPolicy;
+    private final ObjectWriter entryWriter;
+    private final ObjectReader entryReader;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ScheduledExecutorService flusher;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong corrupted = new AtomicLong();
+
+    private long nextSequence;
+    private int readPosition;
+
+    public SpillLog(IngestionProperties.Spill settings, ObjectMapper objectMapper,
+                    MeterRegistry meterRegistry) throws IOException {
+        this.directory = Path.of(settings.getDirectory());
+        this.segmentSize = Math.toIntExact(settings.getSegmentSize().toBytes());
+        this.maxSegments = settings.getMaxDiskUsage().toBytes() / segmentSize;
+        if (maxSegments < 2) {
+            // The segment being written is only released once writes have moved on to
+            // the next one, so a budget of a single segment would refuse appends for good
+            throw new IllegalStateException("ingestion.spill.max-disk-usage (" + settings.getMaxDiskUsage()
+                    + ") must hold at least two segments of ingestion.spill.segment-size ("
+                    + settings.getSegmentSize() + ")");
+        }
+        this.fsyncPolicy = settings.getFsyncPolicy();
+        this.entryWriter = objectMapper.writerFor(LogEntryDTO.class);
+        this.entryReader = objectMapper.readerFor(LogEntryDTO.class);
+
+        Files.createDirectories(directory);
+        recover();
+
+        Gauge.builder("ingestion.spill.pending", pending, AtomicLong::get)
+                .description("Spilled entries waiting to be replayed")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.spill.disk.usage", this, SpillLog::getDiskUsageBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("ingestion.spill.appended", appended, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("ingestion.spill.replayed", replayed, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("ingestion.spill.refused", refused, AtomicLong::get)
+                .description("Entries lost because the spill log was full")
+                .register(meterRegistry);
+
+        if (fsyncPolicy == IngestionProperties.FsyncPolicy.INTERVAL) {
+            long intervalMillis = settings.getFsyncInterval().toMillis();
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "spill-log-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::force, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Append entries to the tail of the log, all or none of them
+     *
+     * @throws SpillLogFullException if an entry exceeds the segment size or the
+     *                               batch does not fit in the remaining disk budget
+     */
+    public void appendAll(List<LogEntryDTO> logEntries) {
+        List<byte[]> payloads = new ArrayList<>(logEntries.size());
+        for (LogEntryDTO logEntry : logEntries) {
+            payloads.add(serialize(logEntry));
+        }
+
+        synchronized (this) {
+            checkFits(payloads);
+            Segment firstTouched = segments.peekLast();
+            for (byte[] payload : payloads) {
+                appendRecord(payload);
+            }
+            if (fsyncPolicy == IngestionProperties.FsyncPolicy.ALWAYS) {
+                Segment tail = segments.peekLast();
+                if (firstTouched != null && firstTouched != tail) {
+                    firstTouched.buffer.force();
+                }
+                tail.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Read up to {@code maxEntries} of the oldest entries without consuming them
+     */
+    public synchronized SpillBatch peek(int maxEntries) {
+        List<LogEntryDTO> entries = new ArrayList<>(maxEntries);
+        Cursor cursor = new Cursor(segments.isEmpty() ? null : segments.peekFirst(), readPosition);
+        List<Cursor> positions = new ArrayList<>(maxEntries);
+        var iterator = segments.iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+        }
+
+        while (entries.size() < maxEntries && cursor.segment != null) {
+            int length = cursor.remaining() >= HEADER_SIZE ? cursor.segment.buffer.getInt(cursor.position) : 0;
+            if (length == 0) {
+                cursor = iterator.hasNext() ? new Cursor(iterator.next(), 0) : new Cursor(null, 0);
+                continue;
+            }
+            int recordSize = HEADER_SIZE + Math.abs(length);
+            if (length > 0) {
+                LogEntryDTO entry = readRecord(cursor.segment.buffer, cursor.position, length);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+                positions.add(new Cursor(cursor.segment, cursor.position));
+            }
+            cursor = new Cursor(cursor.segment, cursor.position + recordSize);
+        }
+        return new SpillBatch(entries, positions);
+    }
+
+    /**
+     * Mark the records of a peeked batch as replayed and release fully
+     * consumed segments
+     */
+    public synchronized void commit(SpillBatch batch) {
+        for (Cursor record : batch.positions) {
+            MappedByteBuffer buffer = record.segment.buffer;
+            int length = buffer.getInt(record.position);
+            buffer.putInt(record.position, -length);
+        }
+        if (!batch.positions.isEmpty()) {
+            Cursor last = batch.positions.get(batch.positions.size() - 1);
+            int lastLength = -last.segment.buffer.getInt(last.position);
+            while (segments.peekFirst() != last.segment) {
+                deleteSegment(segments.pollFirst());
+            }
+            readPosition = last.position + HEADER_SIZE + lastLength;
+        }
+        pending.addAndGet(-batch.positions.size());
+        replayed.addAndGet(batch.getEntries().size());
+        releaseDrainedHead();
+    }
+
+    public long getPendingEntries() {
+        return pending.get();
+    }
+
+    public long getAppendedEntries() {
+        return appended.get();
+    }
+
+    public long getReplayedEntries() {
+        return replayed.get();
+    }
+
+    public long getRefusedEntries() {
+        return refused.get();
+    }
+
+    public long getCorruptedEntries() {
+        return corrupted.get();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getDiskUsageBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    public long getMaxDiskUsageBytes() {
+        return maxSegments * segmentSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Force all mapped segments to the storage device
+     */
+    public synchronized void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (fsyncPolicy != IngestionProperties.FsyncPolicy.NEVER) {
+            force();
+        }
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments.clear();
+    }
+
+    /**
+     * Lay the records out the way {@link #appendRecord} will, without writing,
+     * so a batch that cannot be stored whole is refused before any of it is
+     * written and later replayed next to the client's retry
+     */
+    private void checkFits(List<byte[]> payloads) {
+        Segment tail = segments.peekLast();
+        int position = tail == null ? segmentSize : tail.writePosition;
+        long segmentCount = segments.size();
+        for (byte[] payload : payloads) {
+            int recordSize = HEADER_SIZE + payload.length;
+            if (recordSize > segmentSize) {
+                refused.addAndGet(payloads.size());
+                throw new SpillLogFullException("Log entry of " + payload.length + " bytes exceeds the spill segment size");
+            }
+            if (segmentSize - position < recordSize) {
+                if (segmentCount >= maxSegments) {
+                    refused.addAndGet(payloads.size());
+                    throw new SpillLogFullException("Spill log reached its disk budget of "
+                            + getMaxDiskUsageBytes() + " bytes");
+                }
+                segmentCount++;
+                position = 0;
+            }
+            position += recordSize;
+        }
+    }
+
+    private void appendRecord(byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        Segment tail = segments.peekLast();
+        if (tail == null || segmentSize - tail.writePosition < recordSize) {
+            tail = openSegment(nextSequence++);
+            segments.addLast(tail);
+        }
+
+        MappedByteBuffer buffer = tail.buffer;
+        int position = tail.writePosition;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        tail.writePosition = position + recordSize;
+        appended.incrementAndGet();
+        pending.incrementAndGet();
+    }
+
+    private LogEntryDTO readRecord(MappedByteBuffer buffer, int position, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_SIZE, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            corrupted.incrementAndGet();
+            log.error("Skipping corrupted spill record at offset {}", position);
+            return null;
+        }
+        try {
+            return entryReader.readValue(payload);
+        } catch (IOException e) {
+            corrupted.incrementAndGet();
+            log.error("Skipping undecodable spill record at offset {}: {}", position, e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] serialize(LogEntryDTO logEntry) {
+        try {
+            return entryWriter.writeValueAsBytes(logEntry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Log entry cannot be serialized for spilling", e);
+        }
+    }
+
+    /**
+     * Drop the head segment once it is fully replayed and writes have moved on
+     */
+    private void releaseDrainedHead() {
+        while (segments.size() > 1) {
+            Segment head = segments.peekFirst();
+            if (readPosition < head.writePosition) {
+                return;
+            }
+            deleteSegment(segments.pollFirst());
+            readPosition = 0;
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        long recovered = 0;
+        for (Path file : files) {
+            long sequence = Long.parseLong(file.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), file.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+            Segment segment = openSegment(sequence);
+            int position = 0;
+            while (segmentSize - position >= HEADER_SIZE) {
+                int length = segment.buffer.getInt(position);
+                if (length == 0 || position + HEADER_SIZE + (long) Math.abs(length) > segmentSize) {
+                    break;
+                }
+                if (length > 0) {
+                    recovered++;
+                }
+                position += HEADER_SIZE + Math.abs(length);
+            }
+            segment.writePosition = position;
+            segments.addLast(segment);
+            nextSequence = sequence + 1;
+        }
+
+        readPosition = 0;
+        pending.set(recovered);
+        if (recovered > 0) {
+            log.info("Recovered {} spilled log entries from {} segments in {}", recovered, segments.size(), directory);
+        }
+    }
+
+    private Segment openSegment(long sequence) {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open spill segment " + path, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete replayed spill segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private record Cursor(Segment segment, int position) {
+        int remaining() {
+            return segment.writePosition - position;
+        }
+    }
+
+    /**
+     * Entries read from the head of the log, pending a {@link #commit}
+     */
+    public static final class SpillBatch {
+        private final List<LogEntryDTO> entries;
+        private final List<Cursor> positions;
+
+        private SpillBatch(List<LogEntryDTO> entries, List<Cursor> positions) {
+            this.entries = entries;
+            this.positions = positions;
+        }
+
+        public List<LogEntryDTO> getEntries() {
+            return entries;
+        }
+
+        public int size() {
+            return positions.size();
+        }
+
+        public boolean isEmpty() {
+            return positions.isEmpty();
+        }
+    }
+
+    /**
+     * Thrown when an entry cannot be spilled because the disk budget is used up
+     */
+    public static class SpillLogFullException extends RuntimeException {
+        public SpillLogFullException(String message) {
+            super(message);
+        }
+    }
+}
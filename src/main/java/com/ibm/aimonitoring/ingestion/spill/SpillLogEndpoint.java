@@ -0,0 +1,37 @@
+package com.ibm.aimonitoring.ingestion.spill;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the state of the local spill log at
+ * {@code /actuator/spill}
+ */
+@Endpoint(id = "spill")
+@RequiredArgsConstructor
+public class SpillLogEndpoint {
+
+    private final SpillLog spillLog;
+    private final SpillReplayer spillReplayer;
+
+    @ReadOperation
+    public Map<String, Object> spill() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("directory", spillLog.getDirectory().toString());
+        state.put("segments", spillLog.getSegmentCount());
+        state.put("diskUsageBytes", spillLog.getDiskUsageBytes());
+        state.put("maxDiskUsageBytes", spillLog.getMaxDiskUsageBytes());
+        state.put("pendingEntries", spillLog.getPendingEntries());
+        state.put("appendedEntries", spillLog.getAppendedEntries());
+        state.put("replayedEntries", spillLog.getReplayedEntries());
+        state.put("refusedEntries", spillLog.getRefusedEntries());
+        state.put("corruptedEntries", spillLog.getCorruptedEntries());
+        state.put("replaying", spillReplayer.isRunning());
+        state.put("brokerAvailable", spillReplayer.isBrokerAvailable());
+        return state;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ibm.aimonitoring.ingestion.spill;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the spill log back to the broker, oldest entry first, at a bounded
+ * rate so a recovering broker is not hit by the whole backlog at once
+ */
+@Slf4j
+public class SpillReplayer implements SmartLifecycle {
+
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final SpillLog spillLog;
+    private final LogPublisher publisher;
+    private final IngestionProperties.Spill settings;
+
+    private volatile boolean running;
+    private volatile boolean brokerAvailable = true;
+    private Thread thread;
+
+    public SpillReplayer(SpillLog spillLog, LogPublisher publisher, IngestionProperties.Spill settings) {
+        this.spillLog = spillLog;
+        this.publisher = publisher;
+        this.settings = settings;
+    }
+
+    /**
+     * Replay one batch from the head of the spill log
+     *
+     * @return number of entries replayed, 0 if there was nothing to replay
+     */
+    int replayOnce() {
+        SpillLog.SpillBatch batch = spillLog.peek(settings.getReplayBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<LogEntryDTO> entries = batch.getEntries();
+        if (!entries.isEmpty()) {
+            publisher.publishAll(entries);
+        }
+        spillLog.commit(batch);
+        return batch.size();
+    }
+
+    /**
+     * Whether the last replay attempt reached the broker
+     */
+    public boolean isBrokerAvailable() {
+        return brokerAvailable;
+    }
+
+    private void replayLoop() {
+        while (running) {
+            if (spillLog.getPendingEntries() == 0) {
+                sleep(IDLE_POLL_MILLIS);
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                int replayed = replayOnce();
+                if (!brokerAvailable) {
+                    log.info("Broker reachable again, replaying {} spilled log entries", spillLog.getPendingEntries());
+                }
+                brokerAvailable = true;
+                pace(replayed, start);
+            } catch (Exception e) {
+                if (brokerAvailable) {
+                    log.warn("Spill replay failed, retrying in {}: {}", settings.getReplayBackoff(), e.getMessage());
+                }
+                brokerAvailable = false;
+                sleep(settings.getReplayBackoff().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Sleep long enough that replay stays under the configured rate
+     */
+    private void pace(int replayed, long startNanos) {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(replayed) / Math.max(1, settings.getReplayRate());
+        long remainingNanos = budgetNanos - (System.nanoTime() - startNanos);
+        if (remainingNanos > 0) {
+            sleep(TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::replayLoop, "spill-replayer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
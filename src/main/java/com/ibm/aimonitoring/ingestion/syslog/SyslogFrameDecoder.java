@@ -0,0 +1,147 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits one TCP connection's byte stream into syslog frames (RFC 6587):
+ * octet-counted ({@code MSG-LEN SP SYSLOG-MSG}) when a frame starts with a
+ * digit, otherwise terminated by LF. Bytes are read into a heap buffer owned
+ * by the decoder and frames are handed over as slices of its backing array,
+ * valid only for the duration of the callback; partial frames are compacted
+ * to the front of the buffer until the rest arrives.
+ * <p>
+ * Frames longer than {@code maxFrameLength} are skipped and reported through
+ * {@link FrameHandler#oversize()}.
+ */
+final class SyslogFrameDecoder {
+
+    /**
+     * Longest MSG-LEN accepted, in digits
+     */
+    private static final int MAX_LENGTH_DIGITS = 9;
+
+    private final ByteBuffer buffer;
+    private final int maxFrameLength;
+    private long discardBytes;
+    private boolean discardLine;
+
+    SyslogFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        this.buffer = ByteBuffer.allocate(maxFrameLength + MAX_LENGTH_DIGITS + 1);
+    }
+
+    /**
+     * The buffer to read the next bytes into
+     */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Hand every complete frame in the buffer to {@code handler} and keep the
+     * incomplete remainder for the next read
+     */
+    void decode(FrameHandler handler) {
+        buffer.flip();
+        byte[] buf = buffer.array();
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        while (pos < limit) {
+            if (discardBytes > 0) {
+                int skipped = (int) Math.min(discardBytes, limit - pos);
+                pos += skipped;
+                discardBytes -= skipped;
+                continue;
+            }
+            if (discardLine) {
+                int lf = indexOfLf(buf, pos, limit);
+                if (lf < 0) {
+                    pos = limit;
+                    break;
+                }
+                pos = lf + 1;
+                discardLine = false;
+                continue;
+            }
+
+            if (isDigit(buf[pos])) {
+                int lengthEnd = pos;
+                long length = 0;
+                while (lengthEnd < limit && lengthEnd - pos < MAX_LENGTH_DIGITS && isDigit(buf[lengthEnd])) {
+                    length = length * 10 + buf[lengthEnd] - '0';
+                    lengthEnd++;
+                }
+                if (lengthEnd == limit) {
+                    break;
+                }
+                if (buf[lengthEnd] == ' ') {
+                    int start = lengthEnd + 1;
+                    if (length > maxFrameLength) {
+                        handler.oversize();
+                        discardBytes = length;
+                        pos = start;
+                        continue;
+                    }
+                    if (limit - start < length) {
+                        break;
+                    }
+                    handler.frame(buf, start, (int) length);
+                    pos = start + (int) length;
+                    continue;
+                }
+                // Not a length prefix: a non-transparent frame that happens to start with a digit
+            }
+
+            int lf = indexOfLf(buf, pos, limit);
+            if (lf < 0) {
+                if (limit - pos >= maxFrameLength) {
+                    handler.oversize();
+                    discardLine = true;
+                    pos = limit;
+                }
+                break;
+            }
+            if (lf > pos) {
+                handler.frame(buf, pos, lf - pos);
+            }
+            pos = lf + 1;
+        }
+        buffer.position(pos);
+        buffer.compact();
+    }
+
+    /**
+     * Hand over what is left once the peer has closed the stream, for senders
+     * that do not terminate their last frame
+     */
+    void finish(FrameHandler handler) {
+        buffer.flip();
+        if (!discardLine && discardBytes == 0 && buffer.hasRemaining() && !isDigit(buffer.get(buffer.position()))) {
+            handler.frame(buffer.array(), buffer.position(), buffer.remaining());
+        }
+        buffer.clear();
+    }
+
+    private static int indexOfLf(byte[] buf, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buf[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Receives decoded frames
+     */
+    interface FrameHandler {
+
+        void frame(byte[] buf, int offset, int length);
+
+        void oversize();
+    }
+}
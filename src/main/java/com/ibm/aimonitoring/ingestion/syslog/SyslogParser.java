@@ -0,0 +1,394 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses one syslog message in place from the buffer it was received into:
+ * RFC 5424 when the header carries version 1, otherwise the BSD format of
+ * RFC 3164. The frame is walked by index and only the extracted fields are
+ * decoded into strings.
+ * <p>
+ * PRI severity maps onto the level, HOSTNAME onto {@code host} and APP-NAME
+ * (or the RFC 3164 TAG) onto {@code service}. Facility, PROCID, MSGID and
+ * structured data parameters ({@code <sd-id>.<param-name>}) go into metadata.
+ */
+public class SyslogParser {
+
+    static final String FACILITY = "syslog.facility";
+    static final String PROC_ID = "syslog.procId";
+    static final String MSG_ID = "syslog.msgId";
+
+    /**
+     * user.notice, assumed for messages without PRI (RFC 3164 section 4.3.3)
+     */
+    private static final int DEFAULT_PRI = 13;
+    private static final int MAX_PRI = 191;
+    private static final int MAX_TAG_LENGTH = 48;
+
+    private static final String[] FACILITIES = {
+            "kern", "user", "mail", "daemon", "auth", "syslog", "lpr", "news",
+            "uucp", "cron", "authpriv", "ftp", "ntp", "security", "console", "solaris-cron",
+            "local0", "local1", "local2", "local3", "local4", "local5", "local6", "local7"};
+
+    private static final LogLevel[] LEVELS = {
+            LogLevel.ERROR, LogLevel.ERROR, LogLevel.ERROR, LogLevel.ERROR,
+            LogLevel.WARN, LogLevel.INFO, LogLevel.INFO, LogLevel.DEBUG};
+
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    private final String defaultService;
+    private final String environment;
+    private final Clock clock;
+
+    /**
+     * @param defaultService service for messages without APP-NAME or TAG
+     * @param environment    environment stamped on every entry, may be null
+     * @param clock          supplies the year missing from RFC 3164 timestamps
+     */
+    public SyslogParser(String defaultService, String environment, Clock clock) {
+        this.defaultService = defaultService;
+        this.environment = environment;
+        this.clock = clock;
+    }
+
+    /**
+     * Parse the message in {@code buf[offset, offset + length)}; trailing
+     * CR, LF and NUL bytes are ignored
+     *
+     * @return the entry, or null if the frame is empty or its PRI is invalid
+     */
+    public LogEntryDTO parse(byte[] buf, int offset, int length) {
+        int end = offset + length;
+        while (end > offset && (buf[end - 1] == '\n' || buf[end - 1] == '\r' || buf[end - 1] == 0)) {
+            end--;
+        }
+        if (end == offset) {
+            return null;
+        }
+
+        int pos = offset;
+        int pri = DEFAULT_PRI;
+        if (buf[pos] == '<') {
+            pri = 0;
+            int digitsEnd = Math.min(end, pos + 4);
+            for (pos++; pos < digitsEnd && isDigit(buf[pos]); pos++) {
+                pri = pri * 10 + buf[pos] - '0';
+            }
+            if (pos == offset + 1 || pos >= end || buf[pos] != '>' || pri > MAX_PRI) {
+                return null;
+            }
+            pos++;
+        }
+
+        LogEntryDTO logEntry = new LogEntryDTO();
+        Map<String, Object> metadata = new HashMap<>(8);
+        logEntry.setLevel(LEVELS[pri & 7].name());
+        metadata.put(FACILITY, FACILITIES[pri >> 3]);
+        if (end - pos >= 2 && buf[pos] == '1' && buf[pos + 1] == ' ') {
+            parseRfc5424(buf, pos + 2, end, logEntry, metadata);
+        } else {
+            parseRfc3164(buf, pos, end, logEntry, metadata);
+        }
+        if (logEntry.getService() == null) {
+            logEntry.setService(defaultService);
+        }
+        logEntry.setEnvironment(environment);
+        logEntry.setMetadata(metadata);
+        return logEntry;
+    }
+
+    /**
+     * {@code TIMESTAMP SP HOSTNAME SP APP-NAME SP PROCID SP MSGID SP STRUCTURED-DATA [SP MSG]},
+     * with {@code -} for nil values
+     */
+    private void parseRfc5424(byte[] buf, int pos, int end, LogEntryDTO logEntry, Map<String, Object> metadata) {
+        int fieldEnd = fieldEnd(buf, pos, end);
+        logEntry.setTimestamp(rfc3339(buf, pos, fieldEnd));
+        pos = next(fieldEnd, end);
+
+        fieldEnd = fieldEnd(buf, pos, end);
+        logEntry.setHost(nilOrString(buf, pos, fieldEnd));
+        pos = next(fieldEnd, end);
+
+        fieldEnd = fieldEnd(buf, pos, end);
+        logEntry.setService(nilOrString(buf, pos, fieldEnd));
+        pos = next(fieldEnd, end);
+
+        fieldEnd = fieldEnd(buf, pos, end);
+        putIfNotNil(metadata, PROC_ID, nilOrString(buf, pos, fieldEnd));
+        pos = next(fieldEnd, end);
+
+        fieldEnd = fieldEnd(buf, pos, end);
+        putIfNotNil(metadata, MSG_ID, nilOrString(buf, pos, fieldEnd));
+        pos = next(fieldEnd, end);
+
+        if (pos < end && buf[pos] == '-') {
+            pos++;
+        } else if (pos < end && buf[pos] == '[') {
+            pos = structuredData(buf, pos, end, metadata);
+        }
+        if (pos < end && buf[pos] == ' ') {
+            pos++;
+        }
+        if (end - pos >= 3 && buf[pos] == (byte) 0xEF && buf[pos + 1] == (byte) 0xBB && buf[pos + 2] == (byte) 0xBF) {
+            pos += 3;
+        }
+        logEntry.setMessage(string(buf, pos, end));
+    }
+
+    /**
+     * {@code Mmm dd hh:mm:ss SP HOSTNAME SP TAG[pid]: MSG}. Without a
+     * recognizable timestamp the hostname cannot be told apart from the
+     * message, so only the tag is looked for.
+     */
+    private void parseRfc3164(byte[] buf, int pos, int end, LogEntryDTO logEntry, Map<String, Object> metadata) {
+        Instant timestamp = end - pos > 16 && buf[pos + 15] == ' ' ? rfc3164Timestamp(buf, pos) : null;
+        if (timestamp != null) {
+            logEntry.setTimestamp(timestamp);
+            pos += 16;
+            int fieldEnd = fieldEnd(buf, pos, end);
+            logEntry.setHost(nilOrString(buf, pos, fieldEnd));
+            pos = next(fieldEnd, end);
+        }
+
+        int tagEnd = pos;
+        while (tagEnd < end && tagEnd - pos < MAX_TAG_LENGTH && isTagChar(buf[tagEnd])) {
+            tagEnd++;
+        }
+        if (tagEnd > pos && tagEnd < end && (buf[tagEnd] == '[' || buf[tagEnd] == ':')) {
+            logEntry.setService(string(buf, pos, tagEnd));
+            pos = tagEnd;
+            if (buf[pos] == '[') {
+                int pidEnd = indexOf(buf, pos, end, (byte) ']');
+                if (pidEnd > 0) {
+                    metadata.put(PROC_ID, string(buf, pos + 1, pidEnd));
+                    pos = pidEnd + 1;
+                }
+            }
+            if (pos < end && buf[pos] == ':') {
+                pos++;
+            }
+            if (pos < end && buf[pos] == ' ') {
+                pos++;
+            }
+        }
+        logEntry.setMessage(string(buf, pos, end));
+    }
+
+    /**
+     * Parse {@code [id name="value" ...]...} into metadata
+     *
+     * @return index after the last element, or {@code end} if the data is malformed
+     */
+    private static int structuredData(byte[] buf, int pos, int end, Map<String, Object> metadata) {
+        while (pos < end && buf[pos] == '[') {
+            int idEnd = pos + 1;
+            while (idEnd < end && buf[idEnd] != ' ' && buf[idEnd] != ']') {
+                idEnd++;
+            }
+            String id = string(buf, pos + 1, idEnd);
+            pos = idEnd;
+            while (pos < end && buf[pos] == ' ') {
+                int nameEnd = indexOf(buf, pos + 1, end, (byte) '=');
+                if (nameEnd < 0 || nameEnd + 1 >= end || buf[nameEnd + 1] != '"') {
+                    return end;
+                }
+                String name = string(buf, pos + 1, nameEnd);
+                pos = nameEnd + 2;
+                int valueStart = pos;
+                boolean escaped = false;
+                while (pos < end && buf[pos] != '"') {
+                    if (buf[pos] == '\\' && pos + 1 < end) {
+                        escaped = true;
+                        pos++;
+                    }
+                    pos++;
+                }
+                if (pos >= end) {
+                    return end;
+                }
+                metadata.put(id + "." + name, escaped ? unescape(buf, valueStart, pos) : string(buf, valueStart, pos));
+                pos++;
+            }
+            if (pos >= end || buf[pos] != ']') {
+                return end;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Drop the backslash in front of {@code "}, {@code \} and {@code ]}
+     */
+    private static String unescape(byte[] buf, int start, int end) {
+        byte[] value = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (buf[i] == '\\' && i + 1 < end && (buf[i + 1] == '"' || buf[i + 1] == '\\' || buf[i + 1] == ']')) {
+                i++;
+            }
+            value[length++] = buf[i];
+        }
+        return new String(value, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code YYYY-MM-DDThh:mm:ss[.fraction](Z|+hh:mm|-hh:mm)}
+     *
+     * @return the instant, or null if nil or malformed
+     */
+    private static Instant rfc3339(byte[] buf, int start, int end) {
+        if (end - start < 20 || buf[start + 4] != '-' || buf[start + 7] != '-' || buf[start + 10] != 'T'
+                || buf[start + 13] != ':' || buf[start + 16] != ':') {
+            return null;
+        }
+        int year = digits(buf, start, 4);
+        int month = digits(buf, start + 5, 2);
+        int day = digits(buf, start + 8, 2);
+        int hour = digits(buf, start + 11, 2);
+        int minute = digits(buf, start + 14, 2);
+        int second = digits(buf, start + 17, 2);
+        int pos = start + 19;
+        int nanos = 0;
+        if (buf[pos] == '.') {
+            int scale = 100_000_000;
+            for (pos++; pos < end && isDigit(buf[pos]); pos++) {
+                nanos += (buf[pos] - '0') * scale;
+                scale /= 10;
+            }
+        }
+        int offsetSeconds;
+        if (pos == end - 1 && (buf[pos] == 'Z' || buf[pos] == 'z')) {
+            offsetSeconds = 0;
+        } else if (pos == end - 6 && (buf[pos] == '+' || buf[pos] == '-') && buf[pos + 3] == ':') {
+            int hours = digits(buf, pos + 1, 2);
+            int minutes = digits(buf, pos + 4, 2);
+            if (hours < 0 || minutes < 0) {
+                return null;
+            }
+            offsetSeconds = (buf[pos] == '-' ? -1 : 1) * (hours * 3600 + minutes * 60);
+        } else {
+            return null;
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || minute < 0 || second < 0
+                || hour > 23 || minute > 59 || second > 60) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, Math.min(second, 59), nanos)
+                    .toInstant(ZoneOffset.ofTotalSeconds(offsetSeconds));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code Mmm dd hh:mm:ss} in UTC, in the current year unless that would put
+     * it more than a day in the future (a December message read in January)
+     */
+    private Instant rfc3164Timestamp(byte[] buf, int start) {
+        int month = month(buf, start);
+        int day = buf[start + 4] == ' ' ? digits(buf, start + 5, 1) : digits(buf, start + 4, 2);
+        int hour = digits(buf, start + 7, 2);
+        int minute = digits(buf, start + 10, 2);
+        int second = digits(buf, start + 13, 2);
+        if (month < 1 || buf[start + 3] != ' ' || buf[start + 6] != ' ' || buf[start + 9] != ':'
+                || buf[start + 12] != ':' || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return null;
+        }
+        Instant now = clock.instant();
+        int year = now.atZone(ZoneOffset.UTC).getYear();
+        try {
+            Instant timestamp = LocalDateTime.of(year, month, day, hour, minute, Math.min(second, 59))
+                    .toInstant(ZoneOffset.UTC);
+            if (timestamp.isAfter(now.plus(1, ChronoUnit.DAYS))) {
+                timestamp = LocalDateTime.of(year - 1, month, day, hour, minute, Math.min(second, 59))
+                        .toInstant(ZoneOffset.UTC);
+            }
+            return timestamp;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int month(byte[] buf, int start) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            String month = MONTHS[i];
+            if (buf[start] == month.charAt(0) && buf[start + 1] == month.charAt(1) && buf[start + 2] == month.charAt(2)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decimal value of {@code count} digits, or -1 if any is not a digit
+     */
+    private static int digits(byte[] buf, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(buf[i])) {
+                return -1;
+            }
+            value = value * 10 + buf[i] - '0';
+        }
+        return value;
+    }
+
+    private static int fieldEnd(byte[] buf, int pos, int end) {
+        int space = indexOf(buf, pos, end, (byte) ' ');
+        return space < 0 ? end : space;
+    }
+
+    private static int next(int fieldEnd, int end) {
+        return Math.min(fieldEnd + 1, end);
+    }
+
+    private static int indexOf(byte[] buf, int from, int end, byte value) {
+        for (int i = from; i < end; i++) {
+            if (buf[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String nilOrString(byte[] buf, int start, int end) {
+        if (end <= start || (end - start == 1 && buf[start] == '-')) {
+            return null;
+        }
+        return string(buf, start, end);
+    }
+
+    private static String string(byte[] buf, int start, int end) {
+        return new String(buf, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static void putIfNotNil(Map<String, Object> metadata, String key, String value) {
+        if (value != null) {
+            metadata.put(key, value);
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isTagChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || isDigit(b)
+                || b == '-' || b == '_' || b == '.' || b == '/';
+    }
+}
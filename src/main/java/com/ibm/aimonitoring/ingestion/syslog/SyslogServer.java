@@ -0,0 +1,373 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.publish.LogRingBuffer;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Embedded syslog listener. One receiver thread serves the UDP socket and
+ * all TCP connections from a single non-blocking selector, parses each frame
+ * in place and offers the entry to a bounded ring buffer; a publisher thread
+ * drains the buffer in batches through {@link BatchIngestionService}.
+ * <p>
+ * The receiver never waits on the publish path: entries that find the
+ * buffer full are dropped and counted, as are malformed and oversize frames,
+ * entries failing validation or the rate limit, and batches whose publish
+ * fails.
+ */
+@Slf4j
+public class SyslogServer implements SmartLifecycle {
+
+    /**
+     * Datagrams read per wakeup before TCP connections get a turn
+     */
+    private static final int MAX_DATAGRAMS_PER_WAKEUP = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IngestionProperties.Syslog settings;
+    private final SyslogParser parser;
+    private final BatchIngestionService batchIngestionService;
+    private final LogRingBuffer<LogEntryDTO> buffer;
+    private final int maxFrameLength;
+    private final ByteBuffer datagramBuffer;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter receivedUdp;
+    private final Counter receivedTcp;
+    private final Counter droppedBufferFull;
+    private final Counter droppedMalformed;
+    private final Counter droppedOversize;
+    private final Counter droppedRejected;
+    private final Counter droppedPublishFailed;
+
+    private volatile boolean running;
+    private Selector selector;
+    private DatagramChannel udpChannel;
+    private ServerSocketChannel tcpChannel;
+    private Thread receiverThread;
+    private Thread publisherThread;
+
+    public SyslogServer(IngestionProperties.Syslog settings,
+                        SyslogParser parser,
+                        BatchIngestionService batchIngestionService,
+                        MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.parser = parser;
+        this.batchIngestionService = batchIngestionService;
+        this.buffer = new LogRingBuffer<>(settings.getBufferCapacity());
+        this.maxFrameLength = (int) settings.getMaxFrameLength().toBytes();
+        // One byte of headroom tells a datagram that fills the frame limit from one the kernel truncated
+        this.datagramBuffer = ByteBuffer.allocate(maxFrameLength + 1);
+        this.receivedUdp = received("udp", meterRegistry);
+        this.receivedTcp = received("tcp", meterRegistry);
+        this.droppedBufferFull = dropped("buffer_full", meterRegistry);
+        this.droppedMalformed = dropped("malformed", meterRegistry);
+        this.droppedOversize = dropped("oversize", meterRegistry);
+        this.droppedRejected = dropped("rejected", meterRegistry);
+        this.droppedPublishFailed = dropped("publish_failed", meterRegistry);
+        Gauge.builder("ingestion.syslog.buffer.size", buffer, LogRingBuffer::size)
+                .description("Parsed syslog entries waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.syslog.connections", connections, AtomicInteger::get)
+                .description("Open syslog TCP connections")
+                .register(meterRegistry);
+    }
+
+    private static Counter received(String transport, MeterRegistry meterRegistry) {
+        return Counter.builder("ingestion.syslog.received")
+                .description("Syslog frames received")
+                .tag("transport", transport)
+                .register(meterRegistry);
+    }
+
+    private static Counter dropped(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("ingestion.syslog.dropped")
+                .description("Syslog messages dropped before publishing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bound UDP port, or -1 if UDP is disabled or the server is not running
+     */
+    public int getUdpPort() {
+        DatagramChannel channel = udpChannel;
+        return channel == null ? -1 : channel.socket().getLocalPort();
+    }
+
+    /**
+     * Bound TCP port, or -1 if TCP is disabled or the server is not running
+     */
+    public int getTcpPort() {
+        ServerSocketChannel channel = tcpChannel;
+        return channel == null ? -1 : channel.socket().getLocalPort();
+    }
+
+    private void receiveLoop() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                log.error("Syslog selector failed: {}", e.getMessage(), e);
+                return;
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else if (key.channel() == udpChannel) {
+                    receiveDatagrams();
+                } else {
+                    receiveStream(key);
+                }
+            }
+        }
+    }
+
+    private void receiveDatagrams() {
+        for (int i = 0; i < MAX_DATAGRAMS_PER_WAKEUP; i++) {
+            datagramBuffer.clear();
+            SocketAddress sender;
+            try {
+                sender = udpChannel.receive(datagramBuffer);
+            } catch (IOException e) {
+                log.warn("Syslog UDP receive failed: {}", e.getMessage());
+                return;
+            }
+            if (sender == null) {
+                return;
+            }
+            receivedUdp.increment();
+            if (datagramBuffer.position() > maxFrameLength) {
+                droppedOversize.increment();
+                continue;
+            }
+            enqueue(datagramBuffer.array(), 0, datagramBuffer.position(), sender);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = tcpChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel.getRemoteAddress()));
+            connections.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("Syslog TCP accept failed: {}", e.getMessage());
+        }
+    }
+
+    private void receiveStream(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        int read;
+        try {
+            read = channel.read(connection.decoder.buffer());
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            connection.decoder.finish(connection);
+            close(key);
+        } else if (read > 0) {
+            connection.decoder.decode(connection);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Closing syslog connection failed: {}", e.getMessage());
+        }
+        connections.decrementAndGet();
+    }
+
+    /**
+     * Parse one frame and queue the entry for publishing
+     */
+    private void enqueue(byte[] buf, int offset, int length, SocketAddress sender) {
+        LogEntryDTO logEntry = parser.parse(buf, offset, length);
+        if (logEntry == null) {
+            droppedMalformed.increment();
+            return;
+        }
+        if (logEntry.getHost() == null && sender instanceof InetSocketAddress address) {
+            logEntry.setHost(address.getHostString());
+        }
+        if (!buffer.offer(logEntry)) {
+            droppedBufferFull.increment();
+        }
+    }
+
+    private void publishLoop() {
+        List<LogEntryDTO> batch = new ArrayList<>(settings.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, settings.getBatchSize()) == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            publish(batch);
+            batch.clear();
+        }
+    }
+
+    private void publish(List<LogEntryDTO> batch) {
+        try {
+            BatchIngestionService.IngestResult result = batchIngestionService.ingest(batch);
+            droppedRejected.increment(result.rejected());
+        } catch (RuntimeException e) {
+            droppedPublishFailed.increment(batch.size());
+            log.warn("Dropped {} syslog entries: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            if (settings.isUdpEnabled()) {
+                udpChannel = DatagramChannel.open();
+                udpChannel.setOption(StandardSocketOptions.SO_RCVBUF, (int) settings.getSocketReceiveBuffer().toBytes());
+                udpChannel.bind(new InetSocketAddress(settings.getBindAddress(), settings.getPort()));
+                udpChannel.configureBlocking(false);
+                udpChannel.register(selector, SelectionKey.OP_READ);
+            }
+            if (settings.isTcpEnabled()) {
+                tcpChannel = ServerSocketChannel.open();
+                tcpChannel.bind(new InetSocketAddress(settings.getBindAddress(), settings.getPort()));
+                tcpChannel.configureBlocking(false);
+                tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+            }
+        } catch (IOException e) {
+            closeChannels();
+            throw new IllegalStateException("Cannot start syslog listener on "
+                    + settings.getBindAddress() + ":" + settings.getPort(), e);
+        }
+
+        running = true;
+        publisherThread = new Thread(this::publishLoop, "syslog-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+        receiverThread = new Thread(this::receiveLoop, "syslog-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        log.info("Syslog listener started (udp port {}, tcp port {})", getUdpPort(), getTcpPort());
+    }
+
+    /**
+     * Stop receiving, then publish what is already buffered
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        join(receiverThread);
+        join(publisherThread);
+        receiverThread = null;
+        publisherThread = null;
+        closeChannels();
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeChannels() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            }
+            if (udpChannel != null) {
+                udpChannel.close();
+            }
+            if (tcpChannel != null) {
+                tcpChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Closing syslog listener failed: {}", e.getMessage());
+        }
+        selector = null;
+        udpChannel = null;
+        tcpChannel = null;
+        connections.set(0);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Per-connection framing state
+     */
+    private final class Connection implements SyslogFrameDecoder.FrameHandler {
+
+        private final SyslogFrameDecoder decoder = new SyslogFrameDecoder(maxFrameLength);
+        private final SocketAddress peer;
+
+        private Connection(SocketAddress peer) {
+            this.peer = peer;
+        }
+
+        @Override
+        public void frame(byte[] buf, int offset, int length) {
+            receivedTcp.increment();
+            enqueue(buf, offset, length, peer);
+        }
+
+        @Override
+        public void oversize() {
+            receivedTcp.increment();
+            droppedOversize.increment();
+        }
+    }
+}
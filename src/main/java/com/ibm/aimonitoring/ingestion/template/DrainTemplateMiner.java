@@ -0,0 +1,342 @@
+package com.ibm.aimonitoring.ingestion.template;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Online log template mining after Drain (He et al., ICWS 2017). Messages are
+ * split on whitespace and routed through a fixed-depth tree keyed by token
+ * count and then the first {@code depth - 2} tokens (tokens containing digits
+ * route to a wildcard child). The leaf holds candidate templates; the most
+ * similar one absorbs the message if at least {@code similarityThreshold} of
+ * its tokens match, turning differing positions into {@code <*>}, otherwise
+ * the message starts a new template.
+ * <p>
+ * Lookups that match a template without changing it run under a shared read
+ * lock; creating or generalizing a template takes the write lock. At most
+ * {@code maxTemplates} templates are kept, evicting the least recently
+ * matched in batches.
+ */
+public class DrainTemplateMiner {
+
+    public static final String WILDCARD = "<*>";
+
+    private final int prefixDepth;
+    private final double similarityThreshold;
+    private final int maxChildren;
+    private final int maxTemplates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Node> byLength = new HashMap<>();
+    private final Map<String, Template> templates = new HashMap<>();
+    private final LongAdder evicted = new LongAdder();
+
+    public DrainTemplateMiner(IngestionProperties.Templates settings) {
+        this.prefixDepth = Math.max(1, settings.getDepth() - 2);
+        this.similarityThreshold = settings.getSimilarityThreshold();
+        this.maxChildren = Math.max(2, settings.getMaxChildren());
+        this.maxTemplates = Math.max(1, settings.getMaxTemplates());
+    }
+
+    /**
+     * Match a message to a template, creating or generalizing one as needed
+     *
+     * @return the template ID and the message tokens at its wildcard positions,
+     *         or null for a blank message
+     */
+    public Match match(String message) {
+        if (message == null) {
+            return null;
+        }
+        String[] tokens = tokenize(message);
+        if (tokens.length == 0) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Node leaf = leaf(tokens, false);
+            Template best = leaf == null ? null : mostSimilar(leaf, tokens);
+            if (best != null && !best.wouldChange(tokens)) {
+                return best.matched(tokens);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Node leaf = leaf(tokens, true);
+            Template best = mostSimilar(leaf, tokens);
+            if (best != null) {
+                best.absorb(tokens);
+                return best.matched(tokens);
+            }
+            Template created = new Template(newId(tokens), tokens.clone(), leaf);
+            leaf.templates.add(created);
+            templates.put(created.id, created);
+            if (templates.size() > maxTemplates) {
+                evictLeastRecentlyUsed();
+            }
+            return created.matched(tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Walk to the leaf for the tokens, creating nodes when {@code create}
+     *
+     * @return the leaf, or null if it does not exist and {@code create} is false
+     */
+    private Node leaf(String[] tokens, boolean create) {
+        Node node = byLength.get(tokens.length);
+        if (node == null) {
+            if (!create) {
+                return null;
+            }
+            node = new Node(null, null);
+            byLength.put(tokens.length, node);
+        }
+        int depth = Math.min(prefixDepth, tokens.length);
+        for (int i = 0; i < depth; i++) {
+            String key = childKey(node, tokens[i]);
+            Node child = node.children.get(key);
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node(node, key);
+                node.children.put(key, child);
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private String childKey(Node node, String token) {
+        if (hasDigit(token) || (!node.children.containsKey(token) && node.children.size() >= maxChildren - 1)) {
+            return WILDCARD;
+        }
+        return token;
+    }
+
+    private Template mostSimilar(Node leaf, String[] tokens) {
+        Template best = null;
+        double bestSimilarity = -1;
+        int bestWildcards = -1;
+        for (Template template : leaf.templates) {
+            String[] templateTokens = template.tokens;
+            int same = 0;
+            int wildcards = 0;
+            for (int i = 0; i < templateTokens.length; i++) {
+                if (WILDCARD.equals(templateTokens[i])) {
+                    wildcards++;
+                } else if (templateTokens[i].equals(tokens[i])) {
+                    same++;
+                }
+            }
+            double similarity = (double) same / templateTokens.length;
+            if (similarity > bestSimilarity || (similarity == bestSimilarity && wildcards > bestWildcards)) {
+                best = template;
+                bestSimilarity = similarity;
+                bestWildcards = wildcards;
+            }
+        }
+        return bestSimilarity >= similarityThreshold ? best : null;
+    }
+
+    private String newId(String[] tokens) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ tokens.length) * 0x100000001b3L;
+        for (String token : tokens) {
+            String masked = hasDigit(token) ? WILDCARD : token;
+            for (int i = 0; i < masked.length(); i++) {
+                hash = (hash ^ masked.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ ' ') * 0x100000001b3L;
+        }
+        String id = String.format("%016x", hash);
+        while (templates.containsKey(id)) {
+            id = String.format("%016x", ++hash);
+        }
+        return id;
+    }
+
+    /**
+     * Drop the least recently matched sixteenth of the templates, and any
+     * tree nodes left without templates
+     */
+    private void evictLeastRecentlyUsed() {
+        List<Template> all = new ArrayList<>(templates.values());
+        all.sort(Comparator.comparingLong(template -> template.lastMatched));
+        int count = Math.max(1, all.size() / 16);
+        for (Template template : all.subList(0, count)) {
+            templates.remove(template.id);
+            Node node = template.leaf;
+            node.templates.remove(template);
+            while (node.parent != null && node.templates.isEmpty() && node.children.isEmpty()) {
+                node.parent.children.remove(node.key);
+                node = node.parent;
+            }
+            if (node.parent == null && node.templates.isEmpty() && node.children.isEmpty()) {
+                byLength.values().remove(node);
+            }
+        }
+        evicted.add(count);
+    }
+
+    static String[] tokenize(String message) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < message.length(); i++) {
+            if (Character.isWhitespace(message.charAt(i))) {
+                if (start >= 0) {
+                    tokens.add(message.substring(start, i));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(message.substring(start));
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static boolean hasDigit(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Templates ordered by match count, most frequent first
+     */
+    public List<TemplateSummary> getTemplates(int limit) {
+        lock.readLock().lock();
+        try {
+            return templates.values().stream()
+                    .map(template -> new TemplateSummary(template.id, template.text(), template.count.sum()))
+                    .sorted(Comparator.comparingLong(TemplateSummary::count).reversed())
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTemplateCount() {
+        lock.readLock().lock();
+        try {
+            return templates.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /**
+     * Result of matching one message
+     */
+    public record Match(String templateId, List<String> parameters) {
+    }
+
+    /**
+     * A template as listed by the templates endpoint
+     */
+    public record TemplateSummary(String id, String template, long count) {
+    }
+
+    /**
+     * Tree node: an inner node routes by token, a leaf holds templates
+     */
+    private static final class Node {
+        private final Node parent;
+        private final String key;
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Template> templates = new ArrayList<>(1);
+
+        Node(Node parent, String key) {
+            this.parent = parent;
+            this.key = key;
+        }
+    }
+
+    /**
+     * A template's tokens are replaced, never mutated, and only under the write lock
+     */
+    private static final class Template {
+        private final String id;
+        private final Node leaf;
+        private final LongAdder count = new LongAdder();
+        private String[] tokens;
+        private volatile long lastMatched;
+
+        Template(String id, String[] tokens, Node leaf) {
+            this.id = id;
+            this.tokens = tokens;
+            this.leaf = leaf;
+            this.lastMatched = System.nanoTime();
+            for (int i = 0; i < tokens.length; i++) {
+                if (hasDigit(tokens[i])) {
+                    tokens[i] = WILDCARD;
+                }
+            }
+        }
+
+        boolean wouldChange(String[] message) {
+            for (int i = 0; i < tokens.length; i++) {
+                if (!WILDCARD.equals(tokens[i]) && !tokens[i].equals(message[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void absorb(String[] message) {
+            if (!wouldChange(message)) {
+                return;
+            }
+            String[] merged = tokens.clone();
+            for (int i = 0; i < merged.length; i++) {
+                if (!WILDCARD.equals(merged[i]) && !merged[i].equals(message[i])) {
+                    merged[i] = WILDCARD;
+                }
+            }
+            tokens = merged;
+        }
+
+        Match matched(String[] message) {
+            count.increment();
+            lastMatched = System.nanoTime();
+            String[] current = tokens;
+            List<String> parameters = new ArrayList<>();
+            for (int i = 0; i < current.length; i++) {
+                if (WILDCARD.equals(current[i])) {
+                    parameters.add(message[i]);
+                }
+            }
+            return new Match(id, parameters);
+        }
+
+        String text() {
+            return String.join(" ", tokens);
+        }
+    }
+}
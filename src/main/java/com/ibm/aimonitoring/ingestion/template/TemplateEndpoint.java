@@ -0,0 +1,31 @@
+package com.ibm.aimonitoring.ingestion.template;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing mined templates by match count, at
+ * {@code /actuator/templates?limit=N}
+ */
+@Endpoint(id = "templates")
+@RequiredArgsConstructor
+public class TemplateEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final DrainTemplateMiner miner;
+
+    @ReadOperation
+    public Map<String, Object> templates(@Nullable Integer limit) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("templateCount", miner.getTemplateCount());
+        state.put("evicted", miner.getEvicted());
+        state.put("templates", miner.getTemplates(limit == null ? DEFAULT_LIMIT : Math.max(0, limit)));
+        return state;
+    }
+}
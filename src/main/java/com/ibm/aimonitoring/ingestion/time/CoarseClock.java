@@ -0,0 +1,89 @@
+package com.ibm.aimonitoring.ingestion.time;
+
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock read from a value refreshed by a background thread, so hot
+ * paths get the current time, and a shared {@link Instant} for it, without
+ * a system call or an allocation per read.
+ * <p>
+ * Readings lag real time by up to one resolution interval. Until the
+ * lifecycle has started, and after it has stopped, every read goes to the
+ * system clock.
+ */
+public class CoarseClock implements SmartLifecycle {
+
+    private final long resolutionNanos;
+
+    private ScheduledExecutorService ticker;
+    private volatile Instant current;
+    private volatile boolean running;
+
+    public CoarseClock(Duration resolution) {
+        this.resolutionNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), resolution.toNanos());
+    }
+
+    /**
+     * Current time in epoch milliseconds
+     */
+    public long millis() {
+        return running ? current.toEpochMilli() : System.currentTimeMillis();
+    }
+
+    /**
+     * Current time, truncated to milliseconds
+     */
+    public Instant instant() {
+        return running ? current : Instant.ofEpochMilli(System.currentTimeMillis());
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        if (now != current.toEpochMilli()) {
+            current = Instant.ofEpochMilli(now);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        current = Instant.ofEpochMilli(System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, resolutionNanos, resolutionNanos, TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the publishers and listeners that read the clock, stop after them
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+}
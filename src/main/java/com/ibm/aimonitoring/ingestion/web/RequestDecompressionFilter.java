@@ -0,0 +1,373 @@
+package com.ibm.aimonitoring.ingestion.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.codec.CompressionCodec;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decompresses request bodies sent with {@code Content-Encoding} gzip, deflate
+ * or zstd.
+ * <p>
+ * The body is inflated as the handler reads it, never buffered whole. Reading
+ * fails with {@link DecompressionLimitExceededException} once the expanded
+ * size or the expansion ratio passes its limit, which stops decompression
+ * bombs after a bounded amount of work, and with
+ * {@link DecompressionFailedException} when the body is not valid in its
+ * declared encoding.
+ */
+@Slf4j
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    /**
+     * Compressed bytes below which the ratio limit is not applied, so small
+     * bodies are not rejected for compressing well
+     */
+    private static final long RATIO_FLOOR_BYTES = 1024;
+
+    private final IngestionProperties.Decompression settings;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public RequestDecompressionFilter(IngestionProperties.Decompression settings,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("ingestion.request.decompression.rejected")
+                .description("Compressed requests rejected for exceeding decompression limits")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return contentEncoding == null
+                || contentEncoding.isBlank()
+                || "identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim();
+        CompressionCodec codec = CompressionCodec.forEncoding(contentEncoding);
+        if (codec == null) {
+            writeError(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding '" + contentEncoding + "'; supported: gzip, deflate, zstd");
+            return;
+        }
+
+        DecompressingRequest decompressing = new DecompressingRequest(request, codec);
+        try {
+            filterChain.doFilter(decompressing, response);
+        } finally {
+            decompressing.recordMetrics();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Request whose body is the decompressed stream, with the encoding headers removed
+     */
+    private final class DecompressingRequest extends HttpServletRequestWrapper {
+
+        private final CompressionCodec codec;
+        private LimitedInputStream body;
+        private ServletInputStream servletInputStream;
+        private BufferedReader reader;
+
+        private DecompressingRequest(HttpServletRequest request, CompressionCodec codec) {
+            super(request);
+            this.codec = codec;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called");
+            }
+            if (servletInputStream == null) {
+                CountingInputStream compressed = new CountingInputStream(super.getInputStream());
+                InputStream decompressed;
+                try {
+                    decompressed = codec.decompress(compressed);
+                } catch (IOException e) {
+                    throw decodingFailure(e, compressed, codec);
+                }
+                body = new LimitedInputStream(decompressed, compressed, codec);
+                servletInputStream = new DelegatingServletInputStream(body);
+            }
+            return servletInputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isRemovedHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isRemovedHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(this::isRemovedHeader);
+            return Collections.enumeration(names);
+        }
+
+        private boolean isRemovedHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        private void recordMetrics() {
+            if (body == null) {
+                return;
+            }
+            meterRegistry.counter("ingestion.request.decompression.bytes.compressed",
+                    "encoding", codec.getEncoding()).increment(body.compressed.count);
+            meterRegistry.counter("ingestion.request.decompression.bytes.expanded",
+                    "encoding", codec.getEncoding()).increment(body.expanded);
+        }
+    }
+
+    /**
+     * A failure of the decoder, as opposed to one reading the raw body (a
+     * client disconnect) or a decompression limit, as a {@link DecompressionFailedException}
+     */
+    private static IOException decodingFailure(IOException e, CountingInputStream compressed, CompressionCodec codec) {
+        if (e instanceof DecompressionLimitExceededException || e == compressed.failure
+                || (e.getCause() != null && e.getCause() == compressed.failure)) {
+            return e;
+        }
+        return new DecompressionFailedException("Request body is not valid " + codec.getEncoding()
+                + " data: " + e.getMessage(), e);
+    }
+
+    /**
+     * Counts bytes read from the raw request body, and remembers a failure to read it
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+        private IOException failure;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Enforces the expanded size and ratio limits on the decompressed stream
+     */
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private final CountingInputStream compressed;
+        private final CompressionCodec codec;
+        private final long maxExpandedBytes;
+        private long expanded;
+
+        private LimitedInputStream(InputStream in, CountingInputStream compressed, CompressionCodec codec) {
+            super(in);
+            this.compressed = compressed;
+            this.codec = codec;
+            this.maxExpandedBytes = settings.getMaxExpandedSize().toBytes();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException e) {
+                throw decodingFailure(e, compressed, codec);
+            }
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                throw decodingFailure(e, compressed, codec);
+            }
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int n) throws DecompressionLimitExceededException {
+            expanded += n;
+            if (expanded > maxExpandedBytes) {
+                rejected.increment();
+                throw new DecompressionLimitExceededException(
+                        "Decompressed request body exceeds " + maxExpandedBytes + " bytes");
+            }
+            if (expanded > (long) settings.getMaxRatio() * Math.max(compressed.count, RATIO_FLOOR_BYTES)) {
+                rejected.increment();
+                throw new DecompressionLimitExceededException(
+                        "Request body expands more than " + settings.getMaxRatio() + " times");
+            }
+        }
+    }
+
+    private static final class DelegatingServletInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private boolean finished;
+
+        private DelegatingServletInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Asynchronous reads are not supported for compressed bodies");
+        }
+    }
+
+    /**
+     * Thrown while reading a compressed body that expands past the configured limits
+     */
+    public static class DecompressionLimitExceededException extends IOException {
+        public DecompressionLimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown while reading a compressed body that is not valid in its declared encoding
+     */
+    public static class DecompressionFailedException extends IOException {
+        public DecompressionFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Representative log entries for benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * An enriched entry, as it is published
+     */
+    static LogEntryDTO logEntry(int messageLength, int metadataKeys) {
+        LogEntryDTO logEntry = clientEntry(messageLength, metadataKeys);
+        logEntry.setLogId(UUID.randomUUID().toString());
+        logEntry.setIngestedAt(System.currentTimeMillis());
+        return logEntry;
+    }
+
+    /**
+     * An entry as a client sends it
+     */
+    static LogEntryDTO clientEntry(int messageLength, int metadataKeys) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataKeys; i++) {
+            metadata.put("attribute" + i, "value-" + i);
+        }
+        return LogEntryDTO.builder()
+                .timestamp(Instant.now())
+                .level("ERROR")
+                .message("x".repeat(messageLength))
+                .service("user-service")
+                .host("server-01")
+                .environment("production")
+                .metadata(metadata)
+                .traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+                .spanId("00f067aa0ba902b7")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.id.UuidV7LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.time.CoarseClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of {@code ingestLog} for a client entry without a
+ * timestamp, with publishing stubbed out. Compare {@code gc.alloc.rate.norm}
+ * between {@code legacyMetadata=true} (logId and ingestedAt also written into
+ * metadata) and the default top-level fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrichmentBenchmark {
+
+    @Param({"false", "true"})
+    public boolean legacyMetadata;
+
+    @Param({"0", "8"})
+    public int metadataKeys;
+
+    private CoarseClock clock;
+    private LogIngestionService service;
+    private LogEntryDTO logEntry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clock = new CoarseClock(Duration.ofMillis(1));
+        clock.start();
+        IngestionProperties properties = new IngestionProperties();
+        properties.getEnrichment().setLegacyMetadata(legacyMetadata);
+        service = new LogIngestionService(new NoOpPublisher(), new UuidV7LogIdGenerator(), clock, properties);
+        logEntry = BenchmarkData.clientEntry(100, metadataKeys);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clock.stop();
+    }
+
+    @Benchmark
+    public LogResponseDTO ingestLog() {
+        logEntry.setTimestamp(null);
+        if (metadataKeys == 0) {
+            logEntry.setMetadata(null);
+        }
+        return service.ingestLog(logEntry);
+    }
+
+    private static final class NoOpPublisher implements LogPublisher {
+
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            // enrichment measured without publishing
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            // enrichment measured without publishing
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.forward.ForwardDecoder;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Decode cost of one Fluent Forward event carrying {@code records} records,
+ * as PackedForward and gzip-compressed PackedForward, against the same
+ * entries as the JSON array {@code POST /api/v1/logs/batch} reads. Body
+ * sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForwardDecodeBenchmark {
+
+    @Param({"100", "1000"})
+    public int records;
+
+    @Param({"0", "8"})
+    public int metadataKeys;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ForwardDecoder decoder = new ForwardDecoder(64 * 1024 * 1024);
+    private byte[] packedBody;
+    private byte[] compressedBody;
+    private byte[] dtoJsonBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LogEntryDTO[] entries = new LogEntryDTO[records];
+        for (int i = 0; i < records; i++) {
+            entries[i] = BenchmarkData.clientEntry(200, metadataKeys);
+        }
+        byte[] packedEntries = packedEntries(entries);
+        packedBody = packedForward(entries[0].getService(), packedEntries, null);
+        compressedBody = packedForward(entries[0].getService(), gzip(packedEntries), "gzip");
+        dtoJsonBody = objectMapper.writeValueAsBytes(entries);
+        System.out.printf("%n[size] records=%d metadataKeys=%d packed=%d compressed=%d dtoJson=%d%n",
+                records, metadataKeys, packedBody.length, compressedBody.length, dtoJsonBody.length);
+    }
+
+    @Benchmark
+    public ForwardDecoder.Chunk packedForward() {
+        return decoder.decode(packedBody, 0, packedBody.length);
+    }
+
+    @Benchmark
+    public ForwardDecoder.Chunk compressedPackedForward() {
+        return decoder.decode(compressedBody, 0, compressedBody.length);
+    }
+
+    @Benchmark
+    public LogEntryDTO[] dtoJson() throws Exception {
+        return objectMapper.readValue(dtoJsonBody, LogEntryDTO[].class);
+    }
+
+    /**
+     * {@code [time, record]} entries as Fluent Bit's forward output packs them
+     */
+    private static byte[] packedEntries(LogEntryDTO[] entries) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        for (LogEntryDTO entry : entries) {
+            packer.packArrayHeader(2);
+            packer.packExtensionTypeHeader((byte) 0, 8);
+            long seconds = entry.getTimestamp().getEpochSecond();
+            int nanos = entry.getTimestamp().getNano();
+            packer.writePayload(new byte[]{
+                    (byte) (seconds >>> 24), (byte) (seconds >>> 16), (byte) (seconds >>> 8), (byte) seconds,
+                    (byte) (nanos >>> 24), (byte) (nanos >>> 16), (byte) (nanos >>> 8), (byte) nanos});
+            packer.packMapHeader(7 + entry.getMetadata().size());
+            packer.packString("log").packString(entry.getMessage());
+            packer.packString("level").packString(entry.getLevel());
+            packer.packString("service").packString(entry.getService());
+            packer.packString("host").packString(entry.getHost());
+            packer.packString("environment").packString(entry.getEnvironment());
+            packer.packString("trace_id").packString(entry.getTraceId());
+            packer.packString("span_id").packString(entry.getSpanId());
+            for (Map.Entry<String, Object> attribute : entry.getMetadata().entrySet()) {
+                packer.packString(attribute.getKey()).packString(String.valueOf(attribute.getValue()));
+            }
+        }
+        packer.close();
+        return packer.toByteArray();
+    }
+
+    private static byte[] packedForward(String tag, byte[] entries, String compressed) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString(tag);
+        packer.packBinaryHeader(entries.length);
+        packer.writePayload(entries);
+        packer.packMapHeader(compressed != null ? 2 : 1);
+        packer.packString("chunk").packString("p8n9gmxTQVC8/nh2wlKKeQ==");
+        if (compressed != null) {
+            packer.packString("compressed").packString(compressed);
+        }
+        packer.close();
+        return packer.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
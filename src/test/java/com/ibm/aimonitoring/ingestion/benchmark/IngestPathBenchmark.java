@@ -0,0 +1,173 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.id.UuidV7LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.RabbitLogPublisher;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.time.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each stage of the single-entry ingest path, and of the whole path
+ * against a RabbitTemplate that converts but does not send.
+ * <p>
+ * Run with the {@code benchmark} profile, which adds the GC profiler so
+ * allocation rates ({@code gc.alloc.rate.norm}) are reported per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngestPathBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int messageSize;
+
+    @Param({"0", "8", "64"})
+    public int metadataKeys;
+
+    private ObjectReader entryReader;
+    private byte[] requestBody;
+    private LogEntryDTO clientEntry;
+    private LogEntryDTO enrichedEntry;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Jackson2JsonMessageConverter messageConverter;
+    private LogIngestionService enrichOnlyService;
+    private LogIngestionService endToEndService;
+    private CoarseClock clock;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        entryReader = objectMapper.readerFor(LogEntryDTO.class);
+        clientEntry = BenchmarkData.clientEntry(messageSize, metadataKeys);
+        clientEntry.setTimestamp(null);
+        requestBody = objectMapper.writeValueAsBytes(clientEntry);
+        enrichedEntry = BenchmarkData.logEntry(messageSize, metadataKeys);
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        messageConverter = new Jackson2JsonMessageConverter();
+
+        clock = new CoarseClock(Duration.ofMillis(1));
+        clock.start();
+        IngestionProperties properties = new IngestionProperties();
+        enrichOnlyService = new LogIngestionService(
+                new NoOpPublisher(), new UuidV7LogIdGenerator(), clock, properties);
+        endToEndService = new LogIngestionService(
+                new RabbitLogPublisher(new ConvertingRabbitTemplate(messageConverter, blackhole),
+                        properties, new SimpleMeterRegistry()),
+                new UuidV7LogIdGenerator(), clock, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+        clock.stop();
+    }
+
+    @Benchmark
+    public LogEntryDTO deserialize() throws IOException {
+        return entryReader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LogEntryDTO>> validate() {
+        return validator.validate(clientEntry);
+    }
+
+    /**
+     * ID generation, enrichment and response, with publishing stubbed out
+     */
+    @Benchmark
+    public LogResponseDTO enrich() throws IOException {
+        return enrichOnlyService.ingestLog(entryReader.readValue(requestBody));
+    }
+
+    @Benchmark
+    public Message convert() {
+        return messageConverter.toMessage(enrichedEntry, new MessageProperties());
+    }
+
+    /**
+     * Deserialize, validate, ingest and convert to an AMQP message
+     */
+    @Benchmark
+    public LogResponseDTO endToEnd() throws IOException {
+        LogEntryDTO logEntry = entryReader.readValue(requestBody);
+        Set<ConstraintViolation<LogEntryDTO>> violations = validator.validate(logEntry);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Benchmark entry is invalid: " + violations);
+        }
+        return endToEndService.ingestLog(logEntry);
+    }
+
+    /**
+     * Converts each message as a real publish would, then drops it
+     */
+    private static final class ConvertingRabbitTemplate extends RabbitTemplate {
+
+        private final Blackhole blackhole;
+
+        private ConvertingRabbitTemplate(Jackson2JsonMessageConverter messageConverter, Blackhole blackhole) {
+            this.blackhole = blackhole;
+            setMessageConverter(messageConverter);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            blackhole.consume(message);
+        }
+    }
+
+    private static final class NoOpPublisher implements LogPublisher {
+
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            // stage measured without publishing
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            // stage measured without publishing
+        }
+    }
+}
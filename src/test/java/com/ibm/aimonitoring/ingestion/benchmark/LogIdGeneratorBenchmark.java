@@ -0,0 +1,60 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.id.LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.id.RandomUuidLogIdGenerator;
+import com.ibm.aimonitoring.ingestion.id.UuidV7LogIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log ID generation throughput under 1, 8 and 64 concurrent threads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogIdGeneratorBenchmark {
+
+    @Param({"RANDOM", "UUID_V7"})
+    public String strategy;
+
+    private LogIdGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = "RANDOM".equals(strategy) ? new RandomUuidLogIdGenerator() : new UuidV7LogIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String threads01() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String threads08() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String threads64() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,164 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.ByteString;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpJsonCodec;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpProtobufCodec;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.logs.v1.ScopeLogs;
+import io.opentelemetry.proto.logs.v1.SeverityNumber;
+import io.opentelemetry.proto.resource.v1.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost of one export of {@code records} log records per input format:
+ * OTLP protobuf and OTLP/JSON into log entries, and the same entries as the
+ * JSON array {@code POST /api/v1/logs/batch} reads. Body sizes are printed
+ * once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtlpDecodeBenchmark {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Param({"100", "1000"})
+    public int records;
+
+    @Param({"0", "8"})
+    public int metadataKeys;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private OtlpProtobufCodec protobufCodec;
+    private OtlpJsonCodec jsonCodec;
+    private byte[] protobufBody;
+    private byte[] otlpJsonBody;
+    private byte[] dtoJsonBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        protobufCodec = new OtlpProtobufCodec(objectMapper);
+        jsonCodec = new OtlpJsonCodec(objectMapper);
+
+        LogEntryDTO[] entries = new LogEntryDTO[records];
+        for (int i = 0; i < records; i++) {
+            entries[i] = BenchmarkData.clientEntry(200, metadataKeys);
+        }
+        protobufBody = protobufRequest(entries).toByteArray();
+        otlpJsonBody = objectMapper.writeValueAsBytes(jsonRequest(entries));
+        dtoJsonBody = objectMapper.writeValueAsBytes(entries);
+        System.out.printf("%n[size] records=%d metadataKeys=%d protobuf=%d otlpJson=%d dtoJson=%d%n",
+                records, metadataKeys, protobufBody.length, otlpJsonBody.length, dtoJsonBody.length);
+    }
+
+    @Benchmark
+    public List<LogEntryDTO> otlpProtobuf() {
+        return protobufCodec.decode(protobufBody);
+    }
+
+    @Benchmark
+    public List<LogEntryDTO> otlpJson() {
+        return jsonCodec.decode(otlpJsonBody);
+    }
+
+    @Benchmark
+    public LogEntryDTO[] dtoJson() throws Exception {
+        return objectMapper.readValue(dtoJsonBody, LogEntryDTO[].class);
+    }
+
+    /**
+     * All entries share one resource, as they do when a collector batches one service's logs
+     */
+    private static ExportLogsServiceRequest protobufRequest(LogEntryDTO[] entries) {
+        LogEntryDTO first = entries[0];
+        ScopeLogs.Builder scopeLogs = ScopeLogs.newBuilder();
+        for (LogEntryDTO entry : entries) {
+            LogRecord.Builder logRecord = LogRecord.newBuilder()
+                    .setTimeUnixNano(nanos(entry))
+                    .setSeverityNumber(SeverityNumber.SEVERITY_NUMBER_ERROR)
+                    .setSeverityText(entry.getLevel())
+                    .setBody(AnyValue.newBuilder().setStringValue(entry.getMessage()))
+                    .setTraceId(ByteString.copyFrom(HEX.parseHex(entry.getTraceId())))
+                    .setSpanId(ByteString.copyFrom(HEX.parseHex(entry.getSpanId())));
+            for (Map.Entry<String, Object> attribute : entry.getMetadata().entrySet()) {
+                logRecord.addAttributes(keyValue(attribute.getKey(), String.valueOf(attribute.getValue())));
+            }
+            scopeLogs.addLogRecords(logRecord);
+        }
+        return ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder()
+                        .setResource(Resource.newBuilder()
+                                .addAttributes(keyValue("service.name", first.getService()))
+                                .addAttributes(keyValue("host.name", first.getHost()))
+                                .addAttributes(keyValue("deployment.environment", first.getEnvironment())))
+                        .addScopeLogs(scopeLogs))
+                .build();
+    }
+
+    private ObjectNode jsonRequest(LogEntryDTO[] entries) {
+        LogEntryDTO first = entries[0];
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceLogs = request.putArray("resourceLogs").addObject();
+        ArrayNode resourceAttributes = resourceLogs.putObject("resource").putArray("attributes");
+        addKeyValue(resourceAttributes, "service.name", first.getService());
+        addKeyValue(resourceAttributes, "host.name", first.getHost());
+        addKeyValue(resourceAttributes, "deployment.environment", first.getEnvironment());
+        ArrayNode logRecords = resourceLogs.putArray("scopeLogs").addObject().putArray("logRecords");
+        for (LogEntryDTO entry : entries) {
+            ObjectNode logRecord = logRecords.addObject();
+            logRecord.put("timeUnixNano", Long.toString(nanos(entry)));
+            logRecord.put("severityNumber", SeverityNumber.SEVERITY_NUMBER_ERROR.getNumber());
+            logRecord.put("severityText", entry.getLevel());
+            logRecord.putObject("body").put("stringValue", entry.getMessage());
+            ArrayNode attributes = logRecord.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : entry.getMetadata().entrySet()) {
+                addKeyValue(attributes, attribute.getKey(), String.valueOf(attribute.getValue()));
+            }
+            logRecord.put("traceId", entry.getTraceId());
+            logRecord.put("spanId", entry.getSpanId());
+        }
+        return request;
+    }
+
+    private static long nanos(LogEntryDTO entry) {
+        return entry.getTimestamp().getEpochSecond() * 1_000_000_000L + entry.getTimestamp().getNano();
+    }
+
+    private static KeyValue keyValue(String key, String value) {
+        return KeyValue.newBuilder().setKey(key).setValue(AnyValue.newBuilder().setStringValue(value)).build();
+    }
+
+    private static void addKeyValue(ArrayNode attributes, String key, String value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+}
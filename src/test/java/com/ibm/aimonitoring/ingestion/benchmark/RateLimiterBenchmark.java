@@ -0,0 +1,80 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link LogRateLimiter#tryAcquire} per entry, with a limit high
+ * enough that every entry passes. {@code keys=1} has every thread contend on
+ * one bucket; {@code keys=1000} spreads them over many.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1000"})
+    public int keys;
+
+    @Param({"SERVICE", "SERVICE_ENVIRONMENT"})
+    public IngestionProperties.RateLimitKey keyBy;
+
+    private LogRateLimiter limiter;
+    private LogRateLimiter disabled;
+    private LogEntryDTO[] entries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setKeyBy(keyBy);
+        properties.getRateLimit().setDefaultLimit(new IngestionProperties.Limit(1e9, 1_000_000));
+        limiter = new LogRateLimiter(properties);
+        disabled = new LogRateLimiter(new IngestionProperties());
+        entries = new LogEntryDTO[keys];
+        for (int i = 0; i < keys; i++) {
+            entries[i] = BenchmarkData.clientEntry(100, 0);
+            entries[i].setService("service-" + i);
+        }
+    }
+
+    private LogEntryDTO next() {
+        return entries[keys == 1 ? 0 : ThreadLocalRandom.current().nextInt(keys)];
+    }
+
+    @Benchmark
+    public boolean disabled() {
+        return disabled.tryAcquire(next());
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean tryAcquireContended() {
+        return limiter.tryAcquire(next());
+    }
+}
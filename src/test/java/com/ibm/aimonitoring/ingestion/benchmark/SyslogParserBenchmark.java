@@ -0,0 +1,57 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.syslog.SyslogParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-datagram cost of parsing a syslog message in place, for an RFC 5424
+ * message with structured data and a BSD (RFC 3164) message. The inverse is
+ * the datagram rate one receiver thread can parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyslogParserBenchmark {
+
+    private SyslogParser parser;
+    private byte[] rfc5424;
+    private byte[] rfc3164;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new SyslogParser("syslog", "production", Clock.systemUTC());
+        rfc5424 = ("<165>1 2024-03-10T08:14:15.003Z router-7.example.com evntslog 8710 ID47 "
+                + "[exampleSDID@32473 iut=\"3\" eventSource=\"Application\" eventID=\"1011\"] "
+                + "Interface GigabitEthernet0/1 changed state to down").getBytes(StandardCharsets.UTF_8);
+        rfc3164 = "<28>Mar 10 08:14:15 fw-1 sshd[4123]: Failed password for root from 10.0.0.7 port 52144 ssh2"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public LogEntryDTO parseRfc5424() {
+        return parser.parse(rfc5424, 0, rfc5424.length);
+    }
+
+    @Benchmark
+    public LogEntryDTO parseRfc3164() {
+        return parser.parse(rfc3164, 0, rfc3164.length);
+    }
+}
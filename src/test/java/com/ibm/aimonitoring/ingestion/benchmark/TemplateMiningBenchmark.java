@@ -0,0 +1,115 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of {@link DrainTemplateMiner#match}. {@code steadyState}
+ * cycles through messages from a handful of patterns that differ only in
+ * numbers, so every call hits an existing template under the read lock;
+ * {@code newTemplates} feeds messages of random words, so every call creates
+ * a template and evicts old ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateMiningBenchmark {
+
+    private static final int PATTERNS = 8;
+    private static final int MESSAGES = 1024;
+
+    @Param({"1024", "10240"})
+    public int messageSize;
+
+    private DrainTemplateMiner steadyMiner;
+    private DrainTemplateMiner churnMiner;
+    private String[] patterned;
+    private String[] random;
+    private int steadyIndex;
+    private int churnIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(42);
+        patterned = new String[MESSAGES];
+        random = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            patterned[i] = patterned(i % PATTERNS, rnd);
+            random[i] = randomWords(rnd);
+        }
+
+        IngestionProperties.Templates settings = new IngestionProperties.Templates();
+        steadyMiner = new DrainTemplateMiner(settings);
+        for (String message : patterned) {
+            steadyMiner.match(message);
+        }
+        IngestionProperties.Templates churn = new IngestionProperties.Templates();
+        churn.setMaxTemplates(MESSAGES / 4);
+        churnMiner = new DrainTemplateMiner(churn);
+    }
+
+    private String patterned(int pattern, Random rnd) {
+        StringBuilder message = new StringBuilder(messageSize + 32);
+        message.append("pattern").append((char) ('a' + pattern)).append(" request handled");
+        int word = 0;
+        while (message.length() < messageSize) {
+            message.append(' ');
+            if (word % 4 == 3) {
+                message.append(rnd.nextInt(100_000));
+            } else {
+                message.append("word").append((char) ('a' + pattern)).append((char) ('a' + word % 26));
+            }
+            word++;
+        }
+        return message.toString();
+    }
+
+    private String randomWords(Random rnd) {
+        StringBuilder message = new StringBuilder(messageSize + 16);
+        while (message.length() < messageSize) {
+            if (message.length() > 0) {
+                message.append(' ');
+            }
+            for (int i = 0; i < 6; i++) {
+                message.append((char) ('a' + rnd.nextInt(26)));
+            }
+        }
+        return message.toString();
+    }
+
+    @Benchmark
+    public DrainTemplateMiner.Match steadyState() {
+        return steadyMiner.match(patterned[steadyIndex++ & (MESSAGES - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public DrainTemplateMiner.Match steadyStateContended() {
+        return steadyMiner.match(patterned[ThreadLocalRandom.current().nextInt(MESSAGES)]);
+    }
+
+    @Benchmark
+    public DrainTemplateMiner.Match newTemplates() {
+        return churnMiner.match(random[churnIndex++ & (MESSAGES - 1)]);
+    }
+}
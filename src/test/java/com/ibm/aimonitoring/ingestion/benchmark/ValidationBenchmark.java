@@ -0,0 +1,72 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiled checks against Bean Validation for a valid entry and for an entry
+ * with several violations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"COMPILED", "BEAN_VALIDATION"})
+    public IngestionProperties.ValidationMode mode;
+
+    private ValidatorFactory validatorFactory;
+    private LogEntryValidator validator;
+    private LogEntryDTO validEntry;
+    private LogEntryDTO invalidEntry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        IngestionProperties properties = new IngestionProperties();
+        properties.getValidation().setMode(mode);
+        validator = new LogEntryValidator(validatorFactory.getValidator(), properties);
+        validEntry = BenchmarkData.clientEntry(1000, 8);
+        invalidEntry = BenchmarkData.clientEntry(1000, 8);
+        invalidEntry.setLevel("FATAL");
+        invalidEntry.setService("s".repeat(101));
+        invalidEntry.setMessage(" ");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Map<String, String> valid() {
+        return validator.validate(validEntry);
+    }
+
+    @Benchmark
+    public Map<String, String> invalid() {
+        return validator.validate(invalidEntry);
+    }
+}
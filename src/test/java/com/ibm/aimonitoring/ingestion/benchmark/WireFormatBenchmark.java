@@ -0,0 +1,68 @@
+package com.ibm.aimonitoring.ingestion.benchmark;
+
+import com.ibm.aimonitoring.ingestion.codec.JacksonBinaryMessageConverter;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost and encoded size of a log entry per wire format.
+ * Sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public String format;
+
+    @Param({"0", "16"})
+    public int metadataKeys;
+
+    private MessageConverter converter;
+    private LogEntryDTO logEntry;
+    private Message encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = switch (format) {
+            case "SMILE" -> JacksonBinaryMessageConverter.smile();
+            case "CBOR" -> JacksonBinaryMessageConverter.cbor();
+            default -> new Jackson2JsonMessageConverter();
+        };
+        logEntry = BenchmarkData.logEntry(200, metadataKeys);
+        encoded = converter.toMessage(logEntry, new MessageProperties());
+        System.out.printf("%n[size] format=%s metadataKeys=%d bytes=%d%n",
+                format, metadataKeys, encoded.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(logEntry, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(encoded);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompressingPostProcessor
+ */
+class CompressingPostProcessorTest {
+
+    private static final byte[] LARGE_BODY =
+            ("{\"level\":\"ERROR\",\"message\":\"" + "connection reset ".repeat(200) + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldSkipBodiesBelowThreshold() {
+        // Arrange
+        CompressingPostProcessor postProcessor = new CompressingPostProcessor(
+                CompressionCodec.GZIP, 6, 1024, meterRegistry);
+        Message message = message("{\"level\":\"INFO\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        Message result = postProcessor.postProcessMessage(message);
+
+        // Assert
+        assertThat(result).isSameAs(message);
+        assertThat(result.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(meterRegistry.get("ingestion.publish.compression.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCompressGzipReadableBySpringDecompressor() {
+        // Arrange
+        CompressingPostProcessor postProcessor = new CompressingPostProcessor(
+                CompressionCodec.GZIP, 6, 1024, meterRegistry);
+
+        // Act
+        Message compressed = postProcessor.postProcessMessage(message(LARGE_BODY));
+        String contentEncoding = compressed.getMessageProperties().getContentEncoding();
+        int compressedLength = compressed.getBody().length;
+        Message restored = new DelegatingDecompressingPostProcessor().postProcessMessage(compressed);
+
+        // Assert
+        assertThat(contentEncoding).isEqualTo("gzip:UTF-8");
+        assertThat(compressedLength).isLessThan(LARGE_BODY.length);
+        assertThat(restored.getBody()).isEqualTo(LARGE_BODY);
+        assertThat(restored.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+    }
+
+    @Test
+    void shouldCompressZstdAndRecordMetrics() throws IOException {
+        // Arrange
+        CompressingPostProcessor postProcessor = new CompressingPostProcessor(
+                CompressionCodec.ZSTD, 3, 1024, meterRegistry);
+
+        // Act
+        Message compressed = postProcessor.postProcessMessage(message(LARGE_BODY));
+
+        // Assert
+        assertThat(compressed.getMessageProperties().getContentEncoding()).isEqualTo("zstd:UTF-8");
+        try (InputStream in = CompressionCodec.ZSTD.decompress(new ByteArrayInputStream(compressed.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(LARGE_BODY);
+        }
+        DelegatingDecompressingPostProcessor decompressor = new DelegatingDecompressingPostProcessor();
+        decompressor.addDecompressor("zstd", new ZstdDecompressingPostProcessor());
+        Message restored = decompressor.postProcessMessage(compressed);
+        assertThat(restored.getBody()).isEqualTo(LARGE_BODY);
+        assertThat(restored.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(meterRegistry.get("ingestion.publish.compression.ratio").summary().mean()).isGreaterThan(1.0);
+        assertThat(meterRegistry.get("ingestion.publish.compression.time").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.publish.compression.bytes.in").counter().count())
+                .isEqualTo(LARGE_BODY.length);
+    }
+
+    private static Message message(byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding("UTF-8");
+        return new Message(body, properties);
+    }
+}
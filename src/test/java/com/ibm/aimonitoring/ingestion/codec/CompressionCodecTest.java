@@ -0,0 +1,50 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompressionCodec
+ */
+class CompressionCodecTest {
+
+    @ParameterizedTest
+    @EnumSource(CompressionCodec.class)
+    void shouldRoundTrip(CompressionCodec codec) throws IOException {
+        // Arrange
+        byte[] original = "log line ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        // Act
+        try (OutputStream out = codec.compress(buffer, codec.getDefaultLevel())) {
+            out.write(original);
+        }
+        byte[] restored;
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(buffer.toByteArray()))) {
+            restored = in.readAllBytes();
+        }
+
+        // Assert
+        assertThat(buffer.size()).isLessThan(original.length);
+        assertThat(restored).isEqualTo(original);
+    }
+
+    @Test
+    void shouldResolveContentEncodingTokens() {
+        // Assert
+        assertThat(CompressionCodec.forEncoding("gzip")).isEqualTo(CompressionCodec.GZIP);
+        assertThat(CompressionCodec.forEncoding("Deflate")).isEqualTo(CompressionCodec.DEFLATE);
+        assertThat(CompressionCodec.forEncoding("zstd")).isEqualTo(CompressionCodec.ZSTD);
+        assertThat(CompressionCodec.forEncoding("br")).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ibm.aimonitoring.ingestion.codec;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for JacksonBinaryMessageConverter
+ */
+class JacksonBinaryMessageConverterTest {
+
+    private final LogEntryDTO logEntry = LogEntryDTO.builder()
+            .timestamp(Instant.parse("2024-01-15T10:30:00.123Z"))
+            .level("ERROR")
+            .message("Database connection failed")
+            .service("user-service")
+            .host("server-01")
+            .environment("production")
+            .metadata(Map.of("logId", "0b8f5a3e-7d2c-4a55-9b3e-1f2d3c4b5a69", "retries", 3))
+            .traceId("trace-123")
+            .spanId("span-456")
+            .build();
+
+    @Test
+    void shouldRoundTripSmile() {
+        // Arrange
+        JacksonBinaryMessageConverter converter = JacksonBinaryMessageConverter.smile();
+
+        // Act
+        Message message = converter.toMessage(logEntry, new MessageProperties());
+        Object decoded = converter.fromMessage(message);
+
+        // Assert
+        assertThat(message.getMessageProperties().getContentType())
+                .isEqualTo(JacksonBinaryMessageConverter.SMILE_CONTENT_TYPE);
+        assertThat(message.getMessageProperties().getHeaders()).containsKey("__TypeId__");
+        assertThat(decoded).isEqualTo(logEntry);
+    }
+
+    @Test
+    void shouldRoundTripCbor() {
+        // Arrange
+        JacksonBinaryMessageConverter converter = JacksonBinaryMessageConverter.cbor();
+
+        // Act
+        Message message = converter.toMessage(logEntry, new MessageProperties());
+        Object decoded = converter.fromMessage(message);
+
+        // Assert
+        assertThat(message.getMessageProperties().getContentType())
+                .isEqualTo(JacksonBinaryMessageConverter.CBOR_CONTENT_TYPE);
+        assertThat(decoded).isEqualTo(logEntry);
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() {
+        // Arrange
+        Message json = new Jackson2JsonMessageConverter().toMessage(logEntry, new MessageProperties());
+
+        // Act
+        Message smile = JacksonBinaryMessageConverter.smile().toMessage(logEntry, new MessageProperties());
+        Message cbor = JacksonBinaryMessageConverter.cbor().toMessage(logEntry, new MessageProperties());
+
+        // Assert
+        assertThat(smile.getBody().length).isLessThan(json.getBody().length);
+        assertThat(cbor.getBody().length).isLessThan(json.getBody().length);
+    }
+
+    @Test
+    void shouldRejectUndecodableBody() {
+        // Arrange
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(JacksonBinaryMessageConverter.CBOR_CONTENT_TYPE);
+        Message message = new Message(new byte[]{(byte) 0xff, 0x01}, properties);
+
+        // Act & Assert
+        assertThatThrownBy(() -> JacksonBinaryMessageConverter.cbor().fromMessage(message))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void shouldRejectTypeIdOutsideTrustedPackages() {
+        // Arrange
+        JacksonBinaryMessageConverter converter = JacksonBinaryMessageConverter.smile();
+        Message message = converter.toMessage(logEntry, new MessageProperties());
+        message.getMessageProperties().setHeader("__TypeId__", "org.springframework.context.support.FileSystemXmlApplicationContext");
+
+        // Act & Assert
+        assertThatThrownBy(() -> converter.fromMessage(message))
+                .hasMessageContaining("not in the trusted packages");
+    }
+}
@@ -0,0 +1,98 @@
+package com.ibm.aimonitoring.ingestion.config;
+
+import com.ibm.aimonitoring.ingestion.publish.BufferedLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.EnvelopeLogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.publish.RabbitLogPublisher;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PublisherConfig
+ */
+@ExtendWith(MockitoExtension.class)
+class PublisherConfigTest {
+
+    @Mock
+    private RabbitLogPublisher rabbitLogPublisher;
+
+    @Mock
+    private ObjectProvider<SpillLog> spillLogProvider;
+
+    @Mock
+    private ObjectProvider<EnvelopeLogPublisher> envelopeLogPublisherProvider;
+
+    @Mock
+    private ObjectProvider<DrainTemplateMiner> templateMinerProvider;
+
+    private IngestionProperties ingestionProperties;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        ingestionProperties.getPublisher().getEnvelope().setEnabled(true);
+        ingestionProperties.getPublisher().getConfirms().setEnabled(true);
+    }
+
+    @Test
+    void shouldRefuseEnvelopeWithAwaitedConfirms() {
+        // Arrange
+        ingestionProperties.getPublisher().getConfirms().setPolicy(IngestionProperties.ConfirmPolicy.AWAIT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new PublisherConfig().envelopeLogPublisher(
+                rabbitLogPublisher, ingestionProperties, spillLogProvider, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("FIRE_AND_FORGET");
+    }
+
+    @Test
+    void shouldBuildEnvelopeWithFireAndForgetConfirms() {
+        // Arrange
+        ingestionProperties.getPublisher().getConfirms().setPolicy(IngestionProperties.ConfirmPolicy.FIRE_AND_FORGET);
+
+        // Act
+        EnvelopeLogPublisher publisher = new PublisherConfig().envelopeLogPublisher(
+                rabbitLogPublisher, ingestionProperties, spillLogProvider, new SimpleMeterRegistry());
+
+        // Assert
+        assertThat(publisher.isRunning()).isFalse();
+    }
+
+    @Test
+    void shouldRefuseBufferWithAwaitedConfirms() {
+        // Arrange
+        ingestionProperties.getPublisher().getBuffer().setEnabled(true);
+        ingestionProperties.getPublisher().getConfirms().setPolicy(IngestionProperties.ConfirmPolicy.AWAIT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new PublisherConfig().logPublisher(rabbitLogPublisher, ingestionProperties,
+                spillLogProvider, envelopeLogPublisherProvider, templateMinerProvider, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("FIRE_AND_FORGET");
+    }
+
+    @Test
+    void shouldBuildBufferWithFireAndForgetConfirms() {
+        // Arrange
+        ingestionProperties.getPublisher().getBuffer().setEnabled(true);
+        ingestionProperties.getPublisher().getConfirms().setPolicy(IngestionProperties.ConfirmPolicy.FIRE_AND_FORGET);
+
+        // Act
+        LogPublisher publisher = new PublisherConfig().logPublisher(rabbitLogPublisher, ingestionProperties,
+                spillLogProvider, envelopeLogPublisherProvider, templateMinerProvider, new SimpleMeterRegistry());
+
+        // Assert
+        assertThat(publisher).isInstanceOf(BufferedLogPublisher.class);
+    }
+}
@@ -1,19 +1,29 @@
 package com.ibm.aimonitoring.ingestion.config;
 
+import com.ibm.aimonitoring.ingestion.codec.CompressingPostProcessor;
+import com.ibm.aimonitoring.ingestion.codec.JacksonBinaryMessageConverter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Unit tests for RabbitMQConfig
@@ -27,6 +37,9 @@ class RabbitMQConfigTest {
     @Mock
     private ConnectionFactory connectionFactory;
 
+    @Mock
+    private ObjectProvider<CompressingPostProcessor> compressingPostProcessor;
+
     @Test
     void shouldCreateLogsExchange() {
         // Act
@@ -81,6 +94,52 @@ class RabbitMQConfigTest {
         assertThat(binding.getRoutingKey()).isEqualTo(RabbitMQConfig.LOGS_RAW_ROUTING_KEY);
     }
 
+    @Test
+    void shouldDeclareLevelAndServiceRoutes() {
+        // Arrange
+        IngestionProperties properties = new IngestionProperties();
+        properties.getRouting().setEnabled(true);
+        properties.getRouting().setServiceQueues(List.of("payment-service"));
+        Queue rawQueue = rabbitMQConfig.logsRawQueue();
+
+        // Act
+        Declarables declarables = rabbitMQConfig.logsRoutingDeclarables(
+                rawQueue, rabbitMQConfig.logsExchange(), properties);
+
+        // Assert
+        assertThat(declarables.getDeclarablesByType(Queue.class)).extracting(Queue::getName)
+                .containsExactly("logs.raw.error", "logs.raw.service.payment-service");
+        assertThat(declarables.getDeclarablesByType(Binding.class))
+                .extracting(Binding::getDestination, Binding::getRoutingKey)
+                .containsExactlyInAnyOrder(
+                        tuple("logs.raw.error", "logs.raw.error.#"),
+                        tuple(RabbitMQConfig.LOGS_RAW_QUEUE, "logs.raw.warn.#"),
+                        tuple(RabbitMQConfig.LOGS_RAW_QUEUE, "logs.raw.info.#"),
+                        tuple(RabbitMQConfig.LOGS_RAW_QUEUE, "logs.raw.debug.#"),
+                        tuple(RabbitMQConfig.LOGS_RAW_QUEUE, "logs.raw.trace.#"),
+                        tuple(RabbitMQConfig.LOGS_RAW_QUEUE, "logs.raw.unknown.#"),
+                        tuple("logs.raw.service.payment-service", "logs.raw.*.payment-service"));
+    }
+
+    @Test
+    void shouldDeclarePartitionQueues() {
+        // Arrange
+        IngestionProperties properties = new IngestionProperties();
+        properties.getPartitions().setEnabled(true);
+        properties.getPartitions().setCount(3);
+
+        // Act
+        Declarables declarables = rabbitMQConfig.logsPartitionDeclarables(rabbitMQConfig.logsExchange(), properties);
+
+        // Assert
+        assertThat(declarables.getDeclarablesByType(Queue.class)).extracting(Queue::getName)
+                .containsExactly("logs.raw.0", "logs.raw.1", "logs.raw.2");
+        assertThat(declarables.getDeclarablesByType(Binding.class))
+                .extracting(Binding::getDestination, Binding::getRoutingKey)
+                .containsExactly(tuple("logs.raw.0", "logs.raw.0"), tuple("logs.raw.1", "logs.raw.1"),
+                        tuple("logs.raw.2", "logs.raw.2"));
+    }
+
     @Test
     void shouldCreateJsonMessageConverter() {
         // Act
@@ -94,7 +153,8 @@ class RabbitMQConfigTest {
     @Test
     void shouldCreateRabbitTemplateWithJsonConverter() {
         // Act
-        RabbitTemplate template = rabbitMQConfig.rabbitTemplate(connectionFactory);
+        RabbitTemplate template = rabbitMQConfig.rabbitTemplate(connectionFactory,
+                rabbitMQConfig.jsonMessageConverter(), compressingPostProcessor);
 
         // Assert
         assertThat(template).isNotNull();
@@ -102,6 +162,35 @@ class RabbitMQConfigTest {
         assertThat(template.getMessageConverter().getClass().getSimpleName()).contains("Jackson2Json");
     }
 
+    @Test
+    void shouldEncodeLogMessagesInConfiguredWireFormat() {
+        // Arrange
+        IngestionProperties properties = new IngestionProperties();
+        properties.getPublisher().setWireFormat(IngestionProperties.WireFormat.SMILE);
+        MessageConverter converter = rabbitMQConfig.logMessageConverter(properties);
+
+        // Act
+        Message message = converter.toMessage(Map.of("level", "INFO"), new MessageProperties());
+
+        // Assert
+        assertThat(message.getMessageProperties().getContentType())
+                .isEqualTo(JacksonBinaryMessageConverter.SMILE_CONTENT_TYPE);
+        assertThat(converter.fromMessage(message)).isEqualTo(Map.of("level", "INFO"));
+    }
+
+    @Test
+    void shouldDecodeLogMessagesByContentType() {
+        // Arrange
+        MessageConverter converter = rabbitMQConfig.logMessageConverter(new IngestionProperties());
+        Message cbor = JacksonBinaryMessageConverter.cbor().toMessage(Map.of("level", "WARN"), new MessageProperties());
+
+        // Act
+        Object decoded = converter.fromMessage(cbor);
+
+        // Assert
+        assertThat(decoded).isEqualTo(Map.of("level", "WARN"));
+    }
+
     @Test
     void shouldCreateRabbitAdmin() {
         // Act
@@ -5,7 +5,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
 
@@ -18,6 +23,9 @@ class RabbitMQInitializerTest {
     @Mock
     private RabbitAdmin rabbitAdmin;
 
+    @Mock
+    private ObjectProvider<Declarables> extraDeclarables;
+
     @InjectMocks
     private RabbitMQInitializer rabbitMQInitializer;
 
@@ -33,6 +41,20 @@ class RabbitMQInitializerTest {
         verify(rabbitAdmin, times(1)).initialize();
     }
 
+    @Test
+    void shouldInitializeWithRoutedQueues() {
+        // Arrange
+        when(extraDeclarables.orderedStream())
+                .thenReturn(Stream.of(new Declarables(new Queue(RabbitMQConfig.LOGS_RAW_QUEUE + ".error"))));
+
+        // Act
+        rabbitMQInitializer.initializeRabbitMQ();
+
+        // Assert
+        verify(rabbitAdmin, times(1)).initialize();
+        verify(extraDeclarables).orderedStream();
+    }
+
     @Test
     void shouldHandleInitializationFailure() {
         // Arrange
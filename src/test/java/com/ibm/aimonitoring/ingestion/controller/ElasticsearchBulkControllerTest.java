@@ -0,0 +1,150 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.ibm.aimonitoring.ingestion.codec.CompressionCodec;
+import com.ibm.aimonitoring.ingestion.config.WebConfig;
+import com.ibm.aimonitoring.ingestion.elasticsearch.BulkDocumentMapper;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.ElasticsearchBulkService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ElasticsearchBulkController
+ */
+@WebMvcTest(value = ElasticsearchBulkController.class,
+        properties = "ingestion.elasticsearch.enabled=true")
+@Import({ElasticsearchBulkService.class, BatchIngestionService.class, BulkDocumentMapper.class, LogEntryValidator.class, LogRateLimiter.class,
+        WebConfig.class, SimpleMeterRegistry.class})
+class ElasticsearchBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LogIngestionService logIngestionService;
+
+    @Test
+    void infoShouldReportCompatibilityVersionAndProduct() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/es"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Elastic-Product", "Elasticsearch"))
+                .andExpect(jsonPath("$.version.number").value("8.11.0"));
+    }
+
+    @Test
+    void bulkShouldReturnPerItemStatus() throws Exception {
+        // Arrange
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("log-1"));
+        String body = """
+                {"index":{}}
+                {"@timestamp":"2024-03-10T08:00:00Z","message":"Order placed","service":{"name":"checkout"}}
+                {"create":{"_index":"other"}}
+                {"service":"checkout"}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/es/logs-app/_bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Elastic-Product", "Elasticsearch"))
+                .andExpect(jsonPath("$.errors").value(true))
+                .andExpect(jsonPath("$.items[0].index._index").value("logs-app"))
+                .andExpect(jsonPath("$.items[0].index._id").value("log-1"))
+                .andExpect(jsonPath("$.items[0].index.status").value(201))
+                .andExpect(jsonPath("$.items[0].index.result").value("created"))
+                .andExpect(jsonPath("$.items[1].create._index").value("other"))
+                .andExpect(jsonPath("$.items[1].create.status").value(400))
+                .andExpect(jsonPath("$.items[1].create.error.type").value("document_parsing_exception"));
+    }
+
+    @Test
+    void bulkShouldAcceptPutWithoutIndex() throws Exception {
+        // Arrange
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("log-1"));
+
+        // Act & Assert
+        mockMvc.perform(put("/es/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"index\":{}}\n{\"message\":\"hi\",\"service\":\"s\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").value(false))
+                .andExpect(jsonPath("$.items[0].index._index").doesNotExist());
+    }
+
+    @Test
+    void bulkShouldAcceptGzipBody() throws Exception {
+        // Arrange: Beats and Logstash gzip their bulk bodies by default
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("log-1", "log-2"));
+        String body = """
+                {"create":{}}
+                {"message":"first","service":"checkout"}
+                {"create":{}}
+                {"message":"second","service":"checkout"}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/es/filebeat-8.11.0/_bulk")
+                        .contentType("application/x-ndjson")
+                        .header("Content-Encoding", "gzip")
+                        .content(gzip(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").value(false))
+                .andExpect(jsonPath("$.items[1].create._id").value("log-2"));
+    }
+
+    @Test
+    void bulkShouldRejectCorruptGzipBody() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/es/_bulk")
+                        .contentType("application/x-ndjson")
+                        .header("Content-Encoding", "gzip")
+                        .content("{\"index\":{}}\n{\"message\":\"hi\"}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("not valid gzip")));
+        verify(logIngestionService, never()).ingestBatch(anyList());
+    }
+
+    @Test
+    void bulkShouldRejectMalformedActionLine() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/es/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("not an action\n{}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed Bulk Request"));
+        verify(logIngestionService, never()).ingestBatch(anyList());
+    }
+
+    private static byte[] gzip(String body) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = CompressionCodec.GZIP.compress(bytes, CompressionCodec.GZIP.getDefaultLevel())) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
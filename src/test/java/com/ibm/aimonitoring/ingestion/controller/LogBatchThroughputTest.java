@@ -0,0 +1,113 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.service.NdjsonIngestionService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares entries/sec of the single-entry endpoint against the batch endpoint.
+ * The service is mocked, so the numbers isolate per-request HTTP, binding and
+ * validation overhead, which is what batching is meant to amortize. Timing
+ * based, so it only runs with {@code -Pthroughput}.
+ */
+@Slf4j
+@Tag("throughput")
+@WebMvcTest(LogController.class)
+@Import({LogEntryValidator.class, LogRateLimiter.class, BatchIngestionService.class, NdjsonIngestionService.class})
+class LogBatchThroughputTest {
+
+    private static final int TOTAL_ENTRIES = 1000;
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private LogIngestionService logIngestionService;
+
+    @Test
+    void batchEndpointShouldOutperformSingleEntryEndpoint() throws Exception {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder()
+                .level("INFO")
+                .message("Throughput comparison message")
+                .service("bench-service")
+                .host("bench-host")
+                .build();
+        String singleBody = objectMapper.writeValueAsString(logEntry);
+        String batchBody = objectMapper.writeValueAsString(Collections.nCopies(BATCH_SIZE, logEntry));
+
+        when(logIngestionService.ingestLog(any(LogEntryDTO.class)))
+                .thenReturn(LogResponseDTO.builder().id("id").status("accepted").build());
+        when(logIngestionService.ingestBatch(anyList()))
+                .thenAnswer(invocation -> new ArrayList<>(Collections.nCopies(
+                        invocation.<List<?>>getArgument(0).size(), "id")));
+
+        // Warm up both paths so JIT compilation does not skew the comparison
+        runSingle(singleBody, TOTAL_ENTRIES / 4);
+        runBatch(batchBody, TOTAL_ENTRIES / 4);
+
+        // Act
+        long singleNanos = runSingle(singleBody, TOTAL_ENTRIES);
+        long batchNanos = runBatch(batchBody, TOTAL_ENTRIES);
+
+        double singleRate = TOTAL_ENTRIES / (singleNanos / 1e9);
+        double batchRate = TOTAL_ENTRIES / (batchNanos / 1e9);
+        log.info("single-entry: {} entries/s, batch({}): {} entries/s, speedup {}x",
+                Math.round(singleRate), BATCH_SIZE, Math.round(batchRate),
+                String.format("%.1f", batchRate / singleRate));
+
+        // Assert
+        assertThat(batchRate).isGreaterThan(singleRate);
+    }
+
+    private long runSingle(String body, int entries) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            mockMvc.perform(post("/api/v1/logs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isAccepted());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runBatch(String body, int entries) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < entries / BATCH_SIZE; i++) {
+            mockMvc.perform(post("/api/v1/logs/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isAccepted());
+        }
+        return System.nanoTime() - start;
+    }
+}
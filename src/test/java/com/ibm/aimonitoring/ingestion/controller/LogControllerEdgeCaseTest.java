@@ -3,11 +3,16 @@ package com.ibm.aimonitoring.ingestion.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
 import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.service.NdjsonIngestionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -22,6 +27,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Edge case tests for LogController
  */
 @WebMvcTest(LogController.class)
+@Import({LogEntryValidator.class, LogRateLimiter.class, BatchIngestionService.class, NdjsonIngestionService.class})
 class LogControllerEdgeCaseTest {
 
     @Autowired
@@ -3,18 +3,27 @@ package com.ibm.aimonitoring.ingestion.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
 import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.service.NdjsonIngestionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -24,6 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Unit tests for LogController
  */
 @WebMvcTest(LogController.class)
+@Import({LogEntryValidator.class, LogRateLimiter.class, BatchIngestionService.class, NdjsonIngestionService.class})
 class LogControllerTest {
 
     @Autowired
@@ -184,6 +194,109 @@ class LogControllerTest {
                 .andExpect(jsonPath("$.status").value("accepted"));
     }
 
+    @Test
+    void shouldIngestBatchWithPerEntryResults() throws Exception {
+        // Arrange
+        List<LogEntryDTO> batch = List.of(
+                LogEntryDTO.builder().level("INFO").message("first").service("test-service").build(),
+                LogEntryDTO.builder().level("INVALID").message("second").service("test-service").build(),
+                LogEntryDTO.builder().level("ERROR").message("third").service("test-service").build()
+        );
+
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("id-0", "id-2"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("accepted"))
+                .andExpect(jsonPath("$.results[0].id").value("id-0"))
+                .andExpect(jsonPath("$.results[1].status").value("rejected"))
+                .andExpect(jsonPath("$.results[1].errors.level").exists())
+                .andExpect(jsonPath("$.results[1].id").doesNotExist())
+                .andExpect(jsonPath("$.results[2].index").value(2))
+                .andExpect(jsonPath("$.results[2].id").value("id-2"));
+    }
+
+    @Test
+    void shouldPublishOnlyValidEntriesOfBatch() throws Exception {
+        // Arrange
+        LogEntryDTO valid = LogEntryDTO.builder().level("WARN").message("ok").service("test-service").build();
+        LogEntryDTO invalid = LogEntryDTO.builder().level("WARN").service("test-service").build();
+
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("id-1"));
+
+        // Act
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(invalid, valid))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.results[0].errors.message").exists())
+                .andExpect(jsonPath("$.results[1].id").value("id-1"));
+
+        // Assert
+        verify(logIngestionService).ingestBatch(List.of(valid));
+    }
+
+    @Test
+    void shouldRejectBatchExceedingMaxSize() throws Exception {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder().level("INFO").message("m").service("s").build();
+        List<LogEntryDTO> batch = java.util.Collections.nCopies(1001, logEntry);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.error").value("Batch Too Large"));
+    }
+
+    @Test
+    void shouldIngestNdjsonStream() throws Exception {
+        // Arrange
+        String body = objectMapper.writeValueAsString(
+                LogEntryDTO.builder().level("INFO").message("line one").service("test-service").build())
+                + "\n{ broken\n"
+                + objectMapper.writeValueAsString(
+                LogEntryDTO.builder().level("DEBUG").message("line three").service("test-service").build())
+                + "\n";
+
+        when(logIngestionService.ingestBatch(anyList())).thenReturn(List.of("id-0", "id-2"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/logs/stream")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    void shouldReturnPartialSummaryWhenStreamPublishingIsOverloaded() throws Exception {
+        // Arrange
+        String line = objectMapper.writeValueAsString(
+                LogEntryDTO.builder().level("INFO").message("line").service("test-service").build());
+        when(logIngestionService.ingestBatch(anyList()))
+                .thenThrow(new LogPublisher.PublisherOverloadedException("Publish buffer is full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/logs/stream")
+                        .contentType("application/x-ndjson")
+                        .content("{ broken\n" + line + "\n" + line + "\n"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.accepted").value(0))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.failedAtLine").value(1))
+                .andExpect(jsonPath("$.failure").value("Publish buffer is full"));
+    }
+
     @Test
     void shouldReturnHealthStatus() throws Exception {
         // Act & Assert
@@ -0,0 +1,259 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.google.protobuf.Timestamp;
+import com.ibm.aimonitoring.ingestion.codec.CompressionCodec;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.config.WebConfig;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.loki.LokiLabels;
+import com.ibm.aimonitoring.ingestion.loki.LokiPushCodec;
+import com.ibm.aimonitoring.ingestion.loki.logproto.EntryAdapter;
+import com.ibm.aimonitoring.ingestion.loki.logproto.LabelPairAdapter;
+import com.ibm.aimonitoring.ingestion.loki.logproto.PushRequest;
+import com.ibm.aimonitoring.ingestion.loki.logproto.StreamAdapter;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for LokiPushController
+ */
+@WebMvcTest(value = LokiPushController.class, properties = "ingestion.loki.enabled=true")
+@Import({LokiPushCodec.class, LokiLabels.class, BatchIngestionService.class,
+        LogEntryValidator.class, LogRateLimiter.class, WebConfig.class, SimpleMeterRegistry.class})
+class LokiPushControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @MockBean
+    private LogIngestionService logIngestionService;
+
+    @SpyBean
+    private LogRateLimiter logRateLimiter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldIngestEachProtobufStreamAsOneBatch() throws Exception {
+        // Arrange
+        PushRequest request = PushRequest.newBuilder()
+                .addStreams(StreamAdapter.newBuilder()
+                        .setLabels("{app=\"checkout\", host=\"node-1\", level=\"error\", pod=\"checkout-0\"}")
+                        .addEntries(EntryAdapter.newBuilder()
+                                .setTimestamp(Timestamp.newBuilder().setSeconds(1_710_057_600L).setNanos(42))
+                                .setLine("Payment declined")
+                                .addStructuredMetadata(LabelPairAdapter.newBuilder()
+                                        .setName("trace_id").setValue("abc123")))
+                        .addEntries(EntryAdapter.newBuilder().setLine("Retrying payment")))
+                .addStreams(StreamAdapter.newBuilder()
+                        .setLabels("{job=\"search\"}")
+                        .addEntries(EntryAdapter.newBuilder().setLine("Query served")))
+                .build();
+
+        // Act
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(LokiPushCodec.PROTOBUF_CONTENT_TYPE)
+                        .content(Snappy.compress(request.toByteArray())))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        ArgumentCaptor<List<LogEntryDTO>> published = ArgumentCaptor.forClass(List.class);
+        verify(logIngestionService, times(2)).ingestBatch(published.capture());
+        List<LogEntryDTO> checkout = published.getAllValues().get(0);
+        assertThat(checkout).hasSize(2);
+        assertThat(checkout.get(0)).satisfies(entry -> {
+            assertThat(entry.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_710_057_600L, 42));
+            assertThat(entry.getService()).isEqualTo("checkout");
+            assertThat(entry.getHost()).isEqualTo("node-1");
+            assertThat(entry.getLevel()).isEqualTo("ERROR");
+            assertThat(entry.getMessage()).isEqualTo("Payment declined");
+            assertThat(entry.getMetadata())
+                    .containsOnly(Map.entry("pod", "checkout-0"), Map.entry("trace_id", "abc123"));
+        });
+        assertThat(checkout.get(1).getTimestamp()).isNull();
+        assertThat(published.getAllValues().get(1)).singleElement()
+                .satisfies(entry -> assertThat(entry.getService()).isEqualTo("search"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldIngestJsonPush() throws Exception {
+        // Arrange
+        String request = """
+                {"streams":[{"stream":{"service_name":"billing","env":"staging"},
+                  "values":[["1710057600000000001","Invoice sent",{"customer":"c-42"}],
+                            ["1710057601000000000","Invoice paid"]]}]}
+                """;
+
+        // Act
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        ArgumentCaptor<List<LogEntryDTO>> published = ArgumentCaptor.forClass(List.class);
+        verify(logIngestionService).ingestBatch(published.capture());
+        assertThat(published.getValue()).hasSize(2);
+        assertThat(published.getValue().get(0)).satisfies(entry -> {
+            assertThat(entry.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_710_057_600L, 1));
+            assertThat(entry.getService()).isEqualTo("billing");
+            assertThat(entry.getEnvironment()).isEqualTo("staging");
+            assertThat(entry.getLevel()).isEqualTo("INFO");
+            assertThat(entry.getMetadata()).containsOnly(Map.entry("customer", "c-42"));
+        });
+    }
+
+    @Test
+    void shouldReportRejectedEntriesAsBadRequest() throws Exception {
+        // Arrange
+        String request = """
+                {"streams":[{"stream":{"app":"a"},"values":[["1","kept"]]},
+                            {"stream":{"app":"b"},"values":[["1","kept"],["1",""]]}]}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(org.hamcrest.Matchers.startsWith(
+                        "1 of 3 entries rejected; Log record 2 rejected")));
+        verify(logIngestionService, times(2)).ingestBatch(anyList());
+    }
+
+    @Test
+    void shouldAnswerRateLimitedEntriesWithTooManyRequests() throws Exception {
+        // Arrange
+        doReturn(true, false).when(logRateLimiter).tryAcquire(any());
+        String request = """
+                {"streams":[{"stream":{"app":"a"},"values":[["1","kept"],["2","throttled"],["3",""]]}]}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(content().string("1 of 3 entries rate limited"));
+    }
+
+    @Test
+    void shouldRejectPushOverMaxEntries() throws Exception {
+        // Arrange
+        ingestionProperties.getLoki().setMaxEntries(1);
+        String request = """
+                {"streams":[{"stream":{"app":"a"},"values":[["1","one"],["2","two"]]}]}
+                """;
+
+        try {
+            // Act & Assert
+            mockMvc.perform(post("/loki/api/v1/push")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(request))
+                    .andExpect(status().isPayloadTooLarge());
+            verify(logIngestionService, never()).ingestBatch(anyList());
+        } finally {
+            ingestionProperties.getLoki().setMaxEntries(10_000);
+        }
+    }
+
+    @Test
+    void shouldRejectBodyThatIsNotSnappy() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(LokiPushCodec.PROTOBUF_CONTENT_TYPE)
+                        .content(PushRequest.newBuilder()
+                                .addStreams(StreamAdapter.newBuilder().setLabels("{app=\"x\"}"))
+                                .build().toByteArray()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed Loki Request"));
+        verify(logIngestionService, never()).ingestBatch(anyList());
+    }
+
+    @Test
+    void shouldRejectBodyExpandingPastLimit() throws Exception {
+        // Arrange: a snappy header announcing 1 GB
+        byte[] body = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04};
+
+        // Act & Assert
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(LokiPushCodec.PROTOBUF_CONTENT_TYPE)
+                        .content(body))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void shouldIngestGzipJsonPush() throws Exception {
+        // Arrange: Promtail and Grafana Agent gzip the JSON form
+        String request = """
+                {"streams":[{"stream":{"app":"checkout"},"values":[["1710057600000000000","Order placed"]]}]}
+                """;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = CompressionCodec.GZIP.compress(compressed, CompressionCodec.GZIP.getDefaultLevel())) {
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Act & Assert
+        mockMvc.perform(post("/loki/api/v1/push")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(compressed.toByteArray()))
+                .andExpect(status().isNoContent());
+        verify(logIngestionService).ingestBatch(anyList());
+    }
+
+    @Test
+    void shouldRejectBodyOverSizeLimitBeforeDecoding() throws Exception {
+        // Arrange
+        ingestionProperties.getDecompression().setMaxExpandedSize(DataSize.ofBytes(64));
+        String request = """
+                {"streams":[{"stream":{"app":"a"},"values":[["1","%s"]]}]}
+                """.formatted("x".repeat(100));
+
+        try {
+            // Act & Assert
+            mockMvc.perform(post("/loki/api/v1/push")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(request))
+                    .andExpect(status().isPayloadTooLarge());
+            verify(logIngestionService, never()).ingestBatch(anyList());
+        } finally {
+            ingestionProperties.getDecompression().setMaxExpandedSize(DataSize.ofMegabytes(64));
+        }
+    }
+}
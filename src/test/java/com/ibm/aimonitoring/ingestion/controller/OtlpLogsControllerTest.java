@@ -0,0 +1,111 @@
+package com.ibm.aimonitoring.ingestion.controller;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpJsonCodec;
+import com.ibm.aimonitoring.ingestion.otlp.OtlpProtobufCodec;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
+import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceResponse;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.logs.v1.ScopeLogs;
+import io.opentelemetry.proto.resource.v1.Resource;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for OtlpLogsController
+ */
+@WebMvcTest(value = OtlpLogsController.class, properties = "ingestion.otlp.enabled=true")
+@Import({OtlpProtobufCodec.class, OtlpJsonCodec.class, BatchIngestionService.class,
+        LogEntryValidator.class, LogRateLimiter.class})
+class OtlpLogsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LogIngestionService logIngestionService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldIngestProtobufExportAndReportRejectedRecords() throws Exception {
+        // Arrange
+        ExportLogsServiceRequest request = ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder()
+                        .setResource(Resource.newBuilder().addAttributes(KeyValue.newBuilder()
+                                .setKey("service.name").setValue(AnyValue.newBuilder().setStringValue("checkout"))))
+                        .addScopeLogs(ScopeLogs.newBuilder()
+                                .addLogRecords(LogRecord.newBuilder()
+                                        .setBody(AnyValue.newBuilder().setStringValue("Order placed")))
+                                .addLogRecords(LogRecord.newBuilder())))
+                .build();
+
+        // Act
+        byte[] body = mockMvc.perform(post("/v1/logs")
+                        .contentType(OtlpProtobufCodec.CONTENT_TYPE)
+                        .content(request.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(OtlpProtobufCodec.CONTENT_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        ArgumentCaptor<List<LogEntryDTO>> published = ArgumentCaptor.forClass(List.class);
+        verify(logIngestionService).ingestBatch(published.capture());
+        assertThat(published.getValue()).singleElement().satisfies(entry -> {
+            assertThat(entry.getService()).isEqualTo("checkout");
+            assertThat(entry.getMessage()).isEqualTo("Order placed");
+        });
+        ExportLogsServiceResponse response = ExportLogsServiceResponse.parseFrom(body);
+        assertThat(response.getPartialSuccess().getRejectedLogRecords()).isEqualTo(1);
+        assertThat(response.getPartialSuccess().getErrorMessage()).startsWith("Log record 1 rejected");
+    }
+
+    @Test
+    void shouldIngestJsonExport() throws Exception {
+        // Arrange
+        String request = """
+                {"resourceLogs":[{"resource":{"attributes":[{"key":"service.name","value":{"stringValue":"search"}}]},
+                  "scopeLogs":[{"logRecords":[{"severityNumber":9,"body":{"stringValue":"Query served"}}]}]}]}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{}", true));
+        verify(logIngestionService).ingestBatch(anyList());
+    }
+
+    @Test
+    void shouldRejectMalformedProtobuf() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/v1/logs")
+                        .contentType(OtlpProtobufCodec.CONTENT_TYPE)
+                        .content(new byte[]{0x0a, 0x7f, 0x01}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed OTLP Request"));
+        verify(logIngestionService, never()).ingestBatch(anyList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ibm.aimonitoring.ingestion.elasticsearch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BulkDocumentMapper
+ */
+class BulkDocumentMapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IngestionProperties ingestionProperties;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+    }
+
+    @Test
+    void shouldMapEcsDocumentAndKeepTheRestAsMetadata() throws Exception {
+        // Arrange
+        ObjectNode document = document("""
+                {"@timestamp":"2024-03-10T08:00:00.123Z","message":"Payment failed",
+                 "log":{"level":"error","file":{"path":"/var/log/app.log"}},
+                 "service":{"name":"payment-service","environment":"production"},
+                 "host":{"name":"node-1","os":{"family":"linux"}},
+                 "trace.id":"abc123","agent":{"type":"filebeat"}}
+                """);
+
+        // Act
+        LogEntryDTO logEntry = mapper().toLogEntry(document, "filebeat-8.11.0");
+
+        // Assert
+        assertThat(logEntry.getTimestamp()).isEqualTo(Instant.parse("2024-03-10T08:00:00.123Z"));
+        assertThat(logEntry.getLevel()).isEqualTo("ERROR");
+        assertThat(logEntry.getMessage()).isEqualTo("Payment failed");
+        assertThat(logEntry.getService()).isEqualTo("payment-service");
+        assertThat(logEntry.getEnvironment()).isEqualTo("production");
+        assertThat(logEntry.getHost()).isEqualTo("node-1");
+        assertThat(logEntry.getTraceId()).isEqualTo("abc123");
+        assertThat(logEntry.getMetadata()).containsOnlyKeys("log", "host", "agent", BulkDocumentMapper.INDEX_METADATA_KEY);
+        assertThat(logEntry.getMetadata().get("log")).isEqualTo(Map.of("file", Map.of("path", "/var/log/app.log")));
+        assertThat(logEntry.getMetadata().get("host")).isEqualTo(Map.of("os", Map.of("family", "linux")));
+    }
+
+    @Test
+    void shouldUseConfiguredFieldsAndDefaults() throws Exception {
+        // Arrange
+        ingestionProperties.getElasticsearch().setMessageFields(List.of("event.original"));
+        ingestionProperties.getElasticsearch().setServiceFields(List.of("fields.app"));
+        ObjectNode document = document("""
+                {"event":{"original":"raw line"},"message":"parsed","@timestamp":1710057600000}
+                """);
+
+        // Act
+        LogEntryDTO logEntry = mapper().toLogEntry(document, null);
+
+        // Assert
+        assertThat(logEntry.getMessage()).isEqualTo("raw line");
+        assertThat(logEntry.getService()).isEqualTo("elasticsearch");
+        assertThat(logEntry.getLevel()).isEqualTo("INFO");
+        assertThat(logEntry.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1_710_057_600_000L));
+        assertThat(logEntry.getMetadata()).containsOnly(Map.entry("message", "parsed"));
+    }
+
+    @Test
+    void shouldReadOffsetAndEpochMillisTimestamps() throws Exception {
+        // Act
+        LogEntryDTO withOffset = mapper().toLogEntry(document("{\"@timestamp\":\"2024-03-10T09:00:00+01:00\"}"), null);
+        LogEntryDTO epochString = mapper().toLogEntry(document("{\"timestamp\":\"1710057600000\"}"), null);
+
+        // Assert
+        assertThat(withOffset.getTimestamp()).isEqualTo(Instant.parse("2024-03-10T08:00:00Z"));
+        assertThat(epochString.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1_710_057_600_000L));
+        assertThat(withOffset.getMetadata()).isNull();
+    }
+
+    @Test
+    void shouldRejectUnparseableTimestamp() throws Exception {
+        // Arrange
+        ObjectNode document = document("{\"@timestamp\":\"last tuesday\"}");
+        BulkDocumentMapper mapper = mapper();
+
+        // Act & Assert
+        assertThatThrownBy(() -> mapper.toLogEntry(document, null))
+                .isInstanceOf(BulkDocumentMapper.InvalidDocumentException.class)
+                .hasMessageContaining("last tuesday");
+    }
+
+    private BulkDocumentMapper mapper() {
+        return new BulkDocumentMapper(ingestionProperties, objectMapper);
+    }
+
+    private ObjectNode document(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+}
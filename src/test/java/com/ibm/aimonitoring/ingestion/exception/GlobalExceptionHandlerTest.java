@@ -1,12 +1,19 @@
 package com.ibm.aimonitoring.ingestion.exception;
 
+import com.ibm.aimonitoring.ingestion.controller.LogController;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import com.ibm.aimonitoring.ingestion.service.LogEntryValidator;
 import com.ibm.aimonitoring.ingestion.service.LogIngestionService;
+import com.ibm.aimonitoring.ingestion.web.RequestDecompressionFilter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -76,6 +83,118 @@ class GlobalExceptionHandlerTest {
             .containsKey("timestamp");
     }
 
+    @Test
+    void shouldHandleInvalidLogEntryExceptionLikeBeanValidation() {
+        // Arrange
+        LogEntryValidator.InvalidLogEntryException exception =
+                new LogEntryValidator.InvalidLogEntryException(Map.of("level", "Log level is required"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleInvalidLogEntryException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 400)
+            .containsEntry("error", "Validation Failed")
+            .containsEntry("errors", Map.of("level", "Log level is required"))
+            .containsKey("timestamp");
+    }
+
+    @Test
+    void shouldHandleRateLimitExceededExceptionWithRetryAfter() {
+        // Arrange
+        LogRateLimiter.RateLimitExceededException exception =
+                new LogRateLimiter.RateLimitExceededException("user-service", 2_500_000_000L);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleRateLimitExceededException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 429)
+            .containsEntry("message", "Rate limit exceeded for user-service");
+    }
+
+    @Test
+    void shouldHandleBatchSizeExceededException() {
+        // Arrange
+        LogController.BatchSizeExceededException exception = new LogController.BatchSizeExceededException(1500, 1000);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleBatchSizeExceededException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 413)
+            .containsEntry("error", "Batch Too Large")
+            .containsKey("timestamp");
+    }
+
+    @Test
+    void shouldHandleDecompressionLimitWrappedInUnreadableMessage() {
+        // Arrange
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+            "I/O error while reading input message",
+            new RequestDecompressionFilter.DecompressionLimitExceededException("Request body expands more than 100 times"),
+            mock(HttpInputMessage.class));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleHttpMessageNotReadableException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 413)
+            .containsEntry("error", "Payload Too Large")
+            .containsEntry("message", "Request body expands more than 100 times");
+    }
+
+    @Test
+    void shouldHandleDecompressionFailureWrappedInUnreadableMessage() {
+        // Arrange
+        HttpMessageNotReadableException exception = new HttpMessageNotReadableException(
+            "I/O error while reading input message",
+            new RequestDecompressionFilter.DecompressionFailedException(
+                "Request body is not valid gzip data: Not in GZIP format", null),
+            mock(HttpInputMessage.class));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleHttpMessageNotReadableException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 400)
+            .containsEntry("message", "Request body is not valid gzip data: Not in GZIP format");
+    }
+
+    @Test
+    void shouldHandlePublisherOverloadedExceptionWithRetryAfter() {
+        // Arrange
+        LogPublisher.PublisherOverloadedException exception =
+            new LogPublisher.PublisherOverloadedException("Publish buffer is full");
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handlePublisherOverloadedException(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(response.getBody())
+            .isNotNull()
+            .containsEntry("status", 429)
+            .containsEntry("message", "Publish buffer is full");
+    }
+
     @Test
     void shouldHandleGenericException() {
         // Arrange
@@ -0,0 +1,212 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ForwardDecoder, with events built by the reference MessagePack encoder
+ */
+class ForwardDecoderTest {
+
+    private static final long SECONDS = 1_710_057_600L;
+
+    private final ForwardDecoder decoder = new ForwardDecoder(1024 * 1024);
+
+    @Test
+    void shouldDecodeMessageModeWithWellKnownKeys() throws IOException {
+        // Arrange
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString("app.checkout");
+        packer.packLong(SECONDS);
+        packer.packMapHeader(6);
+        packer.packString("log").packString("payment declined\n");
+        packer.packString("level").packString("warning");
+        packer.packString("hostname").packString("web-1");
+        packer.packString("trace_id").packString("4bf92f3577b34da6a3ce929d0e0e4736");
+        packer.packString("status").packInt(402);
+        packer.packString("retry").packBoolean(false);
+        packer.close();
+
+        // Act
+        ForwardDecoder.Chunk chunk = decode(packer.toByteArray());
+
+        // Assert
+        assertThat(chunk.mode()).isEqualTo(ForwardDecoder.Mode.MESSAGE);
+        assertThat(chunk.chunkId()).isNull();
+        LogEntryDTO entry = chunk.entries().get(0);
+        assertThat(entry.getMessage()).isEqualTo("payment declined");
+        assertThat(entry.getLevel()).isEqualTo("WARN");
+        assertThat(entry.getService()).isEqualTo("app.checkout");
+        assertThat(entry.getHost()).isEqualTo("web-1");
+        assertThat(entry.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.ofEpochSecond(SECONDS));
+        assertThat(entry.getMetadata())
+                .containsEntry("status", 402L)
+                .containsEntry("retry", false)
+                .containsEntry(ForwardDecoder.TAG, "app.checkout");
+    }
+
+    @Test
+    void shouldDecodeForwardModeWithEventTimeAndChunkOption() throws IOException {
+        // Arrange
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString("kube.var.log");
+        packer.packArrayHeader(2);
+        packEntry(packer, "first", "error");
+        packer.packArrayHeader(2);
+        packEventTime(packer, SECONDS, 123_456_789);
+        packer.packMapHeader(2);
+        packer.packString("message").packString("second");
+        packer.packString("service").packString("orders");
+        packOptions(packer, "chunk-1", null);
+        packer.close();
+
+        // Act
+        ForwardDecoder.Chunk chunk = decode(packer.toByteArray());
+
+        // Assert
+        assertThat(chunk.mode()).isEqualTo(ForwardDecoder.Mode.FORWARD);
+        assertThat(chunk.chunkId()).isEqualTo("chunk-1");
+        assertThat(chunk.entries()).extracting(LogEntryDTO::getMessage).containsExactly("first", "second");
+        assertThat(chunk.entries()).extracting(LogEntryDTO::getLevel).containsExactly("ERROR", "INFO");
+        assertThat(chunk.entries()).extracting(LogEntryDTO::getService).containsExactly("kube.var.log", "orders");
+        assertThat(chunk.entries().get(1).getTimestamp()).isEqualTo(Instant.ofEpochSecond(SECONDS, 123_456_789));
+    }
+
+    @Test
+    void shouldDecodePackedForwardMode() throws IOException {
+        // Arrange
+        byte[] entries = packedEntries(3);
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString("app");
+        packer.packBinaryHeader(entries.length);
+        packer.writePayload(entries);
+        packOptions(packer, "chunk-2", null);
+        packer.close();
+
+        // Act
+        ForwardDecoder.Chunk chunk = decode(packer.toByteArray());
+
+        // Assert
+        assertThat(chunk.mode()).isEqualTo(ForwardDecoder.Mode.PACKED_FORWARD);
+        assertThat(chunk.chunkId()).isEqualTo("chunk-2");
+        assertThat(chunk.entries()).extracting(LogEntryDTO::getMessage)
+                .containsExactly("message 0", "message 1", "message 2");
+    }
+
+    @Test
+    void shouldDecodeCompressedPackedForwardMode() throws IOException {
+        // Arrange
+        byte[] compressed = gzip(packedEntries(2));
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString("app");
+        packer.packBinaryHeader(compressed.length);
+        packer.writePayload(compressed);
+        packOptions(packer, null, "gzip");
+        packer.close();
+
+        // Act
+        ForwardDecoder.Chunk chunk = decode(packer.toByteArray());
+
+        // Assert
+        assertThat(chunk.mode()).isEqualTo(ForwardDecoder.Mode.COMPRESSED_PACKED_FORWARD);
+        assertThat(chunk.chunkId()).isNull();
+        assertThat(chunk.entries()).extracting(LogEntryDTO::getMessage).containsExactly("message 0", "message 1");
+    }
+
+    @Test
+    void shouldRejectDecompressedPayloadOverLimit() throws IOException {
+        // Arrange
+        byte[] compressed = gzip(packedEntries(200));
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3);
+        packer.packString("app");
+        packer.packBinaryHeader(compressed.length);
+        packer.writePayload(compressed);
+        packOptions(packer, null, "gzip");
+        packer.close();
+        byte[] event = packer.toByteArray();
+        ForwardDecoder smallDecoder = new ForwardDecoder(1024);
+
+        // Act & Assert
+        assertThatThrownBy(() -> smallDecoder.decode(event, 0, event.length))
+                .isInstanceOf(ForwardProtocolException.class)
+                .hasMessageContaining("exceeds 1024 bytes");
+    }
+
+    @Test
+    void shouldRejectEventsThatAreNotForwardArrays() throws IOException {
+        // Arrange
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packMapHeader(1);
+        packer.packString("log").packString("not an event");
+        packer.close();
+        byte[] event = packer.toByteArray();
+
+        // Act & Assert
+        assertThatThrownBy(() -> decoder.decode(event, 0, event.length))
+                .isInstanceOf(ForwardProtocolException.class)
+                .hasMessageContaining("Expected MessagePack array");
+    }
+
+    private ForwardDecoder.Chunk decode(byte[] event) {
+        assertThat(MessagePackReader.skip(event, 0, event.length)).isEqualTo(event.length);
+        return decoder.decode(event, 0, event.length);
+    }
+
+    private static byte[] packedEntries(int count) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        for (int i = 0; i < count; i++) {
+            packEntry(packer, "message " + i, "info");
+        }
+        packer.close();
+        return packer.toByteArray();
+    }
+
+    private static void packEntry(MessageBufferPacker packer, String message, String level) throws IOException {
+        packer.packArrayHeader(2);
+        packer.packLong(SECONDS);
+        packer.packMapHeader(2);
+        packer.packString("log").packString(message);
+        packer.packString("level").packString(level);
+    }
+
+    private static void packEventTime(MessageBufferPacker packer, long seconds, int nanos) throws IOException {
+        packer.packExtensionTypeHeader((byte) 0, 8);
+        packer.writePayload(new byte[]{
+                (byte) (seconds >>> 24), (byte) (seconds >>> 16), (byte) (seconds >>> 8), (byte) seconds,
+                (byte) (nanos >>> 24), (byte) (nanos >>> 16), (byte) (nanos >>> 8), (byte) nanos});
+    }
+
+    private static void packOptions(MessageBufferPacker packer, String chunk, String compressed) throws IOException {
+        packer.packMapHeader((chunk != null ? 1 : 0) + (compressed != null ? 1 : 0));
+        if (chunk != null) {
+            packer.packString("chunk").packString(chunk);
+        }
+        if (compressed != null) {
+            packer.packString("compressed").packString(compressed);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
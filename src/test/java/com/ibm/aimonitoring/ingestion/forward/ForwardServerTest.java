@@ -0,0 +1,234 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ForwardServer, over loopback sockets
+ */
+class ForwardServerTest {
+
+    private IngestionProperties.Forward settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BatchIngestionService batchIngestionService;
+
+    private List<LogEntryDTO> published;
+
+    private ForwardServer server;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Forward();
+        settings.setBindAddress("127.0.0.1");
+        settings.setPort(0);
+        settings.setMaxChunkSize(DataSize.ofKilobytes(4));
+        meterRegistry = new SimpleMeterRegistry();
+        published = new CopyOnWriteArrayList<>();
+        batchIngestionService = mock(BatchIngestionService.class);
+        when(batchIngestionService.ingest(anyList())).thenAnswer(invocation -> {
+            List<LogEntryDTO> batch = invocation.getArgument(0);
+            published.addAll(batch);
+            return new BatchIngestionService.IngestResult(batch.size(), 0, null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void shouldIngestEventsSplitAcrossWritesAndAckChunks() throws Exception {
+        // Arrange
+        startServer();
+        byte[] first = forwardEvent("first", "chunk-a");
+        byte[] second = forwardEvent("second", "chunk-b");
+
+        try (Socket socket = connect()) {
+            OutputStream out = socket.getOutputStream();
+
+            // Act
+            out.write(first, 0, 5);
+            out.flush();
+            Thread.sleep(50);
+            out.write(first, 5, first.length - 5);
+            out.write(second);
+            out.flush();
+
+            // Assert
+            MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(socket.getInputStream());
+            assertThat(readAck(unpacker)).isEqualTo("chunk-a");
+            assertThat(readAck(unpacker)).isEqualTo("chunk-b");
+        }
+        assertThat(published).extracting(LogEntryDTO::getMessage).containsExactly("first", "second");
+        assertThat(meterRegistry.get("ingestion.forward.received").tag("mode", "forward").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldIngestMessageModeWithoutAck() throws Exception {
+        // Arrange
+        startServer();
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(3).packString("app").packLong(1_710_057_600L);
+        packer.packMapHeader(1).packString("log").packString("hello");
+        packer.close();
+
+        // Act
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(packer.toByteArray());
+            socket.getOutputStream().flush();
+        }
+
+        // Assert
+        awaitUntil(() -> published.size() == 1);
+        assertThat(published.get(0).getMessage()).isEqualTo("hello");
+    }
+
+    @Test
+    void shouldCloseConnectionWithoutAckWhenPublishFails() throws Exception {
+        // Arrange
+        when(batchIngestionService.ingest(anyList())).thenThrow(new IllegalStateException("broker down"));
+        startServer();
+
+        try (Socket socket = connect()) {
+            // Act
+            socket.getOutputStream().write(forwardEvent("lost", "chunk-c"));
+            socket.getOutputStream().flush();
+
+            // Assert
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        assertThat(meterRegistry.get("ingestion.forward.publish.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCloseConnectionWithoutAckWhenEntriesAreRateLimited() throws Exception {
+        // Arrange
+        when(batchIngestionService.ingest(anyList()))
+                .thenReturn(new BatchIngestionService.IngestResult(0, 1, 1, "Log record 0 rejected"));
+        startServer();
+
+        try (Socket socket = connect()) {
+            // Act
+            socket.getOutputStream().write(forwardEvent("throttled", "chunk-d"));
+            socket.getOutputStream().flush();
+
+            // Assert
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        assertThat(meterRegistry.get("ingestion.forward.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAckChunkWhenEntriesFailValidation() throws Exception {
+        // Arrange
+        when(batchIngestionService.ingest(anyList()))
+                .thenReturn(new BatchIngestionService.IngestResult(0, 1, "Log record 0 rejected"));
+        startServer();
+
+        try (Socket socket = connect()) {
+            // Act
+            socket.getOutputStream().write(forwardEvent("invalid", "chunk-e"));
+            socket.getOutputStream().flush();
+
+            // Assert
+            assertThat(readAck(MessagePack.newDefaultUnpacker(socket.getInputStream()))).isEqualTo("chunk-e");
+        }
+    }
+
+    @Test
+    void shouldCloseConnectionOnMalformedOrOversizeEvent() throws Exception {
+        // Arrange
+        startServer();
+
+        // Act & Assert
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(new byte[]{(byte) 0xc1});
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(forwardEvent("x".repeat(5000), null));
+            awaitUntil(() -> meterRegistry.get("ingestion.forward.protocol.errors").counter().count() == 2);
+        }
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void ackShouldBeMessagePackMap() throws IOException {
+        // Arrange
+        String chunkId = "c".repeat(40);
+
+        // Act
+        byte[] ack = ForwardServer.ack(chunkId);
+
+        // Assert
+        assertThat(readAck(MessagePack.newDefaultUnpacker(ack))).isEqualTo(chunkId);
+    }
+
+    private void startServer() {
+        server = new ForwardServer(settings, batchIngestionService, meterRegistry);
+        server.start();
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static byte[] forwardEvent(String message, String chunkId) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(chunkId != null ? 3 : 2).packString("app");
+        packer.packArrayHeader(1).packArrayHeader(2).packLong(1_710_057_600L);
+        packer.packMapHeader(1).packString("log").packString(message);
+        if (chunkId != null) {
+            packer.packMapHeader(1).packString("chunk").packString(chunkId);
+        }
+        packer.close();
+        return packer.toByteArray();
+    }
+
+    private static String readAck(MessageUnpacker unpacker) throws IOException {
+        assertThat(unpacker.unpackMapHeader()).isEqualTo(1);
+        assertThat(unpacker.unpackString()).isEqualTo("ack");
+        return unpacker.unpackString();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
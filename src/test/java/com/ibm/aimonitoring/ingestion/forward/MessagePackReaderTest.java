@@ -0,0 +1,106 @@
+package com.ibm.aimonitoring.ingestion.forward;
+
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MessagePackReader
+ */
+class MessagePackReaderTest {
+
+    @Test
+    void shouldReadEveryValueKind() throws IOException {
+        // Arrange
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packMapHeader(7);
+        packer.packString("small").packInt(7);
+        packer.packString("negative").packLong(-70_000);
+        packer.packString("big").packLong(Long.MAX_VALUE);
+        packer.packString("ratio").packDouble(0.25);
+        packer.packString("ok").packBoolean(true);
+        packer.packString("none").packNil();
+        packer.packString("tags").packArrayHeader(2).packString("a").packString("x".repeat(300));
+        packer.close();
+        byte[] data = packer.toByteArray();
+        MessagePackReader reader = new MessagePackReader(data, 0, data.length);
+
+        // Act
+        Object value = reader.readValue();
+
+        // Assert
+        assertThat(reader.hasRemaining()).isFalse();
+        assertThat(value).isInstanceOf(Map.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) value;
+        assertThat(map)
+                .containsEntry("small", 7L)
+                .containsEntry("negative", -70_000L)
+                .containsEntry("big", Long.MAX_VALUE)
+                .containsEntry("ratio", 0.25)
+                .containsEntry("ok", true)
+                .containsEntry("none", null)
+                .containsEntry("tags", List.of("a", "x".repeat(300)));
+    }
+
+    @Test
+    void skipShouldFindValueEndOrReportIncompleteValue() throws IOException {
+        // Arrange
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        packer.packArrayHeader(2).packString("tag").packMapHeader(1).packString("log").packString("hello");
+        packer.packInt(1);
+        packer.close();
+        byte[] data = packer.toByteArray();
+        int firstLength = data.length - 1;
+
+        // Act & Assert
+        assertThat(MessagePackReader.skip(data, 0, data.length)).isEqualTo(firstLength);
+        assertThat(MessagePackReader.skip(data, firstLength, data.length)).isEqualTo(data.length);
+        for (int limit = 0; limit < firstLength; limit++) {
+            assertThat(MessagePackReader.skip(data, 0, limit)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidFormatByteAndTruncatedValue() {
+        // Arrange
+        byte[] invalid = {(byte) 0xc1};
+        byte[] truncated = {(byte) 0xa5, 'h', 'e'};
+
+        // Act & Assert
+        assertThatThrownBy(() -> MessagePackReader.skip(invalid, 0, invalid.length))
+                .isInstanceOf(ForwardProtocolException.class)
+                .hasMessageContaining("0xc1");
+        assertThatThrownBy(() -> new MessagePackReader(truncated, 0, truncated.length).readString())
+                .isInstanceOf(ForwardProtocolException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    @Test
+    void shouldRejectValueNestedTooDeeply() {
+        // Arrange
+        byte[] deepest = nestedArrays(MessagePackReader.MAX_NESTING_DEPTH);
+        byte[] tooDeep = nestedArrays(MessagePackReader.MAX_NESTING_DEPTH + 1);
+
+        // Act & Assert
+        assertThat(new MessagePackReader(deepest, 0, deepest.length).readValue()).isInstanceOf(List.class);
+        assertThatThrownBy(() -> new MessagePackReader(tooDeep, 0, tooDeep.length).readValue())
+                .isInstanceOf(ForwardProtocolException.class)
+                .hasMessageContaining("nested deeper");
+    }
+
+    private static byte[] nestedArrays(int depth) {
+        byte[] data = new byte[depth + 1];
+        Arrays.fill(data, 0, depth, (byte) 0x91);
+        data[depth] = (byte) 0xc0;
+        return data;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ibm.aimonitoring.ingestion.grpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.grpc.v1.IngestResponse;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogEntry;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogIngestionGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares entries/sec and process CPU time per entry of one
+ * {@code POST /api/v1/logs} per entry ({@code LogController.ingestLog}) over a
+ * keep-alive HTTP/1.1 connection against one gRPC {@code Ingest} stream, both
+ * over loopback into the full application with the broker mocked out. Client
+ * and server share the process, so CPU per entry covers both ends. Timing
+ * based, so it only runs with {@code -Pthroughput}.
+ */
+@Slf4j
+@Tag("throughput")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ingestion.grpc.enabled=true",
+        "ingestion.grpc.port=0",
+        "logging.level.com.ibm.aimonitoring=INFO"
+})
+class GrpcIngestThroughputTest {
+
+    private static final int TOTAL_ENTRIES = 1000;
+
+    @LocalServerPort
+    private int httpPort;
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private RabbitAdmin rabbitAdmin;
+
+    @MockBean
+    private DataSource dataSource;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = NettyChannelBuilder.forAddress("127.0.0.1", grpcServer.getPort()).usePlaintext().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void grpcStreamShouldOutperformSingleEntryHttp() throws Exception {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder()
+                .level("INFO")
+                .message("Throughput comparison message")
+                .service("bench-service")
+                .host("bench-host")
+                .build();
+        String httpBody = objectMapper.writeValueAsString(logEntry);
+        LogEntry grpcEntry = LogEntry.newBuilder()
+                .setLevel("INFO")
+                .setMessage("Throughput comparison message")
+                .setService("bench-service")
+                .setHost("bench-host")
+                .build();
+
+        // Warm up both paths so JIT compilation does not skew the comparison
+        runHttp(httpBody, TOTAL_ENTRIES / 4);
+        runGrpc(grpcEntry, TOTAL_ENTRIES / 4);
+
+        // Act
+        Measurement http = measure(() -> runHttp(httpBody, TOTAL_ENTRIES));
+        Measurement grpc = measure(() -> runGrpc(grpcEntry, TOTAL_ENTRIES));
+
+        log.info("http single-entry: {} entries/s, {} us CPU/entry; grpc stream: {} entries/s, {} us CPU/entry; "
+                        + "speedup {}x",
+                Math.round(http.rate()), String.format("%.1f", http.cpuMicrosPerEntry()),
+                Math.round(grpc.rate()), String.format("%.1f", grpc.cpuMicrosPerEntry()),
+                String.format("%.1f", grpc.rate() / http.rate()));
+
+        // Assert
+        assertThat(grpc.rate()).isGreaterThan(http.rate());
+        assertThat(grpc.cpuMicrosPerEntry()).isLessThan(http.cpuMicrosPerEntry());
+    }
+
+    private void runHttp(String body, int entries) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + httpPort + "/api/v1/logs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        for (int i = 0; i < entries; i++) {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode()).isEqualTo(202);
+        }
+    }
+
+    private void runGrpc(LogEntry entry, int entries) throws Exception {
+        CompletableFuture<IngestResponse> done = new CompletableFuture<>();
+        StreamObserver<LogEntry> requests = LogIngestionGrpc.newStub(channel).ingest(new StreamObserver<>() {
+            @Override
+            public void onNext(IngestResponse value) {
+                done.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                // The response has been delivered through onNext
+            }
+        });
+        for (int i = 0; i < entries; i++) {
+            requests.onNext(entry);
+        }
+        requests.onCompleted();
+        assertThat(done.get(30, TimeUnit.SECONDS).getAccepted()).isEqualTo(entries);
+    }
+
+    private static Measurement measure(Run run) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        long cpu = os.getProcessCpuTime() - cpuStart;
+        return new Measurement(TOTAL_ENTRIES / (elapsed / 1e9), cpu / 1e3 / TOTAL_ENTRIES);
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private record Measurement(double rate, double cpuMicrosPerEntry) {
+    }
+}
@@ -0,0 +1,306 @@
+package com.ibm.aimonitoring.ingestion.grpc;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.grpc.v1.IngestBatchRequest;
+import com.ibm.aimonitoring.ingestion.grpc.v1.IngestResponse;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogEntry;
+import com.ibm.aimonitoring.ingestion.grpc.v1.LogIngestionGrpc;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LogIngestionGrpcService, over an in-process channel
+ */
+class LogIngestionGrpcServiceTest {
+
+    private IngestionProperties.Grpc settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BatchIngestionService batchIngestionService;
+
+    private List<List<LogEntryDTO>> published;
+
+    private ScheduledExecutorService scheduler;
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Grpc();
+        settings.setStreamBatchSize(100);
+        settings.setStreamFlushInterval(Duration.ofMillis(20));
+        settings.setCapacityPollInterval(Duration.ofMillis(5));
+        meterRegistry = new SimpleMeterRegistry();
+        published = new CopyOnWriteArrayList<>();
+        batchIngestionService = mock(BatchIngestionService.class);
+        when(batchIngestionService.publishCapacity()).thenReturn(Integer.MAX_VALUE);
+        when(batchIngestionService.ingest(anyList())).thenAnswer(invocation -> publish(invocation.getArgument(0)));
+        when(batchIngestionService.ingest(anyList(), anyLong()))
+                .thenAnswer(invocation -> publish(invocation.getArgument(0)));
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (server != null) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void ingestBatchShouldMapEntriesAndReturnCounts() throws Exception {
+        // Arrange
+        startServer();
+        doAnswer(invocation -> {
+            publish(invocation.getArgument(0));
+            return new BatchIngestionService.IngestResult(1, 1, "Log record 1 rejected: {message=Message is required}");
+        }).when(batchIngestionService).ingest(anyList());
+        LogEntry entry = LogEntry.newBuilder()
+                .setTimestamp(Timestamp.newBuilder().setSeconds(1_710_057_600L).setNanos(5_000_000))
+                .setLevel("ERROR")
+                .setMessage("Payment failed")
+                .setService("payment-service")
+                .setHost("payment-host-01")
+                .setMetadata(Struct.newBuilder()
+                        .putFields("userId", Value.newBuilder().setStringValue("user123").build())
+                        .putFields("attempt", Value.newBuilder().setNumberValue(3).build())
+                        .putFields("ratio", Value.newBuilder().setNumberValue(0.5).build()))
+                .setTraceId("trace-abc-123")
+                .build();
+
+        // Act
+        IngestResponse response = LogIngestionGrpc.newBlockingStub(channel).ingestBatch(IngestBatchRequest.newBuilder()
+                .addEntries(entry)
+                .addEntries(LogEntry.newBuilder().setLevel("INFO").setService("payment-service"))
+                .build());
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrorMessage()).startsWith("Log record 1 rejected");
+        LogEntryDTO logEntry = published.get(0).get(0);
+        assertThat(logEntry.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_710_057_600L, 5_000_000));
+        assertThat(logEntry.getLevel()).isEqualTo("ERROR");
+        assertThat(logEntry.getHost()).isEqualTo("payment-host-01");
+        assertThat(logEntry.getEnvironment()).isNull();
+        assertThat(logEntry.getSpanId()).isNull();
+        assertThat(logEntry.getMetadata())
+                .containsEntry("userId", "user123")
+                .containsEntry("attempt", 3L)
+                .containsEntry("ratio", 0.5);
+        assertThat(published.get(0).get(1).getMessage()).isNull();
+    }
+
+    @Test
+    void ingestBatchShouldReportOverloadAsResourceExhausted() throws Exception {
+        // Arrange
+        startServer();
+        doThrow(new LogPublisher.PublisherOverloadedException("Publish buffer is full"))
+                .when(batchIngestionService).ingest(anyList());
+        IngestBatchRequest request = IngestBatchRequest.newBuilder().addEntries(entry(0)).build();
+        LogIngestionGrpc.LogIngestionBlockingStub stub = LogIngestionGrpc.newBlockingStub(channel);
+
+        // Act & Assert
+        assertThatThrownBy(() -> stub.ingestBatch(request))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                        assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+    }
+
+    @Test
+    void ingestStreamShouldPublishInBatchesOfStreamBatchSize() throws Exception {
+        // Arrange
+        settings.setStreamFlushInterval(Duration.ofMinutes(1));
+        startServer();
+        ResponseFuture response = new ResponseFuture();
+
+        // Act
+        StreamObserver<LogEntry> requests = LogIngestionGrpc.newStub(channel).ingest(response);
+        for (int i = 0; i < 250; i++) {
+            requests.onNext(entry(i));
+        }
+        requests.onCompleted();
+
+        // Assert
+        IngestResponse result = response.get(10, TimeUnit.SECONDS);
+        assertThat(result.getAccepted()).isEqualTo(250);
+        assertThat(published).extracting(List::size).containsExactly(100, 100, 50);
+        assertThat(published.get(2).get(49).getMessage()).isEqualTo("entry 249");
+        assertThat(meterRegistry.get("ingestion.grpc.received").tag("rpc", "ingest").counter().count())
+                .isEqualTo(250);
+    }
+
+    @Test
+    void ingestStreamShouldFlushPartialBatchWhileOpen() throws Exception {
+        // Arrange
+        startServer();
+        ResponseFuture response = new ResponseFuture();
+        StreamObserver<LogEntry> requests = LogIngestionGrpc.newStub(channel).ingest(response);
+
+        // Act
+        requests.onNext(entry(0));
+        requests.onNext(entry(1));
+
+        // Assert
+        awaitUntil(() -> published.size() == 1);
+        assertThat(published.get(0)).hasSize(2);
+        requests.onCompleted();
+        assertThat(response.get(10, TimeUnit.SECONDS).getAccepted()).isEqualTo(2);
+    }
+
+    @Test
+    void ingestStreamShouldPauseWhilePublisherIsFull() throws Exception {
+        // Arrange
+        AtomicInteger capacity = new AtomicInteger(0);
+        when(batchIngestionService.publishCapacity()).thenAnswer(invocation -> capacity.get());
+        startServer();
+        ResponseFuture response = new ResponseFuture();
+        StreamObserver<LogEntry> requests = LogIngestionGrpc.newStub(channel).ingest(response);
+
+        // Act
+        for (int i = 0; i < 150; i++) {
+            requests.onNext(entry(i));
+        }
+        requests.onCompleted();
+        Thread.sleep(100);
+        int publishedWhilePaused = published.size();
+        capacity.set(1000);
+
+        // Assert
+        assertThat(publishedWhilePaused).isZero();
+        assertThat(response.get(10, TimeUnit.SECONDS).getAccepted()).isEqualTo(150);
+        assertThat(meterRegistry.get("ingestion.grpc.stream.pauses").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void ingestStreamShouldFailWhenPublishingFails() throws Exception {
+        // Arrange
+        settings.setStreamFlushInterval(Duration.ofMinutes(1));
+        startServer();
+        when(batchIngestionService.ingest(anyList(), anyLong()))
+                .thenAnswer(invocation -> publish(invocation.getArgument(0)))
+                .thenThrow(new IllegalStateException("broker down"));
+        ResponseFuture response = new ResponseFuture();
+
+        // Act
+        StreamObserver<LogEntry> requests = LogIngestionGrpc.newStub(channel).ingest(response);
+        for (int i = 0; i < 150; i++) {
+            requests.onNext(entry(i));
+        }
+        requests.onCompleted();
+
+        // Assert
+        assertThat(response.error().get(10, TimeUnit.SECONDS).getCode()).isEqualTo(Status.Code.UNAVAILABLE);
+        assertThat(response.trailers().get(LogIngestionGrpcService.PROGRESS_TRAILER).getAccepted()).isEqualTo(100);
+        assertThat(meterRegistry.get("ingestion.grpc.streams").gauge().value()).isZero();
+    }
+
+    private void startServer() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new LogIngestionGrpcService(settings, batchIngestionService, scheduler, meterRegistry))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    private BatchIngestionService.IngestResult publish(List<LogEntryDTO> batch) {
+        published.add(List.copyOf(batch));
+        return new BatchIngestionService.IngestResult(batch.size(), 0, null);
+    }
+
+    private static LogEntry entry(int i) {
+        return LogEntry.newBuilder()
+                .setLevel("INFO")
+                .setMessage("entry " + i)
+                .setService("stream-service")
+                .build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Collects the single response, or the error status, of an Ingest call
+     */
+    private static final class ResponseFuture extends CompletableFuture<IngestResponse>
+            implements StreamObserver<IngestResponse> {
+
+        private final CompletableFuture<Status> error = new CompletableFuture<>();
+        private volatile Metadata trailers;
+
+        @Override
+        public void onNext(IngestResponse value) {
+            complete(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            trailers = Status.trailersFromThrowable(t);
+            error.complete(Status.fromThrowable(t));
+            completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            error.complete(Status.OK);
+        }
+
+        CompletableFuture<Status> error() {
+            return error;
+        }
+
+        Metadata trailers() {
+            return trailers;
+        }
+    }
+}
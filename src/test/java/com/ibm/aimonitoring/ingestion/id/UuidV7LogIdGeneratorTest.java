@@ -0,0 +1,91 @@
+package com.ibm.aimonitoring.ingestion.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for UuidV7LogIdGenerator
+ */
+class UuidV7LogIdGeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7UuidWithTimestamp() {
+        // Arrange
+        long now = 1_705_314_600_123L;
+        UuidV7LogIdGenerator generator = new UuidV7LogIdGenerator(() -> now);
+
+        // Act
+        UUID uuid = UUID.fromString(generator.nextId());
+
+        // Assert
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(now);
+    }
+
+    @Test
+    void shouldBeMonotonicWithinSameMillisecond() {
+        // Arrange
+        UuidV7LogIdGenerator generator = new UuidV7LogIdGenerator(() -> 1_705_314_600_123L);
+
+        // Act
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Assert
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldStayMonotonicWhenClockStepsBack() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(1_705_314_600_123L);
+        UuidV7LogIdGenerator generator = new UuidV7LogIdGenerator(clock::get);
+        String before = generator.nextId();
+
+        // Act
+        clock.addAndGet(-1_000);
+        String after = generator.nextId();
+
+        // Assert
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        // Arrange
+        UuidV7LogIdGenerator generator = new UuidV7LogIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(ids).hasSize(80_000);
+    }
+}
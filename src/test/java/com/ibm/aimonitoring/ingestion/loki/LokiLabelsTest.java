@@ -0,0 +1,124 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for LokiLabels
+ */
+class LokiLabelsTest {
+
+    private IngestionProperties ingestionProperties;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+    }
+
+    @Test
+    void shouldMapFirstPresentLabelsAndKeepTheRestAsMetadata() {
+        // Arrange
+        LokiLabels lokiLabels = new LokiLabels(ingestionProperties);
+
+        // Act
+        LokiLabels.StreamFields fields = lokiLabels.fields(
+                "{app=\"checkout\", job=\"default/checkout\", hostname=\"node-7\", env=\"prod\", "
+                        + "level=\"warning\", path=\"C:\\\\logs \\\"main\\\"\"}");
+
+        // Assert
+        assertThat(fields.service()).isEqualTo("checkout");
+        assertThat(fields.host()).isEqualTo("node-7");
+        assertThat(fields.environment()).isEqualTo("prod");
+        assertThat(fields.level()).isEqualTo("WARN");
+        assertThat(fields.metadata())
+                .containsOnly(Map.entry("job", "default/checkout"), Map.entry("path", "C:\\logs \"main\""));
+    }
+
+    @Test
+    void shouldFallBackToDefaultServiceAndInfo() {
+        // Arrange
+        LokiLabels lokiLabels = new LokiLabels(ingestionProperties);
+
+        // Act
+        LokiLabels.StreamFields fields = lokiLabels.fields("{}");
+        LogEntryDTO entry = fields.newEntry(Instant.EPOCH, "started", Map.of());
+
+        // Assert
+        assertThat(entry.getService()).isEqualTo("loki");
+        assertThat(entry.getLevel()).isEqualTo("INFO");
+        assertThat(entry.getHost()).isNull();
+        assertThat(entry.getMetadata()).isNull();
+    }
+
+    @Test
+    void shouldCacheMappingPerLabelString() {
+        // Arrange
+        ingestionProperties.getLoki().setMaxCachedLabelSets(2);
+        LokiLabels lokiLabels = new LokiLabels(ingestionProperties);
+        Map<String, String> jsonLabels = new LinkedHashMap<>();
+        jsonLabels.put("service", "billing");
+        jsonLabels.put("pod", "billing-0");
+
+        // Act
+        LokiLabels.StreamFields first = lokiLabels.fields("{service=\"billing\", pod=\"billing-0\"}");
+        LokiLabels.StreamFields second = lokiLabels.fields("{service=\"billing\", pod=\"billing-0\"}");
+        LokiLabels.StreamFields fromJson = lokiLabels.fields(jsonLabels);
+        lokiLabels.fields("{service=\"a\"}");
+        lokiLabels.fields("{service=\"b\"}");
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(fromJson).isSameAs(first);
+        assertThat(lokiLabels.cachedLabelSets()).isEqualTo(2);
+    }
+
+    @Test
+    void entriesShouldGetTheirOwnMetadataWithStructuredMetadata() {
+        // Arrange
+        LokiLabels.StreamFields fields = new LokiLabels(ingestionProperties).fields("{service=\"api\", pod=\"api-1\"}");
+
+        // Act
+        LogEntryDTO first = fields.newEntry(Instant.EPOCH, "one", Map.of("traceID", "abc"));
+        LogEntryDTO second = fields.newEntry(Instant.EPOCH, "two", Map.of());
+
+        // Assert
+        assertThat(first.getMetadata()).containsOnly(Map.entry("pod", "api-1"), Map.entry("traceID", "abc"));
+        assertThat(second.getMetadata()).containsOnly(Map.entry("pod", "api-1"));
+    }
+
+    @Test
+    void shouldRejectMalformedLabels() {
+        // Arrange
+        LokiLabels lokiLabels = new LokiLabels(ingestionProperties);
+
+        // Act & Assert
+        for (String labels : new String[]{"app=\"x\"", "{app=x}", "{app=\"x\"", "{1app=\"x\"}", "{app=\"x\"} extra"}) {
+            assertThatThrownBy(() -> lokiLabels.fields(labels))
+                    .isInstanceOf(LokiDecodeException.class)
+                    .hasMessageContaining("Malformed stream labels");
+        }
+    }
+
+    @Test
+    void formatShouldRoundTripThroughParse() {
+        // Arrange
+        Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("app", "a \"quoted\" \\ value");
+        labels.put("line", "multi\nline");
+
+        // Act
+        Map<String, String> parsed = LokiLabels.parse(LokiLabels.format(labels));
+
+        // Assert
+        assertThat(parsed).isEqualTo(labels);
+    }
+}
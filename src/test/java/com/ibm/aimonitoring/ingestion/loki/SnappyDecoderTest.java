@@ -0,0 +1,62 @@
+package com.ibm.aimonitoring.ingestion.loki;
+
+import org.junit.jupiter.api.Test;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SnappyDecoder, against the reference compressor
+ */
+class SnappyDecoderTest {
+
+    @Test
+    void shouldDecompressRepetitiveAndRandomData() throws IOException {
+        // Arrange
+        String line = "level=info msg=\"request served\" path=/api/v1/orders status=200\n";
+        byte[] repetitive = line.repeat(2_000).getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[100_000];
+        new Random(42).nextBytes(random);
+        byte[] mixed = new byte[repetitive.length + random.length];
+        System.arraycopy(random, 0, mixed, 0, random.length);
+        System.arraycopy(repetitive, 0, mixed, random.length, repetitive.length);
+
+        // Act & Assert
+        for (byte[] data : new byte[][]{repetitive, random, mixed, "a".repeat(1_000).getBytes(), new byte[0]}) {
+            byte[] compressed = Snappy.compress(data);
+            assertThat(SnappyDecoder.uncompressedLength(compressed)).isEqualTo(data.length);
+            assertThat(SnappyDecoder.decompress(compressed)).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void shouldRejectTruncatedBlock() throws IOException {
+        // Arrange
+        byte[] compressed = Snappy.compress("hello hello hello hello".repeat(10).getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 2);
+
+        // Act & Assert
+        assertThatThrownBy(() -> SnappyDecoder.decompress(truncated))
+                .isInstanceOf(LokiDecodeException.class);
+        assertThatThrownBy(() -> SnappyDecoder.decompress(new byte[]{(byte) 0x80}))
+                .isInstanceOf(LokiDecodeException.class)
+                .hasMessageContaining("header");
+    }
+
+    @Test
+    void shouldRejectCopyBeforeStartOfOutput() {
+        // Arrange: length 8, then a 1-byte-offset copy of 4 bytes at offset 1 with nothing written yet
+        byte[] corrupt = {8, 0x01, 0x01};
+
+        // Act & Assert
+        assertThatThrownBy(() -> SnappyDecoder.decompress(corrupt))
+                .isInstanceOf(LokiDecodeException.class)
+                .hasMessageContaining("copy");
+    }
+}
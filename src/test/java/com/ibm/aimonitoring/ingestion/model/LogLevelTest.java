@@ -109,6 +109,38 @@ class LogLevelTest {
         // Assert
         assertThat(result).isEqualTo("Error level");
     }
+
+    @Test
+    void fromNameShouldMatchExactNamesOnly() {
+        // Act & Assert
+        assertThat(LogLevel.fromName("WARN")).isEqualTo(LogLevel.WARN);
+        assertThat(LogLevel.fromName("warn")).isNull();
+        assertThat(LogLevel.fromName("FATAL")).isNull();
+        assertThat(LogLevel.fromName(null)).isNull();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "warn,WARN",
+            "Warning,WARN",
+            "fatal,ERROR",
+            "CRITICAL,ERROR",
+            "err,ERROR",
+            "notice,INFO",
+            "' debug ',DEBUG"
+    })
+    void fromTextShouldIgnoreCaseAndAcceptAliases(String text, LogLevel expected) {
+        // Act & Assert
+        assertThat(LogLevel.fromText(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void fromTextShouldReturnNullForUnknownText() {
+        // Act & Assert
+        assertThat(LogLevel.fromText("verbose")).isNull();
+        assertThat(LogLevel.fromText("")).isNull();
+        assertThat(LogLevel.fromText(null)).isNull();
+    }
 }
 
 // Made with Bob
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OtlpJsonCodecTest {
+
+    private final OtlpJsonCodec codec = new OtlpJsonCodec(new ObjectMapper());
+
+    @Test
+    void shouldMapCamelCaseRequestOntoEntries() {
+        // Arrange
+        String request = """
+                {"resourceLogs":[{
+                  "resource":{"attributes":[
+                    {"key":"service.name","value":{"stringValue":"checkout"}},
+                    {"key":"deployment.environment.name","value":{"stringValue":"staging"}},
+                    {"key":"cloud.region","value":{"stringValue":"eu-west-1"}}]},
+                  "scopeLogs":[{
+                    "scope":{"name":"checkout-logger"},
+                    "logRecords":[{
+                      "timeUnixNano":"1700000000000000000",
+                      "severityNumber":13,
+                      "body":{"stringValue":"Slow response"},
+                      "attributes":[{"key":"retries","value":{"intValue":"2"}}],
+                      "traceId":"4BF92F3577B34DA6A3CE929D0E0E4736",
+                      "spanId":"00f067aa0ba902b7"}]}]}]}
+                """;
+
+        // Act
+        List<LogEntryDTO> entries = codec.decode(request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getService()).isEqualTo("checkout");
+            assertThat(entry.getEnvironment()).isEqualTo("staging");
+            assertThat(entry.getLevel()).isEqualTo("WARN");
+            assertThat(entry.getMessage()).isEqualTo("Slow response");
+            assertThat(entry.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_700_000_000L));
+            assertThat(entry.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+            assertThat(entry.getSpanId()).isEqualTo("00f067aa0ba902b7");
+            assertThat(entry.getMetadata()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                    "cloud.region", "eu-west-1",
+                    "otel.scope.name", "checkout-logger",
+                    "retries", 2L));
+        });
+    }
+
+    @Test
+    void shouldAcceptSnakeCaseFieldsAndSeverityNames() {
+        // Arrange
+        String request = """
+                {"resource_logs":[{"scope_logs":[{"log_records":[
+                  {"severity_number":"SEVERITY_NUMBER_FATAL","body":{"string_value":"Out of memory"}}]}]}]}
+                """;
+
+        // Act
+        List<LogEntryDTO> entries = codec.decode(request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getLevel()).isEqualTo("ERROR");
+            assertThat(entry.getMessage()).isEqualTo("Out of memory");
+            assertThat(entry.getTimestamp()).isNull();
+            assertThat(entry.getMetadata()).isNull();
+        });
+    }
+
+    @Test
+    void shouldRejectMalformedRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decode("{\"resourceLogs\":[".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(OtlpDecodeException.class);
+        assertThatThrownBy(() -> codec.decode("[]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(OtlpDecodeException.class);
+    }
+
+    @Test
+    void shouldEncodePartialSuccessResponse() {
+        // Act & Assert
+        assertThat(new String(codec.encodeResponse(0, null), StandardCharsets.UTF_8)).isEqualTo("{}");
+        assertThat(new String(codec.encodeResponse(2, "Log record 1 rejected"), StandardCharsets.UTF_8))
+                .isEqualTo("{\"partialSuccess\":{\"rejectedLogRecords\":2,\"errorMessage\":\"Log record 1 rejected\"}}");
+    }
+}
@@ -0,0 +1,166 @@
+package com.ibm.aimonitoring.ingestion.otlp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceResponse;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.ArrayValue;
+import io.opentelemetry.proto.common.v1.InstrumentationScope;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.common.v1.KeyValueList;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.logs.v1.ScopeLogs;
+import io.opentelemetry.proto.logs.v1.SeverityNumber;
+import io.opentelemetry.proto.resource.v1.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OtlpProtobufCodecTest {
+
+    private final OtlpProtobufCodec codec = new OtlpProtobufCodec(new ObjectMapper());
+
+    @Test
+    void shouldMapResourceScopeAndRecordOntoEntries() throws Exception {
+        // Arrange
+        ExportLogsServiceRequest request = ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder()
+                        .setResource(Resource.newBuilder()
+                                .addAttributes(attribute("service.name", "checkout"))
+                                .addAttributes(attribute("host.name", "node-7"))
+                                .addAttributes(attribute("deployment.environment", "prod"))
+                                .addAttributes(attribute("k8s.pod.name", "checkout-5d9f")))
+                        .addScopeLogs(ScopeLogs.newBuilder()
+                                .setScope(InstrumentationScope.newBuilder().setName("com.acme.Checkout").setVersion("2.1"))
+                                .addLogRecords(LogRecord.newBuilder()
+                                        .setTimeUnixNano(1_700_000_000_123_456_789L)
+                                        .setSeverityNumber(SeverityNumber.SEVERITY_NUMBER_ERROR)
+                                        .setSeverityText("ERROR")
+                                        .setBody(AnyValue.newBuilder().setStringValue("Payment declined"))
+                                        .addAttributes(KeyValue.newBuilder().setKey("http.status_code")
+                                                .setValue(AnyValue.newBuilder().setIntValue(402)))
+                                        .setTraceId(ByteString.copyFrom(new byte[]{
+                                                0x4b, (byte) 0xf9, 0x2f, 0x35, 0x77, (byte) 0xb3, 0x4d, (byte) 0xa6,
+                                                (byte) 0xa3, (byte) 0xce, (byte) 0x92, (byte) 0x9d, 0x0e, 0x0e, 0x47, 0x36}))
+                                        .setSpanId(ByteString.copyFrom(new byte[]{0, (byte) 0xf0, 0x67, (byte) 0xaa,
+                                                0x0b, (byte) 0xa9, 0x02, (byte) 0xb7})))
+                                .addLogRecords(LogRecord.newBuilder()
+                                        .setObservedTimeUnixNano(1_700_000_001_000_000_000L)
+                                        .setSeverityNumber(SeverityNumber.SEVERITY_NUMBER_DEBUG2)
+                                        .setBody(AnyValue.newBuilder().setStringValue("Cart loaded")))))
+                .build();
+
+        // Act
+        List<LogEntryDTO> entries = codec.decode(request.toByteArray());
+
+        // Assert
+        assertThat(entries).hasSize(2);
+        LogEntryDTO error = entries.get(0);
+        assertThat(error.getService()).isEqualTo("checkout");
+        assertThat(error.getHost()).isEqualTo("node-7");
+        assertThat(error.getEnvironment()).isEqualTo("prod");
+        assertThat(error.getLevel()).isEqualTo("ERROR");
+        assertThat(error.getMessage()).isEqualTo("Payment declined");
+        assertThat(error.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+        assertThat(error.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(error.getSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(error.getMetadata()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "k8s.pod.name", "checkout-5d9f",
+                "otel.scope.name", "com.acme.Checkout",
+                "otel.scope.version", "2.1",
+                "http.status_code", 402L));
+
+        LogEntryDTO debug = entries.get(1);
+        assertThat(debug.getLevel()).isEqualTo("DEBUG");
+        assertThat(debug.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_700_000_001L));
+        assertThat(debug.getTraceId()).isNull();
+        assertThat(debug.getMetadata()).doesNotContainKey("http.status_code");
+    }
+
+    @Test
+    void shouldRenderStructuredBodyAsJson() {
+        // Arrange
+        AnyValue body = AnyValue.newBuilder().setKvlistValue(KeyValueList.newBuilder()
+                .addValues(attribute("event", "login"))
+                .addValues(KeyValue.newBuilder().setKey("tags").setValue(AnyValue.newBuilder()
+                        .setArrayValue(ArrayValue.newBuilder()
+                                .addValues(AnyValue.newBuilder().setBoolValue(true))
+                                .addValues(AnyValue.newBuilder().setDoubleValue(1.5))))))
+                .build();
+        byte[] request = ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder().addScopeLogs(ScopeLogs.newBuilder()
+                        .addLogRecords(LogRecord.newBuilder().setSeverityText("warning").setBody(body))))
+                .build().toByteArray();
+
+        // Act
+        LogEntryDTO entry = codec.decode(request).get(0);
+
+        // Assert
+        assertThat(entry.getMessage()).isEqualTo("{\"event\":\"login\",\"tags\":[true,1.5]}");
+        assertThat(entry.getLevel()).isEqualTo("WARN");
+        assertThat(entry.getService()).isNull();
+        assertThat(entry.getMetadata()).isNull();
+    }
+
+    @Test
+    void shouldRejectTruncatedRequest() {
+        // Arrange
+        byte[] request = ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder().addScopeLogs(ScopeLogs.newBuilder()
+                        .addLogRecords(LogRecord.newBuilder().setBody(AnyValue.newBuilder().setStringValue("x")))))
+                .build().toByteArray();
+        byte[] truncated = java.util.Arrays.copyOf(request, request.length - 2);
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(OtlpDecodeException.class);
+    }
+
+    @Test
+    void shouldRejectBodyNestedTooDeeply() {
+        // Arrange
+        byte[] deepest = requestWithNestedBody(OtlpProtobufCodec.MAX_NESTING_DEPTH);
+        byte[] tooDeep = requestWithNestedBody(OtlpProtobufCodec.MAX_NESTING_DEPTH + 1);
+
+        // Act & Assert
+        assertThat(codec.decode(deepest)).hasSize(1);
+        assertThatThrownBy(() -> codec.decode(tooDeep))
+                .isInstanceOf(OtlpDecodeException.class)
+                .hasMessageContaining("nested deeper");
+    }
+
+    @Test
+    void shouldEncodePartialSuccessResponse() throws Exception {
+        // Act
+        byte[] success = codec.encodeResponse(0, null);
+        byte[] partial = codec.encodeResponse(3, "Log record 0 rejected");
+
+        // Assert
+        assertThat(success).isEmpty();
+        ExportLogsServiceResponse response = ExportLogsServiceResponse.parseFrom(partial);
+        assertThat(response.getPartialSuccess().getRejectedLogRecords()).isEqualTo(3);
+        assertThat(response.getPartialSuccess().getErrorMessage()).isEqualTo("Log record 0 rejected");
+    }
+
+    private static KeyValue attribute(String key, String value) {
+        return KeyValue.newBuilder().setKey(key).setValue(AnyValue.newBuilder().setStringValue(value)).build();
+    }
+
+    private static byte[] requestWithNestedBody(int depth) {
+        AnyValue body = AnyValue.newBuilder().setStringValue("leaf").build();
+        for (int i = 0; i < depth; i++) {
+            body = AnyValue.newBuilder().setArrayValue(ArrayValue.newBuilder().addValues(body)).build();
+        }
+        return ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder().addScopeLogs(ScopeLogs.newBuilder()
+                        .addLogRecords(LogRecord.newBuilder().setBody(body))))
+                .build().toByteArray();
+    }
+}
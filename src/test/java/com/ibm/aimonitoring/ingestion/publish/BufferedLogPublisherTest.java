@@ -0,0 +1,281 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for BufferedLogPublisher
+ */
+class BufferedLogPublisherTest {
+
+    private RecordingPublisher delegate;
+
+    private IngestionProperties.Buffer settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BufferedLogPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new RecordingPublisher();
+        settings = new IngestionProperties.Buffer();
+        settings.setEnabled(true);
+        settings.setCapacity(8);
+        settings.setPublisherThreads(1);
+        settings.setDrainBatchSize(4);
+        settings.setWaitStrategy(IngestionProperties.WaitStrategy.SLEEPING);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            delegate.release();
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void shouldPublishSynchronouslyWhenNotStarted() {
+        // Arrange
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+
+        // Act
+        publisher.publish(entry("one"));
+
+        // Assert
+        assertThat(delegate.published()).hasSize(1);
+    }
+
+    @Test
+    void shouldDrainInBatchesOnPublisherThread() throws Exception {
+        // Arrange
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+        delegate.block();
+        publisher.start();
+
+        // Act
+        publisher.publish(entry("first"));
+        delegate.awaitBlocked();
+        publisher.publishAll(List.of(entry("a"), entry("b"), entry("c"), entry("d"), entry("e")));
+        delegate.release();
+        publisher.stop();
+
+        // Assert
+        assertThat(delegate.published()).extracting(LogEntryDTO::getMessage)
+                .containsExactly("first", "a", "b", "c", "d", "e");
+        assertThat(delegate.batchSizes()).startsWith(1, 4);
+        assertThat(delegate.threadNames()).allMatch(name -> name.startsWith("log-publisher-"));
+    }
+
+    @Test
+    void shouldRejectWhenFull() throws Exception {
+        // Arrange
+        settings.setOverflowPolicy(IngestionProperties.OverflowPolicy.REJECT);
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+        delegate.block();
+        publisher.start();
+        publisher.publish(entry("in-flight"));
+        delegate.awaitBlocked();
+        for (int i = 0; i < 8; i++) {
+            publisher.publish(entry("queued-" + i));
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(entry("overflow")))
+                .isInstanceOf(LogPublisher.PublisherOverloadedException.class);
+        assertThat(meterRegistry.get("ingestion.publish.buffer.rejected").counter().count()).isEqualTo(1);
+        assertThat(publisher.getBacklog()).isEqualTo(8);
+        assertThat(publisher.remainingCapacity()).isZero();
+    }
+
+    @Test
+    void shouldRejectWholeBatchThatDoesNotFit() throws Exception {
+        // Arrange
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+        delegate.block();
+        publisher.start();
+        publisher.publish(entry("in-flight"));
+        delegate.awaitBlocked();
+        for (int i = 0; i < 6; i++) {
+            publisher.publish(entry("queued-" + i));
+        }
+        List<LogEntryDTO> batch = List.of(entry("a"), entry("b"), entry("c"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publishAll(batch))
+                .isInstanceOf(LogPublisher.PublisherOverloadedException.class);
+        assertThat(publisher.getBacklog()).isEqualTo(6);
+        assertThat(meterRegistry.get("ingestion.publish.buffer.rejected").counter().count()).isEqualTo(3);
+        publisher.publishAll(List.of(entry("a"), entry("b")));
+        assertThat(publisher.getBacklog()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldBlockUntilRoomWhenConfigured() throws Exception {
+        // Arrange
+        settings.setOverflowPolicy(IngestionProperties.OverflowPolicy.BLOCK);
+        settings.setOfferTimeout(Duration.ofSeconds(5));
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+        delegate.block();
+        publisher.start();
+        publisher.publish(entry("in-flight"));
+        delegate.awaitBlocked();
+        for (int i = 0; i < 8; i++) {
+            publisher.publish(entry("queued-" + i));
+        }
+
+        // Act
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            delegate.release();
+        });
+        releaser.start();
+        publisher.publish(entry("waited"));
+        releaser.join();
+        publisher.stop();
+
+        // Assert
+        assertThat(delegate.published()).hasSize(10);
+    }
+
+    @Test
+    void shouldSpillWhenFullAndConfigured() throws Exception {
+        // Arrange
+        SpillLog spillLog = mock(SpillLog.class);
+        settings.setOverflowPolicy(IngestionProperties.OverflowPolicy.SPILL);
+        publisher = new BufferedLogPublisher(delegate, settings, spillLog, meterRegistry);
+        delegate.block();
+        publisher.start();
+        publisher.publish(entry("in-flight"));
+        delegate.awaitBlocked();
+        for (int i = 0; i < 8; i++) {
+            publisher.publish(entry("queued-" + i));
+        }
+
+        // Act
+        LogEntryDTO overflow = entry("overflow");
+        publisher.publish(overflow);
+
+        // Assert
+        verify(spillLog).appendAll(List.of(overflow));
+        assertThat(publisher.getBacklog()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldRequireSpillLogForSpillPolicy() {
+        // Arrange
+        settings.setOverflowPolicy(IngestionProperties.OverflowPolicy.SPILL);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new BufferedLogPublisher(delegate, settings, meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldCountFailedBatches() {
+        // Arrange
+        delegate.failWith(new RuntimeException("broker down"));
+        publisher = new BufferedLogPublisher(delegate, settings, meterRegistry);
+        publisher.start();
+
+        // Act
+        publisher.publishAll(List.of(entry("a"), entry("b")));
+        publisher.stop();
+
+        // Assert
+        assertThat(meterRegistry.get("ingestion.publish.buffer.failures").counter().count()).isEqualTo(2);
+    }
+
+    private static LogEntryDTO entry(String message) {
+        return LogEntryDTO.builder().level("INFO").message(message).service("test-service").build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delegate that records what it was asked to publish and can be paused
+     */
+    private static class RecordingPublisher implements LogPublisher {
+
+        private final List<LogEntryDTO> published = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            publishAll(List.of(logEntry));
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            blocked.countDown();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            threadNames.add(Thread.currentThread().getName());
+            batchSizes.add(logEntries.size());
+            published.addAll(logEntries);
+        }
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            blocked.await(10, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void failWith(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        List<LogEntryDTO> published() {
+            return published;
+        }
+
+        List<Integer> batchSizes() {
+            return batchSizes;
+        }
+
+        List<String> threadNames() {
+            return threadNames;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for DedupLogPublisher
+ */
+class DedupLogPublisherTest {
+
+    private final List<LogEntryDTO> published = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean overloaded;
+
+    private final LogPublisher delegate = new LogPublisher() {
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            publishAll(List.of(logEntry));
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            if (overloaded) {
+                throw new PublisherOverloadedException("Publish buffer is full");
+            }
+            published.addAll(logEntries);
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DedupLogPublisher publisher;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        IngestionProperties.Dedup settings = new IngestionProperties.Dedup();
+        settings.setEnabled(true);
+        settings.setWindow(Duration.ofMinutes(10));
+        meterRegistry = new SimpleMeterRegistry();
+        now = TimeUnit.SECONDS.toNanos(100);
+        publisher = new DedupLogPublisher(delegate, settings, meterRegistry, () -> now);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void shouldPassThroughWhenNotStarted() {
+        // Act
+        publisher.publish(entry("host-1", "Connection refused after 3 attempts", 0));
+        publisher.publish(entry("host-1", "Connection refused after 3 attempts", 1));
+
+        // Assert
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void shouldCollapseRepeatsIntoOneSummaryPerWindow() {
+        // Arrange
+        publisher.start();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(entry("host-1", "Connection refused after " + i + " attempts", i));
+        }
+        LogEntryDTO first = published.get(0);
+        now += TimeUnit.MINUTES.toNanos(11);
+        publisher.closeWindows(false);
+
+        // Assert
+        assertThat(published).hasSize(2);
+        assertThat(first.getRepeatCount()).isNull();
+        LogEntryDTO summary = published.get(1);
+        assertThat(summary.getRepeatCount()).isEqualTo(4);
+        assertThat(summary.getFirstTimestamp()).isEqualTo(Instant.ofEpochSecond(1));
+        assertThat(summary.getLastTimestamp()).isEqualTo(Instant.ofEpochSecond(4));
+        assertThat(meterRegistry.get("ingestion.dedup.received").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("ingestion.dedup.suppressed").counter().count()).isEqualTo(4);
+        assertThat(publisher.getSuppressionRatio()).isEqualTo(0.8);
+    }
+
+    @Test
+    void shouldNotCollapseEntriesFromDifferentHosts() {
+        // Arrange
+        publisher.start();
+
+        // Act
+        publisher.publish(entry("host-1", "Out of memory", 0));
+        publisher.publish(entry("host-2", "Out of memory", 1));
+
+        // Assert
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void shouldOpenNewWindowAfterExpiry() {
+        // Arrange
+        publisher.start();
+        publisher.publish(entry("host-1", "Out of memory", 0));
+        publisher.publish(entry("host-1", "Out of memory", 1));
+
+        // Act
+        now += TimeUnit.MINUTES.toNanos(11);
+        publisher.publish(entry("host-1", "Out of memory", 700));
+
+        // Assert
+        assertThat(published).hasSize(3);
+        assertThat(published.get(1).getRepeatCount()).isEqualTo(1);
+        assertThat(published.get(2).getRepeatCount()).isNull();
+        assertThat(published.get(2).getTimestamp()).isEqualTo(Instant.ofEpochSecond(700));
+    }
+
+    @Test
+    void shouldPublishOpenSummariesAndStopDelegateOnStop() {
+        // Arrange
+        BufferedLogPublisher buffer = mock(BufferedLogPublisher.class);
+        IngestionProperties.Dedup settings = new IngestionProperties.Dedup();
+        DedupLogPublisher lifecyclePublisher = new DedupLogPublisher(buffer, settings, meterRegistry, () -> now);
+        lifecyclePublisher.start();
+        publisher.start();
+        publisher.publish(entry("host-1", "Out of memory", 0));
+        publisher.publish(entry("host-1", "Out of memory", 1));
+
+        // Act
+        publisher.stop();
+        lifecyclePublisher.stop();
+
+        // Assert
+        assertThat(published).hasSize(2);
+        assertThat(published.get(1).getRepeatCount()).isEqualTo(1);
+        verify(buffer).start();
+        verify(buffer).stop();
+    }
+
+    @Test
+    void shouldPublishRetryAfterDelegateFailure() {
+        // Arrange
+        publisher.start();
+        List<LogEntryDTO> batch = List.of(entry("host-1", "Out of memory", 0), entry("host-1", "Out of memory", 1));
+        overloaded = true;
+
+        // Act
+        assertThatThrownBy(() -> publisher.publishAll(batch))
+                .isInstanceOf(LogPublisher.PublisherOverloadedException.class);
+        overloaded = false;
+        publisher.publishAll(List.of(entry("host-1", "Out of memory", 0), entry("host-1", "Out of memory", 1)));
+        publisher.stop();
+
+        // Assert: the retry's first entry goes out, and the summary counts one repeat
+        assertThat(published).hasSize(2);
+        assertThat(published.get(0).getRepeatCount()).isNull();
+        assertThat(published.get(1).getRepeatCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.dedup.received").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ingestion.dedup.suppressed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRestoreDisplacedWindowAfterDelegateFailure() {
+        // Arrange: the smallest table, and an entry whose fingerprint lands on the same slot
+        IngestionProperties.Dedup settings = new IngestionProperties.Dedup();
+        settings.setTableSize(1);
+        settings.setWindow(Duration.ofMinutes(10));
+        DedupLogPublisher smallPublisher = new DedupLogPublisher(delegate, settings, meterRegistry, () -> now);
+        LogEntryDTO resident = entry("host-1", "Out of memory", 0);
+        LogEntryDTO colliding = collidingEntry(resident, 127);
+        smallPublisher.start();
+        smallPublisher.publish(resident);
+        smallPublisher.publish(entry("host-1", "Out of memory", 1));
+        overloaded = true;
+
+        // Act
+        assertThatThrownBy(() -> smallPublisher.publish(colliding))
+                .isInstanceOf(LogPublisher.PublisherOverloadedException.class);
+        overloaded = false;
+        smallPublisher.stop();
+
+        // Assert: the held repeat is still summarised
+        assertThat(published).hasSize(2);
+        assertThat(published.get(1).getRepeatCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fingerprintShouldFoldDigitRuns() {
+        // Act & Assert
+        assertThat(DedupLogPublisher.fingerprint(entry("host-1", "Request took 15ms", 0)))
+                .isEqualTo(DedupLogPublisher.fingerprint(entry("host-1", "Request took 3ms", 0)))
+                .isNotEqualTo(DedupLogPublisher.fingerprint(entry("host-1", "Request took ms", 0)))
+                .isNotEqualTo(DedupLogPublisher.fingerprint(entry("host-1", "Request took 3s", 0)));
+    }
+
+    private static LogEntryDTO collidingEntry(LogEntryDTO resident, int mask) {
+        long slot = DedupLogPublisher.fingerprint(resident) & mask;
+        for (int i = 0; ; i++) {
+            LogEntryDTO candidate = entry("host-" + i, "Disk full", 2);
+            if ((DedupLogPublisher.fingerprint(candidate) & mask) == slot) {
+                return candidate;
+            }
+        }
+    }
+
+    private static LogEntryDTO entry(String host, String message, long epochSecond) {
+        return LogEntryDTO.builder()
+                .timestamp(Instant.ofEpochSecond(epochSecond))
+                .level("ERROR")
+                .message(message)
+                .service("user-service")
+                .host(host)
+                .build();
+    }
+}
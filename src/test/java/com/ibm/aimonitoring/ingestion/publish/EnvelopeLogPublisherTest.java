@@ -0,0 +1,154 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for EnvelopeLogPublisher
+ */
+class EnvelopeLogPublisherTest {
+
+    private final List<List<LogEntryDTO>> published = Collections.synchronizedList(new ArrayList<>());
+
+    private final LogPublisher delegate = new LogPublisher() {
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            publishAll(List.of(logEntry));
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            published.add(List.copyOf(logEntries));
+        }
+    };
+
+    private IngestionProperties.Envelope settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EnvelopeLogPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Envelope();
+        settings.setEnabled(true);
+        settings.setMaxEntries(3);
+        settings.setLinger(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new EnvelopeLogPublisher(delegate, LogEntryDTO::getLevel, settings, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void shouldPublishSynchronouslyWhenNotStarted() {
+        // Act
+        publisher.publish(entry("INFO", "one"));
+
+        // Assert
+        assertThat(published).hasSize(1);
+    }
+
+    @Test
+    void shouldFlushWhenEnvelopeIsFull() {
+        // Arrange
+        publisher.start();
+
+        // Act
+        publisher.publishAll(List.of(entry("INFO", "a"), entry("INFO", "b")));
+        int beforeFull = published.size();
+        publisher.publish(entry("INFO", "c"));
+
+        // Assert
+        assertThat(beforeFull).isZero();
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0)).extracting(LogEntryDTO::getMessage).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void shouldGroupByRoutingKey() {
+        // Arrange
+        publisher.start();
+
+        // Act
+        publisher.publishAll(List.of(entry("INFO", "a"), entry("ERROR", "b"), entry("INFO", "c"),
+                entry("ERROR", "d"), entry("INFO", "e")));
+
+        // Assert
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0)).extracting(LogEntryDTO::getLevel).containsOnly("INFO");
+    }
+
+    @Test
+    void shouldFlushAfterLinger() throws Exception {
+        // Arrange
+        settings.setLinger(Duration.ofMillis(5));
+        publisher = new EnvelopeLogPublisher(delegate, LogEntryDTO::getLevel, settings, meterRegistry);
+        publisher.start();
+
+        // Act
+        publisher.publish(entry("INFO", "lonely"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (published.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Assert
+        assertThat(published).hasSize(1);
+        assertThat(meterRegistry.get("ingestion.publish.envelope.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFlushRemainingEntriesOnStop() {
+        // Arrange
+        publisher.start();
+        publisher.publishAll(List.of(entry("INFO", "a"), entry("ERROR", "b")));
+
+        // Act
+        publisher.stop();
+
+        // Assert
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void shouldCountFailedEnvelopes() {
+        // Arrange
+        publisher = new EnvelopeLogPublisher(new LogPublisher() {
+            @Override
+            public void publish(LogEntryDTO logEntry) {
+                throw new LogPublishException("broker down");
+            }
+
+            @Override
+            public void publishAll(List<LogEntryDTO> logEntries) {
+                throw new LogPublishException("broker down");
+            }
+        }, LogEntryDTO::getLevel, settings, meterRegistry);
+        publisher.start();
+
+        // Act
+        publisher.publishAll(List.of(entry("INFO", "a"), entry("INFO", "b"), entry("INFO", "c")));
+
+        // Assert
+        assertThat(meterRegistry.get("ingestion.publish.envelope.failures").counter().count()).isEqualTo(3);
+    }
+
+    private static LogEntryDTO entry(String level, String message) {
+        return LogEntryDTO.builder().level(level).message(message).service("test-service").build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for LogRingBuffer
+ */
+class LogRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new LogRingBuffer<>(2).capacity()).isEqualTo(2);
+        assertThat(new LogRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new LogRingBuffer<>(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new LogRingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldBeFifoAndBounded() {
+        // Arrange
+        LogRingBuffer<Integer> ringBuffer = new LogRingBuffer<>(4);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(i)).isTrue();
+        }
+
+        // Assert
+        assertThat(ringBuffer.offer(4)).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+        assertThat(ringBuffer.poll()).isZero();
+        assertThat(ringBuffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ringBuffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(ringBuffer.poll()).isNull();
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldOfferAllOrNothing() {
+        // Arrange
+        LogRingBuffer<Integer> ringBuffer = new LogRingBuffer<>(4);
+        ringBuffer.offer(0);
+        ringBuffer.offer(1);
+
+        // Act & Assert
+        assertThat(ringBuffer.offerAll(List.of(2, 3, 4))).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(2);
+        assertThat(ringBuffer.offerAll(List.of(2, 3))).isTrue();
+        assertThat(ringBuffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        ringBuffer.drainTo(drained, 10);
+        assertThat(drained).containsExactly(0, 1, 2, 3);
+        assertThat(ringBuffer.offerAll(List.of(4, 5, 6, 7))).isTrue();
+        assertThat(ringBuffer.offerAll(List.of(8, 9, 10, 11, 12))).isFalse();
+    }
+
+    @Test
+    void shouldDeliverEveryElementExactlyOnceUnderContention() throws Exception {
+        // Arrange
+        int producers = 4;
+        int consumers = 3;
+        int perProducer = 50_000;
+        LogRingBuffer<Integer> ringBuffer = new LogRingBuffer<>(1024);
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch producersDone = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+
+        // Act: half the producers offer single elements, half offer runs of ten
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            boolean batched = p % 2 == 1;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i += batched ? 10 : 1) {
+                    if (batched) {
+                        List<Integer> run = new ArrayList<>();
+                        for (int j = 0; j < 10; j++) {
+                            run.add(base + i + j);
+                        }
+                        while (!ringBuffer.offerAll(run)) {
+                            Thread.onSpinWait();
+                        }
+                    } else {
+                        while (!ringBuffer.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+                producersDone.countDown();
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            executor.execute(() -> {
+                List<Integer> batch = new ArrayList<>();
+                while (consumed.get() < producers * perProducer) {
+                    batch.clear();
+                    int drained = ringBuffer.drainTo(batch, 64);
+                    received.addAll(batch);
+                    consumed.addAndGet(drained);
+                }
+            });
+        }
+        producersDone.await(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumed.get()).isEqualTo(producers * perProducer);
+        assertThat(received).hasSize(producers * perProducer);
+    }
+}
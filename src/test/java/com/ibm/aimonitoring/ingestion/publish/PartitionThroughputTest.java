@@ -0,0 +1,154 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares entries/sec delivered through 1 and 4 partitions against a broker
+ * stand-in that, like a classic queue, serves each queue from a single
+ * consumer with a fixed per-message cost. Routing uses the bindings declared
+ * by {@link RabbitMQConfig}, and the consumers check per-service order.
+ * Timing based, so it only runs with {@code -Pthroughput}.
+ */
+@Slf4j
+@Tag("throughput")
+class PartitionThroughputTest {
+
+    private static final int TOTAL_ENTRIES = 1000;
+    private static final int SERVICES = 64;
+    private static final long QUEUE_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    void throughputShouldScaleWithPartitionCount() throws Exception {
+        // Warm up so JIT compilation does not skew the comparison
+        run(1, TOTAL_ENTRIES / 4);
+        run(4, TOTAL_ENTRIES / 4);
+
+        // Act
+        long oneNanos = run(1, TOTAL_ENTRIES);
+        long fourNanos = run(4, TOTAL_ENTRIES);
+
+        double oneRate = TOTAL_ENTRIES / (oneNanos / 1e9);
+        double fourRate = TOTAL_ENTRIES / (fourNanos / 1e9);
+        log.info("1 partition: {} entries/s, 4 partitions: {} entries/s, speedup {}x",
+                Math.round(oneRate), Math.round(fourRate), String.format("%.1f", fourRate / oneRate));
+
+        // Assert
+        assertThat(fourRate).isGreaterThan(oneRate * 1.5);
+    }
+
+    /**
+     * Publish entries through the given number of partitions and wait until
+     * every queue has drained
+     *
+     * @return elapsed nanoseconds
+     */
+    private long run(int partitions, int entries) throws Exception {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getPartitions().setEnabled(true);
+        properties.getPartitions().setCount(partitions);
+        Declarables declarables = new RabbitMQConfig().logsPartitionDeclarables(
+                new RabbitMQConfig().logsExchange(), properties);
+        StandInBroker broker = new StandInBroker(declarables, entries);
+        RabbitLogPublisher publisher = new RabbitLogPublisher(broker, properties, new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        broker.startConsumers();
+        for (int i = 0; i < entries; i++) {
+            publisher.publish(LogEntryDTO.builder()
+                    .level("INFO")
+                    .message(Integer.toString(i))
+                    .service("service-" + (i % SERVICES))
+                    .build());
+        }
+        broker.awaitDrained();
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(broker.outOfOrder).hasValue(0);
+        assertThat(broker.queues).hasSize(partitions);
+        return elapsed;
+    }
+
+    /**
+     * Routes by exact binding key to in-memory queues, each drained by one thread
+     */
+    private static final class StandInBroker extends RabbitTemplate {
+
+        private final Map<String, BlockingQueue<LogEntryDTO>> queues = new HashMap<>();
+        private final Map<String, String> queueByRoutingKey = new HashMap<>();
+        private final Map<String, Integer> lastSequenceByService = new ConcurrentHashMap<>();
+        private final AtomicInteger outOfOrder = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final List<Thread> consumers = new ArrayList<>();
+
+        private StandInBroker(Declarables declarables, int expected) {
+            for (Binding binding : declarables.getDeclarablesByType(Binding.class)) {
+                queueByRoutingKey.put(binding.getRoutingKey(), binding.getDestination());
+                queues.put(binding.getDestination(), new LinkedBlockingQueue<>());
+            }
+            this.remaining = new AtomicInteger(expected);
+        }
+
+        private void startConsumers() {
+            queues.forEach((name, queue) -> {
+                Thread consumer = new Thread(() -> consume(queue), "consumer-" + name);
+                consumer.setDaemon(true);
+                consumer.start();
+                consumers.add(consumer);
+            });
+        }
+
+        private void consume(BlockingQueue<LogEntryDTO> queue) {
+            try {
+                while (remaining.get() > 0) {
+                    LogEntryDTO logEntry = queue.poll(10, TimeUnit.MILLISECONDS);
+                    if (logEntry == null) {
+                        continue;
+                    }
+                    LockSupport.parkNanos(QUEUE_COST_NANOS);
+                    int sequence = Integer.parseInt(logEntry.getMessage());
+                    Integer previous = lastSequenceByService.put(logEntry.getService(), sequence);
+                    if (previous != null && previous > sequence) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    remaining.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void awaitDrained() throws InterruptedException {
+            for (Thread consumer : consumers) {
+                consumer.join(TimeUnit.SECONDS.toMillis(30));
+            }
+            assertThat(remaining).hasValue(0);
+        }
+
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object object) {
+            queues.get(queueByRoutingKey.get(routingKey)).add((LogEntryDTO) object);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RabbitLogPublisher
+ */
+@ExtendWith(MockitoExtension.class)
+class RabbitLogPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private IngestionProperties ingestionProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LogEntryDTO logEntry;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        logEntry = LogEntryDTO.builder()
+                .level("INFO")
+                .message("Test log message")
+                .service("test-service")
+                .build();
+    }
+
+    @Test
+    void shouldPublishWithoutCorrelationWhenConfirmsDisabled() {
+        // Arrange
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act
+        publisher.publish(logEntry);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(
+                RabbitMQConfig.LOGS_EXCHANGE, RabbitMQConfig.LOGS_RAW_ROUTING_KEY, logEntry);
+        verify(rabbitTemplate, never()).convertAndSend(
+                anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void shouldRouteByLevelAndServiceWhenRoutingEnabled() {
+        // Arrange
+        ingestionProperties.getRouting().setEnabled(true);
+        RabbitLogPublisher publisher = createPublisher();
+        LogEntryDTO error = LogEntryDTO.builder().level("ERROR").message("Card declined").service("Payment Service").build();
+
+        // Act
+        publisher.publish(logEntry);
+        publisher.publish(error);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, "logs.raw.info.test-service", logEntry);
+        verify(rabbitTemplate).convertAndSend(RabbitMQConfig.LOGS_EXCHANGE, "logs.raw.error.payment_service", error);
+        assertThat(publisher.routingKey(LogEntryDTO.builder().level("bogus").service("a.b#c").build()))
+                .isEqualTo("logs.raw.unknown.a_b_c");
+    }
+
+    @Test
+    void shouldKeepEachKeyOnOnePartition() {
+        // Arrange
+        ingestionProperties.getPartitions().setEnabled(true);
+        ingestionProperties.getPartitions().setCount(8);
+        ingestionProperties.getPartitions().setKeyBy(IngestionProperties.PartitionKey.TRACE_ID);
+        RabbitLogPublisher publisher = createPublisher();
+        Map<String, Set<String>> partitionsByTrace = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            String traceId = "trace-" + (i % 200);
+            LogEntryDTO entry = LogEntryDTO.builder().level("INFO").service("svc").traceId(traceId).build();
+            partitionsByTrace.computeIfAbsent(traceId, key -> new HashSet<>()).add(publisher.routingKey(entry));
+        }
+
+        // Assert
+        assertThat(partitionsByTrace.values()).allSatisfy(partitions -> assertThat(partitions).hasSize(1));
+        assertThat(partitionsByTrace.values().stream().flatMap(Set::stream).distinct())
+                .containsExactlyInAnyOrder("logs.raw.0", "logs.raw.1", "logs.raw.2", "logs.raw.3",
+                        "logs.raw.4", "logs.raw.5", "logs.raw.6", "logs.raw.7");
+        assertThat(publisher.routingKey(LogEntryDTO.builder().service("svc").build()))
+                .isEqualTo(publisher.routingKey(LogEntryDTO.builder().service("other").traceId("svc").build()));
+    }
+
+    @Test
+    void shouldRejectRoutingTogetherWithPartitions() {
+        // Arrange
+        ingestionProperties.getRouting().setEnabled(true);
+        ingestionProperties.getPartitions().setEnabled(true);
+
+        // Act & Assert
+        assertThatThrownBy(this::createPublisher).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldAwaitBrokerAck() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        confirmWith(true);
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act
+        publisher.publish(logEntry);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.LOGS_EXCHANGE),
+                eq(RabbitMQConfig.LOGS_RAW_ROUTING_KEY), eq(logEntry), any(CorrelationData.class));
+        assertThat(meterRegistry.get("ingestion.publish.confirm.latency").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.publish.confirm.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldFailAndCountNack() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        confirmWith(false);
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(logEntry))
+                .isInstanceOf(LogPublisher.LogPublishException.class)
+                .hasMessageContaining("rejected");
+        assertThat(meterRegistry.get("ingestion.publish.confirm.nacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeOutWhenConfirmNeverArrives() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        ingestionProperties.getPublisher().getConfirms().setTimeout(Duration.ofMillis(20));
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(logEntry))
+                .isInstanceOf(LogPublisher.LogPublishException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(meterRegistry.get("ingestion.publish.confirm.timeouts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ingestion.publish.confirm.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldReleaseSlotsOfBatchWhenConfirmsNeverArrive() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        ingestionProperties.getPublisher().getConfirms().setMaxInFlight(3);
+        ingestionProperties.getPublisher().getConfirms().setTimeout(Duration.ofMillis(20));
+        RabbitLogPublisher publisher = createPublisher();
+        List<LogEntryDTO> batch = List.of(logEntry, logEntry, logEntry);
+
+        // Act & Assert: a lost confirm must not shrink the window for later publishes
+        assertThatThrownBy(() -> publisher.publishAll(batch)).hasMessageContaining("Timed out waiting for broker");
+        assertThatThrownBy(() -> publisher.publishAll(batch)).hasMessageContaining("Timed out waiting for broker");
+        assertThat(meterRegistry.get("ingestion.publish.confirm.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldRefuseConfirmsWithoutCorrelatedConnectionFactory() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+
+        // Act & Assert
+        assertThatThrownBy(this::createPublisher)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("publisher-confirm-type=correlated");
+    }
+
+    @Test
+    void shouldNotWaitForConfirmWhenFireAndForget() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.FIRE_AND_FORGET);
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act
+        publisher.publish(logEntry);
+
+        // Assert
+        assertThat(meterRegistry.get("ingestion.publish.confirm.in_flight").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBoundInFlightWindow() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.FIRE_AND_FORGET);
+        ingestionProperties.getPublisher().getConfirms().setMaxInFlight(1);
+        ingestionProperties.getPublisher().getConfirms().setTimeout(Duration.ofMillis(20));
+        RabbitLogPublisher publisher = createPublisher();
+        publisher.publish(logEntry);
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(logEntry))
+                .isInstanceOf(LogPublisher.LogPublishException.class)
+                .hasMessageContaining("slot");
+    }
+
+    @Test
+    void shouldPipelineBatchBeforeAwaitingConfirms() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        confirmWith(true);
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act
+        publisher.publishAll(List.of(logEntry, logEntry, logEntry));
+
+        // Assert
+        verify(rabbitTemplate, times(3)).convertAndSend(anyString(), anyString(),
+                any(Object.class), any(CorrelationData.class));
+        assertThat(meterRegistry.get("ingestion.publish.confirm.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReleaseSlotWhenSendFails() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        ingestionProperties.getPublisher().getConfirms().setMaxInFlight(1);
+        doThrow(new RuntimeException("Connection refused")).when(rabbitTemplate).convertAndSend(
+                anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(logEntry)).hasMessageContaining("Connection refused");
+        assertThat(meterRegistry.get("ingestion.publish.confirm.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldPackEntriesIntoEnvelopes() {
+        // Arrange
+        enableConfirms(IngestionProperties.ConfirmPolicy.AWAIT);
+        ingestionProperties.getPublisher().getEnvelope().setEnabled(true);
+        ingestionProperties.getPublisher().getEnvelope().setMaxEntries(2);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(4);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        RabbitLogPublisher publisher = createPublisher();
+
+        // Act
+        publisher.publishAll(List.of(logEntry, logEntry, logEntry, logEntry, logEntry));
+
+        // Assert
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<MessagePostProcessor> postProcessors = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate, times(3)).convertAndSend(eq(RabbitMQConfig.LOGS_EXCHANGE),
+                eq(RabbitMQConfig.LOGS_RAW_ROUTING_KEY), payloads.capture(), postProcessors.capture(),
+                any(CorrelationData.class));
+        assertThat(payloads.getAllValues()).extracting(payload -> ((List<?>) payload).size())
+                .containsExactly(2, 2, 1);
+        Message message = postProcessors.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertThat((Integer) message.getMessageProperties().getHeader(RabbitLogPublisher.ENVELOPE_COUNT_HEADER))
+                .isEqualTo(1);
+    }
+
+    private RabbitLogPublisher createPublisher() {
+        return new RabbitLogPublisher(rabbitTemplate, ingestionProperties, meterRegistry);
+    }
+
+    private void enableConfirms(IngestionProperties.ConfirmPolicy policy) {
+        ingestionProperties.getPublisher().getConfirms().setEnabled(true);
+        ingestionProperties.getPublisher().getConfirms().setPolicy(policy);
+    }
+
+    private void confirmWith(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+}
@@ -0,0 +1,201 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.model.LogLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SamplingLogPublisher
+ */
+class SamplingLogPublisherTest {
+
+    private final List<LogEntryDTO> published = new ArrayList<>();
+
+    private final LogPublisher delegate = new LogPublisher() {
+        @Override
+        public void publish(LogEntryDTO logEntry) {
+            published.add(logEntry);
+        }
+
+        @Override
+        public void publishAll(List<LogEntryDTO> logEntries) {
+            published.addAll(logEntries);
+        }
+    };
+
+    private IngestionProperties.Sampling settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Sampling();
+        settings.setEnabled(true);
+        settings.setUpdateInterval(Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        now = TimeUnit.SECONDS.toNanos(100);
+    }
+
+    @Test
+    void shouldKeepEverythingWithoutLoad() {
+        // Arrange
+        SamplingLogPublisher publisher = publisher(null);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(entry("TRACE", null));
+        }
+
+        // Assert
+        assertThat(published).hasSize(100).allMatch(entry -> entry.getSampleRate() == null);
+    }
+
+    @Test
+    void shouldDropLowSeverityButKeepErrorsWhenBacklogIsFull() {
+        // Arrange
+        BufferedLogPublisher buffer = mock(BufferedLogPublisher.class);
+        when(buffer.getCapacity()).thenReturn(100);
+        when(buffer.getBacklog()).thenReturn(95);
+        SamplingLogPublisher publisher = publisher(buffer);
+        now += TimeUnit.SECONDS.toNanos(1);
+
+        // Act
+        List<LogEntryDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(entry("ERROR", null));
+            batch.add(entry("WARN", null));
+            batch.add(entry("INFO", null));
+            batch.add(entry("TRACE", null));
+        }
+        publisher.publishAll(batch);
+
+        // Assert
+        assertThat(publisher.getPressure()).isEqualTo(1.0);
+        assertThat(count("ERROR")).isEqualTo(1000);
+        assertThat(count("WARN")).isEqualTo(1000);
+        assertThat(count("INFO")).isBetween(50L, 150L);
+        assertThat(count("TRACE")).isZero();
+        assertThat(published).filteredOn(entry -> entry.getLevel().equals("INFO"))
+                .allMatch(entry -> entry.getSampleRate() == 0.1);
+        assertThat(meterRegistry.get("ingestion.sampling.dropped").tag("level", "TRACE").counter().count())
+                .isEqualTo(1000);
+    }
+
+    @Test
+    void shouldKeepOrDropWholeTraces() {
+        // Arrange
+        settings.setTargetRate(100);
+        SamplingLogPublisher publisher = publisher(null);
+        for (int i = 0; i < 1000; i++) {
+            publisher.publish(entry("ERROR", null));
+        }
+        now += TimeUnit.SECONDS.toNanos(1);
+        publisher.publish(entry("ERROR", null));
+        published.clear();
+
+        // Act
+        int tracesKept = 0;
+        for (int trace = 0; trace < 200; trace++) {
+            int before = published.size();
+            for (int i = 0; i < 5; i++) {
+                publisher.publish(entry("DEBUG", "trace-" + trace));
+            }
+            int kept = published.size() - before;
+            assertThat(kept).isIn(0, 5);
+            tracesKept += kept / 5;
+        }
+
+        // Assert
+        assertThat(publisher.getPressure()).isEqualTo(1.0);
+        assertThat(tracesKept).isLessThan(20);
+    }
+
+    @Test
+    void shouldRecoverGraduallyAndApplyServiceOverrides() {
+        // Arrange
+        BufferedLogPublisher buffer = mock(BufferedLogPublisher.class);
+        when(buffer.getCapacity()).thenReturn(100);
+        when(buffer.getBacklog()).thenReturn(100, 0);
+        settings.setServiceMinRates(Map.of("payment-service", Map.of(LogLevel.INFO, 1.0)));
+        SamplingLogPublisher publisher = publisher(buffer);
+
+        // Act
+        now += TimeUnit.SECONDS.toNanos(1);
+        publisher.publish(entry("ERROR", null));
+        double full = publisher.getPressure();
+        now += TimeUnit.SECONDS.toNanos(1);
+        LogEntryDTO payment = entry("INFO", null);
+        payment.setService("payment-service");
+        publisher.publish(payment);
+
+        // Assert
+        assertThat(full).isEqualTo(1.0);
+        assertThat(publisher.getPressure()).isEqualTo(0.75);
+        assertThat(published).contains(payment);
+        assertThat(payment.getSampleRate()).isNull();
+    }
+
+    @Test
+    void shouldForwardLifecycleToDelegate() {
+        // Arrange
+        BufferedLogPublisher buffer = mock(BufferedLogPublisher.class);
+        SamplingLogPublisher publisher = new SamplingLogPublisher(buffer, buffer, settings, meterRegistry);
+
+        // Act
+        publisher.start();
+        publisher.stop();
+
+        // Assert
+        verify(buffer).start();
+        verify(buffer).stop();
+        assertThat(publisher.isRunning()).isFalse();
+    }
+
+    @Test
+    void unitHashShouldBeStableAndSpread() {
+        // Act & Assert
+        assertThat(SamplingLogPublisher.unitHash("4bf92f3577b34da6a3ce929d0e0e4736"))
+                .isEqualTo(SamplingLogPublisher.unitHash("4bf92f3577b34da6a3ce929d0e0e4736"))
+                .isBetween(0.0, 1.0);
+        long belowHalf = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (SamplingLogPublisher.unitHash("trace-" + i) < 0.5) {
+                belowHalf++;
+            }
+        }
+        assertThat(belowHalf).isBetween(4_700L, 5_300L);
+    }
+
+    private SamplingLogPublisher publisher(BufferedLogPublisher buffer) {
+        return new SamplingLogPublisher(delegate, buffer, settings, meterRegistry, () -> now);
+    }
+
+    private long count(String level) {
+        return published.stream().filter(entry -> entry.getLevel().equals(level)).count();
+    }
+
+    private static LogEntryDTO entry(String level, String traceId) {
+        return LogEntryDTO.builder()
+                .level(level)
+                .message("Test message")
+                .service("test-service")
+                .traceId(traceId)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.spill.SpillLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for SpillingLogPublisher
+ */
+@ExtendWith(MockitoExtension.class)
+class SpillingLogPublisherTest {
+
+    @Mock
+    private LogPublisher delegate;
+
+    @Mock
+    private SpillLog spillLog;
+
+    private SpillingLogPublisher publisher;
+
+    private LogEntryDTO entry;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new SpillingLogPublisher(delegate, spillLog);
+        entry = LogEntryDTO.builder().level("ERROR").message("m").service("s").build();
+    }
+
+    @Test
+    void shouldNotSpillWhenDelegateSucceeds() {
+        // Act
+        publisher.publish(entry);
+
+        // Assert
+        verify(delegate).publish(entry);
+        verify(spillLog, never()).appendAll(any());
+    }
+
+    @Test
+    void shouldSpillWhenDelegateFails() {
+        // Arrange
+        doThrow(new RuntimeException("broker down")).when(delegate).publishAll(List.of(entry));
+
+        // Act
+        publisher.publishAll(List.of(entry));
+
+        // Assert
+        verify(spillLog).appendAll(List.of(entry));
+    }
+
+    @Test
+    void shouldNotSpillOverloadRejections() {
+        // Arrange
+        doThrow(new LogPublisher.PublisherOverloadedException("full")).when(delegate).publish(entry);
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(entry))
+                .isInstanceOf(LogPublisher.PublisherOverloadedException.class);
+        verify(spillLog, never()).appendAll(any());
+    }
+
+    @Test
+    void shouldFailWhenSpillLogIsFull() {
+        // Arrange
+        doThrow(new RuntimeException("broker down")).when(delegate).publish(entry);
+        doThrow(new SpillLog.SpillLogFullException("full")).when(spillLog).appendAll(List.of(entry));
+
+        // Act & Assert
+        assertThatThrownBy(() -> publisher.publish(entry))
+                .isInstanceOf(LogPublisher.LogPublishException.class)
+                .hasMessage("Failed to publish or spill log entries");
+    }
+}
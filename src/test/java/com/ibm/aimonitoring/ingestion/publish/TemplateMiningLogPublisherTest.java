@@ -0,0 +1,38 @@
+package com.ibm.aimonitoring.ingestion.publish;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.template.DrainTemplateMiner;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TemplateMiningLogPublisherTest {
+
+    @Test
+    void shouldAttachTemplateBeforeDelegating() {
+        // Arrange
+        LogPublisher delegate = mock(LogPublisher.class);
+        TemplateMiningLogPublisher publisher = new TemplateMiningLogPublisher(
+                delegate, new DrainTemplateMiner(new IngestionProperties.Templates()));
+        LogEntryDTO first = LogEntryDTO.builder().message("Job 17 finished in 250 ms").build();
+        LogEntryDTO second = LogEntryDTO.builder().message("Job 18 finished in 90 ms").build();
+        LogEntryDTO single = LogEntryDTO.builder().message("Job 19 finished in 12 ms").build();
+
+        // Act
+        publisher.publishAll(List.of(first, second));
+        publisher.publish(single);
+
+        // Assert
+        verify(delegate).publishAll(List.of(first, second));
+        verify(delegate).publish(single);
+        assertThat(first.getTemplateId()).isNotNull()
+                .isEqualTo(second.getTemplateId())
+                .isEqualTo(single.getTemplateId());
+        assertThat(second.getTemplateParameters()).containsExactly("18", "90");
+    }
+}
@@ -0,0 +1,166 @@
+package com.ibm.aimonitoring.ingestion.ratelimit;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for LogRateLimiter
+ */
+class LogRateLimiterTest {
+
+    private IngestionProperties.RateLimit settings;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.RateLimit();
+        settings.setEnabled(true);
+        settings.setDefaultLimit(new IngestionProperties.Limit(10, 5));
+        now = TimeUnit.SECONDS.toNanos(100);
+    }
+
+    @Test
+    void shouldAllowBurstThenRejectUntilRefilled() {
+        // Arrange
+        LogRateLimiter limiter = limiter();
+
+        // Act
+        int allowed = 0;
+        while (limiter.tryAcquire(entry("user-service", null))) {
+            allowed++;
+        }
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+
+        // Assert
+        assertThat(allowed).isEqualTo(5);
+        assertThat(limiter.tryAcquire(entry("user-service", null))).isTrue();
+        assertThat(limiter.tryAcquire(entry("user-service", null))).isFalse();
+        assertThat(limiter.getAllowed()).isEqualTo(6);
+        assertThat(limiter.getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLimitEachServiceIndependently() {
+        // Arrange
+        LogRateLimiter limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(entry("noisy-service", null));
+        }
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire(entry("noisy-service", null))).isFalse();
+        assertThat(limiter.tryAcquire(entry("quiet-service", null))).isTrue();
+    }
+
+    @Test
+    void shouldThrowWithRetryAfterWhenExceeded() {
+        // Arrange
+        settings.setDefaultLimit(new IngestionProperties.Limit(0.25, 1));
+        LogRateLimiter limiter = limiter();
+        limiter.acquire(entry("user-service", null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> limiter.acquire(entry("user-service", null)))
+                .isInstanceOf(LogRateLimiter.RateLimitExceededException.class)
+                .hasMessageContaining("user-service")
+                .extracting("retryAfterSeconds")
+                .isEqualTo(4L);
+    }
+
+    @Test
+    void shouldFallBackFromEnvironmentKeyToServiceLimit() {
+        // Arrange
+        settings.setKeyBy(IngestionProperties.RateLimitKey.SERVICE_ENVIRONMENT);
+        settings.getLimits().put("user-service", new IngestionProperties.Limit(10, 1));
+        settings.getLimits().put("user-service/staging", new IngestionProperties.Limit(10, 3));
+        LogRateLimiter limiter = limiter();
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire(entry("user-service", "production"))).isTrue();
+        assertThat(limiter.tryAcquire(entry("user-service", "production"))).isFalse();
+        assertThat(limiter.tryAcquire(entry("user-service", "staging"))).isTrue();
+        assertThat(limiter.tryAcquire(entry("user-service", "staging"))).isTrue();
+        assertThat(limiter.tryAcquire(entry("user-service", "staging"))).isTrue();
+        assertThat(limiter.tryAcquire(entry("user-service", "staging"))).isFalse();
+    }
+
+    @Test
+    void shouldApplyChangedLimitsToExistingBuckets() {
+        // Arrange
+        LogRateLimiter limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(entry("user-service", null));
+        }
+
+        // Act
+        limiter.setLimit("user-service", new IngestionProperties.Limit(0, 0));
+
+        // Assert
+        assertThat(limiter.tryAcquire(entry("user-service", null))).isTrue();
+        assertThat(limiter.getLimits()).containsKey("user-service");
+
+        limiter.removeLimit("user-service");
+        assertThat(limiter.tryAcquire(entry("user-service", null))).isFalse();
+        assertThat(limiter.getLimits()).isEmpty();
+    }
+
+    @Test
+    void shouldShareOverflowBucketWhenTableIsFullAndEvictIdleKeys() {
+        // Arrange
+        settings.setMaxKeys(2);
+        settings.setIdleTimeout(Duration.ofSeconds(10));
+        LogRateLimiter limiter = limiter();
+        limiter.acquire(entry("service-a", null));
+        limiter.acquire(entry("service-b", null));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(entry("service-" + i + "-extra", null));
+        }
+
+        // Assert
+        assertThat(limiter.getTrackedKeys()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(entry("service-c", null))).isFalse();
+
+        now += TimeUnit.SECONDS.toNanos(11);
+        assertThat(limiter.tryAcquire(entry("service-c", null))).isTrue();
+        assertThat(limiter.getEvicted()).isEqualTo(2);
+        assertThat(limiter.getTrackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAllowEverythingWhenDisabled() {
+        // Arrange
+        settings.setEnabled(false);
+        settings.setDefaultLimit(new IngestionProperties.Limit(1, 1));
+        LogRateLimiter limiter = limiter();
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(entry("user-service", null));
+        }
+        assertThat(limiter.getTrackedKeys()).isZero();
+    }
+
+    private LogRateLimiter limiter() {
+        return new LogRateLimiter(settings, () -> now);
+    }
+
+    private static LogEntryDTO entry(String service, String environment) {
+        return LogEntryDTO.builder()
+                .level("INFO")
+                .message("Test message")
+                .service(service)
+                .environment(environment)
+                .build();
+    }
+}
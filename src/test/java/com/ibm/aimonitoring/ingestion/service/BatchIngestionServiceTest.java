@@ -0,0 +1,80 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BatchIngestionService
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchIngestionServiceTest {
+
+    @Mock
+    private LogIngestionService logIngestionService;
+
+    private IngestionProperties ingestionProperties;
+
+    private BatchIngestionService batchIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        batchIngestionService = new BatchIngestionService(
+                logIngestionService,
+                new LogEntryValidator(Validation.buildDefaultValidatorFactory().getValidator(), ingestionProperties),
+                new LogRateLimiter(ingestionProperties));
+    }
+
+    @Test
+    void ingestEachShouldReportResultAtEachEntryIndex() {
+        // Arrange
+        LogEntryDTO first = entry("first");
+        LogEntryDTO invalid = LogEntryDTO.builder().level("INFO").service("svc").build();
+        LogEntryDTO last = entry("last");
+        when(logIngestionService.ingestBatch(List.of(first, last))).thenReturn(List.of("log-1", "log-2"));
+
+        // Act
+        List<BatchIngestionService.EntryResult> results =
+                batchIngestionService.ingestEach(List.of(first, invalid, last));
+
+        // Assert
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).logId()).isEqualTo("log-1");
+        assertThat(results.get(1).isAccepted()).isFalse();
+        assertThat(results.get(1).errors()).containsKey("message");
+        assertThat(results.get(2).logId()).isEqualTo("log-2");
+        verify(logIngestionService).ingestBatch(List.of(first, last));
+    }
+
+    @Test
+    void admitShouldReturnRejectedErrorsWhenOverRateLimit() {
+        // Arrange
+        ingestionProperties.getRateLimit().setEnabled(true);
+        ingestionProperties.getRateLimit().setDefaultLimit(new IngestionProperties.Limit(0.001, 1));
+        batchIngestionService = new BatchIngestionService(
+                logIngestionService,
+                new LogEntryValidator(Validation.buildDefaultValidatorFactory().getValidator(), ingestionProperties),
+                new LogRateLimiter(ingestionProperties));
+
+        // Act & Assert
+        assertThat(batchIngestionService.admit(entry("first"))).isEmpty();
+        assertThat(batchIngestionService.admit(entry("second"))).isEqualTo(LogRateLimiter.REJECTED_ERRORS);
+    }
+
+    private static LogEntryDTO entry(String message) {
+        return LogEntryDTO.builder().level("INFO").message(message).service("svc").build();
+    }
+}
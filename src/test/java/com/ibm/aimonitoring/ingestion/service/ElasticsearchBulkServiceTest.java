@@ -0,0 +1,224 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.BulkItemDTO;
+import com.ibm.aimonitoring.ingestion.dto.BulkResponseDTO;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.elasticsearch.BulkDocumentMapper;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ElasticsearchBulkService
+ */
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchBulkServiceTest {
+
+    private static final String INDEX_ACTION = "{\"index\":{\"_index\":\"filebeat-8.11.0\"}}";
+    private static final String DOCUMENT =
+            "{\"@timestamp\":\"2024-03-10T08:00:00.000Z\",\"message\":\"hello\",\"service\":{\"name\":\"svc\"}}";
+
+    @Mock
+    private LogIngestionService logIngestionService;
+
+    private IngestionProperties ingestionProperties;
+
+    private ElasticsearchBulkService elasticsearchBulkService;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        ingestionProperties.getElasticsearch().setChunkSize(2);
+        AtomicLong nextId = new AtomicLong();
+        lenient().when(logIngestionService.ingestBatch(anyList())).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(0)).stream().map(entry -> "id-" + nextId.getAndIncrement()).toList());
+        elasticsearchBulkService = newService();
+    }
+
+    @Test
+    void shouldPublishDocumentsInGroupsAndReportEachItem() throws Exception {
+        // Arrange
+        String body = String.join("\n",
+                INDEX_ACTION, DOCUMENT,
+                "{\"create\":{}}", DOCUMENT,
+                INDEX_ACTION, DOCUMENT) + "\n";
+
+        // Act
+        BulkResponseDTO response = elasticsearchBulkService.ingest(stream(body), "logs");
+
+        // Assert
+        assertThat(response.isErrors()).isFalse();
+        assertThat(response.getItems()).hasSize(3);
+        assertThat(response.getItems().get(0).get("index")).satisfies(item -> {
+            assertThat(item.getStatus()).isEqualTo(201);
+            assertThat(item.getResult()).isEqualTo("created");
+            assertThat(item.getId()).isEqualTo("id-0");
+            assertThat(item.getIndex()).isEqualTo("filebeat-8.11.0");
+        });
+        assertThat(response.getItems().get(1).get("create").getIndex()).isEqualTo("logs");
+        assertThat(response.getItems().get(2).get("index").getId()).isEqualTo("id-2");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LogEntryDTO>> groups = ArgumentCaptor.forClass(List.class);
+        verify(logIngestionService, times(2)).ingestBatch(groups.capture());
+        assertThat(groups.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(groups.getAllValues().get(0).get(0).getService()).isEqualTo("svc");
+    }
+
+    @Test
+    void shouldFailBadItemsWithoutStopping() throws Exception {
+        // Arrange
+        String body = String.join("\n",
+                INDEX_ACTION, "{ not json",
+                INDEX_ACTION, "{\"message\":\"\"}",
+                INDEX_ACTION, "{\"message\":\"m\",\"@timestamp\":\"yesterday\"}",
+                "{\"delete\":{\"_id\":\"1\"}}",
+                "{\"update\":{\"_id\":\"1\"}}", "{\"doc\":{}}",
+                INDEX_ACTION, DOCUMENT);
+
+        // Act
+        BulkResponseDTO response = elasticsearchBulkService.ingest(stream(body), null);
+
+        // Assert
+        assertThat(response.isErrors()).isTrue();
+        assertThat(response.getItems()).extracting(ElasticsearchBulkServiceTest::status)
+                .containsExactly(400, 400, 400, 400, 400, 201);
+        assertThat(response.getItems().get(0).get("index").getError())
+                .containsEntry("type", "document_parsing_exception");
+        assertThat(response.getItems().get(1).get("index").getError().get("reason")).contains("message");
+        assertThat(response.getItems().get(2).get("index").getError().get("reason")).contains("yesterday");
+        assertThat(response.getItems().get(3).get("delete").getError())
+                .containsEntry("type", "illegal_argument_exception");
+        assertThat(response.getItems().get(4)).containsKey("update");
+    }
+
+    @Test
+    void shouldAnswerRateLimitedAndOverloadedItemsWithRetryableStatus() throws Exception {
+        // Arrange
+        ingestionProperties.getRateLimit().setEnabled(true);
+        ingestionProperties.getRateLimit().setDefaultLimit(new IngestionProperties.Limit(0.001, 2));
+        elasticsearchBulkService = newService();
+        doThrow(new LogPublisher.PublisherOverloadedException("Publish buffer is full"))
+                .when(logIngestionService).ingestBatch(anyList());
+        String body = String.join("\n", INDEX_ACTION, DOCUMENT, INDEX_ACTION, DOCUMENT, INDEX_ACTION, DOCUMENT);
+
+        // Act
+        BulkResponseDTO response = elasticsearchBulkService.ingest(stream(body), null);
+
+        // Assert
+        assertThat(response.getItems()).extracting(ElasticsearchBulkServiceTest::status)
+                .containsExactly(429, 429, 429);
+        assertThat(response.getItems().get(0).get("index").getError())
+                .containsEntry("type", "es_rejected_execution_exception");
+        assertThat(response.getItems().get(2).get("index").getError().get("reason")).contains("Rate limit");
+    }
+
+    @Test
+    void shouldFailRequestOnMalformedAction() {
+        // Arrange
+        String body = String.join("\n", INDEX_ACTION, DOCUMENT, "{\"upsert\":{}}", DOCUMENT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> elasticsearchBulkService.ingest(stream(body), null))
+                .isInstanceOf(ElasticsearchBulkService.MalformedBulkRequestException.class)
+                .hasMessageContaining("line [3]");
+        assertThatThrownBy(() -> elasticsearchBulkService.ingest(stream(INDEX_ACTION + "\n"), null))
+                .isInstanceOf(ElasticsearchBulkService.MalformedBulkRequestException.class)
+                .hasMessageContaining("not followed by a source document");
+        assertThatThrownBy(() -> elasticsearchBulkService.ingest(stream("\n"), null))
+                .isInstanceOf(ElasticsearchBulkService.MalformedBulkRequestException.class)
+                .hasMessageContaining("no actions");
+    }
+
+    @Test
+    void shouldStreamLargeBodyInBoundedGroups() throws Exception {
+        // Arrange: about 50 MB of bulk lines, generated as they are read and never held whole;
+        // a stub-only mock, so published groups are not retained as recorded invocations
+        ingestionProperties.getElasticsearch().setChunkSize(500);
+        List<Integer> groupSizes = new ArrayList<>();
+        logIngestionService = mock(LogIngestionService.class, withSettings().stubOnly());
+        when(logIngestionService.ingestBatch(anyList())).thenAnswer(invocation -> {
+            List<?> group = invocation.getArgument(0);
+            groupSizes.add(group.size());
+            return Collections.nCopies(group.size(), "id");
+        });
+        elasticsearchBulkService = newService();
+        String message = "x".repeat(1_000);
+        byte[] pair = (INDEX_ACTION + "\n{\"message\":\"" + message + "\",\"service\":\"svc\"}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        int pairs = 50 * 1024 * 1024 / pair.length;
+        InputStream body = new InputStream() {
+            private long position;
+            private final long length = (long) pairs * pair.length;
+
+            @Override
+            public int read() {
+                return position < length ? pair[(int) (position++ % pair.length)] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int count) {
+                if (position >= length) {
+                    return -1;
+                }
+                int read = (int) Math.min(count, length - position);
+                for (int i = 0; i < read; i++) {
+                    buffer[offset + i] = pair[(int) (position++ % pair.length)];
+                }
+                return read;
+            }
+        };
+
+        // Act
+        BulkResponseDTO response = elasticsearchBulkService.ingest(body, null);
+
+        // Assert
+        assertThat(response.isErrors()).isFalse();
+        assertThat(response.getItems()).hasSize(pairs);
+        assertThat(groupSizes).hasSize((pairs + 499) / 500).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(500));
+    }
+
+    private ElasticsearchBulkService newService() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new ElasticsearchBulkService(
+                new BatchIngestionService(
+                        logIngestionService,
+                        new LogEntryValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                                ingestionProperties),
+                        new LogRateLimiter(ingestionProperties)),
+                new BulkDocumentMapper(ingestionProperties, objectMapper),
+                ingestionProperties,
+                objectMapper);
+    }
+
+    private static int status(Map<String, BulkItemDTO> item) {
+        return item.values().iterator().next().getStatus();
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
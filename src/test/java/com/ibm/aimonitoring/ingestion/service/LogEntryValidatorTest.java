@@ -0,0 +1,126 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for LogEntryValidator
+ */
+class LogEntryValidatorTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @ParameterizedTest
+    @EnumSource(IngestionProperties.ValidationMode.class)
+    void shouldReturnNoErrorsForValidEntry(IngestionProperties.ValidationMode mode) {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder()
+                .level("INFO")
+                .message("Test message")
+                .service("test-service")
+                .build();
+
+        // Act & Assert
+        assertThat(validator(mode).validate(logEntry)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionProperties.ValidationMode.class)
+    void shouldReturnFieldErrorsForInvalidEntry(IngestionProperties.ValidationMode mode) {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder()
+                .level("FATAL")
+                .service("s".repeat(101))
+                .build();
+
+        // Act
+        Map<String, String> errors = validator(mode).validate(logEntry);
+
+        // Assert
+        assertThat(errors)
+                .containsEntry("level", "Log level must be one of: ERROR, WARN, INFO, DEBUG, TRACE")
+                .containsEntry("message", "Message is required")
+                .containsEntry("service", "Service name must not exceed 100 characters");
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionProperties.ValidationMode.class)
+    void shouldRejectNullEntry(IngestionProperties.ValidationMode mode) {
+        // Act & Assert
+        assertThat(validator(mode).validate(null)).containsKey("entry");
+    }
+
+    @ParameterizedTest
+    @MethodSource("entries")
+    void compiledValidatorShouldMatchBeanValidation(LogEntryDTO logEntry) {
+        // Act
+        Map<String, String> compiled = validator(IngestionProperties.ValidationMode.COMPILED).validate(logEntry);
+        Map<String, String> beanValidation = validator(IngestionProperties.ValidationMode.BEAN_VALIDATION).validate(logEntry);
+
+        // Assert
+        assertThat(compiled).isEqualTo(beanValidation);
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionProperties.ValidationMode.class)
+    void requireValidShouldThrowWithFieldErrors(IngestionProperties.ValidationMode mode) {
+        // Arrange
+        LogEntryDTO logEntry = LogEntryDTO.builder().message("Test message").service("test-service").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> validator(mode).requireValid(logEntry))
+                .isInstanceOf(LogEntryValidator.InvalidLogEntryException.class)
+                .extracting("errors")
+                .isEqualTo(Map.of("level", "Log level is required"));
+    }
+
+    private static Stream<LogEntryDTO> entries() {
+        return Stream.of(
+                entry().build(),
+                entry().level(null).build(),
+                entry().level("info").build(),
+                entry().level("INFO ").build(),
+                entry().level("").build(),
+                entry().message(null).build(),
+                entry().message("").build(),
+                entry().message(" \t\n").build(),
+                entry().message("m".repeat(10000)).build(),
+                entry().message("m".repeat(10001)).build(),
+                entry().service("   ").build(),
+                entry().service("s".repeat(100)).build(),
+                entry().service("s".repeat(101)).build(),
+                entry().host("h".repeat(256)).build(),
+                entry().environment("e".repeat(101)).build(),
+                entry().traceId("t".repeat(101)).build(),
+                entry().spanId("s".repeat(101)).build(),
+                LogEntryDTO.builder().build());
+    }
+
+    private static LogEntryDTO.LogEntryDTOBuilder entry() {
+        return LogEntryDTO.builder()
+                .level("WARN")
+                .message("Test message")
+                .service("test-service")
+                .host("server-01")
+                .environment("production")
+                .traceId("trace")
+                .spanId("span");
+    }
+
+    private static LogEntryValidator validator(IngestionProperties.ValidationMode mode) {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getValidation().setMode(mode);
+        return new LogEntryValidator(VALIDATOR, properties);
+    }
+}
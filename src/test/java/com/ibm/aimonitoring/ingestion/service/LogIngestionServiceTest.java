@@ -1,19 +1,26 @@
 package com.ibm.aimonitoring.ingestion.service;
 
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
 import com.ibm.aimonitoring.ingestion.config.RabbitMQConfig;
 import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
 import com.ibm.aimonitoring.ingestion.dto.LogResponseDTO;
+import com.ibm.aimonitoring.ingestion.id.UuidV7LogIdGenerator;
+import com.ibm.aimonitoring.ingestion.publish.RabbitLogPublisher;
+import com.ibm.aimonitoring.ingestion.time.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,13 +37,18 @@ class LogIngestionServiceTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
-    @InjectMocks
     private LogIngestionService logIngestionService;
 
     private LogEntryDTO testLogEntry;
 
     @BeforeEach
     void setUp() {
+        logIngestionService = new LogIngestionService(
+                new RabbitLogPublisher(rabbitTemplate, new IngestionProperties(), new SimpleMeterRegistry()),
+                new UuidV7LogIdGenerator(),
+                new CoarseClock(Duration.ofMillis(1)),
+                new IngestionProperties());
+
         testLogEntry = LogEntryDTO.builder()
                 .timestamp(Instant.now())
                 .level("INFO")
@@ -83,6 +95,8 @@ class LogIngestionServiceTest {
 
         // Assert
         LogEntryDTO capturedLog = logCaptor.getValue();
+        assertThat(capturedLog.getLogId()).isNotBlank();
+        assertThat(capturedLog.getIngestedAt()).isPositive();
         assertThat(capturedLog.getMetadata()).isNotNull();
         assertThat(capturedLog.getMetadata()).containsKey("logId");
         assertThat(capturedLog.getMetadata()).containsKey("ingestedAt");
@@ -172,13 +186,86 @@ class LogIngestionServiceTest {
         doNothing().when(rabbitTemplate).convertAndSend(
                 anyString(), anyString(), logCaptor.capture());
 
+        // Act
+        LogResponseDTO response = logIngestionService.ingestLog(testLogEntry);
+
+        // Assert
+        LogEntryDTO capturedLog = logCaptor.getValue();
+        assertThat(capturedLog.getMetadata()).containsEntry("logId", response.getId());
+        assertThat(capturedLog.getMetadata()).containsEntry("ingestedAt",
+                Instant.ofEpochMilli(capturedLog.getIngestedAt()).toString());
+    }
+
+    @Test
+    void shouldNotAllocateMetadataWhenLegacyMetadataDisabled() {
+        // Arrange
+        IngestionProperties properties = new IngestionProperties();
+        properties.getEnrichment().setLegacyMetadata(false);
+        logIngestionService = new LogIngestionService(
+                new RabbitLogPublisher(rabbitTemplate, properties, new SimpleMeterRegistry()),
+                new UuidV7LogIdGenerator(),
+                new CoarseClock(Duration.ofMillis(1)),
+                properties);
+        testLogEntry.setMetadata(null);
+        ArgumentCaptor<LogEntryDTO> logCaptor = ArgumentCaptor.forClass(LogEntryDTO.class);
+        doNothing().when(rabbitTemplate).convertAndSend(
+                anyString(), anyString(), logCaptor.capture());
+
         // Act
         logIngestionService.ingestLog(testLogEntry);
 
         // Assert
         LogEntryDTO capturedLog = logCaptor.getValue();
-        assertThat(capturedLog.getMetadata()).isNotNull();
-        assertThat(capturedLog.getMetadata()).isNotEmpty();
+        assertThat(capturedLog.getMetadata()).isNull();
+        assertThat(capturedLog.getLogId()).isNotBlank();
+    }
+
+    @Test
+    void shouldIngestBatchOnSingleChannel() {
+        // Arrange
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitTemplate);
+        });
+        LogEntryDTO second = LogEntryDTO.builder()
+                .level("ERROR")
+                .message("Second message")
+                .service("test-service")
+                .build();
+
+        // Act
+        List<String> logIds = logIngestionService.ingestBatch(List.of(testLogEntry, second));
+
+        // Assert
+        assertThat(logIds).hasSize(2).doesNotHaveDuplicates();
+        assertThat(second.getLogId()).isEqualTo(logIds.get(1));
+        verify(rabbitTemplate, times(1)).invoke(any());
+        verify(rabbitTemplate, times(2)).convertAndSend(
+                eq(RabbitMQConfig.LOGS_EXCHANGE),
+                eq(RabbitMQConfig.LOGS_RAW_ROUTING_KEY),
+                any(LogEntryDTO.class)
+        );
+    }
+
+    @Test
+    void shouldSkipPublishingForEmptyBatch() {
+        // Act
+        List<String> logIds = logIngestionService.ingestBatch(List.of());
+
+        // Assert
+        assertThat(logIds).isEmpty();
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldFailBatchWhenPublishFails() {
+        // Arrange
+        when(rabbitTemplate.invoke(any())).thenThrow(new RuntimeException("RabbitMQ connection failed"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> logIngestionService.ingestBatch(List.of(testLogEntry)))
+                .isInstanceOf(LogIngestionService.LogIngestionException.class)
+                .hasMessageContaining("Failed to ingest log batch");
     }
 }
 
@@ -0,0 +1,197 @@
+package com.ibm.aimonitoring.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.dto.StreamResponseDTO;
+import com.ibm.aimonitoring.ingestion.ratelimit.LogRateLimiter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NdjsonIngestionService
+ */
+@ExtendWith(MockitoExtension.class)
+class NdjsonIngestionServiceTest {
+
+    private static final String VALID_LINE = "{\"level\":\"INFO\",\"message\":\"hello\",\"service\":\"svc\"}";
+
+    @Mock
+    private LogIngestionService logIngestionService;
+
+    private IngestionProperties ingestionProperties;
+
+    private NdjsonIngestionService ndjsonIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        ingestionProperties.getStream().setChunkSize(2);
+        ndjsonIngestionService = new NdjsonIngestionService(
+                new BatchIngestionService(
+                        logIngestionService,
+                        new LogEntryValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                                ingestionProperties),
+                        new LogRateLimiter(ingestionProperties)),
+                ingestionProperties,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void shouldPublishValidLinesInChunks() throws Exception {
+        // Arrange
+        String body = String.join("\n", VALID_LINE, VALID_LINE, VALID_LINE) + "\n";
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(stream(body));
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.getErrors()).isEmpty();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LogEntryDTO>> chunkCaptor = ArgumentCaptor.forClass(List.class);
+        verify(logIngestionService, times(2)).ingestBatch(chunkCaptor.capture());
+        assertThat(chunkCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void shouldReportMalformedAndInvalidLinesWithoutStopping() throws Exception {
+        // Arrange
+        String body = String.join("\r\n",
+                VALID_LINE,
+                "{ not json",
+                "{\"level\":\"NOPE\",\"message\":\"m\",\"service\":\"svc\"}",
+                "",
+                VALID_LINE);
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(stream(body));
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getErrors()).hasSize(2);
+        assertThat(response.getErrors().get(0).getIndex()).isEqualTo(1);
+        assertThat(response.getErrors().get(0).getErrors()).containsKey("line");
+        assertThat(response.getErrors().get(1).getIndex()).isEqualTo(2);
+        assertThat(response.getErrors().get(1).getErrors()).containsKey("level");
+    }
+
+    @Test
+    void shouldRejectLinesOverTheRateLimit() throws Exception {
+        // Arrange
+        ingestionProperties.getRateLimit().setEnabled(true);
+        ingestionProperties.getRateLimit().setDefaultLimit(new IngestionProperties.Limit(0.001, 2));
+        ndjsonIngestionService = new NdjsonIngestionService(
+                new BatchIngestionService(
+                        logIngestionService,
+                        new LogEntryValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                                ingestionProperties),
+                        new LogRateLimiter(ingestionProperties)),
+                ingestionProperties,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        String body = String.join("\n", VALID_LINE, VALID_LINE, VALID_LINE);
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(stream(body));
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors().get(0).getIndex()).isEqualTo(2);
+        assertThat(response.getErrors().get(0).getErrors()).isEqualTo(LogRateLimiter.REJECTED_ERRORS);
+    }
+
+    @Test
+    void shouldRejectOverlongLineAndContinue() throws Exception {
+        // Arrange
+        ingestionProperties.getStream().setMaxLineLength(100);
+        String longLine = "{\"level\":\"INFO\",\"message\":\"" + "x".repeat(20_000) + "\",\"service\":\"svc\"}";
+        String body = longLine + "\n" + VALID_LINE;
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(stream(body));
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors().get(0).getErrors().get("line")).contains("exceeds");
+    }
+
+    @Test
+    void shouldCapReportedErrors() throws Exception {
+        // Arrange
+        ingestionProperties.getStream().setMaxReportedErrors(3);
+        String body = String.join("\n", Collections.nCopies(10, "garbage"));
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(stream(body));
+
+        // Assert
+        assertThat(response.getRejected()).isEqualTo(10);
+        assertThat(response.getErrors()).hasSize(3);
+        verify(logIngestionService, never()).ingestBatch(anyList());
+    }
+
+    @Test
+    void shouldHandleLinesSpanningReadBuffers() throws Exception {
+        // Arrange
+        ingestionProperties.getStream().setChunkSize(1000);
+        InputStream body = new SequenceInputStream(Collections.enumeration(IntStream.range(0, 500)
+                .mapToObj(i -> stream(VALID_LINE + "\n"))
+                .toList()));
+
+        // Act
+        StreamResponseDTO response = ndjsonIngestionService.ingest(body);
+
+        // Assert
+        assertThat(response.getAccepted()).isEqualTo(500);
+        assertThat(response.getRejected()).isZero();
+    }
+
+    @Test
+    void shouldStopReadingAndReportProgressWhenPublishingFails() {
+        // Arrange
+        String body = String.join("\n", VALID_LINE, "garbage", VALID_LINE, VALID_LINE, VALID_LINE, VALID_LINE);
+        when(logIngestionService.ingestBatch(anyList()))
+                .thenReturn(List.of("id-0", "id-2"))
+                .thenThrow(new LogIngestionService.LogIngestionException("Failed to ingest batch",
+                        new IllegalStateException("broker down")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> ndjsonIngestionService.ingest(stream(body)))
+                .isInstanceOfSatisfying(NdjsonIngestionService.StreamInterruptedException.class, e -> {
+                    StreamResponseDTO response = e.getResponse();
+                    assertThat(response.getAccepted()).isEqualTo(2);
+                    assertThat(response.getRejected()).isEqualTo(1);
+                    assertThat(response.getFailedAtLine()).isEqualTo(3);
+                    assertThat(response.getFailure()).isEqualTo("Failed to ingest batch");
+                });
+        verify(logIngestionService, times(2)).ingestBatch(anyList());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
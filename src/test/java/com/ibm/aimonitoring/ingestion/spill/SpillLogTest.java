@@ -0,0 +1,238 @@
+package com.ibm.aimonitoring.ingestion.spill;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SpillLog
+ */
+class SpillLogTest {
+
+    @TempDir
+    Path directory;
+
+    private IngestionProperties.Spill settings;
+
+    private SpillLog spillLog;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Spill();
+        settings.setEnabled(true);
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSize(DataSize.ofKilobytes(4));
+        settings.setMaxDiskUsage(DataSize.ofKilobytes(64));
+        settings.setFsyncPolicy(IngestionProperties.FsyncPolicy.NEVER);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (spillLog != null) {
+            spillLog.close();
+        }
+    }
+
+    @Test
+    void shouldReplayEntriesInAppendOrder() throws IOException {
+        // Arrange
+        spillLog = open();
+        spillLog.appendAll(List.of(entry("a"), entry("b"), entry("c")));
+
+        // Act
+        SpillLog.SpillBatch first = spillLog.peek(2);
+        spillLog.commit(first);
+        SpillLog.SpillBatch second = spillLog.peek(2);
+
+        // Assert
+        assertThat(first.getEntries()).extracting(LogEntryDTO::getMessage).containsExactly("a", "b");
+        assertThat(second.getEntries()).extracting(LogEntryDTO::getMessage).containsExactly("c");
+        assertThat(spillLog.getPendingEntries()).isEqualTo(1);
+        assertThat(spillLog.getReplayedEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotConsumeEntriesOnPeek() throws IOException {
+        // Arrange
+        spillLog = open();
+        spillLog.appendAll(List.of(entry("a")));
+
+        // Act
+        spillLog.peek(10);
+        SpillLog.SpillBatch again = spillLog.peek(10);
+
+        // Assert
+        assertThat(again.getEntries()).extracting(LogEntryDTO::getMessage).containsExactly("a");
+        assertThat(spillLog.getPendingEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRollAndDeleteSegments() throws IOException {
+        // Arrange
+        spillLog = open();
+        spillLog.appendAll(entries(100));
+        int segmentsBefore = spillLog.getSegmentCount();
+
+        // Act
+        SpillLog.SpillBatch batch = spillLog.peek(100);
+        spillLog.commit(batch);
+
+        // Assert
+        assertThat(segmentsBefore).isGreaterThan(1);
+        assertThat(batch.getEntries()).hasSize(100);
+        assertThat(spillLog.getSegmentCount()).isEqualTo(1);
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(spillLog.getPendingEntries()).isZero();
+    }
+
+    @Test
+    void shouldRecoverUnreplayedEntriesAfterReopen() throws IOException {
+        // Arrange
+        spillLog = open();
+        spillLog.appendAll(List.of(entry("a"), entry("b"), entry("c")));
+        spillLog.commit(spillLog.peek(1));
+        spillLog.close();
+
+        // Act
+        spillLog = open();
+
+        // Assert
+        assertThat(spillLog.getPendingEntries()).isEqualTo(2);
+        assertThat(spillLog.peek(10).getEntries()).extracting(LogEntryDTO::getMessage)
+                .containsExactly("b", "c");
+    }
+
+    @Test
+    void shouldRefuseEntriesBeyondDiskBudget() throws IOException {
+        // Arrange
+        settings.setMaxDiskUsage(DataSize.ofKilobytes(8));
+        spillLog = open();
+
+        // Act & Assert
+        assertThatThrownBy(() -> spillLog.appendAll(entries(500)))
+                .isInstanceOf(SpillLog.SpillLogFullException.class);
+        assertThat(spillLog.getRefusedEntries()).isEqualTo(500);
+        assertThat(spillLog.getSegmentCount()).isZero();
+    }
+
+    @Test
+    void shouldWriteNothingWhenBudgetRunsOutMidBatch() throws IOException {
+        // Arrange
+        settings.setMaxDiskUsage(DataSize.ofKilobytes(8));
+        spillLog = open();
+        spillLog.appendAll(entries(5));
+
+        // Act: the first entries of this batch would still fit
+        assertThatThrownBy(() -> spillLog.appendAll(entries(500)))
+                .isInstanceOf(SpillLog.SpillLogFullException.class);
+
+        // Assert
+        assertThat(spillLog.getAppendedEntries()).isEqualTo(5);
+        assertThat(spillLog.getPendingEntries()).isEqualTo(5);
+        assertThat(spillLog.getSegmentCount()).isEqualTo(1);
+        assertThat(spillLog.peek(1000).getEntries()).hasSize(5);
+    }
+
+    @Test
+    void shouldWriteNothingWhenBatchHoldsOversizeEntry() throws IOException {
+        // Arrange
+        spillLog = open();
+        List<LogEntryDTO> batch = List.of(entry("a"), entry("x".repeat(8 * 1024)), entry("c"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> spillLog.appendAll(batch))
+                .isInstanceOf(SpillLog.SpillLogFullException.class)
+                .hasMessageContaining("exceeds the spill segment size");
+        assertThat(spillLog.getPendingEntries()).isZero();
+        assertThat(spillLog.peek(10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldKeepAcceptingEntriesOnSmallestBudget() throws IOException {
+        // Arrange
+        settings.setMaxDiskUsage(DataSize.ofKilobytes(8));
+        spillLog = open();
+
+        // Act: the rounds together spill far more than the budget holds
+        for (int round = 0; round < 40; round++) {
+            spillLog.appendAll(entries(5));
+            spillLog.commit(spillLog.peek(5));
+        }
+
+        // Assert
+        assertThat(spillLog.getReplayedEntries()).isEqualTo(200);
+        assertThat(spillLog.getRefusedEntries()).isZero();
+        assertThat(spillLog.getSegmentCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldRefuseBudgetOfFewerThanTwoSegments() {
+        // Arrange
+        settings.setMaxDiskUsage(DataSize.ofKilobytes(6));
+
+        // Act & Assert
+        assertThatThrownBy(this::open)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("at least two segments");
+    }
+
+    @Test
+    void shouldSkipCorruptedRecords() throws IOException {
+        // Arrange
+        spillLog = open();
+        spillLog.appendAll(List.of(entry("a"), entry("b")));
+        spillLog.close();
+        Path segment = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[SpillLog.HEADER_SIZE + 2] ^= 0x7f;
+        Files.write(segment, bytes);
+
+        // Act
+        spillLog = open();
+        SpillLog.SpillBatch batch = spillLog.peek(10);
+        spillLog.commit(batch);
+
+        // Assert
+        assertThat(batch.getEntries()).extracting(LogEntryDTO::getMessage).containsExactly("b");
+        assertThat(spillLog.getCorruptedEntries()).isEqualTo(1);
+        assertThat(spillLog.getPendingEntries()).isZero();
+    }
+
+    private SpillLog open() throws IOException {
+        return new SpillLog(settings, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<LogEntryDTO> entries(int count) {
+        List<LogEntryDTO> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(entry("message-" + i));
+        }
+        return entries;
+    }
+
+    private static LogEntryDTO entry(String message) {
+        return LogEntryDTO.builder().level("INFO").message(message).service("test-service").build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ibm.aimonitoring.ingestion.spill;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.publish.LogPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SpillReplayer
+ */
+@ExtendWith(MockitoExtension.class)
+class SpillReplayerTest {
+
+    @Mock
+    private SpillLog spillLog;
+
+    @Mock
+    private LogPublisher publisher;
+
+    @Mock
+    private SpillLog.SpillBatch batch;
+
+    private SpillReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        IngestionProperties.Spill settings = new IngestionProperties.Spill();
+        settings.setReplayBatchSize(50);
+        replayer = new SpillReplayer(spillLog, publisher, settings);
+    }
+
+    @Test
+    void shouldPublishAndCommitBatch() {
+        // Arrange
+        List<LogEntryDTO> entries = List.of(LogEntryDTO.builder().level("INFO").message("m").service("s").build());
+        when(spillLog.peek(50)).thenReturn(batch);
+        when(batch.isEmpty()).thenReturn(false);
+        when(batch.getEntries()).thenReturn(entries);
+        when(batch.size()).thenReturn(1);
+
+        // Act
+        int replayed = replayer.replayOnce();
+
+        // Assert
+        assertThat(replayed).isEqualTo(1);
+        verify(publisher).publishAll(entries);
+        verify(spillLog).commit(batch);
+    }
+
+    @Test
+    void shouldLeaveBatchInPlaceWhenPublishFails() {
+        // Arrange
+        List<LogEntryDTO> entries = List.of(LogEntryDTO.builder().level("INFO").message("m").service("s").build());
+        when(spillLog.peek(50)).thenReturn(batch);
+        when(batch.isEmpty()).thenReturn(false);
+        when(batch.getEntries()).thenReturn(entries);
+        doThrow(new RuntimeException("broker down")).when(publisher).publishAll(entries);
+
+        // Act & Assert
+        assertThatThrownBy(() -> replayer.replayOnce()).hasMessage("broker down");
+        verify(spillLog, never()).commit(any());
+    }
+
+    @Test
+    void shouldDoNothingWhenLogIsEmpty() {
+        // Arrange
+        when(spillLog.peek(50)).thenReturn(batch);
+        when(batch.isEmpty()).thenReturn(true);
+
+        // Act
+        int replayed = replayer.replayOnce();
+
+        // Assert
+        assertThat(replayed).isZero();
+        verifyNoInteractions(publisher);
+    }
+}
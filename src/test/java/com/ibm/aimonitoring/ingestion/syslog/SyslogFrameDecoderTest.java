@@ -0,0 +1,89 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyslogFrameDecoderTest {
+
+    private final SyslogFrameDecoder decoder = new SyslogFrameDecoder(32);
+    private final RecordingHandler handler = new RecordingHandler();
+
+    @Test
+    void shouldSplitOctetCountedAndNewlineFrames() {
+        // Act
+        feed("11 <13>1 - a b5 <13>x<14>plain line\r\n");
+
+        // Assert
+        assertThat(handler.frames).containsExactly("<13>1 - a b", "<13>x", "<14>plain line\r");
+    }
+
+    @Test
+    void shouldKeepPartialFrameUntilRestArrives() {
+        // Act
+        feed("11 <13>1 hel");
+        feed("lo<14>first");
+        feed(" half\n");
+
+        // Assert
+        assertThat(handler.frames).containsExactly("<13>1 hello", "<14>first half");
+    }
+
+    @Test
+    void shouldSkipOversizeFramesAndResume() {
+        // Act
+        feed("40 " + "x".repeat(20));
+        feed("x".repeat(20) + "3 abc");
+        feed("y".repeat(40));
+        feed("yy\nok\n");
+
+        // Assert
+        assertThat(handler.frames).containsExactly("abc", "ok");
+        assertThat(handler.oversize).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTreatDigitsWithoutSpaceAsNewlineFrame() {
+        // Act
+        feed("2024-03-10 backup done\n");
+        feed("123456789012 long number\n");
+
+        // Assert
+        assertThat(handler.frames).containsExactly("2024-03-10 backup done", "123456789012 long number");
+    }
+
+    @Test
+    void shouldHandOverUnterminatedFrameOnFinish() {
+        // Act
+        feed("<13>last words");
+        decoder.finish(handler);
+
+        // Assert
+        assertThat(handler.frames).containsExactly("<13>last words");
+    }
+
+    private void feed(String bytes) {
+        decoder.buffer().put(bytes.getBytes(StandardCharsets.UTF_8));
+        decoder.decode(handler);
+    }
+
+    private static final class RecordingHandler implements SyslogFrameDecoder.FrameHandler {
+
+        private final List<String> frames = new ArrayList<>();
+        private int oversize;
+
+        @Override
+        public void frame(byte[] buf, int offset, int length) {
+            frames.add(new String(buf, offset, length, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void oversize() {
+            oversize++;
+        }
+    }
+}
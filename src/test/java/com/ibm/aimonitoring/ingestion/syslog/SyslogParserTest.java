@@ -0,0 +1,133 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyslogParserTest {
+
+    private final SyslogParser parser = new SyslogParser("syslog", "production",
+            Clock.fixed(Instant.parse("2024-03-10T12:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void shouldParseRfc5424Message() {
+        // Arrange
+        String message = "<165>1 2024-03-10T08:14:15.003-02:00 router-7.example.com evntslog 8710 ID47 "
+                + "[exampleSDID@32473 iut=\"3\" eventSource=\"Application\"] \uFEFFAn application event";
+
+        // Act
+        LogEntryDTO entry = parse(message);
+
+        // Assert
+        assertThat(entry.getLevel()).isEqualTo("INFO");
+        assertThat(entry.getHost()).isEqualTo("router-7.example.com");
+        assertThat(entry.getService()).isEqualTo("evntslog");
+        assertThat(entry.getEnvironment()).isEqualTo("production");
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.parse("2024-03-10T10:14:15.003Z"));
+        assertThat(entry.getMessage()).isEqualTo("An application event");
+        assertThat(entry.getMetadata()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                SyslogParser.FACILITY, "local4",
+                SyslogParser.PROC_ID, "8710",
+                SyslogParser.MSG_ID, "ID47",
+                "exampleSDID@32473.iut", "3",
+                "exampleSDID@32473.eventSource", "Application"));
+    }
+
+    @Test
+    void shouldParseRfc5424MessageWithNilFields() {
+        // Act
+        LogEntryDTO entry = parse("<11>1 - - - - - - Disk failure\n");
+
+        // Assert
+        assertThat(entry.getLevel()).isEqualTo("ERROR");
+        assertThat(entry.getTimestamp()).isNull();
+        assertThat(entry.getHost()).isNull();
+        assertThat(entry.getService()).isEqualTo("syslog");
+        assertThat(entry.getMessage()).isEqualTo("Disk failure");
+        assertThat(entry.getMetadata()).containsOnly(Map.entry(SyslogParser.FACILITY, "user"));
+    }
+
+    @Test
+    void shouldUnescapeStructuredDataValues() {
+        // Act
+        LogEntryDTO entry = parse("<14>1 2024-03-10T08:00:00Z host app - - [meta quote=\"a\\\"b\\]c\"][other x=\"1\"]");
+
+        // Assert
+        assertThat(entry.getMetadata()).containsEntry("meta.quote", "a\"b]c").containsEntry("other.x", "1");
+        assertThat(entry.getMessage()).isEmpty();
+    }
+
+    @Test
+    void shouldParseRfc3164Message() {
+        // Act
+        LogEntryDTO entry = parse("<28>Mar  9 22:14:15 mymachine sshd[4123]: Failed password for root");
+
+        // Assert
+        assertThat(entry.getLevel()).isEqualTo("WARN");
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.parse("2024-03-09T22:14:15Z"));
+        assertThat(entry.getHost()).isEqualTo("mymachine");
+        assertThat(entry.getService()).isEqualTo("sshd");
+        assertThat(entry.getMessage()).isEqualTo("Failed password for root");
+        assertThat(entry.getMetadata()).containsEntry(SyslogParser.FACILITY, "daemon")
+                .containsEntry(SyslogParser.PROC_ID, "4123");
+    }
+
+    @Test
+    void shouldPlaceRfc3164TimestampInPreviousYearWhenInFuture() {
+        // Act
+        LogEntryDTO entry = parse("<30>Dec 31 23:59:59 host cron: job done");
+
+        // Assert
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.parse("2023-12-31T23:59:59Z"));
+        assertThat(entry.getLevel()).isEqualTo("INFO");
+    }
+
+    @Test
+    void shouldTreatUnstructuredTextAsMessage() {
+        // Act
+        LogEntryDTO noPri = parse("kernel: eth0 link up");
+        LogEntryDTO noHeader = parse("<15>free text without a header");
+
+        // Assert
+        assertThat(noPri.getLevel()).isEqualTo("INFO");
+        assertThat(noPri.getService()).isEqualTo("kernel");
+        assertThat(noPri.getMessage()).isEqualTo("eth0 link up");
+        assertThat(noHeader.getLevel()).isEqualTo("DEBUG");
+        assertThat(noHeader.getService()).isEqualTo("syslog");
+        assertThat(noHeader.getMessage()).isEqualTo("free text without a header");
+    }
+
+    @Test
+    void shouldParseFrameInsideLargerBuffer() {
+        // Arrange
+        byte[] buf = "xxxx<13>1 - host app - - - hello\r\nyyyy".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        LogEntryDTO entry = parser.parse(buf, 4, buf.length - 8);
+
+        // Assert
+        assertThat(entry.getHost()).isEqualTo("host");
+        assertThat(entry.getMessage()).isEqualTo("hello");
+    }
+
+    @Test
+    void shouldRejectInvalidPri() {
+        // Act & Assert
+        assertThat(parse("<192>1 - - - - - - too high")).isNull();
+        assertThat(parse("<>1 - - - - - - empty")).isNull();
+        assertThat(parse("<12 unterminated")).isNull();
+        assertThat(parse("\n")).isNull();
+    }
+
+    private LogEntryDTO parse(String message) {
+        byte[] buf = message.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(buf, 0, buf.length);
+    }
+}
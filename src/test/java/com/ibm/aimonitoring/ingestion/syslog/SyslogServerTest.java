@@ -0,0 +1,201 @@
+package com.ibm.aimonitoring.ingestion.syslog;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import com.ibm.aimonitoring.ingestion.dto.LogEntryDTO;
+import com.ibm.aimonitoring.ingestion.service.BatchIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SyslogServer, over loopback sockets
+ */
+class SyslogServerTest {
+
+    private IngestionProperties.Syslog settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BatchIngestionService batchIngestionService;
+
+    private List<LogEntryDTO> published;
+
+    private SyslogServer server;
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Syslog();
+        settings.setBindAddress("127.0.0.1");
+        settings.setPort(0);
+        settings.setMaxFrameLength(DataSize.ofKilobytes(1));
+        settings.setBatchSize(16);
+        meterRegistry = new SimpleMeterRegistry();
+        published = new CopyOnWriteArrayList<>();
+        batchIngestionService = mock(BatchIngestionService.class);
+        when(batchIngestionService.ingest(anyList())).thenAnswer(invocation -> {
+            List<LogEntryDTO> batch = invocation.getArgument(0);
+            published.addAll(batch);
+            return new BatchIngestionService.IngestResult(batch.size(), 0, null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void shouldIngestUdpDatagramsAndTcpFrames() throws Exception {
+        // Arrange
+        startServer();
+
+        // Act
+        sendUdp("<11>1 2024-03-10T08:00:00Z db-1 postgres - - - checkpoint failed");
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getTcpPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(octetCounted("<14>1 - web-1 nginx - - - GET /health"));
+            out.write("<12>Mar 10 08:00:00 fw-1 iptables: DROP IN=eth0\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        // Assert
+        awaitUntil(() -> published.size() == 3);
+        assertThat(published).extracting(LogEntryDTO::getService)
+                .containsExactlyInAnyOrder("postgres", "nginx", "iptables");
+        assertThat(published).extracting(LogEntryDTO::getHost)
+                .containsExactlyInAnyOrder("db-1", "web-1", "fw-1");
+        assertThat(counter("ingestion.syslog.received", "transport", "udp")).isEqualTo(1);
+        assertThat(counter("ingestion.syslog.received", "transport", "tcp")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldUseSenderAddressWhenHostnameMissing() throws Exception {
+        // Arrange
+        startServer();
+
+        // Act
+        sendUdp("<13>plain message");
+
+        // Assert
+        awaitUntil(() -> published.size() == 1);
+        assertThat(published.get(0).getHost()).isEqualTo("127.0.0.1");
+        assertThat(published.get(0).getService()).isEqualTo("syslog");
+    }
+
+    @Test
+    void shouldCountMalformedAndOversizeMessagesAsDropped() throws Exception {
+        // Arrange
+        startServer();
+
+        // Act
+        sendUdp("<999>bad pri");
+        sendUdp("<13>" + "x".repeat(2000));
+        sendUdp("<13>fine");
+
+        // Assert
+        awaitUntil(() -> published.size() == 1);
+        awaitUntil(() -> counter("ingestion.syslog.dropped", "reason", "oversize") == 1);
+        assertThat(counter("ingestion.syslog.dropped", "reason", "malformed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropEntriesWhenBufferIsFull() throws Exception {
+        // Arrange
+        settings.setBufferCapacity(2);
+        settings.setBatchSize(1);
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(batchIngestionService.ingest(anyList())).thenAnswer(invocation -> {
+            publishing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            List<LogEntryDTO> batch = invocation.getArgument(0);
+            published.addAll(batch);
+            return new BatchIngestionService.IngestResult(batch.size(), 0, null);
+        });
+        startServer();
+        sendUdp("<13>first");
+        assertThat(publishing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            sendUdp("<13>message " + i);
+        }
+        awaitUntil(() -> counter("ingestion.syslog.received", "transport", "udp") == 11);
+        release.countDown();
+
+        // Assert
+        awaitUntil(() -> published.size() == 3);
+        assertThat(counter("ingestion.syslog.dropped", "reason", "buffer_full")).isEqualTo(8);
+    }
+
+    @Test
+    void shouldCountRejectedAndFailedPublishesAsDropped() throws Exception {
+        // Arrange
+        when(batchIngestionService.ingest(anyList()))
+                .thenReturn(new BatchIngestionService.IngestResult(0, 1, "Log record 0 rejected"))
+                .thenThrow(new IllegalStateException("broker down"));
+        startServer();
+
+        // Act
+        sendUdp("<13>rejected");
+        awaitUntil(() -> counter("ingestion.syslog.dropped", "reason", "rejected") == 1);
+        sendUdp("<13>failed");
+
+        // Assert
+        awaitUntil(() -> counter("ingestion.syslog.dropped", "reason", "publish_failed") == 1);
+    }
+
+    private void startServer() {
+        server = new SyslogServer(settings, new SyslogParser("syslog", null, Clock.systemUTC()),
+                batchIngestionService, meterRegistry);
+        server.start();
+    }
+
+    private void sendUdp(String message) throws Exception {
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.send(new DatagramPacket(data, data.length, InetAddress.getLoopbackAddress(), server.getUdpPort()));
+        }
+    }
+
+    private static byte[] octetCounted(String message) {
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        return (data.length + " " + message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private double counter(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ibm.aimonitoring.ingestion.template;
+
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrainTemplateMinerTest {
+
+    private DrainTemplateMiner miner(int maxTemplates) {
+        IngestionProperties.Templates settings = new IngestionProperties.Templates();
+        settings.setMaxTemplates(maxTemplates);
+        return new DrainTemplateMiner(settings);
+    }
+
+    @Test
+    void shouldMatchMessagesDifferingInNumbersToOneTemplate() {
+        // Arrange
+        DrainTemplateMiner miner = miner(100);
+
+        // Act
+        DrainTemplateMiner.Match first = miner.match("Connected to db-1 in 15 ms");
+        DrainTemplateMiner.Match second = miner.match("Connected to db-2 in 230 ms");
+
+        // Assert
+        assertThat(second.templateId()).isEqualTo(first.templateId());
+        assertThat(first.parameters()).containsExactly("db-1", "15");
+        assertThat(second.parameters()).containsExactly("db-2", "230");
+        assertThat(miner.getTemplates(10)).singleElement()
+                .satisfies(template -> {
+                    assertThat(template.template()).isEqualTo("Connected to <*> in <*> ms");
+                    assertThat(template.count()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void shouldGeneralizeDifferingWordsAndKeepTemplateId() {
+        // Arrange
+        DrainTemplateMiner miner = miner(100);
+        String id = miner.match("Session opened for user alice").templateId();
+
+        // Act
+        DrainTemplateMiner.Match match = miner.match("Session opened for user bob");
+
+        // Assert
+        assertThat(match.templateId()).isEqualTo(id);
+        assertThat(match.parameters()).containsExactly("bob");
+        assertThat(miner.getTemplates(10).get(0).template()).isEqualTo("Session opened for user <*>");
+    }
+
+    @Test
+    void shouldSeparateDissimilarMessages() {
+        // Arrange
+        DrainTemplateMiner miner = miner(100);
+
+        // Act
+        String first = miner.match("Cache warmed with all entries").templateId();
+        String second = miner.match("Cache evicted three stale keys").templateId();
+        String shorter = miner.match("Cache warmed").templateId();
+
+        // Assert
+        assertThat(Set.of(first, second, shorter)).hasSize(3);
+        assertThat(miner.getTemplateCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldIgnoreBlankMessages() {
+        // Arrange
+        DrainTemplateMiner miner = miner(100);
+
+        // Act & Assert
+        assertThat(miner.match(null)).isNull();
+        assertThat(miner.match("   ")).isNull();
+        assertThat(miner.getTemplateCount()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyMatchedTemplatesBeyondLimit() {
+        // Arrange
+        DrainTemplateMiner miner = miner(16);
+        String kept = miner.match("keep this template alive").templateId();
+
+        // Act
+        for (int i = 0; i < 40; i++) {
+            miner.match("distinct" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + " message body");
+            miner.match("keep this template alive");
+        }
+
+        // Assert
+        assertThat(miner.getTemplateCount()).isLessThanOrEqualTo(16);
+        assertThat(miner.getEvicted()).isPositive();
+        assertThat(miner.getTemplates(100)).extracting(DrainTemplateMiner.TemplateSummary::id).contains(kept);
+    }
+
+    @Test
+    void shouldMatchConsistentlyUnderConcurrency() throws Exception {
+        // Arrange
+        DrainTemplateMiner miner = miner(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    ids.add(miner.match("Request " + (thread * 2000 + i) + " served in " + i + " ms").templateId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(ids).hasSize(1);
+        assertThat(miner.getTemplates(1).get(0).count()).isEqualTo(8000);
+    }
+}
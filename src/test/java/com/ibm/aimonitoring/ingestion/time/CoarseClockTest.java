@@ -0,0 +1,70 @@
+package com.ibm.aimonitoring.ingestion.time;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CoarseClock
+ */
+class CoarseClockTest {
+
+    private final CoarseClock clock = new CoarseClock(Duration.ofMillis(1));
+
+    @AfterEach
+    void tearDown() {
+        clock.stop();
+    }
+
+    @Test
+    void shouldReadSystemClockWhenNotRunning() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        long millis = clock.millis();
+        Instant instant = clock.instant();
+
+        // Assert
+        long after = System.currentTimeMillis();
+        assertThat(millis).isBetween(before, after);
+        assertThat(instant.toEpochMilli()).isBetween(before, after);
+        assertThat(clock.isRunning()).isFalse();
+    }
+
+    @Test
+    void shouldAdvanceWhileRunning() throws InterruptedException {
+        // Arrange
+        clock.start();
+        Instant first = clock.instant();
+
+        // Act
+        Thread.sleep(50);
+        Instant later = clock.instant();
+
+        // Assert
+        assertThat(later).isAfter(first);
+        assertThat(clock.millis()).isGreaterThanOrEqualTo(later.toEpochMilli());
+        assertThat(later.toEpochMilli()).isLessThanOrEqualTo(System.currentTimeMillis());
+    }
+
+    @Test
+    void shouldFallBackToSystemClockAfterStop() throws InterruptedException {
+        // Arrange
+        clock.start();
+        clock.stop();
+        Thread.sleep(5);
+        long before = System.currentTimeMillis();
+
+        // Act
+        long millis = clock.millis();
+
+        // Assert
+        assertThat(millis).isGreaterThanOrEqualTo(before);
+        assertThat(clock.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,188 @@
+package com.ibm.aimonitoring.ingestion.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.aimonitoring.ingestion.codec.CompressionCodec;
+import com.ibm.aimonitoring.ingestion.config.IngestionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for RequestDecompressionFilter
+ */
+class RequestDecompressionFilterTest {
+
+    private static final String BODY = "{\"level\":\"INFO\",\"message\":\"Test log message\",\"service\":\"test-service\"}";
+
+    private IngestionProperties.Decompression settings;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestDecompressionFilter filter;
+
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    private final AtomicReference<String> receivedEncoding = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        settings = new IngestionProperties.Decompression();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestDecompressionFilter(settings, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void shouldDecompressGzipBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("gzip",
+                compress(CompressionCodec.GZIP, BODY.getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new RecordingServlet()));
+
+        // Assert
+        assertThat(receivedBody.get()).isEqualTo(BODY);
+        assertThat(receivedEncoding.get()).isNull();
+        assertThat(meterRegistry.get("ingestion.request.decompression.bytes.expanded")
+                .tag("encoding", "gzip").counter().count()).isEqualTo(BODY.length());
+    }
+
+    @Test
+    void shouldDecompressZstdBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("zstd",
+                compress(CompressionCodec.ZSTD, BODY.getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new RecordingServlet()));
+
+        // Assert
+        assertThat(receivedBody.get()).isEqualTo(BODY);
+    }
+
+    @Test
+    void shouldPassThroughUncompressedBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(null, BODY.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new RecordingServlet()));
+
+        // Assert
+        assertThat(receivedBody.get()).isEqualTo(BODY);
+    }
+
+    @Test
+    void shouldRejectUnsupportedEncoding() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("br", new byte[]{1, 2, 3});
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain(new RecordingServlet()));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(415);
+        assertThat(response.getContentAsString()).contains("Unsupported Content-Encoding");
+        assertThat(receivedBody.get()).isNull();
+    }
+
+    @Test
+    void shouldStopBodyThatExceedsRatio() throws Exception {
+        // Arrange
+        byte[] bomb = compress(CompressionCodec.GZIP, new byte[10 * 1024 * 1024]);
+        MockHttpServletRequest request = request("gzip", bomb);
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new RecordingServlet())))
+                .isInstanceOf(RequestDecompressionFilter.DecompressionLimitExceededException.class)
+                .hasMessageContaining("expands more than 100 times");
+        assertThat(meterRegistry.get("ingestion.request.decompression.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStopBodyThatExceedsExpandedSize() throws Exception {
+        // Arrange
+        settings.setMaxExpandedSize(DataSize.ofBytes(16));
+        MockHttpServletRequest request = request("deflate",
+                compress(CompressionCodec.DEFLATE, BODY.getBytes(StandardCharsets.UTF_8)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new RecordingServlet())))
+                .isInstanceOf(RequestDecompressionFilter.DecompressionLimitExceededException.class)
+                .hasMessageContaining("exceeds 16 bytes");
+    }
+
+    @Test
+    void shouldReportCorruptGzipHeaderAsDecodingFailure() {
+        // Arrange
+        MockHttpServletRequest request = request("gzip", BODY.getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new RecordingServlet())))
+                .isInstanceOf(RequestDecompressionFilter.DecompressionFailedException.class)
+                .hasMessageContaining("not valid gzip");
+    }
+
+    @Test
+    void shouldReportTruncatedBodyAsDecodingFailure() throws Exception {
+        // Arrange
+        byte[] compressed = compress(CompressionCodec.DEFLATE, BODY.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest request = request("deflate", Arrays.copyOf(compressed, compressed.length / 2));
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new RecordingServlet())))
+                .isInstanceOf(RequestDecompressionFilter.DecompressionFailedException.class)
+                .hasMessageContaining("not valid deflate");
+    }
+
+    private static MockHttpServletRequest request(String contentEncoding, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/logs");
+        request.setContentType("application/json");
+        if (contentEncoding != null) {
+            request.addHeader("Content-Encoding", contentEncoding);
+        }
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] compress(CompressionCodec codec, byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = codec.compress(buffer, codec.getDefaultLevel())) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Servlet that records the body and encoding header it was handed
+     */
+    private class RecordingServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            receivedEncoding.set(request.getHeader("Content-Encoding"));
+            receivedBody.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}